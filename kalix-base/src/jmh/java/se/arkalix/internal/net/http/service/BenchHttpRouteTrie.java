@@ -0,0 +1,99 @@
+package se.arkalix.internal.net.http.service;
+
+import org.openjdk.jmh.annotations.*;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.net.http.service.HttpPattern;
+import se.arkalix.net.http.service.HttpRoute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding the most specialized matching route via a linear scan of
+ * all routes, as done before route tries were introduced, with finding it via
+ * a {@link HttpRouteTrie}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchHttpRouteTrie {
+    @Param({"10", "100", "1000"})
+    private int nRoutes;
+
+    private HttpRoute[] routes;
+    private HttpRouteTrie trie;
+    private String[] paths;
+    private int pathIndex = 0;
+
+    @Setup
+    public void setup() {
+        final var routes = new ArrayList<HttpRoute>(nRoutes);
+        for (var i = 0; i < nRoutes; ++i) {
+            final String pattern;
+            switch (i % 4) {
+            case 0: pattern = "/service-" + i + "/items"; break;
+            case 1: pattern = "/service-" + i + "/items/#id"; break;
+            case 2: pattern = "/service-" + i + "/items/#id/parts/#part"; break;
+            default: pattern = "/service-" + i + "/files/>"; break;
+            }
+            routes.add(new HttpRoute(i % 2 == 0 ? HttpMethod.GET : null, HttpPattern.valueOf(pattern), null));
+        }
+        routes.sort(HttpRoutables::compare);
+
+        this.routes = routes.toArray(new HttpRoute[0]);
+        this.trie = new HttpRouteTrie(routes);
+
+        paths = new String[]{
+            "/service-0/items",
+            "/service-" + (nRoutes - 3) + "/items/42",
+            "/service-" + (nRoutes / 2 + 2 - (nRoutes / 2) % 4) + "/items/42/parts/7",
+            "/service-" + (nRoutes - 1) + "/files/some/file.txt",
+            "/no-such-service/items",
+        };
+    }
+
+    private String nextPath() {
+        final var path = paths[pathIndex];
+        pathIndex = (pathIndex + 1) % paths.length;
+        return path;
+    }
+
+    @Benchmark
+    public HttpRoute linear() {
+        final var path = nextPath();
+        final List<String> parameters = new ArrayList<>(2);
+        for (final var route : routes) {
+            if (isMatch(route, path, parameters)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public HttpRoute trie() {
+        final var path = nextPath();
+        final List<String> parameters = new ArrayList<>(2);
+        final var candidates = trie.candidatesFor(HttpMethod.GET, path, 0);
+        for (var i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            final var route = routes[i];
+            if (isMatch(route, path, parameters)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isMatch(final HttpRoute route, final String path, final List<String> parameters) {
+        final var method = route.method().orElse(null);
+        if (method != null && method != HttpMethod.GET) {
+            return false;
+        }
+        final var pattern = route.pattern().orElse(null);
+        return pattern == null || pattern.match(path, 0, parameters);
+    }
+}
@@ -0,0 +1,69 @@
+package se.arkalix.internal.util.concurrent;
+
+import org.openjdk.jmh.annotations.*;
+import se.arkalix.internal.util.concurrent.ElasticScheduledExecutor.RejectionPolicy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time it takes to execute batches of blocking tasks, each of
+ * which sleeps for one millisecond, using the {@link
+ * Executors#newScheduledThreadPool(int) scheduled thread pool} without core
+ * threads that used to back the dynamic scheduler, which never uses more
+ * than one thread, with using an {@link ElasticScheduledExecutor}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchDynamicScheduler {
+    @Param({"1", "8", "64"})
+    private int nTasks;
+
+    private ExecutorService elastic;
+    private ExecutorService legacy;
+
+    @Setup
+    public void setup() {
+        elastic = new ElasticScheduledExecutor(0, 256, 60_000, 16 * 1024, RejectionPolicy.ABORT,
+            Executors.defaultThreadFactory(), Executors.defaultThreadFactory());
+        legacy = Executors.newScheduledThreadPool(0);
+    }
+
+    @TearDown
+    public void teardown() {
+        elastic.shutdownNow();
+        legacy.shutdownNow();
+    }
+
+    @Benchmark
+    public void elastic() throws InterruptedException {
+        executeBatch(elastic);
+    }
+
+    @Benchmark
+    public void legacy() throws InterruptedException {
+        executeBatch(legacy);
+    }
+
+    private void executeBatch(final ExecutorService executor) throws InterruptedException {
+        final var latch = new CountDownLatch(nTasks);
+        for (var i = 0; i < nTasks; ++i) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(1);
+                }
+                catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                latch.countDown();
+            });
+        }
+        latch.await();
+    }
+}
@@ -0,0 +1,136 @@
+package se.arkalix.net.http.service;
+
+import org.openjdk.jmh.annotations.*;
+import se.arkalix.ArSystem;
+import se.arkalix.net.http.HttpStatus;
+import se.arkalix.security.access.AccessPolicy;
+import se.arkalix.util.concurrent.Future;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static se.arkalix.descriptor.EncodingDescriptor.JSON;
+
+/**
+ * Compares the time it takes to send batches of requests over a single
+ * HTTP/1.1 connection and receive their responses, either by waiting for the
+ * response of each request before sending the next, or by sending all
+ * requests of a batch at once and then receiving all of their responses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchHttpPipelining {
+    private static final byte[] REQUEST = ("" +
+        "GET /bench/ping HTTP/1.1\r\n" +
+        "Host: localhost\r\n" +
+        "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+
+    @Param({"4", "16", "64"})
+    private int nRequests;
+
+    private ArSystem system;
+    private Socket socket;
+    private InputStream input;
+    private OutputStream output;
+    private byte[] batch;
+
+    @Setup
+    public void setup() throws Exception {
+        system = new ArSystem.Builder()
+            .name("bench-system")
+            .localAddressPort(InetAddress.getLoopbackAddress(), freePort())
+            .insecure()
+            .build();
+
+        system.provide(new HttpService()
+            .name("bench")
+            .basePath("/bench")
+            .accessPolicy(AccessPolicy.unrestricted())
+            .encodings(JSON)
+            .get("/ping", (request, response) -> {
+                response.status(HttpStatus.OK).body("pong");
+                return Future.done();
+            }))
+            .await(Duration.ofSeconds(10));
+
+        socket = new Socket(InetAddress.getLoopbackAddress(), system.localPort());
+        socket.setTcpNoDelay(true);
+        input = new BufferedInputStream(socket.getInputStream());
+        output = socket.getOutputStream();
+
+        batch = new byte[REQUEST.length * nRequests];
+        for (var i = 0; i < nRequests; ++i) {
+            System.arraycopy(REQUEST, 0, batch, i * REQUEST.length, REQUEST.length);
+        }
+    }
+
+    @TearDown
+    public void teardown() throws Exception {
+        socket.close();
+        system.shutdown().await(Duration.ofSeconds(10));
+    }
+
+    @Benchmark
+    public void sequential() throws IOException {
+        for (var i = 0; i < nRequests; ++i) {
+            output.write(REQUEST);
+            output.flush();
+            readResponse();
+        }
+    }
+
+    @Benchmark
+    public void pipelined() throws IOException {
+        output.write(batch);
+        output.flush();
+        for (var i = 0; i < nRequests; ++i) {
+            readResponse();
+        }
+    }
+
+    private void readResponse() throws IOException {
+        var contentLength = 0;
+        final var line = new StringBuilder();
+        while (true) {
+            final var b = input.read();
+            if (b == -1) {
+                throw new IOException("Connection closed");
+            }
+            if (b != '\n') {
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+                continue;
+            }
+            if (line.length() == 0) {
+                break;
+            }
+            if (line.toString().regionMatches(true, 0, "content-length:", 0, 15)) {
+                contentLength = Integer.parseInt(line.substring(15).trim());
+            }
+            line.setLength(0);
+        }
+        final var skipped = input.readNBytes(contentLength).length;
+        if (skipped != contentLength) {
+            throw new IOException("Connection closed");
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (final var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
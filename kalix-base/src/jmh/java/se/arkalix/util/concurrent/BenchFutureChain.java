@@ -0,0 +1,143 @@
+package se.arkalix.util.concurrent;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import se.arkalix.internal.util.concurrent.FutureCompletion;
+import se.arkalix.util.Result;
+import se.arkalix.util.function.ThrowingFunction;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Compares creating, completing and consuming chains of {@link
+ * Future#map(ThrowingFunction) mapped} futures with the current completion
+ * and mapping implementations, and with the synchronized completion and
+ * anonymous mapping wrappers used before them.
+ * <p>
+ * Run with {@code -prof gc} to also compare allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchFutureChain {
+    @Param({"1", "10"})
+    private int nStages;
+
+    private static final ThrowingFunction<Integer, Integer> increment = value -> value + 1;
+
+    @Benchmark
+    public void currentCompletedBeforeChained(final Blackhole blackhole) {
+        final var completion = new FutureCompletion<Integer>();
+        completion.complete(Result.success(0));
+        Future<Integer> future = completion;
+        for (var i = 0; i < nStages; ++i) {
+            future = future.map(increment);
+        }
+        future.onResult(blackhole::consume);
+    }
+
+    @Benchmark
+    public void currentCompletedAfterChained(final Blackhole blackhole) {
+        final var completion = new FutureCompletion<Integer>();
+        Future<Integer> future = completion;
+        for (var i = 0; i < nStages; ++i) {
+            future = future.map(increment);
+        }
+        future.onResult(blackhole::consume);
+        completion.complete(Result.success(0));
+    }
+
+    @Benchmark
+    public void legacyCompletedBeforeChained(final Blackhole blackhole) {
+        final var completion = new LegacyCompletion<Integer>();
+        completion.complete(Result.success(0));
+        Future<Integer> future = completion;
+        for (var i = 0; i < nStages; ++i) {
+            future = legacyMap(future, increment);
+        }
+        future.onResult(blackhole::consume);
+    }
+
+    @Benchmark
+    public void legacyCompletedAfterChained(final Blackhole blackhole) {
+        final var completion = new LegacyCompletion<Integer>();
+        Future<Integer> future = completion;
+        for (var i = 0; i < nStages; ++i) {
+            future = legacyMap(future, increment);
+        }
+        future.onResult(blackhole::consume);
+        completion.complete(Result.success(0));
+    }
+
+    private static <V, U> Future<U> legacyMap(final Future<V> source, final ThrowingFunction<? super V, U> mapper) {
+        return new Future<>() {
+            @Override
+            public void onResult(final Consumer<Result<U>> consumer) {
+                source.onResult(result0 -> {
+                    Result<U> result1;
+                    if (result0.isSuccess()) {
+                        try {
+                            result1 = Result.success(mapper.apply(result0.value()));
+                        }
+                        catch (final Throwable throwable) {
+                            result1 = Result.failure(throwable);
+                        }
+                    }
+                    else {
+                        result1 = Result.failure(result0.fault());
+                    }
+                    consumer.accept(result1);
+                });
+            }
+
+            @Override
+            public void cancel(final boolean mayInterruptIfRunning) {
+                source.cancel(mayInterruptIfRunning);
+            }
+        };
+    }
+
+    private static class LegacyCompletion<V> implements Future<V> {
+        private Consumer<Result<V>> consumer = null;
+        private Result<V> result = null;
+
+        private boolean isCancelled = false;
+        private boolean isCompleted = false;
+
+        public synchronized void complete(final Result<V> result) {
+            if (isCompleted) {
+                throw new IllegalStateException("Already completed");
+            }
+            if (consumer != null) {
+                consumer.accept(result);
+                consumer = null;
+            }
+            else if (!isCancelled) {
+                this.result = result;
+            }
+            isCompleted = true;
+        }
+
+        @Override
+        public synchronized void onResult(final Consumer<Result<V>> consumer) {
+            if (result != null) {
+                consumer.accept(result);
+                result = null;
+            }
+            else if (!isCancelled) {
+                this.consumer = consumer;
+            }
+        }
+
+        @Override
+        public synchronized void cancel(final boolean mayInterruptIfRunning) {
+            consumer = null;
+            result = null;
+            isCancelled = true;
+        }
+    }
+}
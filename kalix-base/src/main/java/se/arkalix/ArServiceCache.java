@@ -2,28 +2,55 @@ package se.arkalix;
 
 import se.arkalix.description.ServiceDescription;
 import se.arkalix.descriptor.InterfaceDescriptor;
+import se.arkalix.internal.util.TimerWheel;
+import se.arkalix.query.ServiceQuery;
 import se.arkalix.util.annotation.ThreadSafe;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Stream;
 
 /**
  * A local service registry, maintaining descriptions of known remote services
  * whose service registry entries have not yet expired.
+ * <p>
+ * Services are indexed by name, by supported interface and by version, which
+ * means that looking up the services matching a {@link ServiceQuery} only
+ * requires visiting the services matching its most selective criterion.
+ * <p>
+ * Expired entries are never returned by the cache. They are removed from it
+ * in batches, at most once per second, which means that the cost of removing
+ * them is not paid by every lookup. Services that have consumed most of their
+ * lifetimes are, when returned by {@link ArSystem#consume() service queries},
+ * resolved anew in the background while their current descriptions keep being
+ * returned, which means that their expiration need not ever cause a query to
+ * wait for a remote lookup.
  */
 @SuppressWarnings("unused")
 public class ArServiceCache {
-    private final ConcurrentSkipListSet<ServiceDescription> services = new ConcurrentSkipListSet<>();
+    private static final Duration EXPIRATION_TICK = Duration.ofSeconds(1);
+    private static final int EXPIRATION_BUCKET_COUNT = 512;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<ServiceDescription, ServiceDescription> services = new TreeMap<>();
+    private final HashMap<String, TreeSet<ServiceDescription>> nameToServices = new HashMap<>();
+    private final HashMap<InterfaceDescriptor, TreeSet<ServiceDescription>> interfaceToServices = new HashMap<>();
+    private final TreeMap<Integer, TreeSet<ServiceDescription>> versionToServices = new TreeMap<>();
+    private final Set<ServiceDescription> refreshingServices = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final TimerWheel<ServiceDescription> expirationWheel;
+    private final Map<ServiceDescription, TimerWheel.Entry<ServiceDescription>> expirationEntries = new IdentityHashMap<>();
     private final Duration entryLifetimeLimit;
 
+    private volatile long nextExpirationMillis;
+
     private ArServiceCache(final Duration entryLifetimeLimit) {
         this.entryLifetimeLimit = Objects.requireNonNull(entryLifetimeLimit, "Expected entryLifetimeLimit");
+
+        final var now = Instant.now();
+        expirationWheel = new TimerWheel<>(EXPIRATION_TICK, EXPIRATION_BUCKET_COUNT, now);
+        nextExpirationMillis = nextExpirationMillisAfter(now);
     }
 
     /**
@@ -57,7 +84,20 @@ public class ArServiceCache {
      */
     @ThreadSafe
     public void clear() {
-        services.clear();
+        final var writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            services.clear();
+            nameToServices.clear();
+            interfaceToServices.clear();
+            versionToServices.clear();
+            refreshingServices.clear();
+            expirationWheel.clear();
+            expirationEntries.clear();
+        }
+        finally {
+            writeLock.unlock();
+        }
     }
 
     /**
@@ -68,7 +108,21 @@ public class ArServiceCache {
      */
     @ThreadSafe
     public Stream<ServiceDescription> getByName(final String name) {
-        return getAll().filter(service -> service.name().equals(name));
+        final var now = Instant.now();
+        removeExpired(now);
+
+        final var readLock = lock.readLock();
+        readLock.lock();
+        try {
+            final var services = nameToServices.get(name);
+            if (services == null) {
+                return Stream.empty();
+            }
+            return collectUnexpired(services, now).stream();
+        }
+        finally {
+            readLock.unlock();
+        }
     }
 
     /**
@@ -100,8 +154,46 @@ public class ArServiceCache {
         final String name,
         final List<InterfaceDescriptor> interfaces)
     {
-        return getAll().filter(service -> service.name().equals(name) &&
-            interfaces.stream().anyMatch(interfaces::contains));
+        return getByName(name).filter(service -> service.interfaces().stream().anyMatch(interfaces::contains));
+    }
+
+    /**
+     * Gets stream of all services in cache matching given {@code query}.
+     *
+     * @param query Query to match services against.
+     * @return Stream of matching service descriptions.
+     * @see ServiceQuery#matches(ServiceDescription)
+     */
+    @ThreadSafe
+    public Stream<ServiceDescription> getByQuery(final ServiceQuery query) {
+        Objects.requireNonNull(query, "Expected query");
+
+        final var now = Instant.now();
+        removeExpired(now);
+
+        final var readLock = lock.readLock();
+        readLock.lock();
+        try {
+            final var candidates = candidatesOf(query);
+            final var visited = candidates.size() > 1
+                ? Collections.newSetFromMap(new IdentityHashMap<ServiceDescription, Boolean>())
+                : null;
+            final var matches = new ArrayList<ServiceDescription>();
+            for (final var candidates0 : candidates) {
+                for (final var service : candidates0) {
+                    if (visited != null && !visited.add(service)) {
+                        continue;
+                    }
+                    if (!now.isAfter(expirationOf(service)) && query.matches(service)) {
+                        matches.add(service);
+                    }
+                }
+            }
+            return matches.stream();
+        }
+        finally {
+            readLock.unlock();
+        }
     }
 
     /**
@@ -112,9 +204,16 @@ public class ArServiceCache {
     @ThreadSafe
     public Stream<ServiceDescription> getAll() {
         final var now = Instant.now();
-        services.removeIf(service -> now.isAfter(service.expiresAt()) ||
-            now.isAfter(service.receivedAt().plus(entryLifetimeLimit)));
-        return services.stream();
+        removeExpired(now);
+
+        final var readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return collectUnexpired(services.values(), now).stream();
+        }
+        finally {
+            readLock.unlock();
+        }
     }
 
     /**
@@ -144,11 +243,226 @@ public class ArServiceCache {
      */
     @ThreadSafe
     public void update(Stream<ServiceDescription> services) {
-        services.forEach(service -> {
-            if (!this.services.add(service)) {
-                this.services.remove(service);
-                this.services.add(service);
+        final var writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            services.forEach(service -> {
+                final var previous = this.services.put(service, service);
+                if (previous != null) {
+                    unindex(previous);
+                    refreshingServices.remove(previous);
+                    expirationWheel.remove(expirationEntries.remove(previous));
+                }
+                index(service);
+                expirationEntries.put(service, expirationWheel.add(service, expirationOf(service)));
+            });
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+     * Claims the right to refresh those of the given services that are still
+     * in the cache and have consumed most of their lifetimes. Returns true
+     * only if at least one such service was not already claimed, in which
+     * case the caller is expected to refresh the services and then either
+     * update this cache or call releaseRefresh() with the same services.
+     */
+    boolean claimRefresh(final Collection<ServiceDescription> services, final Instant now) {
+        final var writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            var isClaimed = false;
+            for (final var service : services) {
+                if (this.services.get(service) != service) {
+                    continue;
+                }
+                final var receivedAt = service.receivedAt();
+                final var lifetime = Duration.between(receivedAt, expirationOf(service));
+                final var refreshAt = receivedAt.plus(lifetime.multipliedBy(4).dividedBy(5));
+                if (now.isAfter(refreshAt) && refreshingServices.add(service)) {
+                    isClaimed = true;
+                }
+            }
+            return isClaimed;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    void releaseRefresh(final Collection<ServiceDescription> services) {
+        final var writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (final var service : services) {
+                refreshingServices.remove(service);
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+     * Compiles given query into a plan for what indexes to use for finding
+     * the services that may match it, picking whichever of its name,
+     * interface and version criteria narrows down the candidates the most.
+     * The returned candidates may not all match the query, and the same
+     * candidate may occur more than once if it supports multiple interfaces.
+     */
+    private Collection<? extends Collection<ServiceDescription>> candidatesOf(final ServiceQuery query) {
+        Collection<? extends Collection<ServiceDescription>> bestCandidates = Collections.singletonList(services.values());
+        var bestCount = services.size();
+
+        final var name = query.name().orElse(null);
+        if (name != null) {
+            final var candidates = nameToServices.get(name);
+            if (candidates == null) {
+                return Collections.emptyList();
+            }
+            if (candidates.size() < bestCount) {
+                bestCandidates = Collections.singletonList(candidates);
+                bestCount = candidates.size();
             }
-        });
+        }
+
+        final var version = query.version().orElse(null);
+        final var versionMin = version != null ? version : query.versionMin().orElse(null);
+        final var versionMax = version != null ? version : query.versionMax().orElse(null);
+        if (versionMin != null || versionMax != null) {
+            final NavigableMap<Integer, TreeSet<ServiceDescription>> versions;
+            if (versionMin != null && versionMax != null) {
+                if (versionMin > versionMax) {
+                    return Collections.emptyList();
+                }
+                versions = versionToServices.subMap(versionMin, true, versionMax, true);
+            }
+            else if (versionMin != null) {
+                versions = versionToServices.tailMap(versionMin, true);
+            }
+            else {
+                versions = versionToServices.headMap(versionMax, true);
+            }
+            final var count = countOf(versions.values());
+            if (count < bestCount) {
+                bestCandidates = versions.values();
+                bestCount = count;
+            }
+        }
+
+        // A service matches a query if any of its interfaces has one of the
+        // queried transports, and if any of its interfaces has one of the
+        // queried encodings, which need not be the same interface. Only one
+        // of those criteria can therefore be used to select candidates.
+        final var transports = query.transports();
+        final var encodings = query.encodings();
+        if (!transports.isEmpty() || !encodings.isEmpty()) {
+            final var candidates = new ArrayList<TreeSet<ServiceDescription>>();
+            for (final var entry : interfaceToServices.entrySet()) {
+                final var descriptor = entry.getKey();
+                if (transports.isEmpty()
+                    ? encodings.contains(descriptor.encoding())
+                    : transports.contains(descriptor.transport()))
+                {
+                    candidates.add(entry.getValue());
+                }
+            }
+            if (candidates.isEmpty()) {
+                return Collections.emptyList();
+            }
+            if (countOf(candidates) < bestCount) {
+                bestCandidates = candidates;
+            }
+        }
+
+        return bestCandidates;
+    }
+
+    private static int countOf(final Collection<? extends Collection<ServiceDescription>> collections) {
+        var count = 0;
+        for (final var collection : collections) {
+            count += collection.size();
+        }
+        return count;
+    }
+
+    private void index(final ServiceDescription service) {
+        nameToServices.computeIfAbsent(service.name(), ignored -> new TreeSet<>()).add(service);
+        for (final var descriptor : service.interfaces()) {
+            interfaceToServices.computeIfAbsent(descriptor, ignored -> new TreeSet<>()).add(service);
+        }
+        versionToServices.computeIfAbsent(service.version(), ignored -> new TreeSet<>()).add(service);
+    }
+
+    private void unindex(final ServiceDescription service) {
+        unindex(nameToServices, service.name(), service);
+        for (final var descriptor : service.interfaces()) {
+            unindex(interfaceToServices, descriptor, service);
+        }
+        unindex(versionToServices, service.version(), service);
+    }
+
+    private static <K> void unindex(
+        final Map<K, TreeSet<ServiceDescription>> index,
+        final K key,
+        final ServiceDescription service)
+    {
+        final var services = index.get(key);
+        if (services != null) {
+            services.remove(service);
+            if (services.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private List<ServiceDescription> collectUnexpired(
+        final Collection<ServiceDescription> services,
+        final Instant now)
+    {
+        final var unexpired = new ArrayList<ServiceDescription>(services.size());
+        for (final var service : services) {
+            if (!now.isAfter(expirationOf(service))) {
+                unexpired.add(service);
+            }
+        }
+        return unexpired;
+    }
+
+    private void removeExpired(final Instant now) {
+        if (now.toEpochMilli() < nextExpirationMillis) {
+            return;
+        }
+        final var writeLock = lock.writeLock();
+        if (!writeLock.tryLock()) {
+            // Another thread is holding the lock. As expired services are
+            // never returned anyway, removing them can wait.
+            return;
+        }
+        try {
+            expirationWheel.advance(now, service -> {
+                expirationEntries.remove(service);
+                services.remove(service);
+                unindex(service);
+                refreshingServices.remove(service);
+            });
+            nextExpirationMillis = nextExpirationMillisAfter(now);
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Instant expirationOf(final ServiceDescription service) {
+        final var expiresAt = service.expiresAt();
+        final var staleAt = service.receivedAt().plus(entryLifetimeLimit);
+        return expiresAt.isBefore(staleAt) ? expiresAt : staleAt;
+    }
+
+    private static long nextExpirationMillisAfter(final Instant now) {
+        final var tickMillis = EXPIRATION_TICK.toMillis();
+        return (Math.floorDiv(now.toEpochMilli(), tickMillis) + 1) * tickMillis;
     }
 }
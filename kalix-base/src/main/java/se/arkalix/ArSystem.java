@@ -8,6 +8,8 @@ import se.arkalix.internal.ArServer;
 import se.arkalix.internal.ArServerRegistry;
 import se.arkalix.internal.plugin.PluginNotifier;
 import se.arkalix.internal.util.concurrent.NettyScheduler;
+import se.arkalix.net.http.service.HttpService;
+import se.arkalix.net.http.service.HttpServiceLimits;
 import se.arkalix.plugin.Plugin;
 import se.arkalix.plugin.PluginFacade;
 import se.arkalix.query.ServiceQuery;
@@ -20,6 +22,7 @@ import se.arkalix.util.concurrent.*;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -42,6 +45,7 @@ public class ArSystem {
     private final PluginNotifier pluginNotifier;
 
     private final ArServiceCache consumedServices;
+    private final HttpServiceLimits httpServiceLimits;
     private final Map<Class<? extends ArService>, FutureAnnouncement<ArServer>> servers = new ConcurrentHashMap<>();
 
     private final ProviderDescription description;
@@ -93,6 +97,8 @@ public class ArSystem {
         consumedServices = Objects.requireNonNullElseGet(builder.serviceCache,
             ArServiceCache::withDefaultEntryLifetimeLimit);
 
+        httpServiceLimits = Objects.requireNonNullElseGet(builder.httpServiceLimits, HttpServiceLimits::defaults);
+
         scheduler = (NettyScheduler) Schedulers.fixed();
         schedulerShutdownListener = (scheduler) -> shutdown()
             .onFailure(fault -> {
@@ -240,8 +246,7 @@ public class ArSystem {
             logger.trace("Executing given {} ...", query);
         }
 
-        final var matchingServices = consumedServices.getAll()
-            .filter(query::matches)
+        final var matchingServices = consumedServices.getByQuery(query)
             .collect(Collectors.toUnmodifiableSet());
 
         if (isTraceEnabled) {
@@ -253,6 +258,9 @@ public class ArSystem {
                 logger.trace("Service cache contained at least one service " +
                     "matching the given query");
             }
+            if (consumedServices.claimRefresh(matchingServices, Instant.now())) {
+                refresh(query, matchingServices);
+            }
             return Future.success(matchingServices);
         }
 
@@ -280,6 +288,39 @@ public class ArSystem {
             });
     }
 
+    private void refresh(final ServiceQuery query, final Set<ServiceDescription> staleServices) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("Service cache entries are about to expire, " +
+                "delegating query to plugins to refresh them: {}", staleServices);
+        }
+        pluginNotifier.onServiceQueried(query)
+            .onResult(result -> {
+                if (result.isSuccess()) {
+                    consumedServices.update(result.value());
+                }
+                else {
+                    consumedServices.releaseRefresh(staleServices);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Failed to refresh service cache " +
+                            "entries matching " + query, result.fault());
+                    }
+                }
+            });
+    }
+
+    /**
+     * Gets the limits applied to incoming requests received by the HTTP
+     * services provided by this system, unless {@link
+     * HttpService#limits(HttpServiceLimits) overridden} by individual
+     * services.
+     *
+     * @return HTTP service limits.
+     */
+    @ThreadSafe
+    public HttpServiceLimits httpServiceLimits() {
+        return httpServiceLimits;
+    }
+
     /**
      * Cache of, potentially or previously, consumed services.
      * <p>
@@ -451,6 +492,7 @@ public class ArSystem {
         private boolean isSecure = true;
         private Collection<Plugin> plugins;
         private ArServiceCache serviceCache;
+        private HttpServiceLimits httpServiceLimits;
 
         /**
          * Sets system name.
@@ -656,6 +698,21 @@ public class ArSystem {
             return this;
         }
 
+        /**
+         * Sets limits to apply to incoming requests received by the HTTP
+         * services provided by this system, unless {@link
+         * HttpService#limits(HttpServiceLimits) overridden} by individual
+         * services. If not provided, {@link HttpServiceLimits#defaults()
+         * default limits} are used.
+         *
+         * @param httpServiceLimits Desired HTTP service limits.
+         * @return This builder.
+         */
+        public Builder httpServiceLimits(final HttpServiceLimits httpServiceLimits) {
+            this.httpServiceLimits = httpServiceLimits;
+            return this;
+        }
+
         /**
          * Sets {@link Plugin plugins} to be used by this system.
          * <p>
@@ -74,9 +74,9 @@ public final class EncodingDescriptor {
     /**
      * Concise Binary Object Representation (CBOR).
      *
-     * @see <a href="https://tools.ietf.org/html/rfc7049">RFC 7049</a>
+     * @see <a href="https://tools.ietf.org/html/rfc8949">RFC 8949</a>
      */
-    public static final EncodingDescriptor CBOR = new EncodingDescriptor("CBOR", null);
+    public static final EncodingDescriptor CBOR = new EncodingDescriptor("CBOR", DtoEncoding.CBOR);
 
     /**
      * JavaScript Object Notation (JSON).
@@ -1,5 +1,7 @@
 package se.arkalix.dto;
 
+import se.arkalix.dto.cbor.CborReader;
+import se.arkalix.dto.cbor.CborWriter;
 import se.arkalix.dto.json.JsonReader;
 import se.arkalix.dto.json.JsonWriter;
 
@@ -16,6 +18,13 @@ public enum DtoEncoding {
      * @see <a href="https://tools.ietf.org/html/rfc8259">RFC 8259</a>
      */
     JSON(JsonReader.instance(), JsonWriter.instance()),
+
+    /**
+     * Concise Binary Object Representation (CBOR).
+     *
+     * @see <a href="https://tools.ietf.org/html/rfc8949">RFC 8949</a>
+     */
+    CBOR(CborReader.instance(), CborWriter.instance()),
     ;
 
     private final DtoReader reader;
@@ -0,0 +1,67 @@
+package se.arkalix.dto.cbor;
+
+import se.arkalix.dto.DtoEncoding;
+import se.arkalix.dto.DtoReadException;
+import se.arkalix.dto.DtoReadable;
+import se.arkalix.dto.DtoReader;
+import se.arkalix.dto.binary.BinaryReader;
+import se.arkalix.internal.dto.DtoReaders;
+import se.arkalix.internal.dto.cbor.CborDecoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link DtoReader} for reading CBOR data.
+ * <p>
+ * Use the {@link #instance()} method to get access to the singleton instance
+ * of this class.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc8949">RFC 8949</a>
+ */
+public class CborReader implements DtoReader {
+    private static final CborReader INSTANCE = new CborReader();
+
+    private CborReader() {}
+
+    /**
+     * @return Reference to CBOR reader singleton instance.
+     */
+    public static CborReader instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public <T extends DtoReadable> T readOne(final Class<T> class_, final BinaryReader source)
+        throws DtoReadException
+    {
+        final var decoder = new CborDecoder(source);
+        final var value = DtoReaders.cborReaderOf(class_).read(decoder);
+        if (!decoder.atEnd()) {
+            throw new DtoReadException(DtoEncoding.CBOR, "Expected end of data, found",
+                "0x" + Integer.toHexString(source.peekByte() & 0xFF), decoder.offset());
+        }
+        return value;
+    }
+
+    @Override
+    public <T extends DtoReadable> List<T> readMany(final Class<T> class_, final BinaryReader source)
+        throws DtoReadException
+    {
+        final var decoder = new CborDecoder(source);
+        final var reader = DtoReaders.cborReaderOf(class_);
+
+        var n = decoder.readArrayHeader();
+        final var objects = new ArrayList<T>(Math.max(n, 0));
+        for (; decoder.hasMore(n); --n) {
+            objects.add(reader.read(decoder));
+        }
+
+        if (!decoder.atEnd()) {
+            throw new DtoReadException(DtoEncoding.CBOR, "Expected end of data, found",
+                "0x" + Integer.toHexString(source.peekByte() & 0xFF), decoder.offset());
+        }
+
+        return objects;
+    }
+}
@@ -0,0 +1,18 @@
+package se.arkalix.dto.cbor;
+
+import se.arkalix.dto.DtoWritable;
+import se.arkalix.dto.DtoWriteException;
+import se.arkalix.dto.binary.BinaryWriter;
+
+/**
+ * Represents a type that can be written as CBOR.
+ * <p>
+ * <i>Do not implement this interface directly.</i> It is implemented
+ * automatically by generated {@link se.arkalix.dto DTO classes} where CBOR is
+ * specified as a writable encoding.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc8949">RFC 8949</a>
+ */
+public interface CborWritable extends DtoWritable {
+    void writeCbor(BinaryWriter writer) throws DtoWriteException;
+}
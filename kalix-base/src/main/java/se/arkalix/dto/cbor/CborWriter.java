@@ -0,0 +1,58 @@
+package se.arkalix.dto.cbor;
+
+import se.arkalix.dto.DtoWritable;
+import se.arkalix.dto.DtoWriteException;
+import se.arkalix.dto.DtoWriter;
+import se.arkalix.dto.binary.BinaryWriter;
+import se.arkalix.internal.dto.cbor.CborWrite;
+
+import java.util.List;
+
+/**
+ * A {@link DtoWriter} for writing CBOR data.
+ * <p>
+ * Use the {@link #instance()} method to get access to the singleton instance
+ * of this class.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc8949">RFC 8949</a>
+ */
+public class CborWriter implements DtoWriter {
+    private static final CborWriter INSTANCE = new CborWriter();
+
+    private CborWriter() {}
+
+    /**
+     * @return Reference to CBOR writer singleton instance.
+     */
+    public static CborWriter instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public <U extends DtoWritable> void writeOne(final U value, final BinaryWriter target) throws DtoWriteException {
+        if (!(value instanceof CborWritable)) {
+            throw cborNotSupportedBy(value.getClass());
+        }
+        ((CborWritable) value).writeCbor(target);
+    }
+
+    @Override
+    public <U extends DtoWritable> void writeMany(final List<U> values, final BinaryWriter target) throws DtoWriteException {
+        if (!values.isEmpty() && !(values.get(0) instanceof CborWritable)) {
+            throw cborNotSupportedBy(values.get(0).getClass());
+        }
+        final var t1 = values.size();
+        CborWrite.writeArrayHeader(t1, target);
+        for (var t0 = 0; t0 < t1; ++t0) {
+            ((CborWritable) values.get(t0)).writeCbor(target);
+        }
+    }
+
+    private static RuntimeException cborNotSupportedBy(final Class<?> class_) {
+        return new UnsupportedOperationException("\"" + class_ + "\" does " +
+            "not implement CborWritable; if the class was produced by the " +
+            "DTO code generator, this is likely caused by its input " +
+            "interface not having DtoEncoding.CBOR as argument to its " +
+            "@DtoWritableAs annotation");
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * <h1>CBOR Data Transfer Object Utilities</h1>
+ * This package contains utilities complementary to those of the {@link
+ * se.arkalix.dto DTO} package when dealing with CBOR. Most of the details
+ * regarding CBOR encoding and decoding are handled automatically by the
+ * {@link se.arkalix.dto DTO code generator}.
+ * <p>
+ * Generated DTO classes represent objects as CBOR maps with text string keys,
+ * which are the same as the keys used when the objects are represented as
+ * JSON. As CBOR is a binary encoding, it can typically be both read and
+ * written faster than JSON, while also producing smaller messages.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc8949">RFC 8949</a>
+ */
+package se.arkalix.dto.cbor;
@@ -31,6 +31,8 @@ import java.lang.annotation.Target;
  * <pre>
  *     {"width":100,"height":400}
  * </pre>
+ * The overridden name is also used as map key if the same interface can be
+ * read or written as {@link se.arkalix.dto.DtoEncoding#CBOR CBOR}.
  *
  * @see <a href="https://tools.ietf.org/html/rfc8259">RFC 8259</a>
  */
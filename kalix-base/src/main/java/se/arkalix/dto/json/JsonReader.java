@@ -7,14 +7,10 @@ import se.arkalix.dto.DtoReader;
 import se.arkalix.dto.binary.BinaryReader;
 import se.arkalix.dto.json.value.JsonType;
 import se.arkalix.internal.dto.DtoReaders;
-import se.arkalix.internal.dto.json.JsonTokenBuffer;
 import se.arkalix.internal.dto.json.JsonTokenizer;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A {@link DtoReader} for reading JSON data.
@@ -25,7 +21,6 @@ import java.util.concurrent.ConcurrentHashMap;
  * @see <a href="https://tools.ietf.org/html/rfc8259">RFC 8259</a>
  */
 public class JsonReader implements DtoReader {
-    private static final Map<Class<? extends DtoReadable>, Method> READ_METHODS = new ConcurrentHashMap<>();
     private static final JsonReader INSTANCE = new JsonReader();
 
     private JsonReader() {}
@@ -41,58 +36,43 @@ public class JsonReader implements DtoReader {
     public <T extends DtoReadable> T readOne(final Class<T> class_, final BinaryReader source)
         throws DtoReadException
     {
-        final var buffer = JsonTokenizer.tokenize(source);
-        final var value = DtoReaders.invokeReadMethod(class_, getReadJsonMethod(class_), buffer);
-        if (!buffer.atEnd()) {
-            final var next = buffer.next();
-            throw new DtoReadException(DtoEncoding.JSON, "Expected end of data, found",
-                next.readStringRaw(source), next.begin());
+        try (final var buffer = JsonTokenizer.tokenize(source)) {
+            final var value = DtoReaders.jsonReaderOf(class_).read(buffer);
+            if (!buffer.atEnd()) {
+                final var next = buffer.next();
+                throw new DtoReadException(DtoEncoding.JSON, "Expected end of data, found",
+                    buffer.readStringRaw(next), buffer.begin(next));
+            }
+            return value;
         }
-        return value;
     }
 
     @Override
     public <T extends DtoReadable> List<T> readMany(final Class<T> class_, final BinaryReader source)
         throws DtoReadException
     {
-        final var buffer = JsonTokenizer.tokenize(source);
-        final var readJson = getReadJsonMethod(class_);
-        final var objects = new ArrayList<T>();
-
-        var next = buffer.next();
-        if (next.type() != JsonType.ARRAY) {
-            throw new DtoReadException(DtoEncoding.JSON, "Expected array, found",
-                next.readStringRaw(source), next.begin());
-        }
-
-        var n = next.nChildren();
-        while (n-- != 0) {
-            objects.add(DtoReaders.invokeReadMethod(class_, readJson, buffer));
-        }
-
-        if (!buffer.atEnd()) {
-            next = buffer.next();
-            throw new DtoReadException(DtoEncoding.JSON, "Expected end of data, found",
-                next.readStringRaw(source), next.begin());
-        }
-
-        return objects;
-    }
+        try (final var buffer = JsonTokenizer.tokenize(source)) {
+            final var reader = DtoReaders.jsonReaderOf(class_);
 
+            var next = buffer.next();
+            if (buffer.type(next) != JsonType.ARRAY) {
+                throw new DtoReadException(DtoEncoding.JSON, "Expected array, found",
+                    buffer.readStringRaw(next), buffer.begin(next));
+            }
 
-    private static <T extends DtoReadable> Method getReadJsonMethod(final Class<T> class_) {
-        return READ_METHODS.computeIfAbsent(class_, ignored0 -> {
-            try {
-                return class_.getDeclaredMethod("readJson", JsonTokenBuffer.class);
+            var n = buffer.nChildren(next);
+            final var objects = new ArrayList<T>(n);
+            while (n-- != 0) {
+                objects.add(reader.read(buffer));
             }
-            catch (final NoSuchMethodException ignored1) {
-                throw new UnsupportedOperationException("\"" + class_ + "\" " +
-                    "does not have a public static readJson(BinaryReader) " +
-                    "method; if the class was produced by the DTO code " +
-                    "generator, this is likely caused by its input " +
-                    "interface not having DtoEncoding.JSON as argument to its " +
-                    "@DtoReadableAs annotation");
+
+            if (!buffer.atEnd()) {
+                next = buffer.next();
+                throw new DtoReadException(DtoEncoding.JSON, "Expected end of data, found",
+                    buffer.readStringRaw(next), buffer.begin(next));
             }
-        });
+
+            return objects;
+        }
     }
 }
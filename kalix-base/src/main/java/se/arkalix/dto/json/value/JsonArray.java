@@ -81,7 +81,9 @@ public class JsonArray implements JsonCollection, Iterable<JsonValue> {
      *                          source could not be read.
      */
     public static JsonArray readJson(final BinaryReader source) throws DtoReadException {
-        return readJson(JsonTokenizer.tokenize(source));
+        try (final var buffer = JsonTokenizer.tokenize(source)) {
+            return readJson(buffer);
+        }
     }
 
     /**
@@ -90,13 +92,12 @@ public class JsonArray implements JsonCollection, Iterable<JsonValue> {
      */
     @Internal
     public static JsonArray readJson(final JsonTokenBuffer buffer) throws DtoReadException {
-        final var source = buffer.source();
-        var token = buffer.next();
-        if (token.type() != JsonType.ARRAY) {
-            throw new DtoReadException(JSON, "Expected array", token.readStringRaw(source), token.begin());
+        final var token = buffer.next();
+        if (buffer.type(token) != JsonType.ARRAY) {
+            throw new DtoReadException(JSON, "Expected array", buffer.readStringRaw(token), buffer.begin(token));
         }
-        final var elements = new ArrayList<JsonValue>(token.nChildren());
-        for (var n = token.nChildren(); n-- != 0; ) {
+        final var elements = new ArrayList<JsonValue>(buffer.nChildren(token));
+        for (var n = buffer.nChildren(token); n-- != 0; ) {
             elements.add(JsonValue.readJson(buffer));
         }
         return new JsonArray(elements);
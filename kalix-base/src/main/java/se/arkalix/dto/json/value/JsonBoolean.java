@@ -61,7 +61,9 @@ public class JsonBoolean implements JsonValue {
      *                          could not be read.
      */
     public static JsonBoolean readJson(final BinaryReader source) throws DtoReadException {
-        return readJson(JsonTokenizer.tokenize(source));
+        try (final var buffer = JsonTokenizer.tokenize(source)) {
+            return readJson(buffer);
+        }
     }
 
     /**
@@ -70,13 +72,13 @@ public class JsonBoolean implements JsonValue {
      */
     @Internal
     public static JsonBoolean readJson(final JsonTokenBuffer buffer) throws DtoReadException {
-        var token = buffer.next();
-        switch (token.type()) {
+        final var token = buffer.next();
+        switch (buffer.type(token)) {
         case TRUE: return TRUE;
         case FALSE: return FALSE;
         default:
             throw new DtoReadException(DtoEncoding.JSON, "Expected true or false",
-                token.readStringRaw(buffer.source()), token.begin());
+                buffer.readStringRaw(token), buffer.begin(token));
         }
     }
 
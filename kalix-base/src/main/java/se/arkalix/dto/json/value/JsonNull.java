@@ -44,7 +44,9 @@ public class JsonNull implements JsonValue {
      *                          could not be read.
      */
     public static JsonNull readJson(final BinaryReader source) throws DtoReadException {
-        return readJson(JsonTokenizer.tokenize(source));
+        try (final var buffer = JsonTokenizer.tokenize(source)) {
+            return readJson(buffer);
+        }
     }
 
     /**
@@ -53,10 +55,10 @@ public class JsonNull implements JsonValue {
      */
     @Internal
     public static JsonNull readJson(final JsonTokenBuffer buffer) throws DtoReadException {
-        var token = buffer.next();
-        if (token.type() != JsonType.NULL) {
+        final var token = buffer.next();
+        if (buffer.type(token) != JsonType.NULL) {
             throw new DtoReadException(DtoEncoding.JSON, "Expected null",
-                token.readStringRaw(buffer.source()), token.begin());
+                buffer.readStringRaw(token), buffer.begin(token));
         }
         return INSTANCE;
     }
@@ -267,7 +267,9 @@ public class JsonNumber implements JsonValue {
      *                          source could not be read.
      */
     public static JsonNumber readJson(final BinaryReader source) throws DtoReadException {
-        return readJson(JsonTokenizer.tokenize(source));
+        try (final var buffer = JsonTokenizer.tokenize(source)) {
+            return readJson(buffer);
+        }
     }
 
     /**
@@ -276,13 +278,12 @@ public class JsonNumber implements JsonValue {
      */
     @Internal
     public static JsonNumber readJson(final JsonTokenBuffer buffer) throws DtoReadException {
-        final var source = buffer.source();
-        var token = buffer.next();
-        if (token.type() != JsonType.NUMBER) {
+        final var token = buffer.next();
+        if (buffer.type(token) != JsonType.NUMBER) {
             throw new DtoReadException(DtoEncoding.JSON, "Expected number",
-                token.readStringRaw(source), token.begin());
+                buffer.readStringRaw(token), buffer.begin(token));
         }
-        return new JsonNumber(token.readStringRaw(source));
+        return new JsonNumber(buffer.readStringRaw(token));
     }
 
     @Override
@@ -81,7 +81,9 @@ public class JsonObject implements JsonCollection, Iterable<JsonPair> {
      *                          source could not be read.
      */
     public static JsonObject readJson(final BinaryReader source) throws DtoReadException {
-        return readJson(JsonTokenizer.tokenize(source));
+        try (final var buffer = JsonTokenizer.tokenize(source)) {
+            return readJson(buffer);
+        }
     }
 
     /**
@@ -90,16 +92,16 @@ public class JsonObject implements JsonCollection, Iterable<JsonPair> {
      */
     @Internal
     public static JsonObject readJson(final JsonTokenBuffer buffer) throws DtoReadException {
-        final var source = buffer.source();
-        var token = buffer.next();
-        if (token.type() != JsonType.OBJECT) {
-            throw new DtoReadException(DtoEncoding.JSON, "Expected object", token.readStringRaw(source), token.begin());
+        final var token = buffer.next();
+        if (buffer.type(token) != JsonType.OBJECT) {
+            throw new DtoReadException(DtoEncoding.JSON, "Expected object",
+                buffer.readStringRaw(token), buffer.begin(token));
         }
-        final var pairs = new ArrayList<JsonPair>(token.nChildren());
-        for (var n = token.nChildren(); n-- != 0; ) {
+        final var pairs = new ArrayList<JsonPair>(buffer.nChildren(token));
+        for (var n = buffer.nChildren(token); n-- != 0; ) {
             final var name = buffer.next();
             final var value = JsonValue.readJson(buffer);
-            pairs.add(new JsonPair(name.readString(source), value));
+            pairs.add(new JsonPair(buffer.readString(name), value));
         }
         return new JsonObject(pairs);
     }
@@ -164,7 +164,9 @@ public class JsonString implements JsonValue {
      *                          source could not be read.
      */
     public static JsonString readJson(final BinaryReader source) throws DtoReadException {
-        return readJson(JsonTokenizer.tokenize(source));
+        try (final var buffer = JsonTokenizer.tokenize(source)) {
+            return readJson(buffer);
+        }
     }
 
     /**
@@ -173,13 +175,12 @@ public class JsonString implements JsonValue {
      */
     @Internal
     public static JsonString readJson(final JsonTokenBuffer buffer) throws DtoReadException {
-        final var source = buffer.source();
-        var token = buffer.next();
-        if (token.type() != JsonType.STRING) {
+        final var token = buffer.next();
+        if (buffer.type(token) != JsonType.STRING) {
             throw new DtoReadException(DtoEncoding.JSON, "Expected string",
-                token.readStringRaw(source), token.begin());
+                buffer.readStringRaw(token), buffer.begin(token));
         }
-        return new JsonString(token.readString(source));
+        return new JsonString(buffer.readString(token));
     }
 
     @Override
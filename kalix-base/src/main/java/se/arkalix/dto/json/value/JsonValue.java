@@ -27,7 +27,9 @@ public interface JsonValue extends JsonReadable, JsonWritable {
      *                          source could not be read.
      */
     static JsonValue readJson(final BinaryReader source) throws DtoReadException {
-        return readJson(JsonTokenizer.tokenize(source));
+        try (final var buffer = JsonTokenizer.tokenize(source)) {
+            return readJson(buffer);
+        }
     }
 
     /**
@@ -36,8 +38,8 @@ public interface JsonValue extends JsonReadable, JsonWritable {
      */
     @Internal
     static JsonValue readJson(final JsonTokenBuffer buffer) throws DtoReadException {
-        var token = buffer.peek();
-        switch (token.type()) {
+        final var token = buffer.peek();
+        switch (buffer.type(token)) {
         case OBJECT: return JsonObject.readJson(buffer);
         case ARRAY: return JsonArray.readJson(buffer);
         case STRING: return JsonString.readJson(buffer);
@@ -46,7 +48,7 @@ public interface JsonValue extends JsonReadable, JsonWritable {
         case FALSE: return JsonBoolean.readJson(buffer);
         case NULL: return JsonNull.readJson(buffer);
         default:
-            throw new IllegalStateException("Illegal token type: " + token.type());
+            throw new IllegalStateException("Illegal token type: " + buffer.type(token));
         }
     }
 }
@@ -0,0 +1,18 @@
+package se.arkalix.internal.dto;
+
+import se.arkalix.dto.DtoReadException;
+import se.arkalix.util.annotation.Internal;
+
+/**
+ * A function that reads one DTO class instance from a source of some
+ * particular encoding, such as a {@link
+ * se.arkalix.internal.dto.json.JsonTokenBuffer JsonTokenBuffer}.
+ *
+ * @param <S> Type of source.
+ * @param <T> Type of DTO class.
+ */
+@Internal
+@FunctionalInterface
+public interface DtoReadFunction<S, T> {
+    T read(S source) throws DtoReadException;
+}
@@ -0,0 +1,15 @@
+package se.arkalix.internal.dto;
+
+import se.arkalix.util.annotation.Internal;
+
+/**
+ * Provides the read functions of a set of generated DTO classes.
+ * <p>
+ * Implementations are generated by the DTO code generator, one for each
+ * package containing DTO classes, and are registered as services to be found
+ * by {@link java.util.ServiceLoader}.
+ */
+@Internal
+public interface DtoReaderProvider {
+    void provideTo(DtoReaders readers);
+}
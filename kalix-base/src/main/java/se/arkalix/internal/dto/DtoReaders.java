@@ -1,38 +1,116 @@
 package se.arkalix.internal.dto;
 
+import se.arkalix.dto.DtoEncoding;
 import se.arkalix.dto.DtoReadException;
-import se.arkalix.dto.binary.BinaryReader;
+import se.arkalix.dto.DtoReadable;
+import se.arkalix.internal.dto.cbor.CborDecoder;
+import se.arkalix.internal.dto.json.JsonTokenBuffer;
 import se.arkalix.util.annotation.Internal;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Keeps track of the read functions of generated DTO classes.
+ * <p>
+ * Read functions are primarily collected from the {@link DtoReaderProvider}s
+ * generated alongside DTO classes, which makes reading a matter of calling
+ * {@code readJson} or {@code readCbor} directly. Classes not known by any
+ * provider, such as those generated by earlier versions of the DTO code
+ * generator, are read via method handles instead.
+ */
 @Internal
-public class DtoReaders {
+public final class DtoReaders {
+    private static final DtoReaders INSTANCE = new DtoReaders();
+
+    private final Map<Class<?>, DtoReadFunction<CborDecoder, ?>> cborReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, DtoReadFunction<JsonTokenBuffer, ?>> jsonReaders = new ConcurrentHashMap<>();
+    private final Set<ClassLoader> scannedClassLoaders = ConcurrentHashMap.newKeySet();
+
     private DtoReaders() {}
 
-    public static <T> T invokeReadMethod(final Class<T> returnType, final Method method, final Object source)
-        throws DtoReadException
+    public <T extends DtoReadable> void addCbor(final Class<T> class_, final DtoReadFunction<CborDecoder, T> reader) {
+        cborReaders.put(class_, reader);
+    }
+
+    public <T extends DtoReadable> void addJson(final Class<T> class_, final DtoReadFunction<JsonTokenBuffer, T> reader) {
+        jsonReaders.put(class_, reader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends DtoReadable> DtoReadFunction<CborDecoder, T> cborReaderOf(final Class<T> class_) {
+        return (DtoReadFunction<CborDecoder, T>) INSTANCE.readerOf(INSTANCE.cborReaders, class_, DtoEncoding.CBOR,
+            "readCbor", CborDecoder.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends DtoReadable> DtoReadFunction<JsonTokenBuffer, T> jsonReaderOf(final Class<T> class_) {
+        return (DtoReadFunction<JsonTokenBuffer, T>) INSTANCE.readerOf(INSTANCE.jsonReaders, class_, DtoEncoding.JSON,
+            "readJson", JsonTokenBuffer.class);
+    }
+
+    private <S> DtoReadFunction<S, ?> readerOf(
+        final Map<Class<?>, DtoReadFunction<S, ?>> readers,
+        final Class<?> class_,
+        final DtoEncoding encoding,
+        final String methodName,
+        final Class<S> sourceClass)
     {
-        try {
-            return returnType.cast(method.invoke(null, source));
+        Objects.requireNonNull(class_, "Expected class_");
+        var reader = readers.get(class_);
+        if (reader != null) {
+            return reader;
         }
-        catch (final IllegalAccessException exception) {
-            throw new RuntimeException(exception);
+        final var classLoader = class_.getClassLoader();
+        if (classLoader != null && scannedClassLoaders.add(classLoader)) {
+            for (final var provider : ServiceLoader.load(DtoReaderProvider.class, classLoader)) {
+                provider.provideTo(this);
+            }
+            reader = readers.get(class_);
+            if (reader != null) {
+                return reader;
+            }
         }
-        catch (final InvocationTargetException exception) {
-            final var targetException = exception.getTargetException();
+        return readers.computeIfAbsent(class_, ignored -> readerFromMethodHandleOf(class_, encoding, methodName,
+            sourceClass));
+    }
 
-            if (targetException instanceof DtoReadException) {
-                throw (DtoReadException) targetException;
+    private static <S> DtoReadFunction<S, ?> readerFromMethodHandleOf(
+        final Class<?> class_,
+        final DtoEncoding encoding,
+        final String methodName,
+        final Class<S> sourceClass)
+    {
+        final MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup()
+                .findStatic(class_, methodName, MethodType.methodType(class_, sourceClass))
+                .asType(MethodType.methodType(Object.class, Object.class));
+        }
+        catch (final NoSuchMethodException | IllegalAccessException exception) {
+            throw new UnsupportedOperationException("\"" + class_ + "\" " +
+                "does not have a public static " + methodName + "(BinaryReader) " +
+                "method; if the class was produced by the DTO code " +
+                "generator, this is likely caused by its input " +
+                "interface not having DtoEncoding." + encoding + " as " +
+                "argument to its @DtoReadableAs annotation", exception);
+        }
+        return source -> {
+            try {
+                return handle.invokeExact((Object) source);
             }
-            if (targetException instanceof RuntimeException) {
-                throw (RuntimeException) targetException;
+            catch (final DtoReadException | RuntimeException | Error exception) {
+                throw exception;
             }
-            if (targetException instanceof Error) {
-                throw (Error) targetException;
+            catch (final Throwable throwable) {
+                throw new RuntimeException(throwable);
             }
-            throw new RuntimeException(targetException);
-        }
+        };
     }
 }
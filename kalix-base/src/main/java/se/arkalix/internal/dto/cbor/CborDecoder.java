@@ -0,0 +1,505 @@
+package se.arkalix.internal.dto.cbor;
+
+import se.arkalix.dto.DtoEncoding;
+import se.arkalix.dto.DtoReadException;
+import se.arkalix.dto.binary.BinaryReader;
+import se.arkalix.util.annotation.Internal;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.Objects;
+
+import static se.arkalix.internal.dto.cbor.CborWrite.*;
+
+/**
+ * Reads CBOR data items directly from a {@link BinaryReader}.
+ * <p>
+ * As CBOR data items carry their own lengths, there is no need to tokenize
+ * the data before it is read, as is the case with JSON. Semantic tags are
+ * ignored, except where they are required to read numbers.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc8949">RFC 8949</a>
+ */
+@Internal
+@SuppressWarnings("unused")
+public final class CborDecoder {
+    private final BinaryReader source;
+
+    private int headOffset;
+    private int headByte;
+    private int major;
+    private long argument;
+    private boolean isIndefinite;
+    private long tag;
+
+    public CborDecoder(final BinaryReader source) {
+        this.source = Objects.requireNonNull(source, "Expected source");
+    }
+
+    public boolean atEnd() {
+        return source.readableBytes() == 0;
+    }
+
+    public int offset() {
+        return source.readOffset();
+    }
+
+    /**
+     * Consumes the next data item if it is null or undefined.
+     *
+     * @return {@code true} only if a null or undefined item was consumed.
+     */
+    public boolean tryReadNull() {
+        if (source.readableBytes() == 0) {
+            return false;
+        }
+        final var b = source.peekByte();
+        if (b == NULL || b == UNDEFINED) {
+            source.skipByte();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads the head of an array.
+     *
+     * @return Number of array items, or {@code -1} if the array is of
+     * indefinite length.
+     * @throws DtoReadException If no array head could be read.
+     */
+    public int readArrayHeader() throws DtoReadException {
+        readHead();
+        if (major != MAJOR_ARRAY) {
+            throw error("Expected array");
+        }
+        return collectionSize(1);
+    }
+
+    /**
+     * Reads the head of a map.
+     *
+     * @return Number of map entries, or {@code -1} if the map is of
+     * indefinite length.
+     * @throws DtoReadException If no map head could be read.
+     */
+    public int readMapHeader() throws DtoReadException {
+        readHead();
+        if (major != MAJOR_MAP) {
+            throw error("Expected map");
+        }
+        return collectionSize(2);
+    }
+
+    /**
+     * Determines whether there are more items left to read in an array or
+     * map, given the number of items that have not yet been read from it.
+     * <p>
+     * If {@code remaining} is negative, the array or map is assumed to be of
+     * indefinite length, in which case its terminating break is consumed if
+     * it is next.
+     *
+     * @param remaining Number of unread items, or a negative number.
+     * @return {@code true} only if at least one more item remains.
+     * @throws DtoReadException If the end of data is reached before a break.
+     */
+    public boolean hasMore(final int remaining) throws DtoReadException {
+        if (remaining >= 0) {
+            return remaining > 0;
+        }
+        if (source.readableBytes() == 0) {
+            throw new DtoReadException(DtoEncoding.CBOR, "Unexpected end of data", "", offset());
+        }
+        if (source.peekByte() == BREAK) {
+            source.skipByte();
+            return false;
+        }
+        return true;
+    }
+
+    public BigDecimal readBigDecimal() throws DtoReadException {
+        readHead();
+        if (major == MAJOR_ARRAY && tag == TAG_DECIMAL_FRACTION && !isIndefinite && argument == 2) {
+            final var exponent = readLong();
+            final var mantissa = readBigInteger();
+            if (exponent < Integer.MIN_VALUE + 1 || exponent > Integer.MAX_VALUE) {
+                throw error("Decimal fraction exponent out of range");
+            }
+            return new BigDecimal(mantissa, (int) -exponent);
+        }
+        if (major == MAJOR_SIMPLE) {
+            return BigDecimal.valueOf(floatFromHead());
+        }
+        return new BigDecimal(bigIntegerFromHead());
+    }
+
+    public BigInteger readBigInteger() throws DtoReadException {
+        readHead();
+        return bigIntegerFromHead();
+    }
+
+    public boolean readBoolean() throws DtoReadException {
+        readHead();
+        if (headByte == (TRUE & 0xFF)) {
+            return true;
+        }
+        if (headByte == (FALSE & 0xFF)) {
+            return false;
+        }
+        throw error("Expected true or false");
+    }
+
+    public byte readByte() throws DtoReadException {
+        final var number = readLong();
+        if (number < Byte.MIN_VALUE || number > Byte.MAX_VALUE) {
+            throw error("Byte out of range");
+        }
+        return (byte) number;
+    }
+
+    public double readDouble() throws DtoReadException {
+        readHead();
+        return doubleFromHead();
+    }
+
+    public Duration readDuration() throws DtoReadException {
+        readHead();
+        if (major == MAJOR_TEXT) {
+            return parse(Duration::parse);
+        }
+        final var number = doubleFromHead();
+        final long integer = (long) number;
+        return Duration.ofSeconds(integer, (long) ((number - integer) * 1e9));
+    }
+
+    public float readFloat() throws DtoReadException {
+        readHead();
+        return (float) doubleFromHead();
+    }
+
+    public int readInteger() throws DtoReadException {
+        final var number = readLong();
+        if (number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+            throw error("Integer out of range");
+        }
+        return (int) number;
+    }
+
+    public Instant readInstant() throws DtoReadException {
+        readHead();
+        if (major == MAJOR_TEXT) {
+            return parse(Instant::parse);
+        }
+        return instantFromHead();
+    }
+
+    public long readLong() throws DtoReadException {
+        readHead();
+        if (major == MAJOR_UNSIGNED || major == MAJOR_NEGATIVE) {
+            if (argument < 0) {
+                throw error("Integer out of range");
+            }
+            return major == MAJOR_UNSIGNED ? argument : -1 - argument;
+        }
+        throw error("Expected integer");
+    }
+
+    public MonthDay readMonthDay() throws DtoReadException {
+        readHead();
+        return parse(MonthDay::parse);
+    }
+
+    public OffsetDateTime readOffsetDateTime() throws DtoReadException {
+        readHead();
+        if (major == MAJOR_TEXT) {
+            return parse(OffsetDateTime::parse);
+        }
+        return OffsetDateTime.ofInstant(instantFromHead(), ZoneId.systemDefault());
+    }
+
+    public OffsetTime readOffsetTime() throws DtoReadException {
+        readHead();
+        return parse(OffsetTime::parse);
+    }
+
+    public Period readPeriod() throws DtoReadException {
+        readHead();
+        return parse(Period::parse);
+    }
+
+    public short readShort() throws DtoReadException {
+        final var number = readLong();
+        if (number < Short.MIN_VALUE || number > Short.MAX_VALUE) {
+            throw error("Short out of range");
+        }
+        return (short) number;
+    }
+
+    public String readString() throws DtoReadException {
+        readHead();
+        return stringFromHead();
+    }
+
+    public Year readYear() throws DtoReadException {
+        readHead();
+        if (major == MAJOR_TEXT) {
+            return parse(Year::parse);
+        }
+        return Year.of((int) doubleFromHead());
+    }
+
+    public YearMonth readYearMonth() throws DtoReadException {
+        readHead();
+        return parse(YearMonth::parse);
+    }
+
+    public ZonedDateTime readZonedDateTime() throws DtoReadException {
+        readHead();
+        if (major == MAJOR_TEXT) {
+            return parse(ZonedDateTime::parse);
+        }
+        return ZonedDateTime.ofInstant(instantFromHead(), ZoneOffset.UTC);
+    }
+
+    public ZoneId readZoneId() throws DtoReadException {
+        readHead();
+        return parse(ZoneId::of);
+    }
+
+    public ZoneOffset readZoneOffset() throws DtoReadException {
+        readHead();
+        if (major == MAJOR_TEXT) {
+            return parse(ZoneOffset::of);
+        }
+        return ZoneOffset.ofTotalSeconds((int) doubleFromHead());
+    }
+
+    /**
+     * Skips the next data item, including any items it contains.
+     *
+     * @throws DtoReadException If the item to skip is malformed.
+     */
+    public void skipValue() throws DtoReadException {
+        readHead();
+        switch (major) {
+        case MAJOR_UNSIGNED:
+        case MAJOR_NEGATIVE:
+        case MAJOR_SIMPLE:
+            break;
+
+        case MAJOR_BYTES:
+        case MAJOR_TEXT:
+            if (isIndefinite) {
+                bytesFromHead();
+            }
+            else {
+                source.skipBytes(definiteLength());
+            }
+            break;
+
+        case MAJOR_ARRAY:
+        case MAJOR_MAP:
+            final var itemsPerEntry = major == MAJOR_MAP ? 2 : 1;
+            for (var n = collectionSize(itemsPerEntry); hasMore(n); --n) {
+                for (var i = 0; i < itemsPerEntry; ++i) {
+                    skipValue();
+                }
+            }
+            break;
+
+        default:
+            throw error("Unexpected data item");
+        }
+    }
+
+    // Reads the head of the next data item, skipping any leading tags. The
+    // last tag skipped, if any, is remembered.
+    private void readHead() throws DtoReadException {
+        tag = -1;
+        while (true) {
+            headOffset = source.readOffset();
+            headByte = readByteOrFail() & 0xFF;
+            major = headByte >>> 5;
+            isIndefinite = false;
+
+            final var info = headByte & 0x1F;
+            if (info < 24) {
+                argument = info;
+            }
+            else if (info <= 27) {
+                final var length = 1 << (info - 24);
+                if (source.readableBytes() < length) {
+                    throw error("Unexpected end of data");
+                }
+                var value = 0L;
+                for (var i = 0; i < length; ++i) {
+                    value = (value << 8) | (source.readByte() & 0xFF);
+                }
+                argument = value;
+            }
+            else if (info == 31 && major >= MAJOR_BYTES && major <= MAJOR_MAP) {
+                argument = 0;
+                isIndefinite = true;
+            }
+            else {
+                throw error("Malformed head");
+            }
+
+            if (major != MAJOR_TAG) {
+                return;
+            }
+            tag = argument;
+        }
+    }
+
+    private byte readByteOrFail() throws DtoReadException {
+        if (source.readableBytes() == 0) {
+            throw new DtoReadException(DtoEncoding.CBOR, "Unexpected end of data", "", source.readOffset());
+        }
+        return source.readByte();
+    }
+
+    // Every item in an array or map requires at least one byte, which makes
+    // it possible to reject lengths that could never be satisfied before
+    // allocating any memory for them.
+    private int collectionSize(final int itemsPerEntry) throws DtoReadException {
+        if (isIndefinite) {
+            return -1;
+        }
+        if (argument < 0 || argument > source.readableBytes() / itemsPerEntry) {
+            throw error("Length exceeds available data");
+        }
+        return (int) argument;
+    }
+
+    private int definiteLength() throws DtoReadException {
+        if (argument < 0 || argument > source.readableBytes()) {
+            throw error("Length exceeds available data");
+        }
+        return (int) argument;
+    }
+
+    private BigInteger bigIntegerFromHead() throws DtoReadException {
+        switch (major) {
+        case MAJOR_UNSIGNED:
+            return unsigned(argument);
+
+        case MAJOR_NEGATIVE:
+            return unsigned(argument).not();
+
+        case MAJOR_BYTES:
+            if (tag == TAG_BIGNUM_POSITIVE) {
+                return new BigInteger(1, bytesFromHead());
+            }
+            if (tag == TAG_BIGNUM_NEGATIVE) {
+                return new BigInteger(1, bytesFromHead()).not();
+            }
+            break;
+        }
+        throw error("Expected integer");
+    }
+
+    private byte[] bytesFromHead() throws DtoReadException {
+        if (!isIndefinite) {
+            final var bytes = new byte[definiteLength()];
+            source.readBytes(bytes);
+            return bytes;
+        }
+        final var major0 = major;
+        final var output = new ByteArrayOutputStream();
+        while (hasMore(-1)) {
+            readHead();
+            if (major != major0 || isIndefinite || tag != -1) {
+                throw error("Malformed indefinite length string chunk");
+            }
+            final var chunk = new byte[definiteLength()];
+            source.readBytes(chunk);
+            output.writeBytes(chunk);
+        }
+        return output.toByteArray();
+    }
+
+    private double doubleFromHead() throws DtoReadException {
+        switch (major) {
+        case MAJOR_UNSIGNED:
+            return argument < 0 ? unsigned(argument).doubleValue() : argument;
+
+        case MAJOR_NEGATIVE:
+            return argument < 0 ? unsigned(argument).not().doubleValue() : -1.0 - argument;
+
+        case MAJOR_SIMPLE:
+            return floatFromHead();
+
+        default:
+            throw error("Expected number");
+        }
+    }
+
+    private double floatFromHead() throws DtoReadException {
+        switch (headByte & 0x1F) {
+        case 25: return halfToDouble((int) argument);
+        case 26: return Float.intBitsToFloat((int) argument);
+        case 27: return Double.longBitsToDouble(argument);
+        default:
+            throw error("Expected number");
+        }
+    }
+
+    private Instant instantFromHead() throws DtoReadException {
+        final var number = doubleFromHead();
+        final long integer = (long) number;
+        return Instant.ofEpochSecond(integer, (long) ((number - integer) * 1e9));
+    }
+
+    private String stringFromHead() throws DtoReadException {
+        if (major != MAJOR_TEXT) {
+            throw error("Expected string");
+        }
+        return new String(bytesFromHead(), StandardCharsets.UTF_8);
+    }
+
+    private <T> T parse(final Parser<T> parser) throws DtoReadException {
+        final var offset = headOffset;
+        final var string = stringFromHead();
+        try {
+            return parser.parse(string);
+        }
+        catch (final DateTimeException exception) {
+            throw new DtoReadException(DtoEncoding.CBOR, "Invalid temporal", string, offset, exception);
+        }
+    }
+
+    private DtoReadException error(final String message) {
+        return new DtoReadException(DtoEncoding.CBOR, message,
+            "0x" + Integer.toHexString(headByte), headOffset);
+    }
+
+    private static BigInteger unsigned(final long value) {
+        final var integer = BigInteger.valueOf(value & Long.MAX_VALUE);
+        return value < 0 ? integer.setBit(63) : integer;
+    }
+
+    private static double halfToDouble(final int bits) {
+        final var exponent = (bits >>> 10) & 0x1F;
+        final var mantissa = bits & 0x3FF;
+        final double value;
+        if (exponent == 0) {
+            value = Math.scalb((double) mantissa, -24);
+        }
+        else if (exponent != 31) {
+            value = Math.scalb((double) (mantissa + 1024), exponent - 25);
+        }
+        else {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        }
+        return (bits & 0x8000) != 0 ? -value : value;
+    }
+
+    @FunctionalInterface
+    private interface Parser<T> {
+        T parse(String string);
+    }
+}
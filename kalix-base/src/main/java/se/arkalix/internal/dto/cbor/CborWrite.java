@@ -0,0 +1,180 @@
+package se.arkalix.internal.dto.cbor;
+
+import se.arkalix.dto.binary.BinaryWriter;
+import se.arkalix.util.annotation.Internal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+@Internal
+@SuppressWarnings("unused")
+public final class CborWrite {
+    private CborWrite() {}
+
+    static final int MAJOR_UNSIGNED = 0;
+    static final int MAJOR_NEGATIVE = 1;
+    static final int MAJOR_BYTES = 2;
+    static final int MAJOR_TEXT = 3;
+    static final int MAJOR_ARRAY = 4;
+    static final int MAJOR_MAP = 5;
+    static final int MAJOR_TAG = 6;
+    static final int MAJOR_SIMPLE = 7;
+
+    static final int TAG_BIGNUM_POSITIVE = 2;
+    static final int TAG_BIGNUM_NEGATIVE = 3;
+    static final int TAG_DECIMAL_FRACTION = 4;
+
+    static final byte FALSE = (byte) 0xF4;
+    static final byte TRUE = (byte) 0xF5;
+    static final byte NULL = (byte) 0xF6;
+    static final byte UNDEFINED = (byte) 0xF7;
+    static final byte FLOAT32 = (byte) 0xFA;
+    static final byte FLOAT64 = (byte) 0xFB;
+    static final byte BREAK = (byte) 0xFF;
+
+    public static void write(final BigDecimal bigDecimal, final BinaryWriter target) {
+        writeHead(MAJOR_TAG, TAG_DECIMAL_FRACTION, target);
+        writeHead(MAJOR_ARRAY, 2, target);
+        write(-(long) bigDecimal.scale(), target);
+        write(bigDecimal.unscaledValue(), target);
+    }
+
+    public static void write(final BigInteger bigInteger, final BinaryWriter target) {
+        if (bigInteger.bitLength() < 64) {
+            write(bigInteger.longValue(), target);
+            return;
+        }
+        final byte[] magnitude;
+        if (bigInteger.signum() < 0) {
+            writeHead(MAJOR_TAG, TAG_BIGNUM_NEGATIVE, target);
+            magnitude = bigInteger.not().toByteArray();
+        }
+        else {
+            writeHead(MAJOR_TAG, TAG_BIGNUM_POSITIVE, target);
+            magnitude = bigInteger.toByteArray();
+        }
+        // Skip the sign byte BigInteger#toByteArray() adds if needed.
+        final var offset = magnitude[0] == 0 ? 1 : 0;
+        writeHead(MAJOR_BYTES, magnitude.length - offset, target);
+        for (var i = offset; i < magnitude.length; ++i) {
+            target.write(magnitude[i]);
+        }
+    }
+
+    public static void write(final boolean bool, final BinaryWriter target) {
+        target.write(bool ? TRUE : FALSE);
+    }
+
+    public static void write(final long number, final BinaryWriter target) {
+        if (number >= 0) {
+            writeHead(MAJOR_UNSIGNED, number, target);
+        }
+        else {
+            writeHead(MAJOR_NEGATIVE, -1 - number, target);
+        }
+    }
+
+    public static void write(final float number, final BinaryWriter target) {
+        target.write(FLOAT32);
+        writeBigEndian(Float.floatToIntBits(number), 4, target);
+    }
+
+    public static void write(final double number, final BinaryWriter target) {
+        // Doubles that can be represented exactly by floats are written as
+        // such, as that saves four bytes without any loss of precision.
+        final var number0 = (float) number;
+        if (number0 == number || Double.isNaN(number)) {
+            write(number0, target);
+            return;
+        }
+        target.write(FLOAT64);
+        writeBigEndian(Double.doubleToLongBits(number), 8, target);
+    }
+
+    public static void write(final String string, final BinaryWriter target) {
+        final var bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeHead(MAJOR_TEXT, bytes.length, target);
+        target.write(bytes);
+    }
+
+    public static void writeArrayHeader(final int size, final BinaryWriter target) {
+        writeHead(MAJOR_ARRAY, size, target);
+    }
+
+    public static void writeMapHeader(final int size, final BinaryWriter target) {
+        writeHead(MAJOR_MAP, size, target);
+    }
+
+    public static void writeNull(final BinaryWriter target) {
+        target.write(NULL);
+    }
+
+    /**
+     * Encodes given {@code string} as a CBOR text string.
+     * <p>
+     * Used by generated DTO classes to encode the keys of their properties
+     * only once.
+     *
+     * @param string String to encode.
+     * @return Encoded string, including its CBOR head.
+     */
+    public static byte[] encode(final String string) {
+        final var bytes = string.getBytes(StandardCharsets.UTF_8);
+        final var headLength = headLengthOf(bytes.length);
+        final var encoded = new byte[headLength + bytes.length];
+        if (headLength == 1) {
+            encoded[0] = (byte) ((MAJOR_TEXT << 5) | bytes.length);
+        }
+        else {
+            encoded[0] = (byte) ((MAJOR_TEXT << 5) | (24 + Integer.numberOfTrailingZeros(headLength - 1)));
+            for (var i = 1; i < headLength; ++i) {
+                encoded[i] = (byte) (bytes.length >>> ((headLength - 1 - i) * 8));
+            }
+        }
+        System.arraycopy(bytes, 0, encoded, headLength, bytes.length);
+        return encoded;
+    }
+
+    static void writeHead(final int major, final long argument, final BinaryWriter target) {
+        final var type = major << 5;
+        if (argument >= 0 && argument < 24) {
+            target.write((byte) (type | argument));
+        }
+        else if (argument >= 0 && argument <= 0xFF) {
+            target.write((byte) (type | 24));
+            target.write((byte) argument);
+        }
+        else if (argument >= 0 && argument <= 0xFFFF) {
+            target.write((byte) (type | 25));
+            writeBigEndian(argument, 2, target);
+        }
+        else if (argument >= 0 && argument <= 0xFFFFFFFFL) {
+            target.write((byte) (type | 26));
+            writeBigEndian(argument, 4, target);
+        }
+        else {
+            target.write((byte) (type | 27));
+            writeBigEndian(argument, 8, target);
+        }
+    }
+
+    private static int headLengthOf(final int argument) {
+        if (argument < 24) {
+            return 1;
+        }
+        if (argument <= 0xFF) {
+            return 2;
+        }
+        if (argument <= 0xFFFF) {
+            return 3;
+        }
+        return 5;
+    }
+
+    private static void writeBigEndian(final long value, final int length, final BinaryWriter target) {
+        for (var shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+            target.write((byte) (value >>> shift));
+        }
+    }
+}
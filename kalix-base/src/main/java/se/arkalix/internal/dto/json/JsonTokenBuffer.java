@@ -1,34 +1,115 @@
 package se.arkalix.internal.dto.json;
 
+import se.arkalix.dto.DtoEncoding;
+import se.arkalix.dto.DtoReadException;
 import se.arkalix.dto.binary.BinaryReader;
 import se.arkalix.dto.json.value.JsonType;
 import se.arkalix.util.annotation.Internal;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.Arrays;
 
+/**
+ * A sequence of JSON tokens, stored as parallel arrays of token types, source
+ * offsets and child counts rather than as individual token objects.
+ * <p>
+ * Tokens are referred to by their indexes, as returned by {@link #next()} and
+ * {@link #peek()}, which are valid until the buffer is {@link #close()
+ * closed}. Closing a buffer may cause its arrays to be reused by a subsequent
+ * call to {@link JsonTokenizer#tokenize(BinaryReader)} on the thread that
+ * created it. A buffer that is never closed is not reused, but does not
+ * prevent other buffers from being reused either.
+ */
 @Internal
-public class JsonTokenBuffer {
-    private final List<JsonToken> tokens;
-    private final BinaryReader source;
+@SuppressWarnings("unused")
+public final class JsonTokenBuffer implements AutoCloseable {
+    private static final JsonType[] TYPES = JsonType.values();
+    private static final byte TYPE_MASK = 0x0F;
+    private static final byte FLAG_ESCAPED = 0x10;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_RETAINED_CAPACITY = 16384;
+
+    private final Thread owner = Thread.currentThread();
+
+    private byte[] types;
+    private int[] begins;
+    private int[] ends;
+    private int[] nChildren;
+    private int size;
+
+    private BinaryReader source;
     private int offset;
+    private boolean isInUse;
 
-    JsonTokenBuffer(final List<JsonToken> tokens, final BinaryReader source) {
-        this.tokens = tokens;
-        this.source = source;
+    JsonTokenBuffer(final int capacity) {
+        final var capacity0 = Math.max(capacity, MIN_CAPACITY);
+        types = new byte[capacity0];
+        begins = new int[capacity0];
+        ends = new int[capacity0];
+        nChildren = new int[capacity0];
+    }
 
+    void open(final BinaryReader source) {
+        this.source = source;
+        size = 0;
         offset = 0;
+        isInUse = true;
+    }
+
+    boolean isInUse() {
+        return isInUse;
+    }
+
+    int add(final JsonType type, final int begin, final int end) {
+        assert begin >= 0 && begin < end;
+
+        if (size == types.length) {
+            final var capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            begins = Arrays.copyOf(begins, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            nChildren = Arrays.copyOf(nChildren, capacity);
+        }
+        final var token = size++;
+        types[token] = (byte) type.ordinal();
+        begins[token] = begin;
+        ends[token] = end;
+        nChildren[token] = 0;
+        return token;
+    }
+
+    void addChild(final int token) {
+        nChildren[token] += 1;
+    }
+
+    void trim(final int token) {
+        begins[token] += 1;
+        ends[token] -= 1;
+    }
+
+    void markEscaped(final int token) {
+        types[token] |= FLAG_ESCAPED;
     }
 
     public boolean atEnd() {
-        return offset == tokens.size();
+        return offset == size;
     }
 
-    public JsonToken next() {
-        return tokens.get(offset++);
+    public int next() {
+        if (offset >= size) {
+            throw new IndexOutOfBoundsException("No more tokens");
+        }
+        return offset++;
     }
 
-    public JsonToken peek() {
-        return tokens.get(offset);
+    public int peek() {
+        if (offset >= size) {
+            throw new IndexOutOfBoundsException("No more tokens");
+        }
+        return offset;
     }
 
     public void skipElement() {
@@ -36,18 +117,20 @@ public class JsonTokenBuffer {
     }
 
     public void skipValue() {
-        var token = next();
-        if (token.nChildren == 0) {
+        final var token = next();
+        final var n = nChildren[token];
+        if (n == 0) {
             return;
         }
-        if (token.type == JsonType.ARRAY) {
-            for (var n = token.nChildren; n-- != 0;) {
+        final var type = type(token);
+        if (type == JsonType.ARRAY) {
+            for (var i = n; i-- != 0; ) {
                 skipValue();
             }
             return;
         }
-        if (token.type == JsonType.OBJECT) {
-            for (var n = token.nChildren; n-- != 0;) {
+        if (type == JsonType.OBJECT) {
+            for (var i = n; i-- != 0; ) {
                 offset += 1; // Skip key.
                 skipValue();
             }
@@ -57,4 +140,355 @@ public class JsonTokenBuffer {
     public BinaryReader source() {
         return source;
     }
+
+    public JsonType type(final int token) {
+        return TYPES[types[token] & TYPE_MASK];
+    }
+
+    public int begin(final int token) {
+        return begins[token];
+    }
+
+    public int end(final int token) {
+        return ends[token];
+    }
+
+    public int length(final int token) {
+        return ends[token] - begins[token];
+    }
+
+    public int nChildren(final int token) {
+        return nChildren[token];
+    }
+
+    /**
+     * Determines whether the identified string token contains any escape
+     * sequences, which means that its raw bytes cannot be compared directly
+     * to those of an unescaped string.
+     *
+     * @param token Index of string token.
+     * @return {@code true} only if token contains escape sequences.
+     */
+    public boolean isEscaped(final int token) {
+        return (types[token] & FLAG_ESCAPED) != 0;
+    }
+
+    /**
+     * Calculates hash of the raw bytes of the identified token, in the same
+     * way as {@link #hash(byte[])}.
+     *
+     * @param token Index of token.
+     * @return Hash of token bytes.
+     */
+    public int hashRaw(final int token) {
+        final var begin = begins[token];
+        final var end = ends[token];
+        var hash = end - begin;
+        for (var i = begin; i < end; ++i) {
+            hash = 31 * hash + (source.getByte(i) & 0xFF);
+        }
+        return hash;
+    }
+
+    /**
+     * Calculates hash of given bytes, which is useful for determining what
+     * string tokens could be equal to those bytes without having to decode
+     * them.
+     *
+     * @param bytes Bytes to hash.
+     * @return Hash of bytes.
+     */
+    public static int hash(final byte[] bytes) {
+        var hash = bytes.length;
+        for (final var b : bytes) {
+            hash = 31 * hash + (b & 0xFF);
+        }
+        return hash;
+    }
+
+    /**
+     * Determines whether the raw bytes of the identified token are equal to
+     * the given bytes.
+     *
+     * @param token Index of token.
+     * @param bytes Bytes to compare to.
+     * @return {@code true} only if token bytes are equal to {@code bytes}.
+     */
+    public boolean equalsRaw(final int token, final byte[] bytes) {
+        final var begin = begins[token];
+        if (ends[token] - begin != bytes.length) {
+            return false;
+        }
+        for (var i = 0; i < bytes.length; ++i) {
+            if (source.getByte(begin + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Releases the source of this buffer and makes its arrays available for
+     * reuse, unless they have grown too large to be worth retaining.
+     */
+    @Override
+    public void close() {
+        if (!isInUse) {
+            return;
+        }
+        source = null;
+        isInUse = false;
+        if (types.length > MAX_RETAINED_CAPACITY) {
+            types = new byte[MAX_RETAINED_CAPACITY];
+            begins = new int[MAX_RETAINED_CAPACITY];
+            ends = new int[MAX_RETAINED_CAPACITY];
+            nChildren = new int[MAX_RETAINED_CAPACITY];
+        }
+        if (owner == Thread.currentThread()) {
+            JsonTokenizer.release(this);
+        }
+    }
+
+    public BigDecimal readBigDecimal(final int token) {
+        return new BigDecimal(readStringRaw(token));
+    }
+
+    public BigInteger readBigInteger(final int token) {
+        return new BigInteger(readStringRaw(token));
+    }
+
+    public byte readByte(final int token) {
+        return Byte.parseByte(requireNotHex(readStringRaw(token)));
+    }
+
+    public double readDouble(final int token) {
+        return Double.parseDouble(requireNotHex(readStringRaw(token)));
+    }
+
+    public Duration readDuration(final int token) {
+        return Duration.parse(readStringRaw(token));
+    }
+
+    public Duration readDurationNumber(final int token) {
+        final var number = Double.parseDouble(readStringRaw(token));
+        final long integer = (long) number;
+        return Duration.ofSeconds(integer, (long) ((number - integer) * 1e9));
+    }
+
+    public float readFloat(final int token) {
+        return Float.parseFloat(requireNotHex(readStringRaw(token)));
+    }
+
+    public int readInteger(final int token) {
+        return Integer.parseInt(requireNotHex(readStringRaw(token)));
+    }
+
+    public Instant readInstant(final int token) {
+        return Instant.parse(readStringRaw(token));
+    }
+
+    public Instant readInstantNumber(final int token) {
+        final var number = Double.parseDouble(readStringRaw(token));
+        final long integer = (long) number;
+        return Instant.ofEpochSecond(integer, (long) ((number - integer) * 1e9));
+    }
+
+    public long readLong(final int token) {
+        return Long.parseLong(requireNotHex(readStringRaw(token)));
+    }
+
+    public MonthDay readMonthDay(final int token) {
+        return MonthDay.parse(readStringRaw(token));
+    }
+
+    public OffsetDateTime readOffsetDateTime(final int token) {
+        return OffsetDateTime.parse(readStringRaw(token));
+    }
+
+    public OffsetDateTime readOffsetDateTimeNumber(final int token) {
+        return OffsetDateTime.ofInstant(readInstantNumber(token), ZoneId.systemDefault());
+    }
+
+    public OffsetTime readOffsetTime(final int token) {
+        return OffsetTime.parse(readStringRaw(token));
+    }
+
+    public Period readPeriod(final int token) {
+        return Period.parse(readStringRaw(token));
+    }
+
+    public short readShort(final int token) {
+        return Short.parseShort(requireNotHex(readStringRaw(token)));
+    }
+
+    public String readString(final int token) throws DtoReadException {
+        var p0 = begins[token]; // Index of first non-appended byte in source.
+        var p1 = p0; // Current source offset.
+        final var p2 = ends[token]; // End of string source region.
+
+        if ((types[token] & FLAG_ESCAPED) == 0) {
+            final var buffer = new byte[p2 - p1];
+            source.getBytes(p1, buffer);
+            return new String(buffer, StandardCharsets.UTF_8);
+        }
+
+        final var buffer = new byte[p2 - p1];
+        var b0 = 0; // Index of first unwritten byte in buffer.
+
+        var badEscapeBuilder = new StringBuilder(0);
+        error:
+        {
+            while (p1 < p2) {
+                var b = source.getByte(p1++);
+                if (b != '\\') {
+                    continue;
+                }
+
+                // Collect bytes before escape sequence into buffer.
+                {
+                    final var length = p1 - 1 - p0;
+                    source.getBytes(p0, buffer, b0, length);
+                    b0 += length;
+                }
+
+                if (p1 == p2) {
+                    badEscapeBuilder.append('\\');
+                    break error;
+                }
+
+                b = source.getByte(p1++);
+                switch (b) {
+                case '\"':
+                case '/':
+                case '\\':
+                    break;
+
+                case 'b': b = '\b'; break;
+                case 'f': b = '\f'; break;
+                case 'r': b = '\r'; break;
+                case 'n': b = '\n'; break;
+                case 't': b = '\t'; break;
+
+                case 'u':
+                    var codePoint = readHex4(p1, p2);
+                    if (codePoint < 0) {
+                        final var uBuffer = new byte[Math.min(4, p2 - p1)];
+                        source.getBytes(p1, uBuffer);
+                        badEscapeBuilder.append("\\u").append(new String(uBuffer, StandardCharsets.US_ASCII));
+                        break error;
+                    }
+                    p1 += 4;
+                    if (Character.isHighSurrogate((char) codePoint) && p1 + 6 <= p2 &&
+                        source.getByte(p1) == '\\' && source.getByte(p1 + 1) == 'u')
+                    {
+                        final var low = readHex4(p1 + 2, p2);
+                        if (low >= 0 && Character.isLowSurrogate((char) low)) {
+                            codePoint = Character.toCodePoint((char) codePoint, (char) low);
+                            p1 += 6;
+                        }
+                    }
+                    b0 = writeUtf8(codePoint, buffer, b0);
+                    p0 = p1;
+                    continue;
+
+                default:
+                    badEscapeBuilder.append('\\').append((char) b);
+                    break error;
+                }
+                buffer[b0++] = b;
+                p0 = p1;
+            }
+            final var length = p2 - p0;
+            source.getBytes(p0, buffer, b0, length);
+            return new String(buffer, 0, b0 + length, StandardCharsets.UTF_8);
+        }
+        throw new DtoReadException(DtoEncoding.JSON, "Bad escape", badEscapeBuilder.toString(), p1);
+    }
+
+    private int readHex4(final int offset, final int end) {
+        if (offset + 4 > end) {
+            return -1;
+        }
+        var value = 0;
+        for (var i = offset; i < offset + 4; ++i) {
+            final var digit = Character.digit(source.getByte(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private static int writeUtf8(final int codePoint, final byte[] buffer, int offset) {
+        if (codePoint < 0x80) {
+            buffer[offset++] = (byte) codePoint;
+        }
+        else if (codePoint < 0x800) {
+            buffer[offset++] = (byte) (0xC0 | (codePoint >> 6));
+            buffer[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        else if (codePoint < 0x10000) {
+            buffer[offset++] = (byte) (0xE0 | (codePoint >> 12));
+            buffer[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        else {
+            buffer[offset++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        return offset;
+    }
+
+    public String readStringRaw(final int token) {
+        final var buffer = new byte[ends[token] - begins[token]];
+        source.getBytes(begins[token], buffer);
+        return new String(buffer, StandardCharsets.ISO_8859_1);
+    }
+
+    public Year readYear(final int token) {
+        return Year.parse(readStringRaw(token));
+    }
+
+    public Year readYearNumber(final int token) {
+        final var number = Double.parseDouble(readStringRaw(token));
+        return Year.of((int) number);
+    }
+
+    public YearMonth readYearMonth(final int token) {
+        return YearMonth.parse(readStringRaw(token));
+    }
+
+    public ZonedDateTime readZonedDateTime(final int token) {
+        return ZonedDateTime.parse(readStringRaw(token));
+    }
+
+    public ZonedDateTime readZonedDateTimeNumber(final int token) {
+        return ZonedDateTime.ofInstant(readInstantNumber(token), ZoneOffset.UTC);
+    }
+
+    public ZoneId readZoneId(final int token) {
+        return ZoneId.of(readStringRaw(token));
+    }
+
+    public ZoneOffset readZoneOffset(final int token) {
+        return ZoneOffset.of(readStringRaw(token));
+    }
+
+    public ZoneOffset readZoneOffsetNumber(final int token) {
+        final var number = Double.parseDouble(readStringRaw(token));
+        return ZoneOffset.ofTotalSeconds((int) number);
+    }
+
+    private static String requireNotHex(final String string) {
+        if (string.length() > 2 && string.charAt(0) == '0') {
+            final var x = string.charAt(1);
+            if (x == 'x' || x == 'X') {
+                throw new NumberFormatException("Unexpected x");
+            }
+        }
+        return string;
+    }
 }
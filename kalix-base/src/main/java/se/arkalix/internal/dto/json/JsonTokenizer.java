@@ -7,34 +7,65 @@ import se.arkalix.dto.json.value.JsonType;
 import se.arkalix.util.annotation.Internal;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 
 @Internal
 @SuppressWarnings("unused")
 public final class JsonTokenizer {
+    private static final ThreadLocal<JsonTokenBuffer> BUFFERS = ThreadLocal
+        .withInitial(() -> new JsonTokenBuffer(0));
+
     private final BinaryReader source;
-    private final ArrayList<JsonToken> tokens;
+    private final JsonTokenBuffer tokens;
 
     private int p0;
     private DtoReadException error = null;
 
-    private JsonTokenizer(final BinaryReader source) {
+    private JsonTokenizer(final BinaryReader source, final JsonTokenBuffer tokens) {
         this.source = source;
-        this.tokens = new ArrayList<>(source.readableBytes() / 16);
+        this.tokens = tokens;
         this.p0 = source.readOffset();
     }
 
+    /**
+     * Tokenizes the JSON object or array at the current read offset of the
+     * given source.
+     * <p>
+     * The returned buffer should be closed when no longer used, which allows
+     * for its token arrays to be reused when tokenizing on the same thread
+     * again.
+     *
+     * @param source Source of JSON data.
+     * @return Buffer of tokens.
+     * @throws DtoReadException If the source does not contain valid JSON.
+     */
     public static JsonTokenBuffer tokenize(final BinaryReader source) throws DtoReadException {
-        final var tokenizer = new JsonTokenizer(source);
+        var buffer = BUFFERS.get();
+        if (buffer.isInUse()) {
+            buffer = new JsonTokenBuffer(source.readableBytes() / 16);
+        }
+        buffer.open(source);
+        final var tokenizer = new JsonTokenizer(source, buffer);
         if (tokenizer.tokenizeRoot()) {
-            return new JsonTokenBuffer(tokenizer.tokens, source);
+            return buffer;
         }
+        buffer.close();
         throw tokenizer.error;
     }
 
-    private JsonToken collectCandidate(final JsonType type) {
-        final var token = new JsonToken(type, p0, source.readOffset(), 0);
-        tokens.add(token);
+    /*
+     * Makes given closed buffer the one reused by the current thread, unless
+     * the buffer currently held for reuse is available. This prevents a
+     * buffer that is never closed from keeping the thread from reusing any
+     * buffers at all.
+     */
+    static void release(final JsonTokenBuffer buffer) {
+        if (BUFFERS.get().isInUse()) {
+            BUFFERS.set(buffer);
+        }
+    }
+
+    private int collectCandidate(final JsonType type) {
+        final var token = tokens.add(type, p0, source.readOffset());
         discardCandidate();
         return token;
     }
@@ -143,7 +174,7 @@ public final class JsonTokenizer {
             if (!tokenizeValue()) {
                 return false;
             }
-            object.nChildren += 1;
+            tokens.addChild(object);
 
             discardWhitespace();
 
@@ -184,7 +215,7 @@ public final class JsonTokenizer {
             if (!tokenizeValue()) {
                 return false;
             }
-            array.nChildren += 1;
+            tokens.addChild(array);
 
             discardWhitespace();
 
@@ -201,18 +232,22 @@ public final class JsonTokenizer {
     }
 
     private boolean tokenizeString() {
+        var isEscaped = false;
         while (source.readableBytes() > 0) {
             byte b = source.readByte();
             if (b == '\"') {
                 final var token = collectCandidate(JsonType.STRING);
 
                 // Remove leading and trailing double quotes `"` from token.
-                token.begin += 1;
-                token.end -= 1;
+                tokens.trim(token);
 
+                if (isEscaped) {
+                    tokens.markEscaped(token);
+                }
                 return true;
             }
             if (b == '\\') {
+                isEscaped = true;
                 if (source.readableBytes() == 0) {
                     break;
                 }
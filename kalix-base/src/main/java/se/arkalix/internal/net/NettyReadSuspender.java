@@ -0,0 +1,96 @@
+package se.arkalix.internal.net;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import se.arkalix.util.annotation.Internal;
+
+import java.util.Objects;
+
+/**
+ * Suspends and resumes reading from a {@link Channel} on behalf of one of
+ * possibly many independent parties, such as a connection handler and the
+ * bodies of the messages it receives.
+ * <p>
+ * Reading from a channel is suspended for as long as at least one of its
+ * suspenders is suspending it. A suspender can only resume reading it
+ * suspended itself, which means that no party can resume reading on behalf
+ * of another.
+ */
+@Internal
+public final class NettyReadSuspender {
+    private static final AttributeKey<Suspensions> SUSPENSIONS = AttributeKey
+        .valueOf(NettyReadSuspender.class, "suspensions");
+
+    private final Suspensions suspensions;
+
+    private boolean isSuspending = false;
+
+    public NettyReadSuspender(final Channel channel) {
+        Objects.requireNonNull(channel, "Expected channel");
+        final var attribute = channel.attr(SUSPENSIONS);
+        var suspensions = attribute.get();
+        if (suspensions == null) {
+            suspensions = new Suspensions(channel);
+            final var existing = attribute.setIfAbsent(suspensions);
+            if (existing != null) {
+                suspensions = existing;
+            }
+        }
+        this.suspensions = suspensions;
+    }
+
+    /**
+     * @return {@code true} only if this suspender is currently suspending
+     * reading from its channel.
+     */
+    public synchronized boolean isSuspending() {
+        return isSuspending;
+    }
+
+    /**
+     * Suspends reading from the channel of this suspender, unless this
+     * suspender already is suspending it.
+     */
+    public synchronized void suspend() {
+        if (isSuspending) {
+            return;
+        }
+        isSuspending = true;
+        suspensions.increment();
+    }
+
+    /**
+     * Resumes reading from the channel of this suspender, unless this
+     * suspender is not suspending it or other suspenders of the same channel
+     * are.
+     */
+    public synchronized void resume() {
+        if (!isSuspending) {
+            return;
+        }
+        isSuspending = false;
+        suspensions.decrement();
+    }
+
+    private static class Suspensions {
+        private final Channel channel;
+
+        private int count = 0;
+
+        private Suspensions(final Channel channel) {
+            this.channel = channel;
+        }
+
+        synchronized void increment() {
+            if (count++ == 0) {
+                channel.config().setAutoRead(false);
+            }
+        }
+
+        synchronized void decrement() {
+            if (--count == 0) {
+                channel.config().setAutoRead(true);
+            }
+        }
+    }
+}
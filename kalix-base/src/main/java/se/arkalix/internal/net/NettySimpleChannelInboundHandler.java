@@ -7,13 +7,27 @@ import se.arkalix.util.annotation.Internal;
 
 @Internal
 public abstract class NettySimpleChannelInboundHandler<I> extends SimpleChannelInboundHandler<I> {
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) throws Exception {
+        // Handlers added to already active channels, such as after a protocol
+        // has been negotiated, never have channelActive() invoked.
+        if (ctx.channel().isActive()) {
+            registerEventLoop(ctx);
+        }
+        super.handlerAdded(ctx);
+    }
+
     @Override
     public void channelActive(final ChannelHandlerContext ctx) throws Exception {
+        registerEventLoop(ctx);
+        super.channelActive(ctx);
+    }
+
+    private static void registerEventLoop(final ChannelHandlerContext ctx) {
         final var thread = Thread.currentThread();
         if (!(thread instanceof NettyThread)) {
             throw new IllegalStateException("Current thread is not a NettyThread");
         }
         ((NettyThread) thread).eventLoop(ctx.channel().eventLoop());
-        super.channelActive(ctx);
     }
 }
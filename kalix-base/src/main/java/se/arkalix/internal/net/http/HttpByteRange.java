@@ -0,0 +1,149 @@
+package se.arkalix.internal.net.http;
+
+import io.netty.handler.codec.DateFormatter;
+import se.arkalix.util.annotation.Internal;
+
+/**
+ * A range of bytes requested via an HTTP {@code Range} header, as described
+ * in RFC 7233.
+ * <p>
+ * Only single byte ranges are supported. Requests for multiple ranges, which
+ * would have to be responded to with {@code multipart/byteranges} bodies, are
+ * treated as if they did not request any ranges at all, which RFC 7233
+ * explicitly permits.
+ */
+@Internal
+public final class HttpByteRange {
+    private static final HttpByteRange UNSATISFIABLE = new HttpByteRange(-1, -1);
+
+    private final long first;
+    private final long last;
+
+    private HttpByteRange(final long first, final long last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Parses {@code Range} header value.
+     *
+     * @param value  Header value.
+     * @param length Length of the representation the range refers to.
+     * @return Parsed range, which may be unsatisfiable, or {@code null} if
+     * {@code value} is not a single valid byte range and should be ignored.
+     */
+    public static HttpByteRange parse(final String value, final long length) {
+        if (value == null) {
+            return null;
+        }
+        final var trimmed = value.trim();
+        if (!trimmed.regionMatches(true, 0, "bytes=", 0, 6)) {
+            return null;
+        }
+        final var spec = trimmed.substring(6).trim();
+        if (spec.indexOf(',') != -1) {
+            return null;
+        }
+        final var dash = spec.indexOf('-');
+        if (dash == -1) {
+            return null;
+        }
+        try {
+            final var firstString = spec.substring(0, dash).trim();
+            final var lastString = spec.substring(dash + 1).trim();
+            if (firstString.isEmpty()) {
+                if (lastString.isEmpty()) {
+                    return null;
+                }
+                final var suffixLength = parseDigits(lastString);
+                if (suffixLength == 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new HttpByteRange(Math.max(length - suffixLength, 0), length - 1);
+            }
+            final var first = parseDigits(firstString);
+            final var last = lastString.isEmpty() ? Long.MAX_VALUE : parseDigits(lastString);
+            if (last < first) {
+                return null;
+            }
+            if (first >= length) {
+                return UNSATISFIABLE;
+            }
+            return new HttpByteRange(first, Math.min(last, length - 1));
+        }
+        catch (final NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private static long parseDigits(final String string) {
+        for (var i = 0; i < string.length(); ++i) {
+            final var c = string.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException();
+            }
+        }
+        return Long.parseLong(string);
+    }
+
+    /**
+     * Determines whether an {@code If-Range} precondition is satisfied by the
+     * current validators of a representation, in which case any {@code
+     * Range} header of the same request should be honored.
+     *
+     * @param ifRange      {@code If-Range} header value, or {@code null}.
+     * @param etag         {@code ETag} of representation, or {@code null}.
+     * @param lastModified {@code Last-Modified} date of representation, or
+     *                     {@code null}.
+     * @return {@code true} only if {@code ifRange} is {@code null} or matches
+     * {@code etag} or {@code lastModified}.
+     */
+    public static boolean isIfRangeSatisfied(final String ifRange, final String etag, final String lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        final var trimmed = ifRange.trim();
+        if (trimmed.startsWith("W/")) {
+            return false;
+        }
+        if (trimmed.startsWith("\"")) {
+            // Only strong entity tags may be used to validate ranges.
+            return etag != null && !etag.startsWith("W/") && trimmed.equals(etag.trim());
+        }
+        if (lastModified == null) {
+            return false;
+        }
+        final var ifRangeDate = DateFormatter.parseHttpDate(trimmed);
+        final var lastModifiedDate = DateFormatter.parseHttpDate(lastModified);
+        return ifRangeDate != null && ifRangeDate.equals(lastModifiedDate);
+    }
+
+    /**
+     * @return {@code true} only if this range overlaps the representation it
+     * was parsed for.
+     */
+    public boolean isSatisfiable() {
+        return this != UNSATISFIABLE;
+    }
+
+    /**
+     * @return Offset of first byte in range.
+     */
+    public long first() {
+        return first;
+    }
+
+    /**
+     * @return Offset of last byte in range.
+     */
+    public long last() {
+        return last;
+    }
+
+    /**
+     * @return Number of bytes in range.
+     */
+    public long length() {
+        return last - first + 1;
+    }
+}
@@ -269,8 +269,9 @@ public class HttpMediaTypes {
      * @return Media type string.
      */
     public static String toMediaType(final DtoEncoding encoding) {
-        if (encoding == DtoEncoding.JSON) {
-            return "application/json";
+        switch (encoding) {
+        case CBOR: return "application/cbor";
+        case JSON: return "application/json";
         }
         throw new IllegalStateException("Supported DTO encoding could not be converted to media type");
     }
@@ -0,0 +1,97 @@
+package se.arkalix.internal.net.http;
+
+import se.arkalix.net.http.client.HttpClientRequest;
+import se.arkalix.util.annotation.Internal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Utilities for resolving the timeouts of HTTP requests and for propagating
+ * request deadlines from consumers to providers.
+ * <p>
+ * Deadlines are propagated via the {@link #DEADLINE_HEADER} header, which
+ * holds the number of milliseconds that remained until the deadline of its
+ * request when that request was sent. A relative duration is used rather
+ * than an absolute time, as the clocks of consumers and providers are not
+ * guaranteed to be synchronized.
+ */
+@Internal
+public final class HttpTimeouts {
+    /**
+     * Name of header used to propagate request deadlines.
+     */
+    public static final String DEADLINE_HEADER = "x-request-timeout-ms";
+
+    private HttpTimeouts() {}
+
+    /**
+     * Determines how long the given {@code request} may wait for a
+     * connection to be established, taking its deadline into account.
+     *
+     * @param request Request to be sent.
+     * @return Connect timeout, or {@code null} if the request has none.
+     */
+    public static Duration connectTimeoutOf(final HttpClientRequest request) {
+        return min(request.connectTimeout().orElse(null), request.deadline().orElse(null));
+    }
+
+    /**
+     * Determines how long the given {@code request} may wait for the head of
+     * its response after it has been sent, taking its deadline into account.
+     *
+     * @param request Request to be sent.
+     * @return Response timeout, or {@code null} if the request has none.
+     */
+    public static Duration responseTimeoutOf(final HttpClientRequest request) {
+        return min(request.responseTimeout().orElse(null), request.deadline().orElse(null));
+    }
+
+    /**
+     * Encodes the deadline of {@code request}, if any, as a header value.
+     *
+     * @param request Request to be sent.
+     * @return Header value, if the request has a deadline.
+     */
+    public static Optional<String> deadlineHeaderValueOf(final HttpClientRequest request) {
+        return request.deadline()
+            .map(deadline -> Long.toString(Math.max(Duration.between(Instant.now(), deadline).toMillis(), 0L)));
+    }
+
+    /**
+     * Decodes header value created by {@link
+     * #deadlineHeaderValueOf(HttpClientRequest)} into a deadline.
+     *
+     * @param value      Header value, or {@code null}.
+     * @param receivedAt Time at which the request holding the header value
+     *                   was received.
+     * @return Deadline, if {@code value} is a valid header value.
+     */
+    public static Optional<Instant> parseDeadlineHeaderValue(final String value, final Instant receivedAt) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            final var millis = Long.parseLong(value.trim());
+            if (millis < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(receivedAt.plusMillis(millis));
+        }
+        catch (final NumberFormatException | ArithmeticException exception) {
+            return Optional.empty();
+        }
+    }
+
+    private static Duration min(final Duration timeout, final Instant deadline) {
+        if (deadline == null) {
+            return timeout;
+        }
+        final var remaining = Duration.between(Instant.now(), deadline);
+        if (timeout == null || remaining.compareTo(timeout) < 0) {
+            return remaining;
+        }
+        return timeout;
+    }
+}
@@ -0,0 +1,181 @@
+package se.arkalix.internal.net.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import se.arkalix.dto.DtoEncoding;
+import se.arkalix.dto.DtoWritable;
+import se.arkalix.internal.dto.binary.ByteBufWriter;
+import se.arkalix.util.annotation.Internal;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+
+/**
+ * Chunked input that encodes the data transfer objects of a {@link
+ * Flow.Publisher} into a JSON array, one or more objects at a time.
+ * <p>
+ * At most {@link #PREFETCH} objects are requested from the publisher before
+ * any of them have been encoded, and objects are only encoded when the
+ * {@link ChunkedWriteHandler} consuming this input determines that its
+ * channel is writable. Any number of objects can therefore be sent using a
+ * constant amount of memory, as long as the publisher respects the demand
+ * signalled to it.
+ */
+@Internal
+public class NettyDtoPublisherInput implements ChunkedInput<ByteBuf>, Flow.Subscriber<DtoWritable> {
+    /**
+     * Maximum number of published objects held by this input at any one
+     * time.
+     */
+    public static final int PREFETCH = 16;
+
+    private final ChunkedWriteHandler chunkedWriteHandler;
+    private final DtoEncoding encoding;
+    private final Queue<DtoWritable> items = new ConcurrentLinkedQueue<>();
+
+    private volatile Flow.Subscription subscription;
+    private volatile Throwable fault = null;
+    private volatile boolean isCompleted = false;
+
+    private boolean isEndOfInput = false;
+    private long count = 0;
+    private long progress = 0;
+
+    /**
+     * Creates new input, subscribing it to {@code publisher}.
+     *
+     * @param publisher           Publisher of objects to encode.
+     * @param encoding            Encoding to use, which must be
+     *                            {@link DtoEncoding#JSON JSON}.
+     * @param chunkedWriteHandler Handler to notify when new objects become
+     *                            available.
+     */
+    public NettyDtoPublisherInput(
+        final Flow.Publisher<? extends DtoWritable> publisher,
+        final DtoEncoding encoding,
+        final ChunkedWriteHandler chunkedWriteHandler)
+    {
+        Objects.requireNonNull(publisher, "Expected publisher");
+        this.encoding = Objects.requireNonNull(encoding, "Expected encoding");
+        this.chunkedWriteHandler = Objects.requireNonNull(chunkedWriteHandler, "Expected chunkedWriteHandler");
+        if (encoding != DtoEncoding.JSON) {
+            throw new UnsupportedOperationException("The \"" + encoding +
+                "\" encoding does not support streaming encoding");
+        }
+        publisher.subscribe(this);
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(PREFETCH);
+    }
+
+    @Override
+    public void onNext(final DtoWritable item) {
+        items.add(item);
+        chunkedWriteHandler.resumeTransfer();
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        fault = throwable;
+        chunkedWriteHandler.resumeTransfer();
+    }
+
+    @Override
+    public void onComplete() {
+        isCompleted = true;
+        chunkedWriteHandler.resumeTransfer();
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+        return isEndOfInput;
+    }
+
+    @Override
+    public void close() {
+        final var subscription = this.subscription;
+        if (subscription != null && !isEndOfInput) {
+            subscription.cancel();
+        }
+        items.clear();
+    }
+
+    @Deprecated
+    @Override
+    public ByteBuf readChunk(final ChannelHandlerContext ctx) throws Exception {
+        return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public ByteBuf readChunk(final ByteBufAllocator allocator) throws Exception {
+        if (isEndOfInput) {
+            return null;
+        }
+
+        // Completion must be observed before the queue is polled, as any
+        // items published before completion could otherwise be missed.
+        final var fault = this.fault;
+        final var isCompleted = this.isCompleted;
+
+        var item = items.poll();
+        if (item == null) {
+            if (fault != null) {
+                throw fault instanceof Exception
+                    ? (Exception) fault
+                    : new Exception(fault);
+            }
+            if (!isCompleted) {
+                return null;
+            }
+            isEndOfInput = true;
+            final var buffer = allocator.buffer(2);
+            if (count == 0) {
+                buffer.writeByte('[');
+            }
+            buffer.writeByte(']');
+            progress += buffer.readableBytes();
+            return buffer;
+        }
+
+        final var buffer = allocator.buffer();
+        try {
+            final var writer = new ByteBufWriter(buffer);
+            var n = 0;
+            do {
+                buffer.writeByte(count++ == 0 ? '[' : ',');
+                encoding.writer().writeOne(item, writer);
+                n += 1;
+            }
+            while (buffer.readableBytes() < NettyHttpFiles.CHUNK_SIZE && (item = items.poll()) != null);
+            subscription.request(n);
+        }
+        catch (final Throwable throwable) {
+            buffer.release();
+            throw throwable;
+        }
+        progress += buffer.readableBytes();
+        return buffer;
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+
+    @Override
+    public long progress() {
+        return progress;
+    }
+}
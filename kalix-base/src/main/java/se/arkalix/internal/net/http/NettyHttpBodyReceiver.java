@@ -4,6 +4,8 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpUtil;
@@ -13,21 +15,29 @@ import se.arkalix.dto.DtoEncoding;
 import se.arkalix.dto.DtoReadException;
 import se.arkalix.dto.DtoReadable;
 import se.arkalix.internal.dto.binary.ByteBufReader;
+import se.arkalix.internal.net.NettyReadSuspender;
 import se.arkalix.net.http.HttpBodyReceiver;
 import se.arkalix.util.Result;
 import se.arkalix.util.annotation.Internal;
 import se.arkalix.util.concurrent.Future;
 import se.arkalix.util.concurrent.FutureProgress;
+import se.arkalix.util.function.ThrowingConsumer;
 
-import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.CancellationException;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
 
 @Internal
@@ -35,12 +45,21 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
     private final ByteBufAllocator alloc;
     private final EncodingDescriptor encoding;
     private final HttpHeaders headers;
+    private final Channel channel;
+    private final NettyReadSuspender reading;
+    private final int maxInFlightBytes;
 
     private FutureBody<?> body;
+    private Queue<HttpContent> pendingContents = null;
+    private int pendingBytes = 0;
+    private int inFlightBytes = 0;
 
     private boolean isAborted = false;
-    private boolean isBodyRequested = false;
+    private boolean isBodyAttached = false;
+    private volatile boolean isBodyRequested = false;
+    private boolean isDiscarded = false;
     private boolean isFinished = false;
+    private boolean isLastContentPending = false;
 
     public NettyHttpBodyReceiver(final ByteBufAllocator alloc, final HttpHeaders headers) {
         this(alloc, headers, null);
@@ -54,11 +73,42 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
         this.alloc = Objects.requireNonNull(alloc, "Expected alloc");
         this.headers = Objects.requireNonNull(headers, "Expected headers");
         this.encoding = encoding;
+        this.channel = null;
+        this.reading = null;
+        this.maxInFlightBytes = 0;
+    }
+
+    /**
+     * Creates new body receiver that retains body contents received before
+     * the body is requested.
+     * <p>
+     * Reading from {@code channel} is suspended while more than {@code
+     * maxInFlightBytes} have been received but not yet consumed, which
+     * happens if contents are retained or if they are consumed by the
+     * requested body asynchronously, such as when written to a file. It is
+     * resumed when at most half of those bytes remain unconsumed. Bodies
+     * collected into memory consume their contents as they arrive, as they
+     * cannot be completed without receiving all of them. The sizes of such
+     * bodies are instead limited by whoever appends contents to this
+     * receiver.
+     */
+    public NettyHttpBodyReceiver(
+        final Channel channel,
+        final HttpHeaders headers,
+        final EncodingDescriptor encoding,
+        final int maxInFlightBytes)
+    {
+        this.channel = Objects.requireNonNull(channel, "Expected channel");
+        this.reading = new NettyReadSuspender(channel);
+        this.alloc = channel.alloc();
+        this.headers = Objects.requireNonNull(headers, "Expected headers");
+        this.encoding = encoding;
+        this.maxInFlightBytes = maxInFlightBytes;
     }
 
     public boolean tryAbort(final Throwable throwable) {
         Objects.requireNonNull(throwable, "Expected throwable");
-        if (isAborted || isFinished || !isBodyRequested) {
+        if (isAborted || isFinished || !isBodyAttached) {
             return false;
         }
         isAborted = true;
@@ -68,18 +118,38 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
     }
 
     public void append(final HttpContent content) {
-        if (isAborted || isFinished || !isBodyRequested) {
+        if (isAborted || isDiscarded || isFinished) {
+            return;
+        }
+        if (!isBodyAttached) {
+            retain(content);
             return;
         }
         if (body.isCancelled()) {
             return;
         }
-        // TODO: Ensure body size does not exceed some configured limit.
-        body.append(content);
+        if (reading == null || !body.isConsumingAsynchronously()) {
+            body.append(content);
+            return;
+        }
+        final var length = content.content().readableBytes();
+        updateInFlightBytes(length);
+        if (!body.append(content)) {
+            updateInFlightBytes(-length);
+        }
     }
 
     public void finish(final LastHttpContent lastContent) {
-        if (isAborted || isFinished || !isBodyRequested) {
+        if (isAborted || isDiscarded || isFinished) {
+            return;
+        }
+        if (!isBodyAttached) {
+            if (channel != null) {
+                isLastContentPending = true;
+                if (lastContent != null) {
+                    headers.add(lastContent.trailingHeaders());
+                }
+            }
             return;
         }
         isFinished = true;
@@ -90,6 +160,76 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
         body.finish();
     }
 
+    /**
+     * Releases any retained body contents and causes any further contents to
+     * be ignored, unless the body has already been requested.
+     */
+    public void discard() {
+        if (isBodyRequested || isDiscarded) {
+            return;
+        }
+        isDiscarded = true;
+        releasePendingContents();
+    }
+
+    private void retain(final HttpContent content) {
+        if (channel == null) {
+            return;
+        }
+        if (pendingContents == null) {
+            pendingContents = new ArrayDeque<>();
+        }
+        final var length = content.content().readableBytes();
+        pendingContents.add(content.retain());
+        pendingBytes += length;
+        updateInFlightBytes(length);
+    }
+
+    private synchronized void updateInFlightBytes(final int delta) {
+        inFlightBytes += delta;
+        if (inFlightBytes > maxInFlightBytes) {
+            reading.suspend();
+        }
+        else if (inFlightBytes <= maxInFlightBytes / 2) {
+            reading.resume();
+        }
+    }
+
+    private void releasePendingContents() {
+        if (pendingContents != null) {
+            HttpContent content;
+            while ((content = pendingContents.poll()) != null) {
+                content.release();
+            }
+            pendingContents = null;
+        }
+        if (reading != null) {
+            updateInFlightBytes(-pendingBytes);
+        }
+        pendingBytes = 0;
+    }
+
+    private void appendPendingContents() {
+        final var pendingContents = this.pendingContents;
+        final var isLastContentPending = this.isLastContentPending;
+        this.pendingContents = null;
+        releasePendingContents();
+        if (pendingContents != null) {
+            HttpContent content;
+            while ((content = pendingContents.poll()) != null) {
+                try {
+                    append(content);
+                }
+                finally {
+                    content.release();
+                }
+            }
+        }
+        if (isLastContentPending) {
+            finish(null);
+        }
+    }
+
     public <R extends DtoReadable> FutureProgress<R> bodyAs(final Class<R> class_) {
         if (encoding == null) {
             throw new IllegalStateException("No default encoding has been set");
@@ -129,6 +269,9 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
         final DtoEncoding encoding,
         final Class<R> class_)
     {
+        if (encoding == DtoEncoding.JSON) {
+            return handleBodyRequest(() -> new FutureBodyAsListOfJson<>(alloc, headers, class_));
+        }
         return handleBodyRequest(() -> new FutureBodyAsList<>(alloc, headers, class_, encoding));
     }
 
@@ -137,6 +280,34 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
         return handleBodyRequest(() -> new FutureBodyAsStream(alloc, headers));
     }
 
+    public <R extends DtoReadable> FutureProgress<Integer> bodyAsStream(
+        final Class<R> class_,
+        final ThrowingConsumer<R> consumer)
+    {
+        if (encoding == null) {
+            throw new IllegalStateException("No default encoding has been set");
+        }
+        final var dtoEncoding = encoding.asDtoEncoding()
+            .orElseThrow(() -> new UnsupportedOperationException("" +
+                "There is no DTO support for the \"" + encoding +
+                "\" encoding; request body cannot be decoded"));
+
+        return bodyAsStream(dtoEncoding, class_, consumer);
+    }
+
+    @Override
+    public <R extends DtoReadable> FutureProgress<Integer> bodyAsStream(
+        final DtoEncoding encoding,
+        final Class<R> class_,
+        final ThrowingConsumer<R> consumer)
+    {
+        if (encoding != DtoEncoding.JSON) {
+            throw new UnsupportedOperationException("The \"" + encoding +
+                "\" encoding does not support streaming decoding");
+        }
+        return handleBodyRequest(() -> new FutureBodyAsStreamOf<>(alloc, headers, class_, consumer));
+    }
+
     @Override
     public FutureProgress<String> bodyAsString() {
         return handleBodyRequest(() -> new FutureBodyAsString(alloc, headers));
@@ -144,7 +315,9 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
 
     @Override
     public FutureProgress<Path> bodyTo(final Path path, final boolean append) {
-        return handleBodyRequest(() -> new FutureBodyToPath(path, append, headers));
+        return handleBodyRequest(() -> new FutureBodyToPath(path, append, headers, channel != null
+            ? channel.eventLoop()
+            : null));
     }
 
     private <V> FutureProgress<V> handleBodyRequest(final Supplier<FutureBody<V>> futureBodySupplier) {
@@ -157,6 +330,11 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
                 "been received and discarded since it wasn't immediately " +
                 "listened for");
         }
+        if (isDiscarded) {
+            throw new IllegalStateException("Incoming HTTP body has already " +
+                "been discarded since it wasn't requested before a response " +
+                "was sent");
+        }
         if (isBodyRequested) {
             throw new IllegalStateException("Incoming HTTP body has already " +
                 "been requested; the handler or other context that requests " +
@@ -164,17 +342,43 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
         }
         isBodyRequested = true;
 
+        // Bodies are typically requested from the thread receiving them. If
+        // not, any contents received so far are retained until the body has
+        // been attached by that thread, as contents would otherwise be
+        // appended to the body both by this and that thread at once.
         final var body = futureBodySupplier.get();
-        this.body = body;
+        if (channel != null && !channel.eventLoop().inEventLoop()) {
+            channel.eventLoop().execute(() -> attach(body));
+        }
+        else {
+            attach(body);
+        }
         return body;
     }
 
+    private void attach(final FutureBody<?> body) {
+        this.body = body;
+        isBodyAttached = true;
+        if (reading != null) {
+            body.consumptionListener = bytes -> updateInFlightBytes(-bytes);
+        }
+        if (isDiscarded) {
+            isAborted = true;
+            body.abort(new IllegalStateException("Incoming HTTP body has " +
+                "already been discarded since it wasn't requested before a " +
+                "response was sent"));
+            return;
+        }
+        appendPendingContents();
+    }
+
     private static abstract class FutureBody<V> implements FutureProgress<V> {
         private final int expectedContentLength;
 
         private Consumer<Result<V>> consumer = null;
         private Result<V> pendingResult = null;
         private Listener listener = null;
+        private IntConsumer consumptionListener = null;
         private boolean isCancelled = false;
         private boolean isCompleted = false;
         private int currentProgress = 0;
@@ -187,7 +391,15 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
             complete(Result.failure(throwable));
         }
 
-        public void append(final HttpContent content) {
+        /**
+         * @return {@code false} only if {@code content} was ignored, either
+         * because this body is completed or because its progress listener
+         * threw an exception.
+         */
+        public boolean append(final HttpContent content) {
+            if (isCompleted) {
+                return false;
+            }
             final var buffer = content.content();
             if (listener != null) {
                 currentProgress += buffer.readableBytes();
@@ -195,33 +407,57 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
                     listener.onProgress(currentProgress, Math.max(currentProgress, expectedContentLength));
                 }
                 catch (final Throwable throwable) {
-                    complete(Result.failure(throwable));
+                    abort(throwable);
+                    return false;
                 }
             }
             append(buffer);
+            return true;
         }
 
         protected abstract void append(ByteBuf buffer);
 
-        protected void complete(final Result<V> result) {
-            if (isCompleted) {
-                return;
-            }
-            isCompleted = true;
+        /**
+         * @return {@code true} only if this body may not have consumed the
+         * contents appended to it by the time {@link #append(HttpContent)}
+         * returns. Such bodies must call {@link #onConsumed(int)} as their
+         * contents are consumed.
+         */
+        protected boolean isConsumingAsynchronously() {
+            return false;
+        }
 
-            if (consumer != null) {
-                consumer.accept(isCancelled
-                    ? Result.failure(new CancellationException())
-                    : result);
+        protected void onConsumed(final int bytes) {
+            final var consumptionListener = this.consumptionListener;
+            if (consumptionListener != null && bytes > 0) {
+                consumptionListener.accept(bytes);
             }
-            else {
-                pendingResult = result;
+        }
+
+        protected void complete(final Result<V> result) {
+            final Consumer<Result<V>> consumer;
+            final boolean isCancelled;
+            synchronized (this) {
+                if (isCompleted) {
+                    return;
+                }
+                isCompleted = true;
+
+                consumer = this.consumer;
+                if (consumer == null) {
+                    pendingResult = result;
+                    return;
+                }
+                isCancelled = this.isCancelled;
             }
+            consumer.accept(isCancelled
+                ? Result.failure(new CancellationException())
+                : result);
         }
 
         public abstract void finish();
 
-        public boolean isCancelled() {
+        public synchronized boolean isCancelled() {
             return isCancelled;
         }
 
@@ -233,16 +469,19 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
 
         @Override
         public void onResult(final Consumer<Result<V>> consumer) {
-            if (pendingResult != null) {
-                consumer.accept(pendingResult);
-            }
-            else {
-                this.consumer = consumer;
+            final Result<V> result;
+            synchronized (this) {
+                if (pendingResult == null) {
+                    this.consumer = consumer;
+                    return;
+                }
+                result = pendingResult;
             }
+            consumer.accept(result);
         }
 
         @Override
-        public void cancel(final boolean mayInterruptIfRunning) {
+        public synchronized void cancel(final boolean mayInterruptIfRunning) {
             isCancelled = true;
         }
     }
@@ -343,52 +582,274 @@ public class NettyHttpBodyReceiver implements HttpBodyReceiver {
         }
     }
 
-    private static class FutureBodyToPath extends FutureBody<Path> {
-        private final Path path;
-        private final FileOutputStream stream;
+    private static class FutureBodyAsListOfJson<V extends DtoReadable> extends FutureBody<List<V>> {
+        private final List<V> values = new ArrayList<>();
+        private final NettyJsonArrayDecoder<V> decoder;
 
-        public FutureBodyToPath(final Path path, final boolean append, final HttpHeaders headers) {
+        private FutureBodyAsListOfJson(
+            final ByteBufAllocator alloc,
+            final HttpHeaders headers,
+            final Class<V> class_)
+        {
             super(headers);
-            FileOutputStream stream;
+            decoder = new NettyJsonArrayDecoder<>(alloc, class_, values::add);
+        }
+
+        @Override
+        protected void append(final ByteBuf buffer) {
             try {
-                stream = new FileOutputStream(path.toFile(), append);
+                decoder.decode(buffer);
             }
             catch (final Throwable throwable) {
                 abort(throwable);
-                stream = null;
             }
-            this.path = path;
-            this.stream = stream;
         }
 
         @Override
-        public void append(final ByteBuf buffer) {
-            if (stream == null) {
-                return;
+        public void abort(final Throwable throwable) {
+            decoder.release();
+            super.abort(throwable);
+        }
+
+        @Override
+        public void finish() {
+            try {
+                decoder.finish();
+                complete(Result.success(values));
+            }
+            catch (final Throwable throwable) {
+                abort(throwable);
             }
+        }
+    }
+
+    private static class FutureBodyAsStreamOf<V extends DtoReadable> extends FutureBody<Integer> {
+        private final NettyJsonArrayDecoder<V> decoder;
+
+        private FutureBodyAsStreamOf(
+            final ByteBufAllocator alloc,
+            final HttpHeaders headers,
+            final Class<V> class_,
+            final ThrowingConsumer<V> consumer)
+        {
+            super(headers);
+            decoder = new NettyJsonArrayDecoder<>(alloc, class_, consumer);
+        }
+
+        @Override
+        protected void append(final ByteBuf buffer) {
             try {
-                final var length = buffer.readableBytes();
-                buffer.readBytes(stream, length);
+                decoder.decode(buffer);
             }
             catch (final Throwable throwable) {
                 abort(throwable);
             }
         }
 
+        @Override
+        public void abort(final Throwable throwable) {
+            decoder.release();
+            super.abort(throwable);
+        }
+
         @Override
         public void finish() {
-            if (stream == null) {
+            try {
+                decoder.finish();
+                complete(Result.success(decoder.count()));
+            }
+            catch (final Throwable throwable) {
+                abort(throwable);
+            }
+        }
+    }
+
+    /**
+     * Writes received body contents to a file without blocking the thread
+     * receiving them.
+     * <p>
+     * Contents are queued and written one at a time via an {@link
+     * AsynchronousFileChannel}. Queued contents are not consumed until
+     * written, which lets the receiver suspend reading while too many of
+     * them are queued. As writes complete on threads of the file channel,
+     * the body is completed by the event loop of the channel receiving the
+     * contents, if any.
+     */
+    private static class FutureBodyToPath extends FutureBody<Path> {
+        private final Path path;
+        private final EventLoop eventLoop;
+        private final Queue<ByteBuf> pendingBuffers = new ArrayDeque<>();
+        private final AsynchronousFileChannel file;
+
+        private long position;
+        private int pendingBytes = 0;
+        private boolean isClosed = false;
+        private boolean isFinishing = false;
+        private boolean isWriting = false;
+
+        public FutureBodyToPath(
+            final Path path,
+            final boolean append,
+            final HttpHeaders headers,
+            final EventLoop eventLoop)
+        {
+            super(headers);
+            this.path = path;
+            this.eventLoop = eventLoop;
+
+            AsynchronousFileChannel file = null;
+            try {
+                file = append
+                    ? AsynchronousFileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE)
+                    : AsynchronousFileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                position = append ? file.size() : 0;
+            }
+            catch (final Throwable throwable) {
+                if (file != null) {
+                    try {
+                        file.close();
+                    }
+                    catch (final Throwable throwable0) {
+                        throwable.addSuppressed(throwable0);
+                    }
+                    file = null;
+                }
+                abort(throwable);
+            }
+            this.file = file;
+        }
+
+        @Override
+        protected boolean isConsumingAsynchronously() {
+            return true;
+        }
+
+        @Override
+        public void append(final ByteBuf buffer) {
+            final var length = buffer.readableBytes();
+            if (length == 0) {
                 return;
             }
-            Result<Path> result;
+            final ByteBuf nextBuffer;
+            synchronized (this) {
+                if (file == null || isClosed) {
+                    onConsumed(length);
+                    return;
+                }
+                pendingBuffers.add(buffer.retainedSlice());
+                pendingBytes += length;
+                if (isWriting) {
+                    return;
+                }
+                isWriting = true;
+                nextBuffer = pendingBuffers.peek();
+            }
+            write(nextBuffer);
+        }
+
+        private void write(final ByteBuf buffer) {
             try {
-                stream.close();
-                result = Result.success(path);
+                file.write(buffer.nioBuffer(), position, buffer, new CompletionHandler<>() {
+                    @Override
+                    public void completed(final Integer length, final ByteBuf buffer) {
+                        onWritten(buffer, length);
+                    }
+
+                    @Override
+                    public void failed(final Throwable throwable, final ByteBuf buffer) {
+                        abort(throwable);
+                    }
+                });
             }
             catch (final Throwable throwable) {
-                result = Result.failure(throwable);
+                abort(throwable);
+            }
+        }
+
+        private void onWritten(final ByteBuf buffer, final int length) {
+            final ByteBuf nextBuffer;
+            final boolean isDone;
+            synchronized (this) {
+                if (isClosed) {
+                    return;
+                }
+                position += length;
+                pendingBytes -= length;
+                buffer.skipBytes(length);
+                onConsumed(length);
+                if (!buffer.isReadable()) {
+                    pendingBuffers.remove().release();
+                }
+                nextBuffer = pendingBuffers.peek();
+                if (nextBuffer == null) {
+                    isWriting = false;
+                }
+                isDone = nextBuffer == null && isFinishing;
+            }
+            if (nextBuffer != null) {
+                write(nextBuffer);
+            }
+            else if (isDone) {
+                close(null);
+            }
+        }
+
+        @Override
+        public void abort(final Throwable throwable) {
+            close(throwable);
+        }
+
+        @Override
+        public void finish() {
+            synchronized (this) {
+                if (file == null || isClosed) {
+                    return;
+                }
+                isFinishing = true;
+                if (isWriting) {
+                    return;
+                }
+            }
+            close(null);
+        }
+
+        private void close(final Throwable throwable) {
+            synchronized (this) {
+                if (isClosed) {
+                    return;
+                }
+                isClosed = true;
+                ByteBuf buffer;
+                while ((buffer = pendingBuffers.poll()) != null) {
+                    buffer.release();
+                }
+                onConsumed(pendingBytes);
+                pendingBytes = 0;
+            }
+            Throwable throwable0 = throwable;
+            if (file != null) {
+                try {
+                    file.close();
+                }
+                catch (final Throwable throwable1) {
+                    if (throwable0 == null) {
+                        throwable0 = throwable1;
+                    }
+                    else {
+                        throwable0.addSuppressed(throwable1);
+                    }
+                }
+            }
+            final var result = throwable0 == null
+                ? Result.success(path)
+                : Result.<Path>failure(throwable0);
+            if (eventLoop == null || eventLoop.inEventLoop()) {
+                complete(result);
+            }
+            else {
+                eventLoop.execute(() -> complete(result));
             }
-            complete(result);
         }
     }
 
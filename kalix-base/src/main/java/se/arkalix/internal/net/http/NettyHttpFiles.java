@@ -0,0 +1,75 @@
+package se.arkalix.internal.net.http;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.http.HttpChunkedInput;
+import io.netty.handler.codec.http.HttpMessage;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedNioFile;
+import se.arkalix.util.annotation.Internal;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Utilities for sending files as HTTP message bodies.
+ */
+@Internal
+public final class NettyHttpFiles {
+    /**
+     * Size of the chunks files are read in when they cannot be transferred
+     * directly from the file system to the network, which is the maximum
+     * amount of plaintext a single TLS record can hold.
+     */
+    public static final int CHUNK_SIZE = 16 * 1024;
+
+    private NettyHttpFiles() {}
+
+    /**
+     * Writes {@code head}, followed by {@code length} bytes from {@code file}
+     * starting at {@code offset}, to {@code channel}.
+     * <p>
+     * If possible, the file is transferred directly from the file system to
+     * the network without being copied via user space, using {@code
+     * sendfile} or similar. This is not possible if the channel encrypts its
+     * data or if it is an HTTP/2 stream, in which case the file is read in
+     * chunks of {@link #CHUNK_SIZE} bytes, each of which is read into a
+     * pooled buffer only when the channel is ready to send it. Either way,
+     * the channel pipeline must contain a {@link
+     * io.netty.handler.stream.ChunkedWriteHandler ChunkedWriteHandler}.
+     * <p>
+     * {@code file} is closed when sending completes or fails.
+     *
+     * @param channel Channel to write to.
+     * @param head    HTTP message head to write before file.
+     * @param file    File to write.
+     * @param offset  Offset of first byte in {@code file} to write.
+     * @param length  Number of bytes from {@code file} to write.
+     * @return Channel future completed when {@code file} has been sent.
+     * @throws IOException If reading from {@code file} fails.
+     */
+    public static ChannelFuture write(
+        final Channel channel,
+        final HttpMessage head,
+        final RandomAccessFile file,
+        final long offset,
+        final long length) throws IOException
+    {
+        channel.write(head);
+        if (isZeroCopyPossible(channel)) {
+            channel.write(new DefaultFileRegion(file.getChannel(), offset, length));
+            return channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        }
+        return channel.writeAndFlush(new HttpChunkedInput(new ChunkedNioFile(file.getChannel(), offset, length,
+            CHUNK_SIZE)));
+    }
+
+    private static boolean isZeroCopyPossible(final Channel channel) {
+        // HTTP/2 streams can only send files as DATA frames, and TLS records
+        // can only be created from data in user space.
+        return !(channel instanceof Http2StreamChannel) && channel.pipeline().get(SslHandler.class) == null;
+    }
+}
@@ -0,0 +1,226 @@
+package se.arkalix.internal.net.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import se.arkalix.dto.DtoEncoding;
+import se.arkalix.dto.DtoReadException;
+import se.arkalix.dto.DtoReadable;
+import se.arkalix.internal.dto.binary.ByteBufReader;
+import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.function.ThrowingConsumer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Incrementally decodes the elements of a top-level JSON array, provided in
+ * arbitrarily sized chunks.
+ * <p>
+ * The decoder keeps track of where in the array it is across chunk
+ * boundaries, which allows it to decode and hand over every array element as
+ * soon as its last byte has been received. Only the bytes of the element
+ * currently being received are retained, which means that arrays of any size
+ * can be decoded as long as their individual elements fit in memory.
+ */
+@Internal
+public class NettyJsonArrayDecoder<T extends DtoReadable> {
+    private static final int STATE_BEFORE_ARRAY = 0;
+    private static final int STATE_BEFORE_FIRST_ELEMENT = 1;
+    private static final int STATE_BEFORE_ELEMENT = 2;
+    private static final int STATE_IN_ELEMENT = 3;
+    private static final int STATE_AFTER_ELEMENT = 4;
+    private static final int STATE_AFTER_ARRAY = 5;
+
+    private final ByteBufAllocator alloc;
+    private final Class<T> class_;
+    private final ThrowingConsumer<T> consumer;
+
+    private CompositeByteBuf element = null;
+    private int state = STATE_BEFORE_ARRAY;
+    private int depth = 0;
+    private boolean isInString = false;
+    private boolean isEscaped = false;
+    private int offset = 0;
+    private int count = 0;
+
+    public NettyJsonArrayDecoder(
+        final ByteBufAllocator alloc,
+        final Class<T> class_,
+        final ThrowingConsumer<T> consumer)
+    {
+        this.alloc = Objects.requireNonNull(alloc, "Expected alloc");
+        this.class_ = Objects.requireNonNull(class_, "Expected class_");
+        this.consumer = Objects.requireNonNull(consumer, "Expected consumer");
+    }
+
+    /**
+     * @return Number of elements decoded and handed over to consumer so far.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Decodes given chunk, handing over every array element it completes to
+     * the consumer of this decoder. The chunk is not released.
+     *
+     * @param chunk Chunk of bytes to decode.
+     * @throws Throwable If the chunk contains invalid JSON, or if the consumer
+     *                   of this decoder throws.
+     */
+    public void decode(final ByteBuf chunk) throws Throwable {
+        final var p1 = chunk.writerIndex();
+        final var p0 = chunk.readerIndex();
+        var elementBegin = state == STATE_IN_ELEMENT ? p0 : -1;
+
+        for (var p = p0; p < p1; ++p) {
+            final var b = chunk.getByte(p);
+            switch (state) {
+            case STATE_BEFORE_ARRAY:
+                if (isWhitespace(b)) {
+                    break;
+                }
+                if (b != '[') {
+                    throw unexpected(b, p - p0, "expected `[`");
+                }
+                state = STATE_BEFORE_FIRST_ELEMENT;
+                break;
+
+            case STATE_BEFORE_FIRST_ELEMENT:
+            case STATE_BEFORE_ELEMENT:
+                if (isWhitespace(b)) {
+                    break;
+                }
+                if (b == ']' && state == STATE_BEFORE_FIRST_ELEMENT) {
+                    state = STATE_AFTER_ARRAY;
+                    break;
+                }
+                if (b != '{' && b != '[') {
+                    throw unexpected(b, p - p0, "expected object or array element");
+                }
+                state = STATE_IN_ELEMENT;
+                elementBegin = p;
+                depth = 1;
+                isInString = false;
+                isEscaped = false;
+                break;
+
+            case STATE_IN_ELEMENT:
+                if (isInString) {
+                    if (isEscaped) {
+                        isEscaped = false;
+                    }
+                    else if (b == '\\') {
+                        isEscaped = true;
+                    }
+                    else if (b == '"') {
+                        isInString = false;
+                    }
+                    break;
+                }
+                switch (b) {
+                case '"':
+                    isInString = true;
+                    break;
+                case '{':
+                case '[':
+                    depth += 1;
+                    break;
+                case '}':
+                case ']':
+                    depth -= 1;
+                    if (depth == 0) {
+                        collect(chunk, elementBegin, p + 1);
+                        elementBegin = -1;
+                        state = STATE_AFTER_ELEMENT;
+                    }
+                    break;
+                }
+                break;
+
+            case STATE_AFTER_ELEMENT:
+                if (isWhitespace(b)) {
+                    break;
+                }
+                if (b == ',') {
+                    state = STATE_BEFORE_ELEMENT;
+                    break;
+                }
+                if (b == ']') {
+                    state = STATE_AFTER_ARRAY;
+                    break;
+                }
+                throw unexpected(b, p - p0, "expected `,` or `]`");
+
+            case STATE_AFTER_ARRAY:
+                if (!isWhitespace(b)) {
+                    throw unexpected(b, p - p0, "expected end of data");
+                }
+                break;
+
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+        if (elementBegin != -1) {
+            if (element == null) {
+                element = alloc.compositeBuffer();
+            }
+            element.addComponent(true, chunk.retainedSlice(elementBegin, p1 - elementBegin));
+        }
+        offset += p1 - p0;
+        chunk.readerIndex(p1);
+    }
+
+    /**
+     * Ensures that a complete JSON array has been decoded.
+     *
+     * @throws DtoReadException If the array is not yet complete.
+     */
+    public void finish() throws DtoReadException {
+        if (state != STATE_AFTER_ARRAY) {
+            release();
+            throw new DtoReadException(DtoEncoding.JSON, "Unexpected end of array", "", offset);
+        }
+    }
+
+    /**
+     * Releases any partially received array element.
+     */
+    public void release() {
+        if (element != null) {
+            element.release();
+            element = null;
+        }
+    }
+
+    private void collect(final ByteBuf chunk, final int begin, final int end) throws Throwable {
+        final T value;
+        if (element == null) {
+            value = DtoEncoding.JSON.reader().readOne(class_, new ByteBufReader(chunk.slice(begin, end - begin)));
+        }
+        else {
+            element.addComponent(true, chunk.retainedSlice(begin, end - begin));
+            try {
+                value = DtoEncoding.JSON.reader().readOne(class_, new ByteBufReader(element));
+            }
+            finally {
+                release();
+            }
+        }
+        count += 1;
+        consumer.accept(value);
+    }
+
+    private DtoReadException unexpected(final byte b, final int chunkOffset, final String expectation) {
+        release();
+        return new DtoReadException(DtoEncoding.JSON, "Unexpected character; " + expectation,
+            new String(new byte[]{b}, StandardCharsets.ISO_8859_1), offset + chunkOffset);
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+}
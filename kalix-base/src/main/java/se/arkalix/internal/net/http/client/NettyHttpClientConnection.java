@@ -3,16 +3,29 @@ package se.arkalix.internal.net.http.client;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
-import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.concurrent.ScheduledFuture;
 import se.arkalix.dto.DtoWritable;
 import se.arkalix.dto.DtoWriteException;
 import se.arkalix.internal.dto.binary.ByteBufWriter;
+import se.arkalix.internal.net.NettySimpleChannelInboundHandler;
 import se.arkalix.internal.net.http.HttpMediaTypes;
+import se.arkalix.internal.net.http.HttpTimeouts;
+import se.arkalix.internal.net.http.NettyHttpBodyReceiver;
+import se.arkalix.internal.net.http.NettyHttpFiles;
 import se.arkalix.net.http.HttpVersion;
 import se.arkalix.net.http.client.HttpClientConnection;
+import se.arkalix.net.http.client.HttpClientConnectionException;
 import se.arkalix.net.http.client.HttpClientRequest;
 import se.arkalix.net.http.client.HttpClientResponse;
+import se.arkalix.net.http.client.HttpClientResponseException;
 import se.arkalix.security.NotSecureException;
 import se.arkalix.util.Result;
 import se.arkalix.util.annotation.Internal;
@@ -24,30 +37,57 @@ import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.security.cert.Certificate;
-import java.util.LinkedList;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.*;
 import static se.arkalix.internal.net.http.NettyHttpConverters.convert;
 import static se.arkalix.internal.util.concurrent.NettyFutures.adapt;
 
+/**
+ * HTTP client connection, either via HTTP/1.1 or HTTP/2.
+ * <p>
+ * HTTP/1.1 connections receive responses in the same order as their requests
+ * were sent, while multiplexed HTTP/2 connections send every request via a
+ * stream of its own, allowing responses to be received in any order.
+ */
 @Internal
 public class NettyHttpClientConnection implements HttpClientConnection {
+    static final int MAX_IN_FLIGHT_BYTES = 256 * 1024;
+
     private final Certificate[] certificateChain;
     private final Channel channel;
-    private final Queue<FutureResponse> pendingResponseQueue = new LinkedList<>();
+    private final boolean isMultiplexed;
+    private final Queue<FutureResponse> pendingResponseQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeStreamCount = new AtomicInteger(0);
+    private final AtomicLong requestCount = new AtomicLong(0);
 
-    private boolean isClosing = false;
+    private volatile Runnable idleListener = null;
+    private volatile boolean isClosing = false;
+    private volatile boolean isKeepAlive = true;
 
     public NettyHttpClientConnection(
         final Channel channel,
         final Certificate[] certificateChain)
+    {
+        this(channel, certificateChain, false);
+    }
+
+    public NettyHttpClientConnection(
+        final Channel channel,
+        final Certificate[] certificateChain,
+        final boolean isMultiplexed)
     {
         this.channel = Objects.requireNonNull(channel, "Expected channel");
         this.certificateChain = certificateChain;
+        this.isMultiplexed = isMultiplexed;
     }
 
     @Override
@@ -73,11 +113,41 @@ public class NettyHttpClientConnection implements HttpClientConnection {
         return isClosing && pendingResponseQueue.size() == 0;
     }
 
+    public boolean isMultiplexed() {
+        return isMultiplexed;
+    }
+
+    public int activeStreamCount() {
+        return activeStreamCount.get();
+    }
+
+    public long requestCount() {
+        return requestCount.get();
+    }
+
     @Override
     public boolean isLive() {
         return channel.isActive();
     }
 
+    public boolean isReusable() {
+        return isKeepAlive && !isClosing && channel.isActive();
+    }
+
+    /*
+     * The listener of a multiplexed connection is notified every time its
+     * last active stream is closed, while that of other connections is
+     * notified only once.
+     */
+    public void onIdle(final Runnable listener) {
+        idleListener = listener;
+    }
+
+    public void onClose(final Runnable listener) {
+        Objects.requireNonNull(listener, "Expected listener");
+        channel.closeFuture().addListener(ignored -> listener.run());
+    }
+
     @Override
     public boolean isSecure() {
         return certificateChain != null;
@@ -85,17 +155,113 @@ public class NettyHttpClientConnection implements HttpClientConnection {
 
     @Override
     public Future<HttpClientResponse> send(final HttpClientRequest request) {
+        final var responseTimeout = HttpTimeouts.responseTimeoutOf(request);
+        if (responseTimeout != null && (responseTimeout.isNegative() || responseTimeout.isZero())) {
+            return Future.failure(new HttpClientResponseException(request, "Deadline expired before request was sent"));
+        }
+        requestCount.incrementAndGet();
+        if (isMultiplexed) {
+            return sendViaStream(request, responseTimeout);
+        }
+        // The response must be expected before the request is written, as the
+        // former could otherwise arrive first if not called by the event loop
+        // thread of this connection.
+        final var pendingResponse = new FutureResponse(request);
+        pendingResponseQueue.add(pendingResponse);
         try {
-            writeRequestToChannel(request);
+            final var writeFuture = writeRequestToChannel(channel, request);
+            scheduleTimeouts(channel, pendingResponse, writeFuture, responseTimeout);
         }
         catch (final Throwable throwable) {
+            pendingResponseQueue.remove(pendingResponse);
             return Future.failure(throwable);
         }
+        return pendingResponse;
+    }
+
+    private Future<HttpClientResponse> sendViaStream(final HttpClientRequest request, final Duration responseTimeout) {
         final var pendingResponse = new FutureResponse(request);
-        pendingResponseQueue.add(pendingResponse);
+        activeStreamCount.incrementAndGet();
+        new Http2StreamChannelBootstrap(channel)
+            .handler(new ChannelInitializer<Http2StreamChannel>() {
+                @Override
+                protected void initChannel(final Http2StreamChannel ch) {
+                    ch.pipeline()
+                        .addLast(new Http2StreamFrameToHttpObjectCodec(false))
+                        .addLast(new ChunkedWriteHandler())
+                        .addLast(new StreamHandler(pendingResponse));
+                }
+            })
+            .open()
+            .addListener(future -> {
+                if (!future.isSuccess()) {
+                    pendingResponse.setResult(Result.failure(future.cause()));
+                    onStreamClosed();
+                    return;
+                }
+                final var stream = (Http2StreamChannel) future.getNow();
+                stream.closeFuture().addListener(ignored -> onStreamClosed());
+                try {
+                    final var writeFuture = writeRequestToChannel(stream, request);
+                    scheduleTimeouts(stream, pendingResponse, writeFuture, responseTimeout);
+                }
+                catch (final Throwable throwable) {
+                    pendingResponse.setResult(Result.failure(throwable));
+                    stream.close();
+                }
+            });
         return pendingResponse;
     }
 
+    private void onStreamClosed() {
+        if (activeStreamCount.decrementAndGet() != 0) {
+            return;
+        }
+        if (isClosing) {
+            channel.close();
+            return;
+        }
+        final var idleListener = this.idleListener;
+        if (idleListener != null) {
+            idleListener.run();
+        }
+    }
+
+    /*
+     * Timing out a request leaves its channel in an unknown state, which is
+     * why the channel is closed. In the case of HTTP/1.1 connections, this
+     * causes any other pending responses to fail, as they could otherwise be
+     * associated with the wrong requests.
+     */
+    private void scheduleTimeouts(
+        final Channel channel,
+        final FutureResponse pendingResponse,
+        final ChannelFuture writeFuture,
+        final Duration responseTimeout)
+    {
+        final var request = pendingResponse.request();
+        final var writeTimeout = request.writeTimeout().orElse(null);
+        if (writeTimeout != null && !writeFuture.isDone()) {
+            final var timer = channel.eventLoop().schedule(() -> {
+                if (!writeFuture.isDone() && pendingResponse.setResult(Result.failure(
+                    new HttpClientConnectionException("Request could not be written within " + writeTimeout))))
+                {
+                    channel.close();
+                }
+            }, writeTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            writeFuture.addListener(ignored -> timer.cancel(false));
+        }
+        if (responseTimeout != null) {
+            pendingResponse.setTimer(channel.eventLoop().schedule(() -> {
+                if (pendingResponse.setResult(Result.failure(new HttpClientResponseException(request,
+                    "No response received within " + responseTimeout))))
+                {
+                    channel.close();
+                }
+            }, responseTimeout.toNanos(), TimeUnit.NANOSECONDS));
+        }
+    }
+
     @Override
     public Future<HttpClientResponse> sendAndClose(final HttpClientRequest request) {
         isClosing = true;
@@ -103,7 +269,9 @@ public class NettyHttpClientConnection implements HttpClientConnection {
     }
 
     @SuppressWarnings("unchecked")
-    private void writeRequestToChannel(final HttpClientRequest request) throws DtoWriteException, IOException {
+    private ChannelFuture writeRequestToChannel(final Channel channel, final HttpClientRequest request)
+        throws DtoWriteException, IOException
+    {
         final var body = request.body().orElse(null);
         final var headers = request.headers().unwrap();
         final var method = convert(request.method().orElseThrow(() -> new IllegalArgumentException("Expected method")));
@@ -123,7 +291,11 @@ public class NettyHttpClientConnection implements HttpClientConnection {
 
         final var remoteSocketAddress = remoteSocketAddress();
         headers.set(HOST, remoteSocketAddress.getHostString() + ":" + remoteSocketAddress.getPort());
-        HttpUtil.setKeepAlive(headers, version, !isClosing);
+        if (!isMultiplexed) {
+            HttpUtil.setKeepAlive(headers, version, !isClosing);
+        }
+        HttpTimeouts.deadlineHeaderValueOf(request)
+            .ifPresent(value -> headers.set(HttpTimeouts.DEADLINE_HEADER, value));
 
         final ByteBuf content;
         if (body == null) {
@@ -162,10 +334,8 @@ public class NettyHttpClientConnection implements HttpClientConnection {
 
             headers.set(CONTENT_LENGTH, length);
 
-            channel.write(new DefaultHttpRequest(version, method, uri, headers));
-            channel.write(new DefaultFileRegion(file.getChannel(), 0, length));
-            channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
-            return;
+            return NettyHttpFiles.write(channel, new DefaultHttpRequest(version, method, uri, headers), file, 0,
+                length);
         }
         else if (body instanceof String) {
             final var charset = HttpUtil.getCharset(headers.get("content-type"), StandardCharsets.UTF_8);
@@ -176,7 +346,7 @@ public class NettyHttpClientConnection implements HttpClientConnection {
         }
         headers.set(CONTENT_LENGTH, content.readableBytes());
 
-        channel.writeAndFlush(new DefaultFullHttpRequest(version, method, uri, content, headers,
+        return channel.writeAndFlush(new DefaultFullHttpRequest(version, method, uri, content, headers,
             EmptyHttpHeaders.INSTANCE));
     }
 
@@ -199,6 +369,23 @@ public class NettyHttpClientConnection implements HttpClientConnection {
         return pendingResponse.setResult(result);
     }
 
+    public void onResponseHead(final boolean isKeepAlive) {
+        if (!isKeepAlive) {
+            this.isKeepAlive = false;
+        }
+    }
+
+    public void onResponseBodyFinished() {
+        if (!pendingResponseQueue.isEmpty()) {
+            return;
+        }
+        final var idleListener = this.idleListener;
+        if (idleListener != null) {
+            this.idleListener = null;
+            idleListener.run();
+        }
+    }
+
     public HttpClientRequest pendingResponseRequest() {
         final var futureResponse = pendingResponseQueue.peek();
         if (futureResponse == null) {
@@ -207,29 +394,105 @@ public class NettyHttpClientConnection implements HttpClientConnection {
         return futureResponse.request();
     }
 
+    private static class StreamHandler extends NettySimpleChannelInboundHandler<HttpObject> {
+        private final FutureResponse pendingResponse;
+
+        private NettyHttpBodyReceiver body = null;
+        private boolean isResponseReceived = false;
+
+        private StreamHandler(final FutureResponse pendingResponse) {
+            this.pendingResponse = pendingResponse;
+        }
+
+        @Override
+        protected void channelRead0(final ChannelHandlerContext ctx, final HttpObject msg) {
+            if (msg instanceof HttpResponse) {
+                final var response = (HttpResponse) msg;
+                if (response.status().codeClass() == HttpStatusClass.INFORMATIONAL) {
+                    return;
+                }
+                // As the responses of streams may arrive in any order, they are
+                // likely to arrive before their bodies are asked for, which is
+                // why their contents are retained until that happens.
+                body = new NettyHttpBodyReceiver(ctx.channel(), response.headers(), null, MAX_IN_FLIGHT_BYTES);
+                isResponseReceived = true;
+                pendingResponse.setResult(Result.success(new NettyHttpClientResponse(
+                    pendingResponse.request(), body, response)));
+            }
+            if (msg instanceof HttpContent && body != null) {
+                body.append((HttpContent) msg);
+                if (msg instanceof LastHttpContent) {
+                    body.finish((LastHttpContent) msg);
+                    // The body is kept by the response, which may still
+                    // ask for it after this stream has been closed.
+                    body = null;
+                }
+            }
+        }
+
+        @Override
+        public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+            if (body != null) {
+                final var exception = new HttpClientResponseException(pendingResponse.request(),
+                    "Stream closed before response body was received");
+                if (!body.tryAbort(exception)) {
+                    body.discard();
+                }
+                body = null;
+            }
+            else if (!isResponseReceived) {
+                isResponseReceived = true;
+                pendingResponse.setResult(Result.failure(new HttpClientResponseException(pendingResponse.request(),
+                    "Stream closed before response was received")));
+            }
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
+            if (body != null) {
+                body.tryAbort(cause);
+                body = null;
+            }
+            else if (!isResponseReceived) {
+                isResponseReceived = true;
+                pendingResponse.setResult(Result.failure(cause));
+            }
+            ctx.close();
+        }
+    }
+
     private static class FutureResponse implements Future<HttpClientResponse> {
         private final HttpClientRequest request;
 
         private Consumer<Result<HttpClientResponse>> consumer = null;
         private boolean isDone = false;
         private Result<HttpClientResponse> pendingResult = null;
+        private ScheduledFuture<?> timer = null;
 
         private FutureResponse(final HttpClientRequest request) {
             this.request = Objects.requireNonNull(request, "Expected request");
         }
 
+        /*
+         * Responses are set by the event loop thread of the connection, while
+         * consumers may be set by any thread, which is why both are guarded.
+         */
         @Override
         public void onResult(final Consumer<Result<HttpClientResponse>> consumer) {
-            if (isDone) {
-                return;
-            }
-            if (pendingResult != null) {
-                consumer.accept(pendingResult);
+            final Result<HttpClientResponse> result;
+            synchronized (this) {
+                if (isDone) {
+                    return;
+                }
+                if (pendingResult == null) {
+                    this.consumer = consumer;
+                    return;
+                }
+                result = pendingResult;
                 isDone = true;
             }
-            else {
-                this.consumer = consumer;
-            }
+            consumer.accept(result);
         }
 
         /*
@@ -237,25 +500,45 @@ public class NettyHttpClientConnection implements HttpClientConnection {
          * the response to be received at all the connection must be closed.
          */
         @Override
-        public void cancel(final boolean mayInterruptIfRunning) {
+        public synchronized void cancel(final boolean mayInterruptIfRunning) {
             isDone = true;
+            cancelTimer();
         }
 
         public HttpClientRequest request() {
             return request;
         }
 
-        public boolean setResult(final Result<HttpClientResponse> result) {
-            if (isDone) {
-                return false;
+        public synchronized void setTimer(final ScheduledFuture<?> timer) {
+            if (isDone || pendingResult != null) {
+                timer.cancel(false);
+                return;
             }
-            if (consumer != null) {
-                consumer.accept(result);
-                isDone = true;
+            this.timer = timer;
+        }
+
+        private void cancelTimer() {
+            if (timer != null) {
+                timer.cancel(false);
+                timer = null;
             }
-            else {
-                pendingResult = result;
+        }
+
+        public boolean setResult(final Result<HttpClientResponse> result) {
+            final Consumer<Result<HttpClientResponse>> consumer;
+            synchronized (this) {
+                if (isDone || pendingResult != null) {
+                    return false;
+                }
+                cancelTimer();
+                if (this.consumer == null) {
+                    pendingResult = result;
+                    return true;
+                }
+                consumer = this.consumer;
+                isDone = true;
             }
+            consumer.accept(result);
             return true;
         }
     }
@@ -4,6 +4,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.timeout.IdleState;
@@ -24,6 +25,7 @@ public class NettyHttpClientConnectionHandler extends NettySimpleChannelInboundH
     private static final Logger logger = LoggerFactory.getLogger(NettyHttpClientConnectionHandler.class);
 
     private final SslHandler sslHandler;
+    private final boolean isMultiplexed;
 
     private FutureHttpClientConnection futureConnection;
     private NettyHttpClientConnection connection;
@@ -32,13 +34,49 @@ public class NettyHttpClientConnectionHandler extends NettySimpleChannelInboundH
     public NettyHttpClientConnectionHandler(
         final FutureHttpClientConnection futureConnection,
         final SslHandler sslHandler)
+    {
+        this(futureConnection, sslHandler, false);
+    }
+
+    /**
+     * Creates new handler, which completes {@code futureConnection} as soon
+     * as its channel is active and any TLS handshake has completed.
+     * <p>
+     * If {@code isMultiplexed} is {@code true}, the channel is expected to
+     * speak HTTP/2 via a {@link io.netty.handler.codec.http2.Http2MultiplexHandler
+     * Http2MultiplexHandler}, which means that the created connection opens a
+     * new stream for every request it sends. This handler then only keeps
+     * track of the state of the connection as a whole.
+     *
+     * @param futureConnection Future connection to complete.
+     * @param sslHandler       TLS handler, if any.
+     * @param isMultiplexed    Whether or not channel uses HTTP/2 streams.
+     */
+    public NettyHttpClientConnectionHandler(
+        final FutureHttpClientConnection futureConnection,
+        final SslHandler sslHandler,
+        final boolean isMultiplexed)
     {
         this.futureConnection = Objects.requireNonNull(futureConnection, "Expected connection");
         this.sslHandler = sslHandler;
+        this.isMultiplexed = isMultiplexed;
+    }
+
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) throws Exception {
+        super.handlerAdded(ctx);
+        if (ctx.channel().isActive()) {
+            onActive(ctx);
+        }
     }
 
     @Override
     public void channelActive(final ChannelHandlerContext ctx) throws Exception {
+        onActive(ctx);
+        super.channelActive(ctx);
+    }
+
+    private void onActive(final ChannelHandlerContext ctx) {
         if (futureConnection != null) {
             if (futureConnection.failIfCancelled()) {
                 futureConnection = null;
@@ -49,7 +87,7 @@ public class NettyHttpClientConnectionHandler extends NettySimpleChannelInboundH
                 sslHandler.handshakeFuture().addListener(ignored -> {
                     try {
                         final var chain = sslHandler.engine().getSession().getPeerCertificates();
-                        connection = new NettyHttpClientConnection(ctx.channel(), chain);
+                        connection = new NettyHttpClientConnection(ctx.channel(), chain, isMultiplexed);
                         futureConnection.setResult(Result.success(connection));
                         futureConnection = null;
                     }
@@ -68,12 +106,11 @@ public class NettyHttpClientConnectionHandler extends NettySimpleChannelInboundH
                 });
             }
             else {
-                connection = new NettyHttpClientConnection(ctx.channel(), null);
+                connection = new NettyHttpClientConnection(ctx.channel(), null, isMultiplexed);
                 futureConnection.setResult(Result.success(connection));
                 futureConnection = null;
             }
         }
-        super.channelActive(ctx);
     }
 
     @Override
@@ -89,7 +126,11 @@ public class NettyHttpClientConnectionHandler extends NettySimpleChannelInboundH
     private void readResponse(final ChannelHandlerContext ctx, final HttpResponse response) {
         // TODO: Enable and check size restrictions.
 
-        final var clientResponseBody = new NettyHttpBodyReceiver(ctx.alloc(), response.headers());
+        // Responses may be handled by other threads than that of this
+        // handler, in which case their bodies are likely to be requested
+        // after some or all of their contents have been received.
+        final var clientResponseBody = new NettyHttpBodyReceiver(ctx.channel(), response.headers(), null,
+            NettyHttpClientConnection.MAX_IN_FLIGHT_BYTES);
         final var clientResponse = new NettyHttpClientResponse(
             connection.pendingResponseRequest(),
             clientResponseBody,
@@ -97,6 +138,7 @@ public class NettyHttpClientConnectionHandler extends NettySimpleChannelInboundH
 
         this.body = clientResponseBody;
 
+        connection.onResponseHead(HttpUtil.isKeepAlive(response));
         connection.onResponseResult(Result.success(clientResponse));
     }
 
@@ -108,8 +150,13 @@ public class NettyHttpClientConnectionHandler extends NettySimpleChannelInboundH
         if (content instanceof LastHttpContent) {
             body.finish((LastHttpContent) content);
             body = null;
-            if (connection != null && connection.isClosing()) {
-                ctx.close();
+            if (connection != null) {
+                if (connection.isClosing()) {
+                    ctx.close();
+                }
+                else {
+                    connection.onResponseBodyFinished();
+                }
             }
         }
     }
@@ -125,7 +172,9 @@ public class NettyHttpClientConnectionHandler extends NettySimpleChannelInboundH
             body = null;
             return;
         }
-        if (connection != null && connection.onResponseResult(Result.failure(cause))) {
+        if (connection != null && connection.isExpectingResponseResult() &&
+            connection.onResponseResult(Result.failure(cause)))
+        {
             return;
         }
         ctx.fireExceptionCaught(cause);
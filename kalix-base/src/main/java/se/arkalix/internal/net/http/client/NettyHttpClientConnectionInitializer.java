@@ -1,28 +1,59 @@
 package se.arkalix.internal.net.http.client;
 
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2Settings;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import io.netty.handler.timeout.IdleStateEvent;
+import se.arkalix.net.http.client.HttpClientConnectionException;
+import se.arkalix.util.Result;
 import se.arkalix.util.annotation.Internal;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.IdleStateHandler;
 
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * {@link ChannelInitializer} useful for managing outgoing HTTP connections.
+ * <p>
+ * Secure connections use HTTP/2 if the remote host says it supports it while
+ * negotiating TLS via ALPN, and fall back to HTTP/1.1 otherwise. Insecure
+ * connections use HTTP/1.1, unless the remote host is known to support HTTP/2
+ * beforehand, in which case HTTP/2 is used right away (h2c with prior
+ * knowledge).
+ */
 @Internal
 public class NettyHttpClientConnectionInitializer extends ChannelInitializer<SocketChannel> {
     private final FutureHttpClientConnection futureConnection;
     private final SslContext sslContext;
+    private final boolean isHttp2PriorKnowledge;
 
     public NettyHttpClientConnectionInitializer(
         final FutureHttpClientConnection futureConnection,
         final SslContext sslContext)
+    {
+        this(futureConnection, sslContext, false);
+    }
+
+    public NettyHttpClientConnectionInitializer(
+        final FutureHttpClientConnection futureConnection,
+        final SslContext sslContext,
+        final boolean isHttp2PriorKnowledge)
     {
         this.futureConnection = Objects.requireNonNull(futureConnection, "Expected futureConnection");
         this.sslContext = sslContext;
+        this.isHttp2PriorKnowledge = isHttp2PriorKnowledge;
     }
 
     @Override
@@ -33,16 +64,81 @@ public class NettyHttpClientConnectionInitializer extends ChannelInitializer<Soc
         }
         final var pipeline = ch.pipeline();
 
-        SslHandler sslHandler = null;
         if (sslContext != null) {
-            sslHandler = sslContext.newHandler(ch.alloc());
-            pipeline.addLast(sslHandler);
+            final var sslHandler = sslContext.newHandler(ch.alloc());
+            pipeline
+                .addLast(sslHandler)
+                .addLast(new LoggingHandler())
+                .addLast(new IdleStateHandler(30, 120, 0, TimeUnit.SECONDS))
+                .addLast(new ApplicationProtocolNegotiationHandler(ApplicationProtocolNames.HTTP_1_1) {
+                    @Override
+                    protected void configurePipeline(final ChannelHandlerContext ctx, final String protocol) {
+                        if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+                            addHttp2Handlers(ctx.pipeline(), sslHandler);
+                            return;
+                        }
+                        if (ApplicationProtocolNames.HTTP_1_1.equals(protocol)) {
+                            addHttpHandlers(ctx.pipeline(), sslHandler);
+                            return;
+                        }
+                        throw new IllegalStateException("Unsupported application protocol \"" + protocol + "\"");
+                    }
+
+                    @Override
+                    public void userEventTriggered(final ChannelHandlerContext ctx, final Object evt)
+                        throws Exception
+                    {
+                        if (evt instanceof IdleStateEvent) {
+                            futureConnection.setResult(Result.failure(
+                                new HttpClientConnectionException("Timeout exceeded")));
+                            ctx.close();
+                            return;
+                        }
+                        super.userEventTriggered(ctx, evt);
+                    }
+
+                    @Override
+                    protected void handshakeFailure(final ChannelHandlerContext ctx, final Throwable cause) {
+                        futureConnection.setResult(Result.failure(cause));
+                        ctx.close();
+                    }
+                });
+            return;
         }
 
         pipeline
             .addLast(new LoggingHandler())
-            .addLast(new IdleStateHandler(30, 120, 0, TimeUnit.SECONDS))
+            .addLast(new IdleStateHandler(30, 120, 0, TimeUnit.SECONDS));
+
+        if (isHttp2PriorKnowledge) {
+            addHttp2Handlers(pipeline, null);
+        }
+        else {
+            addHttpHandlers(pipeline, null);
+        }
+    }
+
+    private void addHttpHandlers(final ChannelPipeline pipeline, final SslHandler sslHandler) {
+        pipeline
             .addLast(new HttpClientCodec())
+            .addLast(new ChunkedWriteHandler())
             .addLast(new NettyHttpClientConnectionHandler(futureConnection, sslHandler));
     }
+
+    private void addHttp2Handlers(final ChannelPipeline pipeline, final SslHandler sslHandler) {
+        pipeline
+            .addLast(Http2FrameCodecBuilder.forClient()
+                .initialSettings(Http2Settings.defaultSettings().pushEnabled(false))
+                .encoderEnforceMaxConcurrentStreams(true)
+                .build())
+            .addLast(new Http2MultiplexHandler(new ChannelInitializer<Channel>() {
+                @Override
+                protected void initChannel(final Channel ch) {
+                    // Server push is disabled, which means that no inbound
+                    // streams should ever be opened by the remote host.
+                    ch.close();
+                }
+            }))
+            .addLast(new NettyHttpClientConnectionHandler(futureConnection, sslHandler, true));
+    }
 }
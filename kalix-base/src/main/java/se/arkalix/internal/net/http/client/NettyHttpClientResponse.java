@@ -10,6 +10,7 @@ import se.arkalix.net.http.client.HttpClientRequest;
 import se.arkalix.net.http.client.HttpClientResponse;
 import se.arkalix.util.annotation.Internal;
 import se.arkalix.util.concurrent.FutureProgress;
+import se.arkalix.util.function.ThrowingConsumer;
 import io.netty.handler.codec.http.HttpResponse;
 
 import java.io.InputStream;
@@ -62,6 +63,15 @@ public class NettyHttpClientResponse implements HttpClientResponse {
         return body.bodyAsStream();
     }
 
+    @Override
+    public <R extends DtoReadable> FutureProgress<Integer> bodyAsStream(
+        final DtoEncoding encoding,
+        final Class<R> class_,
+        final ThrowingConsumer<R> consumer)
+    {
+        return body.bodyAsStream(encoding, class_, consumer);
+    }
+
     @Override
     public FutureProgress<String> bodyAsString() {
         return body.bodyAsString();
@@ -1,5 +1,7 @@
 package se.arkalix.internal.net.http.service;
 
+import se.arkalix.internal.util.concurrent.NettyFutures;
+import se.arkalix.internal.util.concurrent.NettyThread;
 import se.arkalix.net.http.service.*;
 import se.arkalix.util.Result;
 import se.arkalix.util.annotation.Internal;
@@ -57,8 +59,7 @@ public class HttpRouteSequence {
                     return Future.success(true);
                 }
                 final var response = task.response();
-                return route
-                    .handle(task.request().cloneAndSet(pathParameters), response)
+                return handle(task.request().cloneAndSet(pathParameters), response)
                     .mapResult(result -> {
                         if (result.isFailure()) {
                             return Result.failure(result.fault());
@@ -83,6 +84,19 @@ public class HttpRouteSequence {
             .flatMapCatch(Throwable.class, throwable -> tryCatchers(throwable, task, 0));
     }
 
+    private Future<?> handle(final HttpServiceRequest request, final HttpServiceResponse response) throws Exception {
+        final var scheduler = route.scheduler().orElse(null);
+        if (scheduler == null) {
+            return route.handle(request, response);
+        }
+        final var eventLoop = NettyThread.currentThreadEventLoop().orElse(null);
+        final var future = scheduler.submit(() -> route.handle(request, response))
+            .flatMap(future0 -> future0);
+        return eventLoop != null
+            ? NettyFutures.completeOn(future, eventLoop)
+            : future;
+    }
+
     private Future<Boolean> tryFilters(final HttpRouteTask task, final int index) {
         if (index >= filters.length) {
             return Future.success(false);
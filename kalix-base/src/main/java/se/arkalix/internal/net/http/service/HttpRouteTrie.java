@@ -0,0 +1,148 @@
+package se.arkalix.internal.net.http.service;
+
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.net.http.service.HttpRoutable;
+import se.arkalix.util.annotation.Internal;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A segment trie, keyed on HTTP methods and path segments, useful for quickly
+ * determining what {@link HttpRoutable}s in a list of such could match a
+ * given request method and path.
+ * <p>
+ * Every routable is identified by its index in the list used to create the
+ * trie. As the list is expected to be sorted using {@link
+ * HttpRoutables#compare(HttpRoutable, HttpRoutable)}, the lowest index among
+ * the candidates of a lookup belongs to the most specialized routable that
+ * could match. The candidates are, however, only guaranteed to be a superset
+ * of the routables that actually match, which means that each candidate must
+ * still be matched against the request, in index order, until one succeeds.
+ */
+@Internal
+public class HttpRouteTrie {
+    private final int size;
+    private final Node anyMethodRoot = new Node();
+    private final Map<HttpMethod, Node> methodRoots = new HashMap<>();
+
+    /**
+     * Creates new trie from given list of routables.
+     *
+     * @param routables Routables to include in trie, preferably sorted with
+     *                  {@link HttpRoutables#compare(HttpRoutable, HttpRoutable)}.
+     */
+    public HttpRouteTrie(final List<? extends HttpRoutable> routables) {
+        size = routables.size();
+        for (var index = 0; index < size; ++index) {
+            final var routable = routables.get(index);
+            final var root = routable.method()
+                .map(method -> methodRoots.computeIfAbsent(method, ignored -> new Node()))
+                .orElse(anyMethodRoot);
+
+            final var pattern = routable.pattern().orElse(null);
+            if (pattern == null) {
+                root.prefixes.set(index);
+                continue;
+            }
+
+            var text = pattern.text();
+            final var isPrefix = text.charAt(text.length() - 1) == '>';
+            if (isPrefix) {
+                text = text.substring(0, text.length() - 2);
+            }
+
+            var node = root;
+            var p0 = 0;
+            final var p1 = text.length();
+            while (p0 < p1 && !(p0 == 0 && p1 == 1)) {
+                var px = p0 + 1;
+                while (px < p1 && text.charAt(px) != '/') {
+                    px += 1;
+                }
+                final var segment = text.substring(p0 + 1, px);
+                if (segment.equals("#")) {
+                    if (node.parameter == null) {
+                        node.parameter = new Node();
+                    }
+                    node = node.parameter;
+                }
+                else {
+                    node = node.literals.computeIfAbsent(segment, ignored -> new Node());
+                }
+                p0 = px;
+            }
+
+            if (isPrefix) {
+                node.prefixes.set(index);
+            }
+            else {
+                node.terminals.set(index);
+            }
+        }
+    }
+
+    /**
+     * Collects the indexes of all routables that could match the given
+     * request method and path.
+     *
+     * @param method Request method.
+     * @param path   Request path.
+     * @param offset Offset, from beginning of path, from which to start
+     *               matching.
+     * @return Set of candidate routable indexes.
+     */
+    public BitSet candidatesFor(final HttpMethod method, final String path, final int offset) {
+        var p1 = path.length();
+        if (p1 > 1 && path.charAt(p1 - 1) == '/') {
+            p1 -= 1;
+        }
+        // A lone "/" has no segments, just as the root pattern.
+        final var p0 = p1 - offset == 1 ? p1 : offset;
+
+        final var candidates = new BitSet(size);
+        collect(anyMethodRoot, path, p0, p1, candidates);
+        final var methodRoot = methodRoots.get(method);
+        if (methodRoot != null) {
+            collect(methodRoot, path, p0, p1, candidates);
+        }
+        return candidates;
+    }
+
+    private static void collect(
+        final Node node,
+        final String path,
+        final int p0,
+        final int p1,
+        final BitSet candidates)
+    {
+        candidates.or(node.prefixes);
+        if (p0 >= p1) {
+            candidates.or(node.terminals);
+            return;
+        }
+        var px = p0 + 1;
+        while (px < p1 && path.charAt(px) != '/') {
+            px += 1;
+        }
+        if (!node.literals.isEmpty()) {
+            final var literal = node.literals.get(path.substring(p0 + 1, px));
+            if (literal != null) {
+                collect(literal, path, px, p1, candidates);
+            }
+        }
+        if (node.parameter != null) {
+            collect(node.parameter, path, px, p1, candidates);
+        }
+    }
+
+    private static class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final BitSet prefixes = new BitSet();
+        private final BitSet terminals = new BitSet();
+
+        private Node parameter = null;
+    }
+}
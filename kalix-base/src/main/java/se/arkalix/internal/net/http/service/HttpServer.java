@@ -3,6 +3,8 @@ package se.arkalix.internal.net.http.service;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
 import io.netty.handler.ssl.ClientAuth;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
@@ -21,7 +23,7 @@ import se.arkalix.util.concurrent.Future;
 import se.arkalix.util.concurrent.Schedulers;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static se.arkalix.internal.util.concurrent.NettyFutures.adapt;
@@ -31,7 +33,7 @@ public class HttpServer implements ArServer {
     private final AtomicBoolean isShuttingDown = new AtomicBoolean(false);
 
     private final Set<ArServiceHandle> handles = new HashSet<>();
-    private final Map<String, HttpServiceInternal> services = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+    private final Map<String, HttpServiceInternal> services = new ConcurrentHashMap<>();
 
     private final PluginNotifier pluginNotifier;
     private final ArSystem system;
@@ -54,6 +56,12 @@ public class HttpServer implements ArServer {
                     .trustManager(system.trustStore().certificates())
                     .clientAuth(ClientAuth.REQUIRE)
                     .startTls(false)
+                    .applicationProtocolConfig(new ApplicationProtocolConfig(
+                        ApplicationProtocolConfig.Protocol.ALPN,
+                        ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                        ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                        ApplicationProtocolNames.HTTP_2,
+                        ApplicationProtocolNames.HTTP_1_1))
                     .build();
             }
 
@@ -155,13 +163,19 @@ public class HttpServer implements ArServer {
     }
 
     private Optional<HttpServiceInternal> getServiceByPath(final String path) {
-        for (final var entry : services.entrySet()) {
-            final var service = entry.getValue();
-            if (service.basePath().map(path::startsWith).orElse(true)) {
+        return getByBasePath(services, path);
+    }
+
+    static <S> Optional<S> getByBasePath(final Map<String, S> services, final String path) {
+        // Try the full path first, and then every shorter path ending right
+        // before a forward slash, making the longest matching base path win.
+        for (var end = path.length(); end > 0; end = path.lastIndexOf('/', end - 1)) {
+            final var service = services.get(path.substring(0, end));
+            if (service != null) {
                 return Optional.of(service);
             }
         }
-        return Optional.empty();
+        return Optional.ofNullable(services.get("/"));
     }
 
     @Override
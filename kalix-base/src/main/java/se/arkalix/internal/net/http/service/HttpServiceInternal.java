@@ -18,9 +18,12 @@ public class HttpServiceInternal {
     private final ServiceDescription description;
     private final List<EncodingDescriptor> encodings;
     private final HttpRouteSequence[] routeSequences;
+    private final HttpRouteTrie routeTrie;
+    private final HttpServiceLimits limits;
 
     public HttpServiceInternal(final ArSystem system, final HttpService service) {
         accessPolicy = Objects.requireNonNull(service.accessPolicy(), "Expected accessPolicy");
+        limits = service.limits().orElse(system.httpServiceLimits());
         description = service.describeAsIfProvidedBy(system);
 
         final var basePath = description.uri();
@@ -42,11 +45,14 @@ public class HttpServiceInternal {
             throw new IllegalArgumentException("Expected HttpService encodings.size() > 0");
         }
 
+        final var routes = new ArrayList<>(service.routes());
+        routes.sort(HttpRoutables::compare);
+
         final var routeSequenceFactory = new HttpRouteSequenceFactory(service.catchers(), service.filters());
-        routeSequences = service.routes().stream()
-            .sorted(HttpRoutables::compare)
+        routeSequences = routes.stream()
             .map(routeSequenceFactory::createRouteSequenceFor)
             .toArray(HttpRouteSequence[]::new);
+        routeTrie = new HttpRouteTrie(routes);
     }
 
     /**
@@ -70,6 +76,13 @@ public class HttpServiceInternal {
         return accessPolicy;
     }
 
+    /**
+     * @return Limits to apply to requests received by this service.
+     */
+    public HttpServiceLimits limits() {
+        return limits;
+    }
+
     /**
      * @return The encoding to use by default.
      */
@@ -100,7 +113,8 @@ public class HttpServiceInternal {
             .response(response)
             .build();
 
-        return trySequences(task, 0)
+        final var candidates = routeTrie.candidatesFor(request.method(), request.path(), task.basePathLengthOrZero());
+        return trySequences(task, candidates, candidates.nextSetBit(0))
             .map(isHandled -> {
                 if (!isHandled) {
                     response
@@ -112,8 +126,8 @@ public class HttpServiceInternal {
             });
     }
 
-    private Future<Boolean> trySequences(final HttpRouteTask task, final int index) {
-        if (index >= routeSequences.length) {
+    private Future<Boolean> trySequences(final HttpRouteTask task, final BitSet candidates, final int index) {
+        if (index < 0) {
             return Future.success(false);
         }
         final var routeSequence = routeSequences[index];
@@ -122,7 +136,7 @@ public class HttpServiceInternal {
                 if (isHandled) {
                     return Future.success(true);
                 }
-                return trySequences(task, index + 1);
+                return trySequences(task, candidates, candidates.nextSetBit(index + 1));
             });
     }
 
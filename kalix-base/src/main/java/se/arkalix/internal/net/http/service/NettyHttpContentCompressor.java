@@ -0,0 +1,57 @@
+package se.arkalix.internal.net.http.service;
+
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import se.arkalix.util.annotation.Internal;
+
+/**
+ * {@link HttpContentCompressor} that never compresses the bodies of responses
+ * created via {@link #newUncompressedResponse(HttpVersion, HttpResponseStatus,
+ * HttpHeaders)}.
+ * <p>
+ * Compressing a file would prevent it from being sent without being copied,
+ * and would make any byte ranges of it ambiguous. Marking the responses
+ * carrying such bodies, rather than setting their {@code content-encoding}
+ * headers to {@code identity}, keeps those headers out of the responses.
+ */
+@Internal
+public class NettyHttpContentCompressor extends HttpContentCompressor {
+    /**
+     * Creates new HTTP response head whose body is never compressed by any
+     * {@link NettyHttpContentCompressor}.
+     *
+     * @param version HTTP version of response.
+     * @param status  Response status.
+     * @param headers Response headers.
+     * @return New response head.
+     */
+    public static HttpResponse newUncompressedResponse(
+        final HttpVersion version,
+        final HttpResponseStatus status,
+        final HttpHeaders headers)
+    {
+        return new UncompressedResponse(version, status, headers);
+    }
+
+    @Override
+    protected Result beginEncode(final HttpResponse headers, final String acceptEncoding) throws Exception {
+        if (headers instanceof UncompressedResponse) {
+            return null;
+        }
+        return super.beginEncode(headers, acceptEncoding);
+    }
+
+    private static class UncompressedResponse extends DefaultHttpResponse {
+        private UncompressedResponse(
+            final HttpVersion version,
+            final HttpResponseStatus status,
+            final HttpHeaders headers)
+        {
+            super(version, status, headers);
+        }
+    }
+}
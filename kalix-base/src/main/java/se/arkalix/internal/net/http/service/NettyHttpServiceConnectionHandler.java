@@ -8,41 +8,56 @@ import se.arkalix.description.ConsumerDescription;
 import se.arkalix.descriptor.EncodingDescriptor;
 import se.arkalix.dto.DtoReadException;
 import se.arkalix.internal.net.http.HttpMediaTypes;
+import se.arkalix.internal.net.http.HttpTimeouts;
 import se.arkalix.internal.net.http.NettyHttpBodyReceiver;
+import se.arkalix.internal.net.NettyReadSuspender;
 import se.arkalix.internal.net.NettySimpleChannelInboundHandler;
 import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.service.HttpServiceLimits;
 import se.arkalix.net.http.service.HttpServiceRequestException;
 import se.arkalix.query.ServiceNotFoundException;
 import se.arkalix.security.access.AccessTokenException;
 import se.arkalix.util.annotation.Internal;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.TooLongFrameException;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
 
 import javax.net.ssl.SSLPeerUnverifiedException;
 import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.*;
-import static se.arkalix.util.concurrent.Future.done;
 
 @Internal
 public class NettyHttpServiceConnectionHandler extends NettySimpleChannelInboundHandler<Object> {
     private static final Logger logger = LoggerFactory.getLogger(NettyHttpServiceConnectionHandler.class);
 
+    /**
+     * Maximum number of pipelined requests that may be pending at the same
+     * time on a single connection before reading from it is suspended.
+     */
+    private static final int MAX_PENDING_EXCHANGES = 16;
+
     private final ArSystem system;
     private final HttpServiceLookup serviceLookup;
     private final SslHandler sslHandler;
 
-    private HttpRequest request = null;
-    private boolean keepAlive = false;
-    private HttpServiceInternal service = null;
+    private final Queue<Exchange> exchanges = new ArrayDeque<>();
+
     private ConsumerDescription consumer = null;
-    private NettyHttpBodyReceiver body = null;
+    private Exchange current = null;
+    private boolean isClosing = false;
+    private NettyReadSuspender reading = null;
 
     public NettyHttpServiceConnectionHandler(
         final ArSystem system,
@@ -60,36 +75,81 @@ public class NettyHttpServiceConnectionHandler extends NettySimpleChannelInbound
             readRequest(ctx, (HttpRequest) msg);
         }
         if (msg instanceof HttpContent) {
-            readContent((HttpContent) msg);
+            readContent(ctx, (HttpContent) msg);
         }
     }
 
     private void readRequest(final ChannelHandlerContext ctx, final HttpRequest request) {
-        // TODO: Enable and check size restrictions.
+        // Any requests pipelined after one that closes the connection are
+        // ignored, as they will never be responded to.
+        if (isClosing) {
+            current = null;
+            return;
+        }
+        final var exchange = new Exchange(request);
+        if (!exchange.keepAlive) {
+            isClosing = true;
+        }
+        exchanges.add(exchange);
+        current = exchange;
+        if (exchanges.size() >= MAX_PENDING_EXCHANGES) {
+            if (reading == null) {
+                reading = new NettyReadSuspender(ctx.channel());
+            }
+            reading.suspend();
+        }
 
-        this.request = request;
-        keepAlive = HttpUtil.isKeepAlive(request);
+        final var decoderResult = request.decoderResult();
+        if (decoderResult.isFailure()) {
+            final var cause = decoderResult.cause();
+            if (cause instanceof TooLongFrameException) {
+                // If the request line could be decoded, the decoder fails the
+                // request it was decoding, which means that the headers must
+                // have been too large. Otherwise, it fails a placeholder
+                // request without a body of its own.
+                sendEmptyResponseAndCleanup(ctx, exchange, request instanceof FullHttpRequest
+                    ? REQUEST_URI_TOO_LONG
+                    : REQUEST_HEADER_FIELDS_TOO_LARGE, false);
+            }
+            else {
+                sendEmptyResponseAndCleanup(ctx, exchange, BAD_REQUEST, false);
+            }
+            return;
+        }
 
         final var queryStringDecoder = new QueryStringDecoder(request.uri());
         final var path = queryStringDecoder.path();
 
-        service = resolveService(ctx, path);
+        final var service = resolveService(ctx, exchange, path);
         if (service == null) {
             return;
         }
-        if (!authorize(ctx, request)) {
+        exchange.service = service;
+        if (!authorize(ctx, exchange)) {
             return;
         }
-        final var encoding = resolveEncoding(ctx);
+        final var encoding = resolveEncoding(ctx, exchange);
         if (encoding == null) {
             return;
         }
+        final var limits = service.limits();
+        if (!checkLimits(ctx, exchange, limits)) {
+            return;
+        }
+        if (isExpired(request)) {
+            sendEmptyResponseAndCleanup(ctx, exchange, SERVICE_UNAVAILABLE);
+            return;
+        }
 
-        if (HttpUtil.is100ContinueExpected(request)) {
+        // An interim response may only be sent if it cannot end up before
+        // the response of an earlier pipelined request. If it cannot be
+        // sent, the sender will eventually send the request body anyway.
+        if (HttpUtil.is100ContinueExpected(request) && exchanges.size() == 1) {
             ctx.writeAndFlush(new DefaultFullHttpResponse(request.protocolVersion(), CONTINUE, Unpooled.EMPTY_BUFFER));
         }
 
-        final var serviceRequestBody = new NettyHttpBodyReceiver(ctx.alloc(), request.headers(), encoding);
+        final var serviceRequestBody = new NettyHttpBodyReceiver(ctx.channel(), request.headers(), encoding,
+            limits.maxInFlightBytes());
         final var serviceRequest = new NettyHttpServiceRequest.Builder()
             .body(serviceRequestBody)
             .queryStringDecoder(queryStringDecoder)
@@ -98,45 +158,167 @@ public class NettyHttpServiceConnectionHandler extends NettySimpleChannelInbound
             .build();
         final var serviceResponseHeaders = new DefaultHttpHeaders();
         final var serviceResponse = new NettyHttpServiceResponse(request, serviceResponseHeaders, encoding);
-        this.body = serviceRequestBody;
+        exchange.body = serviceRequestBody;
+        exchange.maxBodySize = limits.maxBodySize();
 
         service
             .handle(serviceRequest, serviceResponse)
-            .map(ignored -> {
-                HttpUtil.setKeepAlive(serviceResponseHeaders, request.protocolVersion(), keepAlive);
-                final var channelFuture = serviceResponse.write(ctx.channel());
-                if (!keepAlive) {
-                    channelFuture.addListener(ChannelFutureListener.CLOSE);
+            .onResult(result -> execute(ctx, () -> {
+                serviceRequestBody.discard();
+                if (result.isSuccess()) {
+                    HttpUtil.setKeepAlive(serviceResponseHeaders, request.protocolVersion(), exchange.keepAlive);
+                    respond(ctx, exchange, serviceResponse::write, exchange.keepAlive);
+                    return;
+                }
+                final var fault = result.fault();
+                if (fault instanceof HttpServiceRequestException) {
+                    final var status = ((HttpServiceRequestException) fault).status();
+                    if (status == HttpStatus.PAYLOAD_TOO_LARGE) {
+                        sendEmptyResponseAndCleanup(ctx, exchange, REQUEST_ENTITY_TOO_LARGE, false);
+                        return;
+                    }
                 }
-                return done();
-            })
-            .onFailure(fault -> {
                 if (fault instanceof HttpServiceRequestException || fault instanceof DtoReadException) {
                     if (logger.isWarnEnabled()) {
                         logger.warn("Incoming request could not be processed", fault);
                     }
-                    sendEmptyResponseAndCleanup(ctx, BAD_REQUEST, false);
+                    sendEmptyResponseAndCleanup(ctx, exchange, BAD_REQUEST, false);
                 }
                 else if (fault instanceof ServiceNotFoundException) {
-                    sendEmptyResponseAndCleanup(ctx, NOT_FOUND, false);
+                    sendEmptyResponseAndCleanup(ctx, exchange, NOT_FOUND, false);
                 }
                 else {
-                    logAndSendInternalServerError(ctx, "handling", fault);
+                    logAndSendInternalServerError(ctx, exchange, "handling", fault);
                 }
-            });
+            }));
+    }
+
+    private static void execute(final ChannelHandlerContext ctx, final Runnable task) {
+        if (ctx.executor().inEventLoop()) {
+            task.run();
+        }
+        else {
+            ctx.executor().execute(task);
+        }
+    }
+
+    /**
+     * Sets the response of {@code exchange} and then writes the responses of
+     * all exchanges at the head of the exchange queue that have responses,
+     * which makes sure that responses are written in the same order as the
+     * requests they respond to were received, even if the requests are
+     * handled concurrently.
+     */
+    private void respond(
+        final ChannelHandlerContext ctx,
+        final Exchange exchange,
+        final ResponseWriter response,
+        final boolean keepAlive)
+    {
+        if (exchange.response != null || exchange.isDone) {
+            return;
+        }
+        exchange.response = response;
+        exchange.keepAlive = keepAlive;
+
+        Exchange head;
+        while ((head = exchanges.peek()) != null && head.response != null) {
+            exchanges.remove();
+            head.isDone = true;
+            if (head == current && head.body == null) {
+                current = null;
+            }
+            if (!write(ctx, head)) {
+                return;
+            }
+        }
+
+        if (reading != null && exchanges.size() < MAX_PENDING_EXCHANGES) {
+            reading.resume();
+        }
     }
 
-    private HttpServiceInternal resolveService(final ChannelHandlerContext ctx, final String path) {
+    private boolean write(final ChannelHandlerContext ctx, final Exchange exchange) {
+        ChannelFuture future;
+        var keepAlive = exchange.keepAlive;
+        try {
+            future = exchange.response.write(ctx.channel());
+        }
+        catch (final Throwable throwable) {
+            if (logger.isErrorEnabled()) {
+                logger.error(describe(ctx, exchange, "writing the response to"), throwable);
+            }
+            future = writeEmptyResponse(ctx, exchange.request.protocolVersion(), INTERNAL_SERVER_ERROR, false);
+            keepAlive = false;
+        }
+        if (keepAlive) {
+            return true;
+        }
+
+        // No responses may follow one that closes the connection.
+        future.addListener(ChannelFutureListener.CLOSE);
+        isClosing = true;
+        Exchange exchange0;
+        while ((exchange0 = exchanges.poll()) != null) {
+            exchange0.isDone = true;
+            if (exchange0.body != null) {
+                exchange0.body.discard();
+            }
+        }
+        current = null;
+        return false;
+    }
+
+    private boolean checkLimits(
+        final ChannelHandlerContext ctx,
+        final Exchange exchange,
+        final HttpServiceLimits limits)
+    {
+        final var maxHeaderSize = limits.maxHeaderSize();
+        var headerSize = 0;
+        for (final var header : exchange.request.headers()) {
+            headerSize += header.getKey().length() + header.getValue().length() + 4; // ": " and CRLF.
+            if (headerSize > maxHeaderSize) {
+                sendEmptyResponseAndCleanup(ctx, exchange, REQUEST_HEADER_FIELDS_TOO_LARGE, false);
+                return false;
+            }
+        }
+        if (HttpUtil.getContentLength(exchange.request, -1L) > limits.maxBodySize()) {
+            sendEmptyResponseAndCleanup(ctx, exchange, REQUEST_ENTITY_TOO_LARGE, false);
+            return false;
+        }
+        return true;
+    }
+
+    // Requests whose deadlines have already expired are rejected without
+    // being handled, as their senders will not make use of their responses.
+    private boolean isExpired(final HttpRequest request) {
+        final var deadline = request.headers().get(HttpTimeouts.DEADLINE_HEADER);
+        if (deadline == null) {
+            return false;
+        }
+        final var now = Instant.now();
+        return HttpTimeouts.parseDeadlineHeaderValue(deadline, now)
+            .map(deadline0 -> !deadline0.isAfter(now))
+            .orElse(false);
+    }
+
+    private HttpServiceInternal resolveService(
+        final ChannelHandlerContext ctx,
+        final Exchange exchange,
+        final String path)
+    {
         final var optionalService = serviceLookup.getServiceByPath(path);
         if (optionalService.isEmpty()) {
-            sendEmptyResponseAndCleanup(ctx, NOT_FOUND);
+            sendEmptyResponseAndCleanup(ctx, exchange, NOT_FOUND);
             return null;
         }
         return optionalService.get();
     }
 
-    private boolean authorize(final ChannelHandlerContext ctx, final HttpRequest request) {
-        var token = request.headers().get("authorization");
+    private boolean authorize(final ChannelHandlerContext ctx, final Exchange exchange) {
+        final var service = exchange.service;
+        var token = exchange.request.headers().get("authorization");
         if (token != null && token.regionMatches(true, 0, "bearer ", 0, 7)) {
             token = token.substring(7).stripLeading();
         }
@@ -147,25 +329,25 @@ public class NettyHttpServiceConnectionHandler extends NettySimpleChannelInbound
                     (InetSocketAddress) ctx.channel().remoteAddress());
 
                 if (optionalConsumer.isEmpty()) {
-                    sendEmptyResponseAndCleanup(ctx, UNAUTHORIZED);
+                    sendEmptyResponseAndCleanup(ctx, exchange, UNAUTHORIZED);
                     return false;
                 }
                 consumer = optionalConsumer.get();
             }
 
             if (!service.accessPolicy().isAuthorized(consumer, system, service.description(), token)) {
-                sendEmptyResponseAndCleanup(ctx, UNAUTHORIZED);
+                sendEmptyResponseAndCleanup(ctx, exchange, UNAUTHORIZED);
                 return false;
             }
 
             return true;
         }
         catch (final AccessTokenException | SSLPeerUnverifiedException exception) {
-            sendEmptyResponseAndCleanup(ctx, UNAUTHORIZED);
+            sendEmptyResponseAndCleanup(ctx, exchange, UNAUTHORIZED);
             return false;
         }
         catch (final Exception exception) {
-            logAndSendInternalServerError(ctx, "authorizing", exception);
+            logAndSendInternalServerError(ctx, exchange, "authorizing", exception);
             return false;
         }
     }
@@ -179,8 +361,9 @@ public class NettyHttpServiceConnectionHandler extends NettySimpleChannelInbound
      * instead. If neither field is specified, the configured default encoding
      * is assumed to be adequate. No other content-negotiation is possible.
      */
-    private EncodingDescriptor resolveEncoding(final ChannelHandlerContext ctx) {
-        final var headers = request.headers();
+    private EncodingDescriptor resolveEncoding(final ChannelHandlerContext ctx, final Exchange exchange) {
+        final var headers = exchange.request.headers();
+        final var service = exchange.service;
         final var encodings = service.encodings();
 
         var encoding = Optional.<EncodingDescriptor>empty();
@@ -201,26 +384,58 @@ public class NettyHttpServiceConnectionHandler extends NettySimpleChannelInbound
         if (encoding.isPresent()) {
             return encoding.get();
         }
-        sendEmptyResponseAndCleanup(ctx, UNSUPPORTED_MEDIA_TYPE);
+        sendEmptyResponseAndCleanup(ctx, exchange, UNSUPPORTED_MEDIA_TYPE);
         return null;
     }
 
-    private void readContent(final HttpContent content) {
-        if (body == null) {
+    private void readContent(final ChannelHandlerContext ctx, final HttpContent content) {
+        final var exchange = current;
+        if (exchange == null || exchange.body == null) {
+            return;
+        }
+        final var body = exchange.body;
+        exchange.bodySize += content.content().readableBytes();
+        if (exchange.bodySize > exchange.maxBodySize) {
+            exchange.body = null;
+            current = null;
+            if (!body.tryAbort(new HttpServiceRequestException(HttpStatus.PAYLOAD_TOO_LARGE))) {
+                body.discard();
+                ctx.close();
+            }
             return;
         }
         body.append(content);
         if (content instanceof LastHttpContent) {
+            exchange.body = null;
+            current = null;
             body.finish((LastHttpContent) content);
-            body = null;
         }
     }
 
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        Exchange exchange;
+        while ((exchange = exchanges.poll()) != null) {
+            exchange.isDone = true;
+            if (exchange.body != null) {
+                exchange.body.discard();
+                exchange.body = null;
+            }
+        }
+        current = null;
+        super.channelInactive(ctx);
+    }
+
     @Override
     public void exceptionCaught(final ChannelHandlerContext ctx, Throwable cause) {
+        final var exchange = current;
         try {
-            if (body != null && body.tryAbort(cause)) {
-                body = null;
+            if (exchange != null && exchange.body != null) {
+                final var body = exchange.body;
+                exchange.body = null;
+                if (!body.tryAbort(cause)) {
+                    body.discard();
+                }
             }
         }
         catch (final Throwable throwable) {
@@ -228,7 +443,7 @@ public class NettyHttpServiceConnectionHandler extends NettySimpleChannelInbound
             cause = throwable;
         }
         finally {
-            logAndSendInternalServerError(ctx, "handling", cause);
+            logAndSendInternalServerError(ctx, exchange, "handling", cause);
         }
     }
 
@@ -237,11 +452,12 @@ public class NettyHttpServiceConnectionHandler extends NettySimpleChannelInbound
         if (evt instanceof IdleStateEvent) {
             final var idleStateEvent = (IdleStateEvent) evt;
             if (idleStateEvent.state() == IdleState.READER_IDLE) {
-                if (body != null) {
+                final var exchange = current;
+                if (exchange != null && exchange.body != null) {
                     final var exception = new HttpServiceRequestException(HttpStatus.REQUEST_TIMEOUT);
-                    if (body.tryAbort(exception)) {
-                        body = null;
-                        sendEmptyResponseAndCleanup(ctx, REQUEST_TIMEOUT, false);
+                    if (exchange.body.tryAbort(exception)) {
+                        exchange.body = null;
+                        sendEmptyResponseAndCleanup(ctx, exchange, REQUEST_TIMEOUT, false);
                     }
                 }
             }
@@ -251,76 +467,125 @@ public class NettyHttpServiceConnectionHandler extends NettySimpleChannelInbound
 
     private void logAndSendInternalServerError(
         final ChannelHandlerContext ctx,
+        final Exchange exchange,
         final String activity,
         final Throwable throwable)
     {
         if (logger.isErrorEnabled()) {
-            final var builder = new StringBuilder();
-            builder
-                .append("An unexpected exception was caught while ")
-                .append(activity);
-
-            if (request != null) {
-                builder
-                    .append(" the request ")
-                    .append(request.method())
-                    .append(' ')
-                    .append(request.uri());
-            }
-            else {
-                builder.append(" a request");
-            }
+            logger.error(describe(ctx, exchange, activity), throwable);
+        }
+        sendEmptyResponseAndCleanup(ctx, exchange, INTERNAL_SERVER_ERROR, false);
+    }
 
-            if (service != null) {
-                builder
-                    .append(" routed to the \"")
-                    .append(service.name())
-                    .append("\" service");
-            }
-            else {
-                builder.append(" before it could be routed to a service");
-            }
+    private String describe(final ChannelHandlerContext ctx, final Exchange exchange, final String activity) {
+        final var builder = new StringBuilder();
+        builder
+            .append("An unexpected exception was caught while ")
+            .append(activity);
 
-            builder.append("; the request was received from ");
+        if (exchange != null) {
+            builder
+                .append(" the request ")
+                .append(exchange.request.method())
+                .append(' ')
+                .append(exchange.request.uri());
+        }
+        else {
+            builder.append(" a request");
+        }
 
-            if (consumer != null) {
-                builder
-                    .append("the system \"")
-                    .append(consumer.name())
-                    .append("\" at ");
-            }
-            builder.append(ctx.channel().remoteAddress());
+        if (exchange != null && exchange.service != null) {
+            builder
+                .append(" routed to the \"")
+                .append(exchange.service.name())
+                .append("\" service");
+        }
+        else {
+            builder.append(" before it could be routed to a service");
+        }
 
-            logger.error(builder.toString(), throwable);
+        builder.append("; the request was received from ");
+
+        if (consumer != null) {
+            builder
+                .append("the system \"")
+                .append(consumer.name())
+                .append("\" at ");
         }
-        sendEmptyResponseAndCleanup(ctx, INTERNAL_SERVER_ERROR, false);
+        builder.append(ctx.channel().remoteAddress());
+
+        return builder.toString();
     }
 
-    private void sendEmptyResponseAndCleanup(final ChannelHandlerContext ctx, final HttpResponseStatus status) {
-        sendEmptyResponseAndCleanup(ctx, status, keepAlive);
+    private void sendEmptyResponseAndCleanup(
+        final ChannelHandlerContext ctx,
+        final Exchange exchange,
+        final HttpResponseStatus status)
+    {
+        sendEmptyResponseAndCleanup(ctx, exchange, status, exchange.keepAlive);
     }
 
     private void sendEmptyResponseAndCleanup(
         final ChannelHandlerContext ctx,
+        final Exchange exchange,
+        final HttpResponseStatus status,
+        final boolean keepAlive)
+    {
+        if (exchange == null || exchange.isDone) {
+            // There is no pending request to respond to, which means that
+            // nothing can be written before the response.
+            final var future = writeEmptyResponse(ctx, HttpVersion.HTTP_1_1, status, keepAlive);
+            if (!keepAlive) {
+                future.addListener(ChannelFutureListener.CLOSE);
+            }
+            return;
+        }
+        final var version = exchange.request.protocolVersion();
+        respond(ctx, exchange, channel -> writeEmptyResponse(ctx, version, status, keepAlive), keepAlive);
+    }
+
+    private static ChannelFuture writeEmptyResponse(
+        final ChannelHandlerContext ctx,
+        final HttpVersion version,
         final HttpResponseStatus status,
         final boolean keepAlive)
     {
         final HttpHeaders headers = new DefaultHttpHeaders(false)
             .add("content-length", "0");
 
-        final var version = request != null
-            ? request.protocolVersion()
-            : HttpVersion.HTTP_1_1;
-
         if (keepAlive) {
             HttpUtil.setKeepAlive(headers, version, true);
         }
 
-        final var future = ctx.writeAndFlush(new DefaultFullHttpResponse(
+        return ctx.writeAndFlush(new DefaultFullHttpResponse(
             version, status, Unpooled.EMPTY_BUFFER, headers, EmptyHttpHeaders.INSTANCE));
+    }
 
-        if (!keepAlive) {
-            future.addListener(ChannelFutureListener.CLOSE);
+    @FunctionalInterface
+    private interface ResponseWriter {
+        ChannelFuture write(Channel channel) throws Exception;
+    }
+
+    /**
+     * The state of a single request and its response. HTTP/1.1 allows for
+     * clients to send new requests before the responses of previous ones
+     * have been received, which is why there may be multiple exchanges per
+     * connection.
+     */
+    private static class Exchange {
+        private final HttpRequest request;
+
+        private boolean keepAlive;
+        private HttpServiceInternal service = null;
+        private NettyHttpBodyReceiver body = null;
+        private long bodySize = 0;
+        private long maxBodySize = 0;
+        private ResponseWriter response = null;
+        private boolean isDone = false;
+
+        private Exchange(final HttpRequest request) {
+            this.request = request;
+            this.keepAlive = HttpUtil.isKeepAlive(request);
         }
     }
 }
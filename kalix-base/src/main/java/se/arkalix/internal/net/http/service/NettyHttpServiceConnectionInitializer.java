@@ -1,8 +1,19 @@
 package se.arkalix.internal.net.http.service;
 
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http2.*;
+import io.netty.handler.flow.FlowControlHandler;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.AsciiString;
 import se.arkalix.ArSystem;
 import se.arkalix.util.annotation.Internal;
 import io.netty.channel.ChannelInitializer;
@@ -15,9 +26,27 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * {@link ChannelInitializer} useful for managing incoming HTTP connections.
+ * <p>
+ * Secure connections use HTTP/2 if the connecting client says it supports it
+ * while negotiating TLS via ALPN, and fall back to HTTP/1.1 otherwise.
+ * Insecure connections use HTTP/1.1, unless the client either starts sending
+ * HTTP/2 right away or asks for the connection to be upgraded to HTTP/2
+ * (h2c). The streams of HTTP/2 connections are handled as if each was a
+ * separate HTTP/1.1 connection, which means that services need not be aware
+ * of what HTTP version is used.
  */
 @Internal
 public class NettyHttpServiceConnectionInitializer extends ChannelInitializer<SocketChannel> {
+    private static final int MAX_CONCURRENT_STREAMS = 128;
+
+    private static final String HTTP_FLOW_CONTROLLER = "http-flow-controller";
+    private static final String HTTP_DECOMPRESSOR = "http-decompressor";
+    private static final String HTTP_COMPRESSOR = "http-compressor";
+    private static final String HTTP_CHUNKED_WRITER = "http-chunked-writer";
+    private static final String HTTP_HANDLER = "http-handler";
+    private static final String[] HTTP_HANDLER_NAMES = new String[]{
+        HTTP_FLOW_CONTROLLER, HTTP_DECOMPRESSOR, HTTP_COMPRESSOR, HTTP_CHUNKED_WRITER, HTTP_HANDLER};
+
     private final ArSystem system;
     private final HttpServiceLookup serviceLookup;
     private final SslContext sslContext;
@@ -36,20 +65,118 @@ public class NettyHttpServiceConnectionInitializer extends ChannelInitializer<So
     protected void initChannel(final SocketChannel ch) {
         final var pipeline = ch.pipeline();
 
-        SslHandler sslHandler = null;
         if (sslContext != null) {
-            sslHandler = sslContext.newHandler(ch.alloc());
-            pipeline.addLast(sslHandler);
+            final var sslHandler = sslContext.newHandler(ch.alloc());
+            pipeline
+                .addLast(sslHandler)
+                .addLast(new LoggingHandler())
+                .addLast(new IdleStateHandler(30, 90, 0, TimeUnit.SECONDS))
+                .addLast(new ApplicationProtocolNegotiationHandler(ApplicationProtocolNames.HTTP_1_1) {
+                    @Override
+                    protected void configurePipeline(final ChannelHandlerContext ctx, final String protocol) {
+                        if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+                            ctx.pipeline().addLast(new Http2Initializer(newHttp2FrameCodec(), sslHandler));
+                            return;
+                        }
+                        if (ApplicationProtocolNames.HTTP_1_1.equals(protocol)) {
+                            ctx.pipeline().addLast(newHttpServerCodec());
+                            addHttpHandlers(ctx.pipeline(), sslHandler);
+                            return;
+                        }
+                        throw new IllegalStateException("Unsupported application protocol \"" + protocol + "\"");
+                    }
+                });
+            return;
         }
 
+        final var httpServerCodec = newHttpServerCodec();
+        final var maxUpgradeContentLength = system.httpServiceLimits().maxInFlightBytes();
+        final var upgradeHandler = new HttpServerUpgradeHandler(httpServerCodec, protocol ->
+            AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol)
+                ? new Http2ServerUpgradeCodec(newHttp2FrameCodec(), new Http2Initializer(null, null))
+                : null, maxUpgradeContentLength);
+
         pipeline
             .addLast(new LoggingHandler())
             .addLast(new IdleStateHandler(30, 90, 0, TimeUnit.SECONDS))
+            .addLast(new CleartextHttp2ServerUpgradeHandler(httpServerCodec, upgradeHandler,
+                new Http2Initializer(newHttp2FrameCodec(), null)));
+
+        addHttpHandlers(pipeline, null);
+    }
+
+    private HttpServerCodec newHttpServerCodec() {
+        return new HttpServerCodec(4096, system.httpServiceLimits().maxHeaderSize(), 8192);
+    }
+
+    private Http2FrameCodec newHttp2FrameCodec() {
+        return Http2FrameCodecBuilder.forServer()
+            .initialSettings(Http2Settings.defaultSettings()
+                .maxConcurrentStreams(MAX_CONCURRENT_STREAMS)
+                .maxHeaderListSize(system.httpServiceLimits().maxHeaderSize()))
+            .build();
+    }
 
-            .addLast(new HttpServerCodec())
-            .addLast(new HttpContentDecompressor())
-            .addLast(new HttpContentCompressor())
+    /*
+     * The flow controller makes sure that no further decoded requests or
+     * request contents reach the connection handler while reading is
+     * suspended, even if they were read before the suspension.
+     */
+    private void addHttpHandlers(final ChannelPipeline pipeline, final SslHandler sslHandler) {
+        pipeline
+            .addLast(HTTP_FLOW_CONTROLLER, new FlowControlHandler())
+            .addLast(HTTP_DECOMPRESSOR, new HttpContentDecompressor())
+            .addLast(HTTP_COMPRESSOR, new NettyHttpContentCompressor())
+            .addLast(HTTP_CHUNKED_WRITER, new ChunkedWriteHandler())
+            .addLast(HTTP_HANDLER, new NettyHttpServiceConnectionHandler(system, serviceLookup, sslHandler));
+    }
+
+    /*
+     * Replaces any HTTP/1.1 handlers of a connection with handlers that treat
+     * each incoming HTTP/2 stream as a separate HTTP/1.1 connection.
+     */
+    private class Http2Initializer extends ChannelInitializer<Channel> {
+        private final Http2FrameCodec http2FrameCodec;
+        private final SslHandler sslHandler;
+
+        private Http2Initializer(final Http2FrameCodec http2FrameCodec, final SslHandler sslHandler) {
+            this.http2FrameCodec = http2FrameCodec;
+            this.sslHandler = sslHandler;
+        }
 
-            .addLast(new NettyHttpServiceConnectionHandler(system, serviceLookup, sslHandler));
+        @Override
+        protected void initChannel(final Channel ch) {
+            final var pipeline = ch.pipeline();
+            for (final var name : HTTP_HANDLER_NAMES) {
+                if (pipeline.get(name) != null) {
+                    pipeline.remove(name);
+                }
+            }
+            if (http2FrameCodec != null) {
+                pipeline.addLast(http2FrameCodec);
+            }
+            pipeline
+                .addLast(new Http2MultiplexHandler(new ChannelInitializer<Http2StreamChannel>() {
+                    @Override
+                    protected void initChannel(final Http2StreamChannel ch) {
+                        ch.pipeline()
+                            .addLast(new IdleStateHandler(30, 90, 0, TimeUnit.SECONDS))
+                            .addLast(new Http2StreamFrameToHttpObjectCodec(true));
+                        addHttpHandlers(ch.pipeline(), sslHandler);
+                    }
+                }))
+                .addLast(new ConnectionIdleHandler());
+        }
+    }
+
+    private static class ConnectionIdleHandler extends ChannelInboundHandlerAdapter {
+        @Override
+        public void userEventTriggered(final ChannelHandlerContext ctx, final Object evt) throws Exception {
+            if (evt instanceof IdleStateEvent) {
+                ctx.close();
+                return;
+            }
+            super.userEventTriggered(ctx, evt);
+        }
     }
 }
@@ -5,6 +5,7 @@ import io.netty.handler.codec.http.QueryStringDecoder;
 import se.arkalix.description.ConsumerDescription;
 import se.arkalix.dto.DtoEncoding;
 import se.arkalix.dto.DtoReadable;
+import se.arkalix.internal.net.http.HttpTimeouts;
 import se.arkalix.internal.net.http.NettyHttpBodyReceiver;
 import se.arkalix.internal.net.http.NettyHttpConverters;
 import se.arkalix.net.http.HttpHeaders;
@@ -14,9 +15,11 @@ import se.arkalix.net.http.service.HttpServiceRequest;
 import se.arkalix.security.NotSecureException;
 import se.arkalix.util.annotation.Internal;
 import se.arkalix.util.concurrent.FutureProgress;
+import se.arkalix.util.function.ThrowingConsumer;
 
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.*;
 
 @Internal
@@ -25,6 +28,7 @@ public class NettyHttpServiceRequest implements HttpServiceRequest {
     private final QueryStringDecoder queryStringDecoder;
     private final HttpRequest request;
     private final ConsumerDescription consumer;
+    private final Instant deadline;
 
     private HttpHeaders headers = null;
     private HttpMethod method = null;
@@ -36,6 +40,9 @@ public class NettyHttpServiceRequest implements HttpServiceRequest {
         queryStringDecoder = Objects.requireNonNull(builder.queryStringDecoder, "Expected queryStringDecoder");
         request = Objects.requireNonNull(builder.request, "Expected request");
         consumer = builder.consumer;
+        deadline = HttpTimeouts.parseDeadlineHeaderValue(request.headers()
+            .get(HttpTimeouts.DEADLINE_HEADER), Instant.now())
+            .orElse(null);
     }
 
     @Override
@@ -71,6 +78,23 @@ public class NettyHttpServiceRequest implements HttpServiceRequest {
         return body.bodyAsStream();
     }
 
+    @Override
+    public <R extends DtoReadable> FutureProgress<Integer> bodyAsStream(
+        final Class<R> class_,
+        final ThrowingConsumer<R> consumer)
+    {
+        return body.bodyAsStream(class_, consumer);
+    }
+
+    @Override
+    public <R extends DtoReadable> FutureProgress<Integer> bodyAsStream(
+        final DtoEncoding encoding,
+        final Class<R> class_,
+        final ThrowingConsumer<R> consumer)
+    {
+        return body.bodyAsStream(encoding, class_, consumer);
+    }
+
     @Override
     public FutureProgress<String> bodyAsString() {
         return body.bodyAsString();
@@ -124,6 +148,11 @@ public class NettyHttpServiceRequest implements HttpServiceRequest {
         return consumer;
     }
 
+    @Override
+    public Optional<Instant> deadline() {
+        return Optional.ofNullable(deadline);
+    }
+
     @Override
     public HttpVersion version() {
         if (version == null) {
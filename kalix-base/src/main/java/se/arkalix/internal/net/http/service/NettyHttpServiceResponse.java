@@ -4,14 +4,19 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
-import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import se.arkalix.descriptor.EncodingDescriptor;
 import se.arkalix.dto.DtoEncoding;
 import se.arkalix.dto.DtoWritable;
 import se.arkalix.dto.DtoWriteException;
 import se.arkalix.internal.dto.binary.ByteBufWriter;
+import se.arkalix.internal.net.http.HttpByteRange;
 import se.arkalix.internal.net.http.HttpMediaTypes;
+import se.arkalix.internal.net.http.NettyDtoPublisherInput;
+import se.arkalix.internal.net.http.NettyHttpFiles;
 import se.arkalix.net.http.HttpHeaders;
 import se.arkalix.net.http.HttpStatus;
 import se.arkalix.net.http.HttpVersion;
@@ -22,12 +27,15 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Flow;
 
-import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
-import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
+import static io.netty.handler.codec.http.HttpHeaderNames.*;
+import static io.netty.handler.codec.http.HttpHeaderValues.BYTES;
+import static io.netty.handler.codec.http.HttpHeaderValues.CHUNKED;
 import static se.arkalix.internal.net.http.NettyHttpConverters.convert;
 
 @Internal
@@ -87,14 +95,10 @@ public class NettyHttpServiceResponse implements HttpServiceResponse {
             }
         }
         else if (body instanceof Path) {
-            final var file = new RandomAccessFile(((Path) body).toFile(), "r");
-            final var length = file.length();
-
-            nettyHeaders.set(CONTENT_LENGTH, length);
-
-            channel.write(new DefaultHttpResponse(nettyVersion, nettyStatus, nettyHeaders));
-            channel.write(new DefaultFileRegion(file.getChannel(), 0, length));
-            return channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+            return writeFile(channel, nettyVersion, nettyStatus, (Path) body);
+        }
+        else if (body instanceof Flow.Publisher) {
+            return writePublisher(channel, nettyVersion, nettyStatus, (Flow.Publisher<? extends DtoWritable>) body);
         }
         else if (body instanceof String) {
             final var charset = HttpUtil.getCharset(nettyHeaders.get("content-type"), StandardCharsets.UTF_8);
@@ -113,6 +117,98 @@ public class NettyHttpServiceResponse implements HttpServiceResponse {
             EmptyHttpHeaders.INSTANCE));
     }
 
+    private ChannelFuture writeFile(
+        final Channel channel,
+        final io.netty.handler.codec.http.HttpVersion nettyVersion,
+        final HttpResponseStatus nettyStatus,
+        final Path path) throws IOException
+    {
+        final var file = new RandomAccessFile(path.toFile(), "r");
+        try {
+            final var length = file.length();
+
+            var status = nettyStatus;
+            var offset = 0L;
+            var count = length;
+
+            if (nettyStatus.equals(HttpResponseStatus.OK)) {
+                nettyHeaders.set(ACCEPT_RANGES, BYTES);
+                if (!nettyHeaders.contains(LAST_MODIFIED)) {
+                    nettyHeaders.set(LAST_MODIFIED, DateFormatter.format(new Date(path.toFile().lastModified())));
+                }
+                final var requestHeaders = request.headers();
+                if (request.method().equals(HttpMethod.GET) && HttpByteRange.isIfRangeSatisfied(
+                    requestHeaders.get(IF_RANGE), nettyHeaders.get(ETAG), nettyHeaders.get(LAST_MODIFIED)))
+                {
+                    final var range = HttpByteRange.parse(requestHeaders.get(RANGE), length);
+                    if (range != null) {
+                        if (!range.isSatisfiable()) {
+                            file.close();
+                            nettyHeaders.set(CONTENT_RANGE, "bytes */" + length);
+                            nettyHeaders.set(CONTENT_LENGTH, 0);
+                            return channel.writeAndFlush(new DefaultFullHttpResponse(nettyVersion,
+                                HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE, Unpooled.EMPTY_BUFFER,
+                                nettyHeaders, EmptyHttpHeaders.INSTANCE));
+                        }
+                        status = HttpResponseStatus.PARTIAL_CONTENT;
+                        offset = range.first();
+                        count = range.length();
+                        nettyHeaders.set(CONTENT_RANGE, "bytes " + range.first() + "-" + range.last() + "/" + length);
+                    }
+                }
+            }
+            nettyHeaders.set(CONTENT_LENGTH, count);
+
+            return NettyHttpFiles.write(channel, NettyHttpContentCompressor
+                .newUncompressedResponse(nettyVersion, status, nettyHeaders), file, offset, count);
+        }
+        catch (final Throwable throwable) {
+            file.close();
+            throw throwable;
+        }
+    }
+
+    private ChannelFuture writePublisher(
+        final Channel channel,
+        final io.netty.handler.codec.http.HttpVersion nettyVersion,
+        final HttpResponseStatus nettyStatus,
+        final Flow.Publisher<? extends DtoWritable> publisher)
+    {
+        if (dtoEncoding == null) {
+            dtoEncoding = encoding.asDtoEncoding().orElseThrow(() -> new IllegalStateException("" +
+                "There is no DTO support for the \"" + encoding +
+                "\" encoding; response body cannot be encoded"));
+        }
+        final var chunkedWriteHandler = channel.pipeline().get(ChunkedWriteHandler.class);
+        if (chunkedWriteHandler == null) {
+            throw new IllegalStateException("No ChunkedWriteHandler in channel pipeline");
+        }
+        final var input = new NettyDtoPublisherInput(publisher, dtoEncoding, chunkedWriteHandler);
+
+        if (!nettyHeaders.contains(CONTENT_TYPE)) {
+            nettyHeaders.set(CONTENT_TYPE, HttpMediaTypes.toMediaType(encoding));
+        }
+        nettyHeaders.remove(CONTENT_LENGTH);
+
+        // HTTP/1.0 receivers can only determine where a body of unknown
+        // length ends by the connection being closed.
+        final var isChunked = nettyVersion.equals(io.netty.handler.codec.http.HttpVersion.HTTP_1_1);
+        if (isChunked) {
+            nettyHeaders.set(TRANSFER_ENCODING, CHUNKED);
+        }
+        else {
+            HttpUtil.setKeepAlive(nettyHeaders, nettyVersion, false);
+        }
+
+        channel.write(new DefaultHttpResponse(nettyVersion, nettyStatus, nettyHeaders));
+
+        // The status and headers have already been sent if the body cannot
+        // be completed, which leaves closing the connection as the only way
+        // of telling the receiver that the body is not complete.
+        return channel.writeAndFlush(new HttpChunkedInput(input))
+            .addListener(isChunked ? ChannelFutureListener.CLOSE_ON_FAILURE : ChannelFutureListener.CLOSE);
+    }
+
     @Override
     public Optional<Object> body() {
         return Optional.ofNullable(body);
@@ -136,6 +232,12 @@ public class NettyHttpServiceResponse implements HttpServiceResponse {
         return this;
     }
 
+    @Override
+    public HttpServiceResponse body(final Flow.Publisher<? extends DtoWritable> publisher) {
+        body = Objects.requireNonNull(publisher, "Expected publisher");
+        return this;
+    }
+
     @Override
     public HttpServiceResponse body(final DtoEncoding encoding, final DtoWritable data) {
         dtoEncoding = encoding;
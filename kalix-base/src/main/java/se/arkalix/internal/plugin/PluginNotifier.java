@@ -205,19 +205,41 @@ public class PluginNotifier {
 
     @ThreadSafe
     public Future<Set<ServiceDescription>> onServiceQueried(final ServiceQuery query) {
+        // As the order in which plugins resolve queries is irrelevant, all of
+        // them are queried at once. Every query is allowed to complete, even
+        // if another one fails, in which case the first fault is reported
+        // with the faults of any other failing queries as suppressed.
         return Futures
-            .serialize(handlers.stream().map(handler -> {
+            .allSettled(handlers.stream().map(handler -> {
                 try {
                     return handler.attached().onServiceQueried(query);
                 }
                 catch (final Throwable throwable) {
-                    return Future.failure(throwable);
+                    return Future.<Collection<ServiceDescription>>failure(throwable);
                 }
-            }))
-            .map(collections -> collections.stream()
-                .flatMap(Collection::stream)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toUnmodifiableSet()));
+            }).collect(Collectors.toList()))
+            .flatMap(results -> {
+                final var services = new HashSet<ServiceDescription>();
+                Throwable fault = null;
+                for (final var result : results) {
+                    if (result.isSuccess()) {
+                        for (final var service : result.value()) {
+                            if (service != null) {
+                                services.add(service);
+                            }
+                        }
+                    }
+                    else if (fault == null) {
+                        fault = result.fault();
+                    }
+                    else {
+                        fault.addSuppressed(result.fault());
+                    }
+                }
+                return fault == null
+                    ? Future.success(Collections.unmodifiableSet(services))
+                    : Future.failure(fault);
+            });
     }
 
     private Future<?> serialize(final ThrowingFunction<PluginAttached, Future<?>> function) {
@@ -25,11 +25,13 @@ public final class AccessToken {
     private final String cid;
     private final InterfaceDescriptor iid;
     private final String sid;
+    private final long expiresAtMillis;
 
-    private AccessToken(final String cid, final InterfaceDescriptor iid, final String sid) {
+    AccessToken(final String cid, final InterfaceDescriptor iid, final String sid, final long expiresAtMillis) {
         this.cid = cid;
         this.iid = iid;
         this.sid = sid;
+        this.expiresAtMillis = expiresAtMillis;
     }
 
     public String cid() {
@@ -44,6 +46,15 @@ public final class AccessToken {
         return sid;
     }
 
+    /**
+     * @return Time, in milliseconds since the UNIX epoch, after which this
+     * token is no longer accepted, or {@link Long#MAX_VALUE} if it never
+     * expires.
+     */
+    public long expiresAtMillis() {
+        return expiresAtMillis;
+    }
+
     public static AccessToken read(final String token, final PrivateKey receiverKey, final PublicKey senderKey)
         throws AccessTokenException
     {
@@ -78,7 +89,18 @@ public final class AccessToken {
             throw new AccessTokenException("Expected \"sid\" claim");
         }
 
-        return new AccessToken(cid, iid0, sid);
+        final long expiresAtMillis;
+        try {
+            final var exp = claims.getExpirationTime();
+            expiresAtMillis = exp != null
+                ? exp.getValueInMillis() + CLOCK_SKEW_TOLERANCE_IN_MS
+                : Long.MAX_VALUE;
+        }
+        catch (final MalformedClaimException exception) {
+            throw new AccessTokenException("Malformed JWT claim", exception);
+        }
+
+        return new AccessToken(cid, iid0, sid, expiresAtMillis);
     }
 
     private static String decrypt(final String message, final PrivateKey receiverKey) throws AccessTokenException {
@@ -136,15 +158,15 @@ public final class AccessToken {
         try {
             final var claims = JwtClaims.parse(payload);
 
-            final var now = System.currentTimeMillis() + CLOCK_SKEW_TOLERANCE_IN_MS;
+            final var now = System.currentTimeMillis();
 
             final var exp = claims.getExpirationTime();
-            if (exp != null && exp.getValueInMillis() > now) {
+            if (exp != null && exp.getValueInMillis() + CLOCK_SKEW_TOLERANCE_IN_MS < now) {
                 throw new AccessTokenException("JWT expired");
             }
 
             final var iat = claims.getIssuedAt();
-            if (iat != null && iat.getValueInMillis() > now) {
+            if (iat != null && iat.getValueInMillis() - CLOCK_SKEW_TOLERANCE_IN_MS > now) {
                 throw new AccessTokenException("JWT not yet issued");
             }
 
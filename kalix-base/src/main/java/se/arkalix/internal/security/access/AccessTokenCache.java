@@ -0,0 +1,118 @@
+package se.arkalix.internal.security.access;
+
+import se.arkalix.security.access.AccessTokenException;
+import se.arkalix.util.annotation.Internal;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded and concurrent cache of successfully read {@link AccessToken}s,
+ * keyed by their raw string representations.
+ * <p>
+ * Reading a token involves decrypting it, verifying its signature and
+ * parsing its claims, all of which is costly enough to be worth avoiding
+ * when the same consumer presents the same token repeatedly. Cached tokens
+ * are only returned while not expired, and only if requested with the same
+ * receiver and sender keys as were used to read them. Tokens that fail to be
+ * read are never cached.
+ */
+@Internal
+public class AccessTokenCache {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final int maxSize;
+    private final Reader reader;
+
+    public AccessTokenCache(final int maxSize) {
+        this(maxSize, AccessToken::read);
+    }
+
+    AccessTokenCache(final int maxSize, final Reader reader) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Expected maxSize >= 1");
+        }
+        this.maxSize = maxSize;
+        this.reader = Objects.requireNonNull(reader, "Expected reader");
+    }
+
+    public AccessToken read(final String token, final PrivateKey receiverKey, final PublicKey senderKey)
+        throws AccessTokenException
+    {
+        final var now = System.currentTimeMillis();
+        final var entry = entries.get(token);
+        if (entry != null) {
+            if (entry.receiverKey == receiverKey && entry.senderKey == senderKey &&
+                entry.token.expiresAtMillis() >= now)
+            {
+                hitCount.increment();
+                return entry.token;
+            }
+            entries.remove(token, entry);
+        }
+        missCount.increment();
+
+        final var token0 = reader.read(token, receiverKey, senderKey);
+        final var readAt = System.currentTimeMillis();
+        if (token0.expiresAtMillis() >= readAt) {
+            if (entries.size() >= maxSize) {
+                evict(readAt);
+            }
+            entries.put(token, new Entry(token0, receiverKey, senderKey));
+        }
+        return token0;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /*
+     * Expired entries are removed first. If that is not enough to make room
+     * for another entry, arbitrary entries are removed until about a quarter
+     * of the cache is free.
+     */
+    private void evict(final long now) {
+        entries.values().removeIf(entry -> entry.token.expiresAtMillis() < now);
+        final var iterator = entries.values().iterator();
+        var excess = entries.size() - (maxSize - Math.max(1, maxSize / 4));
+        while (excess-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    @FunctionalInterface
+    interface Reader {
+        AccessToken read(String token, PrivateKey receiverKey, PublicKey senderKey) throws AccessTokenException;
+    }
+
+    private static class Entry {
+        private final AccessToken token;
+        private final PrivateKey receiverKey;
+        private final PublicKey senderKey;
+
+        private Entry(final AccessToken token, final PrivateKey receiverKey, final PublicKey senderKey) {
+            this.token = token;
+            this.receiverKey = receiverKey;
+            this.senderKey = senderKey;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package se.arkalix.internal.util;
+
+import se.arkalix.util.annotation.Internal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timer wheel, keeping track of when its items expire.
+ * <p>
+ * Time is divided into ticks of a fixed duration. Every item is placed in the
+ * bucket of the tick during which it expires, which makes adding an item a
+ * constant time operation. Expired items are collected by {@link
+ * #advance(Instant, Consumer) advancing} the wheel, which only visits the
+ * buckets of the ticks that have passed since the wheel was last advanced.
+ * Items that will not be needed when they expire can be {@link
+ * #remove(Entry) removed} before that happens.
+ * <p>
+ * Instances of this class are not thread-safe.
+ *
+ * @param <T> Type of item.
+ */
+@Internal
+public class TimerWheel<T> {
+    private final long tickMillis;
+    private final List<ArrayList<Entry<T>>> buckets;
+
+    private long currentTick;
+
+    /**
+     * Creates new timer wheel.
+     *
+     * @param tick        Duration of each wheel tick.
+     * @param bucketCount Number of wheel buckets.
+     * @param now         Current time.
+     */
+    public TimerWheel(final Duration tick, final int bucketCount, final Instant now) {
+        tickMillis = Objects.requireNonNull(tick, "Expected tick").toMillis();
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Expected tick >= 1 ms");
+        }
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException("Expected bucketCount > 0");
+        }
+        buckets = new ArrayList<>(bucketCount);
+        for (var i = 0; i < bucketCount; ++i) {
+            buckets.add(new ArrayList<>(0));
+        }
+        currentTick = tickOf(Objects.requireNonNull(now, "Expected now").toEpochMilli());
+    }
+
+    /**
+     * Adds {@code item} to wheel.
+     *
+     * @param item      Item to add.
+     * @param expiresAt Time at which the item expires.
+     * @return Wheel entry, useful for removing the item before it expires.
+     */
+    public Entry<T> add(final T item, final Instant expiresAt) {
+        final var expiresAtMillis = toEpochMilliSaturated(expiresAt);
+        final var tick = Math.max(tickOf(expiresAtMillis), currentTick + 1);
+        final var bucket = buckets.get((int) Math.floorMod(tick, (long) buckets.size()));
+        final var entry = new Entry<>(item, expiresAtMillis, bucket);
+        bucket.add(entry);
+        return entry;
+    }
+
+    /**
+     * Removes the item of given {@code entry} from wheel, unless it already
+     * has been removed.
+     *
+     * @param entry Entry returned when the item was added to this wheel.
+     * @return {@code true} only if the item was removed by this call.
+     */
+    public boolean remove(final Entry<T> entry) {
+        Objects.requireNonNull(entry, "Expected entry");
+        final var bucket = entry.bucket;
+        for (var i = 0; i < bucket.size(); ++i) {
+            if (bucket.get(i) == entry) {
+                removeAt(bucket, i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all items that expire before or at {@code now} from the buckets
+     * of the ticks that have passed since the wheel was last advanced,
+     * including the tick it was then advanced to, providing each such item to
+     * {@code onExpired}.
+     *
+     * @param now       Current time.
+     * @param onExpired Function receiving each expired item.
+     */
+    public void advance(final Instant now, final Consumer<T> onExpired) {
+        final var nowMillis = now.toEpochMilli();
+        final var nowTick = tickOf(nowMillis);
+        if (nowTick <= currentTick) {
+            return;
+        }
+        // The bucket of the tick the wheel was last advanced to is visited
+        // again, as it may hold items that had not yet expired back then.
+        final var tickCount = Math.min(nowTick - currentTick + 1, buckets.size());
+        for (var tick = currentTick; tick < currentTick + tickCount; ++tick) {
+            final var bucket = buckets.get((int) Math.floorMod(tick, (long) buckets.size()));
+            for (var i = 0; i < bucket.size(); ) {
+                final var entry = bucket.get(i);
+                if (entry.expiresAtMillis > nowMillis) {
+                    i += 1;
+                    continue;
+                }
+                removeAt(bucket, i);
+                onExpired.accept(entry.item);
+            }
+        }
+        currentTick = nowTick;
+    }
+
+    /**
+     * Removes all items from wheel.
+     */
+    public void clear() {
+        for (final var bucket : buckets) {
+            bucket.clear();
+        }
+    }
+
+    private static <T> void removeAt(final ArrayList<Entry<T>> bucket, final int index) {
+        final var last = bucket.remove(bucket.size() - 1);
+        if (index < bucket.size()) {
+            bucket.set(index, last);
+        }
+    }
+
+    private static long toEpochMilliSaturated(final Instant instant) {
+        try {
+            return instant.toEpochMilli();
+        }
+        catch (final ArithmeticException exception) {
+            return instant.isBefore(Instant.EPOCH) ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private long tickOf(final long millis) {
+        return Math.floorDiv(millis, tickMillis);
+    }
+
+    /**
+     * An item added to a {@link TimerWheel}.
+     *
+     * @param <T> Type of item.
+     */
+    public static final class Entry<T> {
+        private final T item;
+        private final long expiresAtMillis;
+        private final ArrayList<Entry<T>> bucket;
+
+        private Entry(final T item, final long expiresAtMillis, final ArrayList<Entry<T>> bucket) {
+            this.item = item;
+            this.expiresAtMillis = expiresAtMillis;
+            this.bucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package se.arkalix.internal.util.concurrent;
+
+import se.arkalix.util.Result;
+import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.concurrent.Future;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Future} completed explicitly via {@link #tryComplete(Result)}.
+ * <p>
+ * The state of each instance is kept in a single field, which is only ever
+ * updated via compare-and-set operations. The field holds either (1) nothing,
+ * (2) the consumer waiting for the result of the future, (3) the result of
+ * the future, if it has not yet been consumed, or (4) a marker signifying
+ * that the future has been consumed or cancelled. As only one consumer is
+ * supported, as is the case for all futures, no list of listeners is ever
+ * allocated.
+ * <p>
+ * Instances of this class may be completed, consumed and cancelled by any
+ * threads.
+ *
+ * @param <V> Type of value that can be retrieved if the operation
+ *            represented by this future succeeds.
+ */
+@Internal
+public abstract class AbstractFuture<V> implements Future<V> {
+    private static final Object CONSUMED = new Object();
+    private static final Object CANCELLED = new Object();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AbstractFuture, Object> stateUpdater =
+        AtomicReferenceFieldUpdater.newUpdater(AbstractFuture.class, Object.class, "state");
+
+    private volatile Object state = null;
+
+    /**
+     * Completes this future with given {@code result}, unless it already has
+     * been completed or cancelled.
+     *
+     * @param result Result to complete this future with.
+     * @return {@code true} only if this future was completed by this call.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean tryComplete(final Result<V> result) {
+        Objects.requireNonNull(result, "Expected result");
+        while (true) {
+            final var state = this.state;
+            if (state == null) {
+                if (stateUpdater.compareAndSet(this, null, result)) {
+                    return true;
+                }
+            }
+            else if (state instanceof Consumer) {
+                if (stateUpdater.compareAndSet(this, state, CONSUMED)) {
+                    ((Consumer<Result<V>>) state).accept(result);
+                    return true;
+                }
+            }
+            else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} only if this future has been cancelled.
+     */
+    public boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    /**
+     * @return {@code true} only if this future has been completed and was
+     * not cancelled before its result was consumed.
+     */
+    public boolean isCompleted() {
+        final var state = this.state;
+        return state instanceof Result || state == CONSUMED;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onResult(final Consumer<Result<V>> consumer) {
+        Objects.requireNonNull(consumer, "Expected consumer");
+        while (true) {
+            final var state = this.state;
+            if (state == null || state instanceof Consumer) {
+                if (stateUpdater.compareAndSet(this, state, consumer)) {
+                    return;
+                }
+            }
+            else if (state instanceof Result) {
+                if (stateUpdater.compareAndSet(this, state, CONSUMED)) {
+                    consumer.accept((Result<V>) state);
+                    return;
+                }
+            }
+            else {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void cancel(final boolean mayInterruptIfRunning) {
+        while (true) {
+            final var state = this.state;
+            if (state == CONSUMED || state == CANCELLED) {
+                return;
+            }
+            if (stateUpdater.compareAndSet(this, state, CANCELLED)) {
+                onCancel(mayInterruptIfRunning);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Called when this future is cancelled before its result is consumed,
+     * even if it already has been completed.
+     *
+     * @param mayInterruptIfRunning Whether or not the thread completing this
+     *                              future, if any, may be interrupted.
+     */
+    protected void onCancel(final boolean mayInterruptIfRunning) {
+        // Does nothing by default.
+    }
+}
@@ -12,6 +12,7 @@ import java.time.Duration;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -25,16 +26,24 @@ abstract class AbstractScheduler implements Scheduler {
 
     protected abstract ScheduledExecutorService executor();
 
+    /**
+     * @return Executor used to execute commands and tasks that are not
+     * delayed. Defaults to {@link #executor()}.
+     */
+    protected ExecutorService dispatcher() {
+        return executor();
+    }
+
     @Override
     public void execute(final Runnable command) {
-        executor().execute(command);
+        dispatcher().execute(command);
     }
 
     @Override
     public Future<?> submit(final Runnable task) {
         try {
             final var adapter = new FutureCompletion<>();
-            final var future = executor().submit(() -> {
+            final var future = dispatcher().submit(() -> {
                 Result<Object> result;
                 try {
                     task.run();
@@ -57,7 +66,7 @@ abstract class AbstractScheduler implements Scheduler {
     public <V> Future<V> submit(final Callable<V> task) {
         try {
             final var adapter = new FutureCompletion<V>();
-            final var future = executor().submit(() -> {
+            final var future = dispatcher().submit(() -> {
                 Result<V> result;
                 try {
                     result = Result.success(task.call());
@@ -79,7 +88,7 @@ abstract class AbstractScheduler implements Scheduler {
     public <V> Future<V> submit(final Runnable task, final V result) {
         try {
             final var adapter = new FutureCompletion<V>();
-            final var future = executor().submit(() -> {
+            final var future = dispatcher().submit(() -> {
                 Result<V> result0;
                 try {
                     task.run();
@@ -165,7 +174,7 @@ abstract class AbstractScheduler implements Scheduler {
     }
 
     @Override
-    public Future<?> scheduleWithFixedDelay(final Duration initalDelay, final Duration delay, final Runnable command) {
+    public Future<?> scheduleWithFixedDelay(final Duration initialDelay, final Duration delay, final Runnable command) {
         try {
             final var adapter = new FutureCompletion<>();
             final var future = executor().scheduleWithFixedDelay(() -> {
@@ -176,7 +185,7 @@ abstract class AbstractScheduler implements Scheduler {
                     adapter.complete(Result.failure(throwable));
                     adapter.cancel(false);
                 }
-            }, initalDelay.toMillis(), delay.toMillis(), TimeUnit.MILLISECONDS);
+            }, initialDelay.toMillis(), delay.toMillis(), TimeUnit.MILLISECONDS);
             adapter.setCancelCallback(future::cancel);
             return adapter;
         }
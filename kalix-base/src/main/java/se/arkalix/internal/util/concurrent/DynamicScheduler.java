@@ -1,17 +1,124 @@
 package se.arkalix.internal.util.concurrent;
 
+import io.netty.util.concurrent.DefaultThreadFactory;
+import se.arkalix.internal.util.concurrent.ElasticScheduledExecutor.RejectionPolicy;
 import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.concurrent.SchedulerStats;
 
-import java.util.concurrent.Executors;
+import java.time.Duration;
+import java.util.Objects;
 import java.util.concurrent.ScheduledExecutorService;
 
 @Internal
 public class DynamicScheduler extends AbstractScheduler {
-    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(0);
+    private final ElasticScheduledExecutor executor;
+
+    private DynamicScheduler(final Builder builder) {
+        executor = new ElasticScheduledExecutor(
+            builder.minThreads,
+            builder.maxThreads,
+            builder.keepAlive.toMillis(),
+            builder.queueCapacity,
+            builder.rejectionPolicy,
+            new DefaultThreadFactory("kalix-dynamic"),
+            new DefaultThreadFactory("kalix-dynamic-timer", true));
+    }
 
     @Override
     protected ScheduledExecutorService executor() {
         return executor;
     }
 
+    public SchedulerStats stats() {
+        return executor.stats();
+    }
+
+    public static class Builder {
+        private int minThreads = 0;
+        private int maxThreads = Math.max(64, Runtime.getRuntime().availableProcessors() * 8);
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private int queueCapacity = 16 * 1024;
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+        /**
+         * Sets number of threads to keep in pool even if they are idle.
+         * Defaults to 0.
+         *
+         * @param minThreads Minimum number of threads.
+         * @return This builder.
+         */
+        public Builder minThreads(final int minThreads) {
+            this.minThreads = minThreads;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of threads in pool. Defaults to the largest of
+         * 64 and 8 times the number of available processors.
+         *
+         * @param maxThreads Maximum number of threads.
+         * @return This builder.
+         */
+        public Builder maxThreads(final int maxThreads) {
+            this.maxThreads = maxThreads;
+            return this;
+        }
+
+        /**
+         * Sets time after which idle threads beyond the minimum number of
+         * threads are removed from pool. Defaults to 60 seconds.
+         *
+         * @param keepAlive Idle thread keep-alive time.
+         * @return This builder.
+         */
+        public Builder keepAlive(final Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of tasks that may wait for a thread to become
+         * available. Defaults to 16384.
+         *
+         * @param queueCapacity Maximum number of queued tasks.
+         * @return This builder.
+         */
+        public Builder queueCapacity(final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets what to do with tasks submitted while both the thread pool and
+         * the queue are full. Defaults to {@link RejectionPolicy#ABORT}.
+         *
+         * @param rejectionPolicy Rejection policy.
+         * @return This builder.
+         */
+        public Builder rejectionPolicy(final RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+            return this;
+        }
+
+        public DynamicScheduler build() {
+            if (minThreads < 0) {
+                throw new IllegalArgumentException("Expected minThreads >= 0");
+            }
+            if (maxThreads <= 0) {
+                throw new IllegalArgumentException("Expected maxThreads > 0");
+            }
+            if (maxThreads < minThreads) {
+                throw new IllegalArgumentException("Expected maxThreads >= minThreads");
+            }
+            Objects.requireNonNull(keepAlive, "Expected keepAlive");
+            if (keepAlive.isNegative() || keepAlive.isZero()) {
+                throw new IllegalArgumentException("Expected keepAlive > 0");
+            }
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("Expected queueCapacity > 0");
+            }
+            Objects.requireNonNull(rejectionPolicy, "Expected rejectionPolicy");
+            return new DynamicScheduler(this);
+        }
+    }
 }
@@ -0,0 +1,336 @@
+package se.arkalix.internal.util.concurrent;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.concurrent.LatencyHistogram;
+import se.arkalix.util.concurrent.SchedulerStats;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread pool executor that adds threads as long as there are no idle
+ * threads to execute submitted tasks, until a maximum number of threads is
+ * reached, after which it starts to queue tasks.
+ * <p>
+ * A regular {@link ThreadPoolExecutor} only adds threads beyond its core pool
+ * size when its task queue is full, which is why it is not suitable for
+ * executing blocking tasks with a bounded queue. This executor rather only
+ * queues tasks when it has no idle threads and can add no more threads. Idle
+ * threads beyond the minimum number of threads are removed after a given
+ * keep-alive time. Delayed and periodic tasks are kept track of by a hashed
+ * wheel timer, which hands them over to the thread pool when they become
+ * due. As a consequence, delays are only respected with a precision of about
+ * {@link #TIMER_TICK_MILLIS} milliseconds.
+ * <p>
+ * The executor records the time each task spends waiting in its queue and
+ * being executed, which is made available together with other statistics via
+ * {@link #stats()}.
+ */
+@Internal
+public class ElasticScheduledExecutor extends ThreadPoolExecutor implements ScheduledExecutorService {
+    /**
+     * The duration of each tick of the timer used to schedule delayed and
+     * periodic tasks.
+     */
+    public static final int TIMER_TICK_MILLIS = 10;
+
+    private final RejectionPolicy rejectionPolicy;
+    private final HashedWheelTimer timer;
+
+    private final AtomicInteger pendingTaskCount = new AtomicInteger(0);
+    private final LongAdder rejectedTaskCount = new LongAdder();
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+    private final LatencyHistogram executionLatency = new LatencyHistogram();
+
+    /**
+     * Creates new elastic scheduled executor.
+     *
+     * @param minThreads      Number of threads to keep in pool even if idle.
+     * @param maxThreads      Maximum number of threads in pool.
+     * @param keepAliveMillis Time after which idle threads beyond {@code
+     *                        minThreads} are removed from pool.
+     * @param queueCapacity   Maximum number of tasks waiting for a thread to
+     *                        become available.
+     * @param rejectionPolicy What to do with tasks submitted while both
+     *                        pool and queue are full.
+     * @param threadFactory   Factory used to create pool threads.
+     * @param timerFactory    Factory used to create timer thread.
+     */
+    public ElasticScheduledExecutor(
+        final int minThreads,
+        final int maxThreads,
+        final long keepAliveMillis,
+        final int queueCapacity,
+        final RejectionPolicy rejectionPolicy,
+        final ThreadFactory threadFactory,
+        final ThreadFactory timerFactory)
+    {
+        super(minThreads, maxThreads, keepAliveMillis, TimeUnit.MILLISECONDS,
+            new ElasticQueue(queueCapacity), threadFactory, ElasticScheduledExecutor::reject);
+        this.rejectionPolicy = Objects.requireNonNull(rejectionPolicy, "Expected rejectionPolicy");
+        timer = new HashedWheelTimer(timerFactory, TIMER_TICK_MILLIS, TimeUnit.MILLISECONDS, 512);
+        ((ElasticQueue) getQueue()).executor = this;
+    }
+
+    /**
+     * @return Snapshot of the current statistics of this executor.
+     */
+    public SchedulerStats stats() {
+        return new SchedulerStats(
+            getQueue().size(),
+            getActiveCount(),
+            getPoolSize(),
+            getLargestPoolSize(),
+            getCompletedTaskCount(),
+            rejectedTaskCount.sum(),
+            queueLatency.copy(),
+            executionLatency.copy());
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        Objects.requireNonNull(command, "Expected command");
+        pendingTaskCount.incrementAndGet();
+        try {
+            super.execute(new MeasuredTask(command));
+        }
+        catch (final RejectedExecutionException exception) {
+            pendingTaskCount.decrementAndGet();
+            throw exception;
+        }
+    }
+
+    private static void reject(final Runnable task, final ThreadPoolExecutor executor0) {
+        final var executor = (ElasticScheduledExecutor) executor0;
+        if (!executor.isShutdown()) {
+            // The pool is full, but the queue may not be.
+            if (((ElasticQueue) executor.getQueue()).offerToQueue(task)) {
+                return;
+            }
+            if (executor.rejectionPolicy == RejectionPolicy.CALLER_RUNS) {
+                task.run();
+                return;
+            }
+        }
+        executor.rejectedTaskCount.increment();
+        throw new RejectedExecutionException(executor.isShutdown()
+            ? "Executor shut down"
+            : "Executor thread pool and queue full");
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+        Objects.requireNonNull(command, "Expected command");
+        return schedule(new TimerTaskFuture<>(Executors.callable(command, null), triggerTimeOf(delay, unit), 0L));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(final Callable<V> callable, final long delay, final TimeUnit unit) {
+        Objects.requireNonNull(callable, "Expected callable");
+        return schedule(new TimerTaskFuture<>(callable, triggerTimeOf(delay, unit), 0L));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(
+        final Runnable command,
+        final long initialDelay,
+        final long period,
+        final TimeUnit unit)
+    {
+        Objects.requireNonNull(command, "Expected command");
+        if (period <= 0) {
+            throw new IllegalArgumentException("Expected period > 0");
+        }
+        return schedule(new TimerTaskFuture<>(Executors.callable(command, null),
+            triggerTimeOf(initialDelay, unit), unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(
+        final Runnable command,
+        final long initialDelay,
+        final long delay,
+        final TimeUnit unit)
+    {
+        Objects.requireNonNull(command, "Expected command");
+        if (delay <= 0) {
+            throw new IllegalArgumentException("Expected delay > 0");
+        }
+        return schedule(new TimerTaskFuture<>(Executors.callable(command, null),
+            triggerTimeOf(initialDelay, unit), -unit.toNanos(delay)));
+    }
+
+    private <V> ScheduledFuture<V> schedule(final TimerTaskFuture<V> task) {
+        if (isShutdown()) {
+            rejectedTaskCount.increment();
+            throw new RejectedExecutionException("Executor shut down");
+        }
+        try {
+            task.timeout = timer.newTimeout(task, Math.max(task.time - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+        }
+        catch (final IllegalStateException exception) {
+            rejectedTaskCount.increment();
+            throw new RejectedExecutionException("Executor shut down", exception);
+        }
+        return task;
+    }
+
+    private static long triggerTimeOf(final long delay, final TimeUnit unit) {
+        return System.nanoTime() + unit.toNanos(Math.max(delay, 0L));
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        timer.stop();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        timer.stop();
+        return super.shutdownNow();
+    }
+
+    /**
+     * Determines what to do with tasks submitted while the thread pool and
+     * queue of an {@link ElasticScheduledExecutor} are full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Reject task by throwing a {@link RejectedExecutionException}.
+         */
+        ABORT,
+
+        /**
+         * Execute task by the thread submitting it, which slows down the
+         * rate at which that thread can submit more tasks.
+         */
+        CALLER_RUNS,
+    }
+
+    @SuppressWarnings("serial")
+    private static class ElasticQueue extends LinkedBlockingQueue<Runnable> {
+        private volatile ElasticScheduledExecutor executor;
+
+        private ElasticQueue(final int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        public boolean offer(final Runnable task) {
+            final var executor = this.executor;
+            if (executor != null) {
+                // Refusing a task makes the executor try to add a thread,
+                // which it should only do if no idle thread can take it.
+                final var poolSize = executor.getPoolSize();
+                if (executor.pendingTaskCount.get() > poolSize && poolSize < executor.getMaximumPoolSize()) {
+                    return false;
+                }
+            }
+            return super.offer(task);
+        }
+
+        private boolean offerToQueue(final Runnable task) {
+            return super.offer(task);
+        }
+    }
+
+    private class MeasuredTask implements Runnable {
+        private final Runnable task;
+        private final long submittedAt = System.nanoTime();
+
+        private MeasuredTask(final Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            final var startedAt = System.nanoTime();
+            queueLatency.record(startedAt - submittedAt);
+            try {
+                task.run();
+            }
+            finally {
+                executionLatency.record(System.nanoTime() - startedAt);
+                pendingTaskCount.decrementAndGet();
+            }
+        }
+    }
+
+    private class TimerTaskFuture<V> extends FutureTask<V> implements RunnableScheduledFuture<V>, TimerTask {
+        private final long period;
+
+        private volatile long time;
+        private volatile Timeout timeout = null;
+
+        private TimerTaskFuture(final Callable<V> callable, final long time, final long period) {
+            super(callable);
+            this.time = time;
+            this.period = period;
+        }
+
+        @Override
+        public void run(final Timeout timeout) {
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                execute(this);
+            }
+            catch (final RejectedExecutionException exception) {
+                setException(exception);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+                return;
+            }
+            if (!runAndReset()) {
+                return;
+            }
+            time = period > 0
+                ? time + period
+                : System.nanoTime() - period;
+            try {
+                schedule(this);
+            }
+            catch (final RejectedExecutionException exception) {
+                cancel(false);
+            }
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return period != 0L;
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            final var isCancelled = super.cancel(mayInterruptIfRunning);
+            final var timeout = this.timeout;
+            if (isCancelled && timeout != null) {
+                timeout.cancel();
+            }
+            return isCancelled;
+        }
+    }
+}
@@ -2,67 +2,38 @@ package se.arkalix.internal.util.concurrent;
 
 import se.arkalix.util.Result;
 import se.arkalix.util.annotation.Internal;
-import se.arkalix.util.concurrent.Future;
 
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Consumer;
 
 @Internal
-public class FutureCompletion<V> implements Future<V> {
-    private Consumer<Boolean> cancelCallback = null;
-    private Consumer<Result<V>> consumer = null;
-    private Result<V> result = null;
+public class FutureCompletion<V> extends AbstractFuture<V> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<FutureCompletion, Consumer> cancelCallbackUpdater =
+        AtomicReferenceFieldUpdater.newUpdater(FutureCompletion.class, Consumer.class, "cancelCallback");
 
-    private boolean isCancelled = false;
-    private boolean isCompleted = false;
+    private volatile Consumer<Boolean> cancelCallback = null;
 
-    public synchronized boolean isCancelled() {
-        return isCancelled;
-    }
-
-    public synchronized boolean isCompleted() {
-        return isCompleted;
-    }
-
-    public synchronized void complete(final Result<V> result) {
-        if (isCompleted) {
+    public void complete(final Result<V> result) {
+        if (!tryComplete(result) && !isCancelled()) {
             throw new IllegalStateException("Already completed");
         }
-        if (consumer != null) {
-            consumer.accept(result);
-            consumer = null;
-        }
-        else if (!isCancelled) {
-            this.result = result;
-        }
-        isCompleted = true;
     }
 
-    public synchronized void setCancelCallback(final Consumer<Boolean> cancelCallback) {
-        if (!isCancelled) {
-            this.cancelCallback = cancelCallback;
-        }
-    }
-
-    @Override
-    public synchronized void onResult(final Consumer<Result<V>> consumer) {
-        if (result != null) {
-            consumer.accept(result);
-            result = null;
-            isCompleted = true;
-        }
-        else if (!isCancelled) {
-            this.consumer = consumer;
+    public void setCancelCallback(final Consumer<Boolean> cancelCallback) {
+        this.cancelCallback = cancelCallback;
+        if (isCancelled()) {
+            // Cancelled before the callback was set; it is never called.
+            cancelCallbackUpdater.compareAndSet(this, cancelCallback, null);
         }
     }
 
     @Override
-    public synchronized void cancel(final boolean mayInterruptIfRunning) {
+    @SuppressWarnings("unchecked")
+    protected void onCancel(final boolean mayInterruptIfRunning) {
+        final Consumer<Boolean> cancelCallback = cancelCallbackUpdater.getAndSet(this, null);
         if (cancelCallback != null) {
             cancelCallback.accept(mayInterruptIfRunning);
-            cancelCallback = null;
         }
-        consumer = null;
-        result = null;
-        isCancelled = true;
     }
 }
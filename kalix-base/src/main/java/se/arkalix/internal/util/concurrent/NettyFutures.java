@@ -5,6 +5,7 @@ import se.arkalix.util.annotation.Internal;
 import se.arkalix.util.concurrent.Future;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoop;
 import io.netty.util.concurrent.GenericFutureListener;
 
 import java.util.function.Consumer;
@@ -17,6 +18,29 @@ public class NettyFutures {
         return new ChannelFutureAdapter(channelFuture);
     }
 
+    /**
+     * Creates {@link Future} completed with the result of {@code future} by
+     * the thread of {@code eventLoop}.
+     *
+     * @param future    Future to wait for.
+     * @param eventLoop Event loop to complete returned future on.
+     * @param <V>       Type of value produced by {@code future}.
+     * @return New future.
+     */
+    public static <V> Future<V> completeOn(final Future<V> future, final EventLoop eventLoop) {
+        final var completion = new FutureCompletion<V>();
+        completion.setCancelCallback(future::cancel);
+        future.onResult(result -> {
+            if (eventLoop.inEventLoop()) {
+                completion.complete(result);
+            }
+            else {
+                eventLoop.execute(() -> completion.complete(result));
+            }
+        });
+        return completion;
+    }
+
     private static class ChannelFutureAdapter implements Future<Channel> {
         private final io.netty.channel.ChannelFuture future;
         private GenericFutureListener<io.netty.channel.ChannelFuture> listener = null;
@@ -0,0 +1,191 @@
+package se.arkalix.internal.util.concurrent;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import se.arkalix.util.Result;
+import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.concurrent.Future;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * A scheduler executing every command and task on a new virtual thread.
+ * <p>
+ * Virtual threads are only available in Java 21 and later, which is why the
+ * executor creating them is looked up via reflection. Use {@link
+ * #isSupported()} to determine whether or not instances of this class can be
+ * created. Delayed commands and tasks are kept track of by a single platform
+ * thread, which hands them over to virtual threads when they become due.
+ */
+@Internal
+public final class VirtualScheduler extends AbstractScheduler {
+    private static final Method newVirtualThreadPerTaskExecutor = findVirtualThreadPerTaskExecutorFactory();
+
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService timer = Executors
+        .newSingleThreadScheduledExecutor(new DefaultThreadFactory("kalix-virtual-timer", true));
+
+    /**
+     * Creates new virtual thread scheduler.
+     *
+     * @throws UnsupportedOperationException If the current Java runtime does
+     *                                       not support virtual threads.
+     */
+    public VirtualScheduler() {
+        if (newVirtualThreadPerTaskExecutor == null) {
+            throw new UnsupportedOperationException("Virtual threads are " +
+                "not supported by the current Java runtime");
+        }
+        try {
+            dispatcher = (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+        }
+        catch (final ReflectiveOperationException exception) {
+            throw new UnsupportedOperationException("Failed to create " +
+                "virtual thread executor", exception);
+        }
+    }
+
+    /*
+     * Creates new scheduler that hands over its commands and tasks to given
+     * dispatcher rather than to virtual threads. Useful for testing.
+     */
+    VirtualScheduler(final ExecutorService dispatcher) {
+        this.dispatcher = Objects.requireNonNull(dispatcher, "Expected dispatcher");
+    }
+
+    /**
+     * @return {@code true} only if the current Java runtime supports virtual
+     * threads.
+     */
+    public static boolean isSupported() {
+        return newVirtualThreadPerTaskExecutor != null;
+    }
+
+    private static Method findVirtualThreadPerTaskExecutorFactory() {
+        try {
+            final var method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+
+            // Virtual threads are preview features in Java 19 and 20, in which
+            // case the executor factory method throws unless they are enabled.
+            ((ExecutorService) method.invoke(null)).shutdown();
+
+            return method;
+        }
+        catch (final ReflectiveOperationException | ClassCastException exception) {
+            return null;
+        }
+    }
+
+    @Override
+    protected ScheduledExecutorService executor() {
+        return timer;
+    }
+
+    @Override
+    protected ExecutorService dispatcher() {
+        return dispatcher;
+    }
+
+    @Override
+    public Future<?> schedule(final Duration delay, final Runnable command) {
+        return schedule(delay, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    @Override
+    public <V> Future<V> schedule(final Duration delay, final Callable<V> callable) {
+        final var completion = new FutureCompletion<V>();
+        final var timer = super.schedule(delay, () -> {
+            if (completion.isCancelled()) {
+                return;
+            }
+            dispatcher.execute(() -> {
+                if (completion.isCancelled()) {
+                    return;
+                }
+                Result<V> result;
+                try {
+                    result = Result.success(callable.call());
+                }
+                catch (final Throwable throwable) {
+                    result = Result.failure(throwable);
+                }
+                completion.tryComplete(result);
+            });
+        });
+        completion.setCancelCallback(timer::cancel);
+        return completion;
+    }
+
+    @Override
+    public Future<?> scheduleAtFixedRate(final Duration initialDelay, final Duration rate, final Runnable command) {
+        final var completion = new FutureCompletion<Object>();
+        repeatAtFixedRate(completion, System.nanoTime() + initialDelay.toNanos(), rate.toNanos(), command);
+        return completion;
+    }
+
+    private void repeatAtFixedRate(
+        final FutureCompletion<Object> completion,
+        final long nanoTime,
+        final long rateNanos,
+        final Runnable command)
+    {
+        final var delay = Duration.ofNanos(Math.max(nanoTime - System.nanoTime(), 0L));
+        final var future = schedule(delay, command);
+        completion.setCancelCallback(future::cancel);
+        if (completion.isCancelled()) {
+            future.cancel();
+            return;
+        }
+        future.onResult(result -> {
+            if (result.isFailure()) {
+                completion.tryComplete(Result.failure(result.fault()));
+            }
+            else if (!completion.isCancelled()) {
+                repeatAtFixedRate(completion, nanoTime + rateNanos, rateNanos, command);
+            }
+        });
+    }
+
+    @Override
+    public Future<?> scheduleWithFixedDelay(final Duration initialDelay, final Duration delay, final Runnable command) {
+        final var completion = new FutureCompletion<Object>();
+        repeatWithFixedDelay(completion, initialDelay, delay, command);
+        return completion;
+    }
+
+    private void repeatWithFixedDelay(
+        final FutureCompletion<Object> completion,
+        final Duration nextDelay,
+        final Duration delay,
+        final Runnable command)
+    {
+        final var future = schedule(nextDelay, command);
+        completion.setCancelCallback(future::cancel);
+        if (completion.isCancelled()) {
+            future.cancel();
+            return;
+        }
+        future.onResult(result -> {
+            if (result.isFailure()) {
+                completion.tryComplete(Result.failure(result.fault()));
+            }
+            else if (!completion.isCancelled()) {
+                repeatWithFixedDelay(completion, delay, delay, command);
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        dispatcher.shutdown();
+    }
+}
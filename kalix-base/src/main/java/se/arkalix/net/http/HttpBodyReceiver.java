@@ -3,6 +3,7 @@ package se.arkalix.net.http;
 import se.arkalix.dto.DtoEncoding;
 import se.arkalix.dto.DtoReadable;
 import se.arkalix.util.concurrent.FutureProgress;
+import se.arkalix.util.function.ThrowingConsumer;
 
 import java.io.InputStream;
 import java.nio.file.Path;
@@ -99,6 +100,52 @@ public interface HttpBodyReceiver {
      */
     FutureProgress<? extends InputStream> bodyAsStream();
 
+    /**
+     * Requests that the incoming HTTP body, which must consist of a single
+     * array, be decoded incrementally, with each array element being decoded
+     * into an instance of {@code class_} and handed to {@code consumer} as
+     * soon as it has been received in full.
+     * <p>
+     * In contrast to {@link #bodyAsList(DtoEncoding, Class)}, this method
+     * never requires the entire body to be buffered in memory, which makes it
+     * suitable for receiving bodies with very many elements. The consumer is
+     * called on the thread receiving the body and should not block.
+     * <p>
+     * Note that only so-called Data Transfer Object (DTO) types may be decoded
+     * using this method. More details about such types can be read in the
+     * documentation for the {@link se.arkalix.dto} package. Note also that
+     * only the {@link DtoEncoding#JSON JSON} encoding currently supports
+     * incremental decoding.
+     * <p>
+     * Note also that a body can typically only be requested once via this
+     * interface. Any further requests will likely cause exceptions to be
+     * thrown.
+     *
+     * @param encoding Encoding to use when decoding incoming HTTP body.
+     * @param class_   Class to decode array elements of incoming HTTP body
+     *                 into.
+     * @param consumer Consumer to receive decoded array elements, in order.
+     * @param <R>      Type of {@code class_}.
+     * @return Future completed with the number of decoded elements when the
+     * incoming HTTP body has been fully received and decoded, or with a fault
+     * if decoding fails or {@code consumer} throws.
+     * @throws IllegalStateException         If the body has already been
+     *                                       requested.
+     * @throws UnsupportedOperationException If {@code encoding} does not
+     *                                       support incremental decoding, or
+     *                                       if this receiver does not
+     *                                       support incremental decoding at
+     *                                       all.
+     */
+    default <R extends DtoReadable> FutureProgress<Integer> bodyAsStream(
+        final DtoEncoding encoding,
+        final Class<R> class_,
+        final ThrowingConsumer<R> consumer)
+    {
+        throw new UnsupportedOperationException("Incremental body decoding " +
+            "not supported by " + getClass());
+    }
+
     /**
      * Requests that the incoming HTTP body be collected into a regular Java
      * {@code String}.
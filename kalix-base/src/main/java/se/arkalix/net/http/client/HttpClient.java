@@ -1,10 +1,14 @@
 package se.arkalix.net.http.client;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
 import io.netty.handler.ssl.ClientAuth;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import se.arkalix.ArSystem;
+import se.arkalix.internal.net.http.HttpTimeouts;
 import se.arkalix.internal.net.http.client.FutureHttpClientConnection;
 import se.arkalix.internal.net.http.client.NettyHttpClientConnectionInitializer;
 import se.arkalix.internal.util.concurrent.NettyScheduler;
@@ -18,6 +22,7 @@ import se.arkalix.util.concurrent.Schedulers;
 
 import javax.net.ssl.SSLException;
 import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.WeakHashMap;
@@ -38,6 +43,8 @@ public class HttpClient {
     private final InetSocketAddress localSocketAddress;
     private final SslContext sslContext;
     private final SystemIdentity identity;
+    private final HttpClientConnectionPool pool;
+    private final boolean isHttp2PriorKnowledge;
 
     private HttpClient(final Builder builder) throws SSLException {
         final var scheduler = (NettyScheduler) Schedulers.fixed();
@@ -45,6 +52,7 @@ public class HttpClient {
             .group(scheduler.eventLoopGroup())
             .channel(scheduler.socketChannelClass());
         localSocketAddress = builder.localSocketAddress;
+        isHttp2PriorKnowledge = builder.isHttp2PriorKnowledge;
 
         if (builder.isInsecure) {
             sslContext = null;
@@ -53,7 +61,13 @@ public class HttpClient {
         else {
             final var sslContextBuilder = SslContextBuilder.forClient()
                 .trustManager(builder.trustStore != null ? builder.trustStore.certificates() : null)
-                .startTls(false);
+                .startTls(false)
+                .applicationProtocolConfig(new ApplicationProtocolConfig(
+                    ApplicationProtocolConfig.Protocol.ALPN,
+                    ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                    ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                    ApplicationProtocolNames.HTTP_2,
+                    ApplicationProtocolNames.HTTP_1_1));
 
             if (builder.identity != null) {
                 sslContextBuilder
@@ -63,6 +77,10 @@ public class HttpClient {
             sslContext = sslContextBuilder.build();
             identity = builder.identity;
         }
+
+        pool = new HttpClientConnectionPool(this::connectWithin,
+            builder.maxConnectionsPerHost > 0 ? builder.maxConnectionsPerHost : 8,
+            builder.connectionIdleTimeout != null ? builder.connectionIdleTimeout : Duration.ofSeconds(15));
     }
 
     /**
@@ -222,12 +240,32 @@ public class HttpClient {
     public Future<HttpClientConnection> connect(
         final InetSocketAddress remoteSocketAddress,
         final InetSocketAddress localSocketAddress)
+    {
+        return connect(remoteSocketAddress, localSocketAddress, null);
+    }
+
+    private Future<HttpClientConnection> connectWithin(
+        final InetSocketAddress remoteSocketAddress,
+        final Duration connectTimeout)
+    {
+        return connect(remoteSocketAddress, null, connectTimeout);
+    }
+
+    private Future<HttpClientConnection> connect(
+        final InetSocketAddress remoteSocketAddress,
+        final InetSocketAddress localSocketAddress,
+        final Duration connectTimeout)
     {
         Objects.requireNonNull(remoteSocketAddress, "Expected remoteSocketAddress");
 
         final var futureConnection = new FutureHttpClientConnection();
-        return adapt(bootstrap.clone()
-            .handler(new NettyHttpClientConnectionInitializer(futureConnection, sslContext))
+        final var bootstrap = this.bootstrap.clone();
+        if (connectTimeout != null) {
+            bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                (int) Math.max(Math.min(connectTimeout.toMillis(), Integer.MAX_VALUE), 1));
+        }
+        return adapt(bootstrap
+            .handler(new NettyHttpClientConnectionInitializer(futureConnection, sslContext, isHttp2PriorKnowledge))
             .connect(remoteSocketAddress, localSocketAddress != null
                 ? localSocketAddress
                 : this.localSocketAddress))
@@ -235,23 +273,92 @@ public class HttpClient {
     }
 
     /**
-     * Connects to remote host at {@code remoteSocketAddress}, sends
-     * {@code request}, closes connection and then completes the returned
-     * {@code Future} with the result.
+     * Acquires exclusive access to a pooled {@code HttpClientConnection} for
+     * communicating with the remote host reachable via provided Internet
+     * socket address.
+     * <p>
+     * If an idle connection to the remote host is available, it is reused.
+     * Otherwise, a new connection is established, unless the maximum number
+     * of connections to the host already are open. In that case, the returned
+     * {@code Future} completes when a connection becomes available, with any
+     * earlier acquisitions being served first.
+     * <p>
+     * The returned connection is automatically returned to the pool of this
+     * client when the responses to all requests sent via it have been
+     * received, including their bodies. It must, consequently, not be used
+     * for sending further requests after that point. Closing the connection
+     * causes it to be removed from the pool. If no request is sent via the
+     * connection before the {@link Builder#connectionIdleTimeout(Duration)
+     * connection idle timeout} expires, it is closed.
+     * <p>
+     * HTTP/2 connections are an exception to the above, as they are shared
+     * by all acquisitions made while they are open. Every request sent via
+     * such a connection is sent via a stream of its own, which means that
+     * many requests can be in flight at the same time without their
+     * responses having to be received in any particular order.
+     *
+     * @param remoteSocketAddress Remote socket address.
+     * @return Future completed with a pooled connection if and when one is
+     * available.
+     * @throws NullPointerException If {@code remoteSocketAddress} is
+     *                              {@code null}.
+     */
+    public Future<HttpClientConnection> acquire(final InetSocketAddress remoteSocketAddress) {
+        return pool.acquire(remoteSocketAddress, null);
+    }
+
+    /**
+     * Acquires exclusive access to a pooled {@code HttpClientConnection} for
+     * communicating with the remote host reachable via provided Internet
+     * socket address, failing if no connection becomes available within the
+     * given {@code connectTimeout}.
+     *
+     * @param remoteSocketAddress Remote socket address.
+     * @param connectTimeout      Maximum duration to wait for a connection to
+     *                            become available, or {@code null}.
+     * @return Future completed with a pooled connection if and when one is
+     * available, or with an {@link HttpClientConnectionException} if the
+     * {@code connectTimeout} expires before that.
+     * @throws NullPointerException If {@code remoteSocketAddress} is
+     *                              {@code null}.
+     * @see #acquire(InetSocketAddress)
+     */
+    public Future<HttpClientConnection> acquire(
+        final InetSocketAddress remoteSocketAddress,
+        final Duration connectTimeout)
+    {
+        return pool.acquire(remoteSocketAddress, connectTimeout);
+    }
+
+    /**
+     * Acquires pooled connection to remote host at {@code
+     * remoteSocketAddress}, sends {@code request} and then completes the
+     * returned {@code Future} with the result.
+     * <p>
+     * The connection used to send the request is returned to the connection
+     * pool of this client when the response body has been received, or is
+     * closed if the response is not possible to receive.
+     * <p>
+     * The {@link HttpClientRequest#connectTimeout(Duration) connect timeout}
+     * and {@link HttpClientRequest#deadline(java.time.Instant) deadline} of
+     * the request, if any, limit how long the request may wait for a
+     * connection.
      *
      * @param remoteSocketAddress Remote socket address.
      * @param request             Request to send.
      * @return Future completed with the request response or an error.
      * @throws NullPointerException If {@code remoteSocketAddress} or
      *                              {@code request} is {@code null}.
+     * @see #acquire(InetSocketAddress)
      */
     public Future<HttpClientResponse> send(
         final InetSocketAddress remoteSocketAddress,
         final HttpClientRequest request)
     {
         Objects.requireNonNull(request, "Expected request");
-        return connect(remoteSocketAddress)
-            .flatMap(connection -> connection.sendAndClose(request));
+        return acquire(remoteSocketAddress, HttpTimeouts.connectTimeoutOf(request))
+            .flatMap(connection -> connection.send(request)
+                .ifFailure(Throwable.class, ignored -> connection.close()));
     }
 
     /**
@@ -262,6 +369,9 @@ public class HttpClient {
         private InetSocketAddress localSocketAddress;
         private OwnedIdentity identity;
         private TrustStore trustStore;
+        private Duration connectionIdleTimeout;
+        private int maxConnectionsPerHost = 0;
+        private boolean isHttp2PriorKnowledge = false;
         private boolean isInsecure = false;
 
         /**
@@ -314,6 +424,51 @@ public class HttpClient {
             return this;
         }
 
+        /**
+         * Sets the maximum number of pooled connections created HTTP clients
+         * may keep open to any single remote host. Defaults to 8.
+         *
+         * @param maxConnectionsPerHost Maximum number of connections per
+         *                              remote socket address.
+         * @return This builder.
+         * @see HttpClient#acquire(InetSocketAddress)
+         */
+        public final Builder maxConnectionsPerHost(final int maxConnectionsPerHost) {
+            this.maxConnectionsPerHost = maxConnectionsPerHost;
+            return this;
+        }
+
+        /**
+         * Sets the duration after which an unused pooled connection of a
+         * created HTTP client is closed. Defaults to 15 seconds.
+         *
+         * @param connectionIdleTimeout Idle connection timeout.
+         * @return This builder.
+         * @see HttpClient#acquire(InetSocketAddress)
+         */
+        public final Builder connectionIdleTimeout(final Duration connectionIdleTimeout) {
+            this.connectionIdleTimeout = connectionIdleTimeout;
+            return this;
+        }
+
+        /**
+         * Causes created HTTP clients to use HTTP/2 right away when connecting
+         * to remote hosts in {@link #insecure() insecure mode}, which is also
+         * known as h2c with prior knowledge. Only enable this if all remote
+         * hosts are known to support HTTP/2, as connections to hosts that do
+         * not will fail.
+         * <p>
+         * Secure HTTP clients always offer HTTP/2 to remote hosts while
+         * establishing connections, and fall back to HTTP/1.1 only if remote
+         * hosts do not support it. This setting does not affect them.
+         *
+         * @return This builder.
+         */
+        public final Builder http2PriorKnowledge() {
+            this.isHttp2PriorKnowledge = true;
+            return this;
+        }
+
         /**
          * Explicitly enables insecure mode for this client.
          * <p>
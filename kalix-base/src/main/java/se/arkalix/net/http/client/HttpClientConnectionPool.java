@@ -0,0 +1,469 @@
+package se.arkalix.net.http.client;
+
+import se.arkalix.internal.net.http.client.NettyHttpClientConnection;
+import se.arkalix.internal.util.concurrent.FutureCompletion;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps track of live connections to remote hosts, making it possible for
+ * them to be reused by subsequent requests.
+ * <p>
+ * At most {@code maxConnectionsPerHost} connections are kept open or are being
+ * opened to every distinct remote socket address. Pending acquisitions beyond
+ * that limit are queued and served in the order they were made as soon as a
+ * connection to the remote host in question becomes available.
+ * <p>
+ * Multiplexed HTTP/2 connections are not acquired exclusively. As long as such
+ * a connection to a given host is open, all acquisitions for that host are
+ * served with it right away. As it is not known whether a host supports such
+ * connections until a first connection to it has been established, only one
+ * connection is established at a time until that is known. Any acquisitions
+ * made meanwhile are queued.
+ * <p>
+ * Idle connections, as well as leased connections via which no request is
+ * sent, are closed after {@code idleTimeout}. Every host has at most one
+ * sweeper task scheduled for finding such connections. Hosts without any
+ * connections or pending acquisitions are forgotten, which prevents this pool
+ * from growing indefinitely when used with hosts that come and go.
+ */
+class HttpClientConnectionPool {
+    private final BiFunction<InetSocketAddress, Duration, Future<HttpClientConnection>> connector;
+    private final Map<InetSocketAddress, Host> hosts = new ConcurrentHashMap<>();
+    private final int maxConnectionsPerHost;
+    private final Duration idleTimeout;
+
+    HttpClientConnectionPool(
+        final BiFunction<InetSocketAddress, Duration, Future<HttpClientConnection>> connector,
+        final int maxConnectionsPerHost,
+        final Duration idleTimeout)
+    {
+        this.connector = Objects.requireNonNull(connector, "Expected connector");
+        if (maxConnectionsPerHost < 1) {
+            throw new IllegalArgumentException("Expected maxConnectionsPerHost >= 1");
+        }
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.idleTimeout = Objects.requireNonNull(idleTimeout, "Expected idleTimeout");
+    }
+
+    /**
+     * Acquires exclusive access to a new or idle connection to the host at
+     * {@code remoteSocketAddress}. The connection is returned to this pool
+     * automatically when all responses to the requests sent via it have been
+     * received in full, unless it is closed before that. If no request is
+     * sent via the connection within the idle timeout of this pool, the
+     * connection is closed in order for its slot to be freed up.
+     * <p>
+     * If a {@code connectTimeout} is given and no connection becomes
+     * available before it expires, the returned {@code Future} is failed with
+     * an {@link HttpClientConnectionException}.
+     *
+     * @param remoteSocketAddress Socket address of remote host.
+     * @param connectTimeout      Maximum time to wait for a connection, or
+     *                            {@code null}.
+     * @return Future completed with connection when it becomes available.
+     */
+    Future<HttpClientConnection> acquire(final InetSocketAddress remoteSocketAddress, final Duration connectTimeout) {
+        Objects.requireNonNull(remoteSocketAddress, "Expected remoteSocketAddress");
+        while (true) {
+            final var future = hosts.computeIfAbsent(remoteSocketAddress, Host::new).acquire(connectTimeout);
+            if (future != null) {
+                return future;
+            }
+        }
+    }
+
+    /**
+     * @return Number of hosts currently known by this pool.
+     */
+    int hostCount() {
+        return hosts.size();
+    }
+
+    private class Host {
+        private final InetSocketAddress remoteSocketAddress;
+        private final Deque<Idle> idleConnections = new ArrayDeque<>();
+        private final List<Lease> leases = new ArrayList<>();
+        private final Queue<Waiter> waiters = new ArrayDeque<>();
+
+        private NettyHttpClientConnection multiplexedConnection = null;
+        private long multiplexedLeaseCount = 0;
+        private int connectionCount = 0;
+        private boolean isKnownNotToMultiplex = false;
+        private boolean isProbing = false;
+        private boolean isSweepScheduled = false;
+        private boolean isRemoved = false;
+
+        private Host(final InetSocketAddress remoteSocketAddress) {
+            this.remoteSocketAddress = remoteSocketAddress;
+        }
+
+        /**
+         * @return Future completed with connection, or {@code null} if this
+         * host has been removed from its pool and a new one must be used.
+         */
+        Future<HttpClientConnection> acquire(final Duration connectTimeout) {
+            final var waiter = new Waiter(connectTimeout);
+            final var completion = waiter.completion;
+            NettyHttpClientConnection connection = null;
+            synchronized (this) {
+                if (isRemoved) {
+                    return null;
+                }
+                if (multiplexedConnection != null && multiplexedConnection.isReusable()) {
+                    multiplexedLeaseCount += 1;
+                    connection = multiplexedConnection;
+                }
+                while (connection == null && !idleConnections.isEmpty()) {
+                    final var idle = idleConnections.pollLast();
+                    if (idle.connection.isReusable()) {
+                        connection = idle.connection;
+                        break;
+                    }
+                    idle.connection.close();
+                }
+                if (connection == null) {
+                    if (connectionCount >= maxConnectionsPerHost || isProbing) {
+                        waiters.add(waiter);
+                        if (connectTimeout != null) {
+                            waiter.timer = Schedulers.fixed().schedule(connectTimeout, () -> expire(waiter));
+                        }
+                        return completion;
+                    }
+                    connectionCount += 1;
+                    isProbing = !isKnownNotToMultiplex;
+                }
+            }
+            if (connection != null) {
+                if (connection.isMultiplexed()) {
+                    completion.complete(Result.success(connection));
+                }
+                else {
+                    lease(connection, completion);
+                }
+            }
+            else {
+                connect(waiter);
+            }
+            return completion;
+        }
+
+        private void expire(final Waiter waiter) {
+            final boolean isExpired;
+            synchronized (this) {
+                isExpired = waiters.remove(waiter);
+            }
+            if (isExpired && !waiter.completion.isCancelled()) {
+                waiter.completion.complete(Result.failure(new HttpClientConnectionException("" +
+                    "No connection to " + remoteSocketAddress + " became " +
+                    "available within " + waiter.connectTimeout)));
+            }
+        }
+
+        private void connect(final Waiter waiter) {
+            final var completion = waiter.completion;
+            final Future<HttpClientConnection> future;
+            try {
+                Duration connectTimeout = null;
+                if (waiter.connectDeadline != null) {
+                    connectTimeout = Duration.between(Instant.now(), waiter.connectDeadline);
+                    if (connectTimeout.isNegative() || connectTimeout.isZero()) {
+                        throw new HttpClientConnectionException("No connection to " +
+                            remoteSocketAddress + " became available within " +
+                            waiter.connectTimeout);
+                    }
+                }
+                future = connector.apply(remoteSocketAddress, connectTimeout);
+            }
+            catch (final Throwable throwable) {
+                onConnectFailure(completion, throwable);
+                return;
+            }
+            future.onResult(result -> {
+                if (result.isFailure()) {
+                    onConnectFailure(completion, result.fault());
+                    return;
+                }
+                final var connection = (NettyHttpClientConnection) result.value();
+                connection.onClose(() -> onClose(connection));
+                if (connection.isMultiplexed()) {
+                    share(connection, completion);
+                    return;
+                }
+                final boolean wasProbing;
+                synchronized (this) {
+                    wasProbing = isProbing;
+                    isKnownNotToMultiplex = true;
+                    isProbing = false;
+                }
+                lease(connection, completion);
+                if (wasProbing) {
+                    serveWaitersIfPossible();
+                }
+            });
+        }
+
+        private void onConnectFailure(final FutureCompletion<HttpClientConnection> completion, final Throwable fault) {
+            synchronized (this) {
+                connectionCount -= 1;
+                isProbing = false;
+            }
+            if (!completion.isCancelled()) {
+                completion.complete(Result.failure(fault));
+            }
+            if (!serveNextWaiterIfPossible()) {
+                synchronized (this) {
+                    removeIfUnused();
+                }
+            }
+        }
+
+        private void lease(
+            final NettyHttpClientConnection connection,
+            final FutureCompletion<HttpClientConnection> completion)
+        {
+            final var lease = new Lease(connection);
+            synchronized (this) {
+                leases.add(lease);
+                scheduleSweepIfRequired();
+            }
+            connection.onIdle(() -> release(connection));
+            if (!completion.tryComplete(Result.success(connection))) {
+                release(connection);
+            }
+        }
+
+        private void share(
+            final NettyHttpClientConnection connection,
+            final FutureCompletion<HttpClientConnection> completion)
+        {
+            final var waiters = new ArrayList<FutureCompletion<HttpClientConnection>>();
+            synchronized (this) {
+                multiplexedConnection = connection;
+                multiplexedLeaseCount += 1;
+                isProbing = false;
+                waiters.add(completion);
+                for (final var waiter : this.waiters) {
+                    waiter.cancelTimer();
+                    waiters.add(waiter.completion);
+                }
+                this.waiters.clear();
+            }
+            connection.onIdle(() -> onMultiplexedIdle(connection));
+            for (final var waiter : waiters) {
+                if (!waiter.isCancelled()) {
+                    waiter.complete(Result.success(connection));
+                }
+            }
+        }
+
+        private void onMultiplexedIdle(final NettyHttpClientConnection connection) {
+            final long leaseCount;
+            synchronized (this) {
+                if (connection != multiplexedConnection) {
+                    connection.close();
+                    return;
+                }
+                leaseCount = multiplexedLeaseCount;
+            }
+            final var requestCount = connection.requestCount();
+            Schedulers.fixed().schedule(idleTimeout, () -> {
+                synchronized (this) {
+                    if (leaseCount != multiplexedLeaseCount) {
+                        return;
+                    }
+                }
+                if (connection.activeStreamCount() == 0 && connection.requestCount() == requestCount) {
+                    connection.close();
+                }
+            });
+        }
+
+        private void release(final NettyHttpClientConnection connection) {
+            synchronized (this) {
+                leases.removeIf(lease -> lease.connection == connection);
+            }
+            if (!connection.isReusable()) {
+                connection.close();
+                return;
+            }
+            Waiter waiter;
+            synchronized (this) {
+                waiter = pollWaiter();
+                if (waiter == null) {
+                    idleConnections.addLast(new Idle(connection));
+                    scheduleSweepIfRequired();
+                    return;
+                }
+            }
+            lease(connection, waiter.completion);
+        }
+
+        private void scheduleSweepIfRequired() {
+            assert Thread.holdsLock(this);
+
+            if (isSweepScheduled) {
+                return;
+            }
+            long earliestSince = Long.MAX_VALUE;
+            final var idle = idleConnections.peekFirst();
+            if (idle != null) {
+                earliestSince = idle.since;
+            }
+            for (final var lease : leases) {
+                earliestSince = Math.min(earliestSince, lease.since);
+            }
+            if (earliestSince == Long.MAX_VALUE) {
+                return;
+            }
+            final var delay = Math.max(earliestSince + idleTimeout.toNanos() - System.nanoTime(), 0);
+            Schedulers.fixed().schedule(Duration.ofNanos(delay), this::sweep);
+            isSweepScheduled = true;
+        }
+
+        private void sweep() {
+            final var expired = new ArrayList<NettyHttpClientConnection>();
+            synchronized (this) {
+                isSweepScheduled = false;
+                final var deadline = System.nanoTime() - idleTimeout.toNanos();
+                while (!idleConnections.isEmpty() && idleConnections.peekFirst().since - deadline <= 0) {
+                    expired.add(idleConnections.pollFirst().connection);
+                }
+                leases.removeIf(lease -> {
+                    if (lease.connection.requestCount() != lease.requestCount) {
+                        return true;
+                    }
+                    if (lease.since - deadline <= 0) {
+                        expired.add(lease.connection);
+                        return true;
+                    }
+                    return false;
+                });
+                scheduleSweepIfRequired();
+                removeIfUnused();
+            }
+            for (final var connection : expired) {
+                connection.close();
+            }
+        }
+
+        private void onClose(final NettyHttpClientConnection connection) {
+            synchronized (this) {
+                connectionCount -= 1;
+                idleConnections.removeIf(idle -> idle.connection == connection);
+                leases.removeIf(lease -> lease.connection == connection);
+                if (multiplexedConnection == connection) {
+                    multiplexedConnection = null;
+                }
+            }
+            if (!serveNextWaiterIfPossible()) {
+                synchronized (this) {
+                    removeIfUnused();
+                }
+            }
+        }
+
+        private void removeIfUnused() {
+            assert Thread.holdsLock(this);
+
+            if (isRemoved || connectionCount > 0 || !waiters.isEmpty() || isSweepScheduled) {
+                return;
+            }
+            isRemoved = true;
+            hosts.remove(remoteSocketAddress, this);
+        }
+
+        private Waiter pollWaiter() {
+            assert Thread.holdsLock(this);
+
+            Waiter waiter;
+            do {
+                waiter = waiters.poll();
+                if (waiter != null) {
+                    waiter.cancelTimer();
+                }
+            } while (waiter != null && waiter.completion.isCancelled());
+            return waiter;
+        }
+
+        private void serveWaitersIfPossible() {
+            while (serveNextWaiterIfPossible()) {
+                // Serve waiters until none are left or no more connections
+                // may be established.
+            }
+        }
+
+        private boolean serveNextWaiterIfPossible() {
+            Waiter waiter;
+            synchronized (this) {
+                if (connectionCount >= maxConnectionsPerHost || isProbing) {
+                    return false;
+                }
+                waiter = pollWaiter();
+                if (waiter == null) {
+                    return false;
+                }
+                connectionCount += 1;
+                isProbing = !isKnownNotToMultiplex;
+            }
+            connect(waiter);
+            return true;
+        }
+    }
+
+    private static class Idle {
+        private final NettyHttpClientConnection connection;
+        private final long since = System.nanoTime();
+
+        private Idle(final NettyHttpClientConnection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private static class Lease {
+        private final NettyHttpClientConnection connection;
+        private final long requestCount;
+        private final long since = System.nanoTime();
+
+        private Lease(final NettyHttpClientConnection connection) {
+            this.connection = connection;
+            requestCount = connection.requestCount();
+        }
+    }
+
+    private static class Waiter {
+        private final FutureCompletion<HttpClientConnection> completion = new FutureCompletion<>();
+        private final Duration connectTimeout;
+        private final Instant connectDeadline;
+
+        private Future<?> timer = null;
+
+        private Waiter(final Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            connectDeadline = connectTimeout != null
+                ? Instant.now().plus(connectTimeout)
+                : null;
+        }
+
+        private void cancelTimer() {
+            if (timer != null) {
+                timer.cancel();
+                timer = null;
+            }
+        }
+    }
+}
@@ -8,6 +8,8 @@ import se.arkalix.net.http.HttpMethod;
 import se.arkalix.net.http.HttpVersion;
 
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
 import java.nio.file.Path;
 import java.util.*;
 
@@ -20,10 +22,14 @@ public class HttpClientRequest implements HttpBodySender<HttpClientRequest> {
     private final Map<String, List<String>> queryParameters = new HashMap<>();
 
     private Object body = null;
+    private Duration connectTimeout = null;
+    private Instant deadline = null;
     private DtoEncoding encoding = null;
     private HttpMethod method = null;
+    private Duration responseTimeout = null;
     private String uri = null;
     private HttpVersion version = null;
+    private Duration writeTimeout = null;
 
     @Override
     public Optional<Object> body() {
@@ -72,6 +78,57 @@ public class HttpClientRequest implements HttpBodySender<HttpClientRequest> {
         return this;
     }
 
+    /**
+     * @return Currently set connect timeout, if any.
+     */
+    public Optional<Duration> connectTimeout() {
+        return Optional.ofNullable(connectTimeout);
+    }
+
+    /**
+     * Sets the maximum duration this request may wait for a connection to
+     * its receiver to become available, which includes the time needed to
+     * establish a new connection, if required.
+     *
+     * @param connectTimeout Desired connect timeout, or {@code null} if no
+     *                       other timeout than that of the underlying
+     *                       transport protocol is to be used.
+     * @return This request.
+     * @throws IllegalArgumentException If {@code connectTimeout} is zero or
+     *                                  negative.
+     */
+    public HttpClientRequest connectTimeout(final Duration connectTimeout) {
+        this.connectTimeout = requirePositiveOrNull(connectTimeout, "connectTimeout");
+        return this;
+    }
+
+    /**
+     * @return Currently set deadline, if any.
+     */
+    public Optional<Instant> deadline() {
+        return Optional.ofNullable(deadline);
+    }
+
+    /**
+     * Sets the instant after which the response to this request is no longer
+     * of any use.
+     * <p>
+     * If the deadline expires before a connection is available or before the
+     * response to this request has been received, sending the request fails
+     * as if its {@link #connectTimeout(Duration) connect} or {@link
+     * #responseTimeout(Duration) response} timeouts had expired. The time
+     * remaining until the deadline is also sent with the request, which
+     * allows its receiver to determine whether or not it is meaningful to
+     * process it.
+     *
+     * @param deadline Desired deadline, or {@code null}.
+     * @return This request.
+     */
+    public HttpClientRequest deadline(final Instant deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
     /**
      * @return Encoding set with the most recent call to {@link
      * #body(DtoEncoding, DtoWritable)}, if any.
@@ -137,6 +194,28 @@ public class HttpClientRequest implements HttpBodySender<HttpClientRequest> {
         return this;
     }
 
+    /**
+     * @return Currently set response timeout, if any.
+     */
+    public Optional<Duration> responseTimeout() {
+        return Optional.ofNullable(responseTimeout);
+    }
+
+    /**
+     * Sets the maximum duration that may pass from this request being sent
+     * until the head of its response is received. If the timeout expires,
+     * the connection used to send the request is closed.
+     *
+     * @param responseTimeout Desired response timeout, or {@code null}.
+     * @return This request.
+     * @throws IllegalArgumentException If {@code responseTimeout} is zero or
+     *                                  negative.
+     */
+    public HttpClientRequest responseTimeout(final Duration responseTimeout) {
+        this.responseTimeout = requirePositiveOrNull(responseTimeout, "responseTimeout");
+        return this;
+    }
+
     /**
      * Gets first query parameter with given name, if any such.
      *
@@ -223,4 +302,33 @@ public class HttpClientRequest implements HttpBodySender<HttpClientRequest> {
         this.version = version;
         return this;
     }
+
+    /**
+     * @return Currently set write timeout, if any.
+     */
+    public Optional<Duration> writeTimeout() {
+        return Optional.ofNullable(writeTimeout);
+    }
+
+    /**
+     * Sets the maximum duration that may be spent writing this request,
+     * including its body, to its connection. If the timeout expires, the
+     * connection is closed.
+     *
+     * @param writeTimeout Desired write timeout, or {@code null}.
+     * @return This request.
+     * @throws IllegalArgumentException If {@code writeTimeout} is zero or
+     *                                  negative.
+     */
+    public HttpClientRequest writeTimeout(final Duration writeTimeout) {
+        this.writeTimeout = requirePositiveOrNull(writeTimeout, "writeTimeout");
+        return this;
+    }
+
+    private static Duration requirePositiveOrNull(final Duration duration, final String name) {
+        if (duration != null && (duration.isNegative() || duration.isZero())) {
+            throw new IllegalArgumentException("Expected " + name + " > 0");
+        }
+        return duration;
+    }
 }
@@ -0,0 +1,395 @@
+package se.arkalix.net.http.consumer;
+
+import se.arkalix.description.ServiceDescription;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.util.annotation.ThreadSafe;
+import se.arkalix.util.concurrent.Future;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client useful for consuming a service provided by multiple systems, each of
+ * which is consumed via its own {@link HttpConsumer}.
+ * <p>
+ * Every request is sent to one of the providers, selected using a {@link
+ * HttpBalancingStrategy}. Providers that fail to handle {@link
+ * Builder#failureThreshold(int) too many} requests in a row, either by the
+ * requests failing or by responding with server errors, are not sent any
+ * more requests until a {@link Builder#circuitOpenDuration(Duration) certain
+ * time} has passed, after which one request is sent to test whether or not
+ * they have recovered. {@link HttpMethod#isIdempotent() Idempotent} requests
+ * that fail, rather than receive responses, are retried with other providers,
+ * if available.
+ * <p>
+ * The consumers of the providers are typically created via the {@link
+ * se.arkalix.query.ServiceQuery#usingAll(se.arkalix.ArConsumerFactory)
+ * usingAll()} method of {@link se.arkalix.ArSystem#consume() service
+ * queries}, as in the following example:
+ * <pre>
+ *     system.consume()
+ *         .name("temperature")
+ *         .usingAll(HttpConsumer.factory())
+ *         .map(consumers -&gt; new HttpBalancingConsumer.Builder()
+ *             .consumers(consumers)
+ *             .strategy(HttpBalancingStrategy.LATENCY_EWMA)
+ *             .build())
+ *         .flatMap(consumer -&gt; consumer.send(new HttpConsumerRequest()
+ *             .method(GET)
+ *             .uri("/temperature/room-1")))
+ *         ...
+ * </pre>
+ */
+@SuppressWarnings("unused")
+public class HttpBalancingConsumer {
+    private static final double LATENCY_EWMA_WEIGHT = 0.3;
+
+    private final Endpoint[] endpoints;
+    private final HttpBalancingStrategy strategy;
+    private final int maxRetries;
+    private final int failureThreshold;
+    private final long circuitOpenNanos;
+    private final AtomicInteger nextOffset = new AtomicInteger(0);
+
+    private HttpBalancingConsumer(final Builder builder) {
+        final var consumers = Objects.requireNonNull(builder.consumers, "Expected consumers");
+        if (consumers.isEmpty()) {
+            throw new IllegalArgumentException("Expected consumers to contain at least one consumer");
+        }
+        endpoints = new Endpoint[consumers.size()];
+        for (var i = 0; i < endpoints.length; ++i) {
+            endpoints[i] = new Endpoint(i, Objects.requireNonNull(consumers.get(i), "Expected consumer"));
+        }
+        strategy = Objects.requireNonNullElse(builder.strategy, HttpBalancingStrategy.ROUND_ROBIN);
+        maxRetries = builder.maxRetries;
+        failureThreshold = builder.failureThreshold;
+        circuitOpenNanos = Objects.requireNonNullElse(builder.circuitOpenDuration, Duration.ofSeconds(10)).toNanos();
+    }
+
+    /**
+     * @return Strategy used to select what provider to send each request to.
+     */
+    public HttpBalancingStrategy strategy() {
+        return strategy;
+    }
+
+    /**
+     * @return Services consumed via this consumer, one for each provider.
+     */
+    public List<ServiceDescription> services() {
+        final var services = new ArrayList<ServiceDescription>(endpoints.length);
+        for (final var endpoint : endpoints) {
+            services.add(endpoint.consumer.service());
+        }
+        return services;
+    }
+
+    /**
+     * @return Statistics collected about each provider, in the same order as
+     * the {@link #services() services} they provide.
+     */
+    @ThreadSafe
+    public List<HttpProviderStats> stats() {
+        final var stats = new ArrayList<HttpProviderStats>(endpoints.length);
+        for (final var endpoint : endpoints) {
+            stats.add(endpoint.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * Acquires a pooled connection to one of the providers of this consumer,
+     * sends {@code request} and then completes the returned {@code Future}
+     * with the result.
+     *
+     * @param request Request to send.
+     * @return {@link Future} completed with the request response or an error.
+     * If all providers have failed too many requests in a row, the {@code
+     * Future} is failed with a {@link HttpConsumerConnectionException}.
+     * @throws NullPointerException If {@code request} is {@code null}.
+     * @see HttpConsumer#send(HttpConsumerRequest)
+     */
+    @ThreadSafe
+    public Future<HttpConsumerResponse> send(final HttpConsumerRequest request) {
+        Objects.requireNonNull(request, "Expected request");
+
+        final var isTried = new boolean[endpoints.length];
+        final var endpoint = acquire(isTried);
+        if (endpoint == null) {
+            return Future.failure(new HttpConsumerConnectionException("All " +
+                "providers of the \"" + endpoints[0].consumer.service().name() +
+                "\" service have failed too many requests in a row; cannot " +
+                "send request"));
+        }
+        final var isIdempotent = request.method()
+            .map(HttpMethod::isIdempotent)
+            .orElse(false);
+
+        return send(request, endpoint, isIdempotent ? maxRetries : 0, isTried);
+    }
+
+    private Future<HttpConsumerResponse> send(
+        final HttpConsumerRequest request,
+        final Endpoint endpoint,
+        final int retriesLeft,
+        final boolean[] isTried)
+    {
+        isTried[endpoint.index] = true;
+        final var startedAt = System.nanoTime();
+
+        Future<HttpConsumerResponse> future;
+        try {
+            future = endpoint.consumer.send(request);
+        }
+        catch (final Throwable throwable) {
+            future = Future.failure(throwable);
+        }
+
+        return future.flatMapResult(result -> {
+            if (result.isSuccess()) {
+                final var response = result.value();
+                endpoint.release(startedAt, !response.status().isServerError());
+                return Future.success(response);
+            }
+            endpoint.release(startedAt, false);
+            if (retriesLeft > 0) {
+                final var endpoint0 = acquire(isTried);
+                if (endpoint0 != null) {
+                    return send(request, endpoint0, retriesLeft - 1, isTried);
+                }
+            }
+            return Future.failure(result.fault());
+        });
+    }
+
+    private Endpoint acquire(final boolean[] isTried) {
+        final var isSkipped = isTried.clone();
+        while (true) {
+            final var now = System.nanoTime();
+            final var endpoint = select(isSkipped, now);
+            if (endpoint == null) {
+                return null;
+            }
+            if (endpoint.tryAcquire(now)) {
+                return endpoint;
+            }
+            isSkipped[endpoint.index] = true;
+        }
+    }
+
+    private Endpoint select(final boolean[] isSkipped, final long now) {
+        final var offset = Math.floorMod(nextOffset.getAndIncrement(), endpoints.length);
+
+        Endpoint bestEndpoint = null;
+        var bestScore = Double.POSITIVE_INFINITY;
+        for (var i = 0; i < endpoints.length; ++i) {
+            final var endpoint = endpoints[(offset + i) % endpoints.length];
+            if (isSkipped[endpoint.index] || !endpoint.isAvailable(now)) {
+                continue;
+            }
+            final double score;
+            switch (strategy) {
+            case ROUND_ROBIN:
+                return endpoint;
+            case LEAST_OUTSTANDING_REQUESTS:
+                score = endpoint.outstandingRequests();
+                break;
+            case LATENCY_EWMA:
+                score = endpoint.latencyScore();
+                break;
+            default:
+                throw new IllegalStateException("Unexpected strategy " + strategy);
+            }
+            if (score < bestScore) {
+                bestEndpoint = endpoint;
+                bestScore = score;
+            }
+        }
+        return bestEndpoint;
+    }
+
+    private class Endpoint {
+        private final int index;
+        private final HttpConsumer consumer;
+
+        private int outstandingRequests = 0;
+        private long requestCount = 0;
+        private long failureCount = 0;
+        private int consecutiveFailureCount = 0;
+        private double latencyEwmaNanos = -1.0;
+        private boolean isCircuitOpen = false;
+        private boolean isCircuitProbed = false;
+        private long circuitClosableAt = 0;
+
+        private Endpoint(final int index, final HttpConsumer consumer) {
+            this.index = index;
+            this.consumer = consumer;
+        }
+
+        synchronized boolean isAvailable(final long now) {
+            return !isCircuitOpen || (!isCircuitProbed && now - circuitClosableAt >= 0);
+        }
+
+        synchronized boolean tryAcquire(final long now) {
+            if (isCircuitOpen) {
+                if (isCircuitProbed || now - circuitClosableAt < 0) {
+                    return false;
+                }
+                isCircuitProbed = true;
+            }
+            outstandingRequests += 1;
+            requestCount += 1;
+            return true;
+        }
+
+        synchronized void release(final long startedAt, final boolean isSuccess) {
+            final var now = System.nanoTime();
+
+            // Failures are recorded as if they took at least as long as the
+            // circuit of a failing provider stays open. Otherwise, providers
+            // failing fast would attract more requests than healthy ones.
+            final var latency = isSuccess
+                ? (double) (now - startedAt)
+                : (double) Math.max(now - startedAt, circuitOpenNanos);
+            latencyEwmaNanos = latencyEwmaNanos < 0.0
+                ? latency
+                : LATENCY_EWMA_WEIGHT * latency + (1.0 - LATENCY_EWMA_WEIGHT) * latencyEwmaNanos;
+            outstandingRequests -= 1;
+
+            if (isSuccess) {
+                consecutiveFailureCount = 0;
+                isCircuitOpen = false;
+                isCircuitProbed = false;
+                return;
+            }
+            failureCount += 1;
+            consecutiveFailureCount += 1;
+            if (isCircuitProbed || consecutiveFailureCount >= failureThreshold) {
+                isCircuitOpen = true;
+                isCircuitProbed = false;
+                circuitClosableAt = now + circuitOpenNanos;
+            }
+        }
+
+        synchronized int outstandingRequests() {
+            return outstandingRequests;
+        }
+
+        synchronized double latencyScore() {
+            return latencyEwmaNanos < 0.0
+                ? 0.0
+                : latencyEwmaNanos * (outstandingRequests + 1);
+        }
+
+        synchronized HttpProviderStats stats() {
+            return new HttpProviderStats(
+                consumer.service(),
+                outstandingRequests,
+                requestCount,
+                failureCount,
+                Duration.ofNanos(latencyEwmaNanos < 0.0 ? 0L : (long) latencyEwmaNanos),
+                isCircuitOpen);
+        }
+    }
+
+    /**
+     * Builder useful for creating {@link HttpBalancingConsumer} instances.
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public static class Builder {
+        private List<HttpConsumer> consumers;
+        private HttpBalancingStrategy strategy;
+        private int maxRetries = 2;
+        private int failureThreshold = 5;
+        private Duration circuitOpenDuration;
+
+        /**
+         * Sets consumers to use for communicating with the providers to
+         * balance requests between. <b>Must be specified and contain at least
+         * one consumer.</b>
+         *
+         * @param consumers Provider consumers.
+         * @return This builder.
+         */
+        public Builder consumers(final List<HttpConsumer> consumers) {
+            this.consumers = consumers;
+            return this;
+        }
+
+        /**
+         * Sets strategy to use for selecting what provider to send each
+         * request to. Defaults to {@link HttpBalancingStrategy#ROUND_ROBIN}.
+         *
+         * @param strategy Provider selection strategy.
+         * @return This builder.
+         */
+        public Builder strategy(final HttpBalancingStrategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of times a failed idempotent request is
+         * retried with other providers. Defaults to 2.
+         *
+         * @param maxRetries Maximum number of retries per request.
+         * @return This builder.
+         * @throws IllegalArgumentException If {@code maxRetries < 0}.
+         */
+        public Builder maxRetries(final int maxRetries) {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("Expected maxRetries >= 0");
+            }
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets the number of requests in a row a provider must fail for it to
+         * not be sent any more requests for a while. Defaults to 5.
+         *
+         * @param failureThreshold Consecutive failures opening the circuit
+         *                         of a provider.
+         * @return This builder.
+         * @throws IllegalArgumentException If {@code failureThreshold < 1}.
+         */
+        public Builder failureThreshold(final int failureThreshold) {
+            if (failureThreshold < 1) {
+                throw new IllegalArgumentException("Expected failureThreshold > 0");
+            }
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Sets for how long a provider that has failed too many requests in a
+         * row is not sent any requests. Defaults to 10 seconds.
+         *
+         * @param circuitOpenDuration Duration during which failing providers
+         *                            are not used.
+         * @return This builder.
+         * @throws IllegalArgumentException If {@code circuitOpenDuration} is
+         *                                  negative.
+         */
+        public Builder circuitOpenDuration(final Duration circuitOpenDuration) {
+            if (circuitOpenDuration != null && circuitOpenDuration.isNegative()) {
+                throw new IllegalArgumentException("Expected circuitOpenDuration >= 0");
+            }
+            this.circuitOpenDuration = circuitOpenDuration;
+            return this;
+        }
+
+        /**
+         * @return New {@link HttpBalancingConsumer}.
+         * @throws NullPointerException     If {@code consumers} is {@code null}
+         *                                  or contains {@code null}.
+         * @throws IllegalArgumentException If {@code consumers} is empty.
+         */
+        public HttpBalancingConsumer build() {
+            return new HttpBalancingConsumer(this);
+        }
+    }
+}
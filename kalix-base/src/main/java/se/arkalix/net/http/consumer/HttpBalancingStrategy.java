@@ -0,0 +1,29 @@
+package se.arkalix.net.http.consumer;
+
+/**
+ * Strategies an {@link HttpBalancingConsumer} can use for deciding what
+ * provider to send each of its requests to.
+ */
+public enum HttpBalancingStrategy {
+    /**
+     * Each request is sent to the next provider in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Each request is sent to the provider currently handling the fewest
+     * requests sent via the same consumer.
+     */
+    LEAST_OUTSTANDING_REQUESTS,
+
+    /**
+     * Each request is sent to the provider with the lowest exponentially
+     * weighted moving average (EWMA) response latency, multiplied by one
+     * plus the number of requests it is currently handling. Providers that
+     * have not yet received any requests are tried first. Failed requests
+     * count as having taken at least as long as the {@link
+     * HttpBalancingConsumer.Builder#circuitOpenDuration(java.time.Duration)
+     * circuit open duration}.
+     */
+    LATENCY_EWMA,
+}
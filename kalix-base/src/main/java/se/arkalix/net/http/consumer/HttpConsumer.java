@@ -4,7 +4,9 @@ import se.arkalix.ArConsumer;
 import se.arkalix.description.ServiceDescription;
 import se.arkalix.descriptor.EncodingDescriptor;
 import se.arkalix.descriptor.SecurityDescriptor;
+import se.arkalix.internal.net.http.HttpTimeouts;
 import se.arkalix.net.http.client.HttpClient;
+import se.arkalix.net.http.client.HttpClientConnection;
 import se.arkalix.security.identity.SystemIdentity;
 import se.arkalix.util.Result;
 import se.arkalix.util.concurrent.Future;
@@ -205,50 +207,60 @@ public class HttpConsumer implements ArConsumer {
      */
     public Future<HttpConsumerConnection> connect(final InetSocketAddress localSocketAddress) {
         return client.connect(service.provider().socketAddress(), localSocketAddress)
-            .mapResult(result -> {
-                if (result.isFailure()) {
-                    return Result.failure(result.fault());
-                }
-                final var connection = result.value();
-                final SystemIdentity identity;
-                if (isSecure()) {
-                    identity = new SystemIdentity(connection.certificateChain());
-                    if (!Objects.equals(identity.publicKey(), service.provider().publicKey())) {
-                        connection.close();
-                        return Result.failure(new HttpConsumerConnectionException("" +
-                            "The public key known to be associated with the " +
-                            "the consumed system \"" + service.provider().name() +
-                            "\" does not match the public key in the " +
-                            "certificate retrieved when connecting to it; " +
-                            "cannot connect to service"));
-                    }
+            .mapResult(this::verify);
+    }
 
-                    if (!Objects.equals(client.identity().cloud(), identity.cloud())) {
-                        connection.close();
-                        return Result.failure(new HttpConsumerConnectionException("" +
-                            "The consumed system \"" + service.provider().name() +
-                            "\" does not belong to the same local cloud as " +
-                            "this system; cannot connect to service"));
-                    }
-                }
-                else {
-                    identity = null;
-                }
-                return Result.success(new HttpConsumerConnection(connection, encoding, identity, authorization));
-            });
+    private Result<HttpConsumerConnection> verify(final Result<HttpClientConnection> result) {
+        if (result.isFailure()) {
+            return Result.failure(result.fault());
+        }
+        final var connection = result.value();
+        final SystemIdentity identity;
+        if (isSecure()) {
+            identity = new SystemIdentity(connection.certificateChain());
+            if (!Objects.equals(identity.publicKey(), service.provider().publicKey())) {
+                connection.close();
+                return Result.failure(new HttpConsumerConnectionException("" +
+                    "The public key known to be associated with the " +
+                    "the consumed system \"" + service.provider().name() +
+                    "\" does not match the public key in the " +
+                    "certificate retrieved when connecting to it; " +
+                    "cannot connect to service"));
+            }
+
+            if (!Objects.equals(client.identity().cloud(), identity.cloud())) {
+                connection.close();
+                return Result.failure(new HttpConsumerConnectionException("" +
+                    "The consumed system \"" + service.provider().name() +
+                    "\" does not belong to the same local cloud as " +
+                    "this system; cannot connect to service"));
+            }
+        }
+        else {
+            identity = null;
+        }
+        return Result.success(new HttpConsumerConnection(connection, encoding, identity, authorization));
     }
 
     /**
-     * Connects to the system providing the service represented by this
-     * consumer, sends {@code request}, closes connection and then completes
+     * Acquires a pooled connection to the system providing the service
+     * represented by this consumer, sends {@code request} and then completes
      * the returned {@code Future} with the result.
+     * <p>
+     * The connection is returned to the pool of the {@link HttpClient} of
+     * this consumer when the response body has been received.
      *
      * @param request Request to send.
      * @return {@link Future} completed with the request response or an error.
      * @throws NullPointerException If {@code request} is {@code null}.
+     * @see HttpClient#acquire(InetSocketAddress)
      */
     public Future<HttpConsumerResponse> send(final HttpConsumerRequest request) {
         Objects.requireNonNull(request, "Expected request");
-        return connect().flatMap(connection -> connection.sendAndClose(request));
+        final var connectTimeout = HttpTimeouts.connectTimeoutOf(request.asClientRequest());
+        return client.acquire(service.provider().socketAddress(), connectTimeout)
+            .mapResult(this::verify)
+            .flatMap(connection -> connection.send(request)
+                .ifFailure(Throwable.class, ignored -> connection.close()));
     }
 }
@@ -12,6 +12,8 @@ import se.arkalix.util.annotation.Internal;
 
 import java.net.URI;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.function.Supplier;
 
@@ -110,6 +112,50 @@ public class HttpConsumerRequest implements HttpBodySender<HttpConsumerRequest>
         return this;
     }
 
+    /**
+     * @return Currently set connect timeout, if any.
+     */
+    public Optional<Duration> connectTimeout() {
+        return request.connectTimeout();
+    }
+
+    /**
+     * Sets the maximum duration this request may wait for a connection to
+     * its receiver to become available, which includes the time needed to
+     * establish a new connection, if required.
+     *
+     * @param connectTimeout Desired connect timeout, or {@code null}.
+     * @return This request.
+     * @throws IllegalArgumentException If {@code connectTimeout} is zero or
+     *                                  negative.
+     * @see HttpClientRequest#connectTimeout(Duration)
+     */
+    public HttpConsumerRequest connectTimeout(final Duration connectTimeout) {
+        request.connectTimeout(connectTimeout);
+        return this;
+    }
+
+    /**
+     * @return Currently set deadline, if any.
+     */
+    public Optional<Instant> deadline() {
+        return request.deadline();
+    }
+
+    /**
+     * Sets the instant after which the response to this request is no longer
+     * of any use. The deadline is propagated to the service provider
+     * receiving the request.
+     *
+     * @param deadline Desired deadline, or {@code null}.
+     * @return This request.
+     * @see HttpClientRequest#deadline(Instant)
+     */
+    public HttpConsumerRequest deadline(final Instant deadline) {
+        request.deadline(deadline);
+        return this;
+    }
+
     /**
      * @return Encoding set with the most recent call to {@link
      * #body(DtoEncoding, DtoWritable)}, if any.
@@ -175,6 +221,28 @@ public class HttpConsumerRequest implements HttpBodySender<HttpConsumerRequest>
         return this;
     }
 
+    /**
+     * @return Currently set response timeout, if any.
+     */
+    public Optional<Duration> responseTimeout() {
+        return request.responseTimeout();
+    }
+
+    /**
+     * Sets the maximum duration that may pass from this request being sent
+     * until the head of its response is received.
+     *
+     * @param responseTimeout Desired response timeout, or {@code null}.
+     * @return This request.
+     * @throws IllegalArgumentException If {@code responseTimeout} is zero or
+     *                                  negative.
+     * @see HttpClientRequest#responseTimeout(Duration)
+     */
+    public HttpConsumerRequest responseTimeout(final Duration responseTimeout) {
+        request.responseTimeout(responseTimeout);
+        return this;
+    }
+
     /**
      * Gets first query parameter with given name, if any such.
      *
@@ -256,6 +324,28 @@ public class HttpConsumerRequest implements HttpBodySender<HttpConsumerRequest>
         return this;
     }
 
+    /**
+     * @return Currently set write timeout, if any.
+     */
+    public Optional<Duration> writeTimeout() {
+        return request.writeTimeout();
+    }
+
+    /**
+     * Sets the maximum duration that may be spent writing this request,
+     * including its body, to its connection.
+     *
+     * @param writeTimeout Desired write timeout, or {@code null}.
+     * @return This request.
+     * @throws IllegalArgumentException If {@code writeTimeout} is zero or
+     *                                  negative.
+     * @see HttpClientRequest#writeTimeout(Duration)
+     */
+    public HttpConsumerRequest writeTimeout(final Duration writeTimeout) {
+        request.writeTimeout(writeTimeout);
+        return this;
+    }
+
     /**
      * @return This request as an {@link HttpClientRequest}.
      */
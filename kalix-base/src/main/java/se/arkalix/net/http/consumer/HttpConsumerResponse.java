@@ -10,6 +10,7 @@ import se.arkalix.net.http.client.HttpClientRequest;
 import se.arkalix.net.http.client.HttpClientResponse;
 import se.arkalix.util.concurrent.Future;
 import se.arkalix.util.concurrent.FutureProgress;
+import se.arkalix.util.function.ThrowingConsumer;
 
 import java.io.InputStream;
 import java.nio.file.Path;
@@ -111,6 +112,51 @@ public class HttpConsumerResponse implements HttpClientResponse {
         return response.bodyAsStream();
     }
 
+    /**
+     * Requests that the incoming HTTP body, which must consist of a single
+     * array, be decoded incrementally, with each array element being decoded
+     * into an instance of {@code class_} and handed to {@code consumer} as
+     * soon as it has been received in full.
+     * <p>
+     * The body encoding is resolved automatically by the {@link HttpConsumer}
+     * through which this response was received.
+     * <p>
+     * Note that only so-called Data Transfer Object (DTO) types may be decoded
+     * using this method. More details about such types can be read in the
+     * documentation for the {@link se.arkalix.dto} package.
+     * <p>
+     * Note also that a body can typically only be requested once via this
+     * interface. Any further requests will likely cause exceptions to be
+     * thrown.
+     *
+     * @param class_   Class to decode array elements of incoming HTTP body
+     *                 into.
+     * @param consumer Consumer to receive decoded array elements, in order.
+     * @param <R>      Type of {@code class_}.
+     * @return Future completed with the number of decoded elements when the
+     * incoming HTTP body has been fully received and decoded.
+     * @throws IllegalStateException If the body has already been requested.
+     */
+    public <R extends DtoReadable> FutureProgress<Integer> bodyAsStream(
+        final Class<R> class_,
+        final ThrowingConsumer<R> consumer)
+    {
+        final var encoding0 = encoding.asDtoEncoding().orElseThrow(() ->
+            new IllegalStateException("No DTO support is available for the " +
+                "encoding \"" + encoding + "\"; receive the body as a string," +
+                "byte array or stream and then decode it some other way"));
+        return response.bodyAsStream(encoding0, class_, consumer);
+    }
+
+    @Override
+    public <R extends DtoReadable> FutureProgress<Integer> bodyAsStream(
+        final DtoEncoding encoding,
+        final Class<R> class_,
+        final ThrowingConsumer<R> consumer)
+    {
+        return response.bodyAsStream(encoding, class_, consumer);
+    }
+
     @Override
     public FutureProgress<String> bodyAsString() {
         return response.bodyAsString();
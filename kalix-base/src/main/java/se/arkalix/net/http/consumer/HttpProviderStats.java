@@ -0,0 +1,95 @@
+package se.arkalix.net.http.consumer;
+
+import se.arkalix.description.ServiceDescription;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Snapshot of the statistics collected by an {@link HttpBalancingConsumer}
+ * about one of the service providers it sends requests to.
+ */
+@SuppressWarnings("unused")
+public class HttpProviderStats {
+    private final ServiceDescription service;
+    private final int outstandingRequests;
+    private final long requestCount;
+    private final long failureCount;
+    private final Duration latencyEwma;
+    private final boolean isCircuitOpen;
+
+    HttpProviderStats(
+        final ServiceDescription service,
+        final int outstandingRequests,
+        final long requestCount,
+        final long failureCount,
+        final Duration latencyEwma,
+        final boolean isCircuitOpen)
+    {
+        this.service = Objects.requireNonNull(service, "Expected service");
+        this.outstandingRequests = outstandingRequests;
+        this.requestCount = requestCount;
+        this.failureCount = failureCount;
+        this.latencyEwma = Objects.requireNonNull(latencyEwma, "Expected latencyEwma");
+        this.isCircuitOpen = isCircuitOpen;
+    }
+
+    /**
+     * @return Provided service.
+     */
+    public ServiceDescription service() {
+        return service;
+    }
+
+    /**
+     * @return Number of requests sent to the provider that have not yet
+     * received responses.
+     */
+    public int outstandingRequests() {
+        return outstandingRequests;
+    }
+
+    /**
+     * @return Number of requests sent to the provider.
+     */
+    public long requestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @return Number of requests sent to the provider that failed or received
+     * server error responses.
+     */
+    public long failureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return Exponentially weighted moving average of the time it took the
+     * provider to respond to requests, or {@link Duration#ZERO} if it has
+     * not yet responded to any.
+     */
+    public Duration latencyEwma() {
+        return latencyEwma;
+    }
+
+    /**
+     * @return {@code true} only if the provider has failed so many requests
+     * in a row that no more requests are currently being sent to it.
+     */
+    public boolean isCircuitOpen() {
+        return isCircuitOpen;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpProviderStats{" +
+            "service=" + service +
+            ", outstandingRequests=" + outstandingRequests +
+            ", requestCount=" + requestCount +
+            ", failureCount=" + failureCount +
+            ", latencyEwma=" + latencyEwma +
+            ", isCircuitOpen=" + isCircuitOpen +
+            '}';
+    }
+}
@@ -2,6 +2,8 @@ package se.arkalix.net.http.service;
 
 import se.arkalix.net.http.HttpMethod;
 import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Scheduler;
+import se.arkalix.util.concurrent.Schedulers;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +16,7 @@ public class HttpRoute implements HttpRoutable {
     private final HttpMethod method;
     private final HttpPattern pattern;
     private final HttpRouteHandler handler;
+    private final Scheduler scheduler;
 
     /**
      * Creates new {@link HttpService} route.
@@ -25,9 +28,40 @@ public class HttpRoute implements HttpRoutable {
      * @param handler The handler to execute with matching requests.
      */
     public HttpRoute(final HttpMethod method, final HttpPattern pattern, final HttpRouteHandler handler) {
+        this(method, pattern, handler, null);
+    }
+
+    /**
+     * Creates new {@link HttpService} route, the handler of which is executed
+     * by the given {@code scheduler}.
+     * <p>
+     * Routes with schedulers are useful for handlers that must perform
+     * blocking operations, such as JDBC or file system calls, which should
+     * never be performed by the threads receiving HTTP requests. Such
+     * handlers are typically executed by the {@link Schedulers#virtual()
+     * virtual} scheduler. When the future returned by the handler completes,
+     * its result is handed back to the thread that received the handled
+     * request.
+     *
+     * @param method    HTTP method to require for given requests to match
+     *                  this route. Use {@code null} to allow any method.
+     * @param pattern   HTTP pattern to require for given request paths to
+     *                  match this route. Use {@code null} to allow any path.
+     * @param handler   The handler to execute with matching requests.
+     * @param scheduler Scheduler to execute {@code handler} with. Use {@code
+     *                  null} to execute it directly by the thread receiving
+     *                  each matching request.
+     */
+    public HttpRoute(
+        final HttpMethod method,
+        final HttpPattern pattern,
+        final HttpRouteHandler handler,
+        final Scheduler scheduler)
+    {
         this.method = method;
         this.pattern = pattern;
         this.handler = handler;
+        this.scheduler = scheduler;
     }
 
     /**
@@ -48,6 +82,14 @@ public class HttpRoute implements HttpRoutable {
         return Optional.ofNullable(pattern);
     }
 
+    /**
+     * @return {@link Scheduler}, if any, used to execute the handler of this
+     * route.
+     */
+    public Optional<Scheduler> scheduler() {
+        return Optional.ofNullable(scheduler);
+    }
+
     /**
      * Checks whether the request in the given task matches this route, without
      * providing the request to the handler owned by this route.
@@ -7,6 +7,8 @@ import se.arkalix.internal.ArServerRegistry;
 import se.arkalix.internal.net.http.service.HttpServer;
 import se.arkalix.net.http.HttpMethod;
 import se.arkalix.security.access.AccessPolicy;
+import se.arkalix.util.concurrent.Scheduler;
+import se.arkalix.util.concurrent.Schedulers;
 
 import java.util.*;
 
@@ -32,6 +34,7 @@ public final class HttpService implements ArService {
     private String basePath;
     private List<EncodingDescriptor> encodings;
     private AccessPolicy accessPolicy;
+    private HttpServiceLimits limits;
     private Map<String, String> metadata;
     private int version = 0;
 
@@ -124,6 +127,19 @@ public final class HttpService implements ArService {
         return this;
     }
 
+    /**
+     * Declares what limits to apply to requests received by this service. If
+     * not specified, the {@link se.arkalix.ArSystem#httpServiceLimits() limits
+     * of the system} providing this service are used.
+     *
+     * @param limits Desired limits.
+     * @return This service.
+     */
+    public HttpService limits(final HttpServiceLimits limits) {
+        this.limits = limits;
+        return this;
+    }
+
     /**
      * Sets metadata to associate with this service, replacing any previously
      * associated metadata. What significance the data have depend on the
@@ -341,7 +357,41 @@ public final class HttpService implements ArService {
      * @see #trace(String, HttpRouteHandler) TRACE
      */
     public HttpService route(final HttpMethod method, final String pattern, final HttpRouteHandler handler) {
-        return route(new HttpRoute(method, pattern != null ? HttpPattern.valueOf(pattern) : null, handler));
+        return route(method, pattern, null, handler);
+    }
+
+    /**
+     * Adds incoming HTTP request route to this service, the handler of which
+     * is executed by the given {@code scheduler}.
+     * <p>
+     * This method is primarily useful for adding routes with handlers that
+     * must perform blocking operations, such as JDBC or file system calls.
+     * Such handlers should typically be executed by the {@link
+     * Schedulers#virtual() virtual} scheduler, as in the following example:
+     * <pre>
+     *     service.route(HttpMethod.GET, "/reports/#id", Schedulers.virtual(), (request, response) -&gt; {
+     *         final var report = reportRepository.findById(request.pathParameter(0)); // Blocks.
+     *         response.status(HttpStatus.OK).body(report);
+     *         return Future.done();
+     *     });
+     * </pre>
+     * When the future returned by the handler completes, its result is handed
+     * back to the thread that received the handled request.
+     *
+     * @param method    Request method to match.
+     * @param pattern   Request path pattern to match.
+     * @param scheduler Scheduler to execute {@code handler} with.
+     * @param handler   Handler to invoke with matching requests.
+     * @return This service.
+     * @see HttpRoute#HttpRoute(HttpMethod, HttpPattern, HttpRouteHandler, Scheduler)
+     */
+    public HttpService route(
+        final HttpMethod method,
+        final String pattern,
+        final Scheduler scheduler,
+        final HttpRouteHandler handler)
+    {
+        return route(new HttpRoute(method, pattern != null ? HttpPattern.valueOf(pattern) : null, handler, scheduler));
     }
 
     /**
@@ -796,6 +846,15 @@ public final class HttpService implements ArService {
         return accessPolicy != null ? accessPolicy : AccessPolicy.unrestricted();
     }
 
+    /**
+     * @return Limits to apply to requests received by this service, if any
+     * have been explicitly specified.
+     * @see #limits(HttpServiceLimits)
+     */
+    public Optional<HttpServiceLimits> limits() {
+        return Optional.ofNullable(limits);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -0,0 +1,129 @@
+package se.arkalix.net.http.service;
+
+import se.arkalix.ArSystem;
+
+/**
+ * Limits on the sizes of incoming {@link HttpServiceRequest}s, as well as on
+ * how many bytes of request bodies may be received before they are handled.
+ * <p>
+ * Limits can be set both {@link ArSystem.Builder#httpServiceLimits(HttpServiceLimits)
+ * for all HTTP services provided by a system} and {@link
+ * HttpService#limits(HttpServiceLimits) for individual services}. As the head
+ * of a request must be received before it can be determined what service is
+ * to handle it, the maximum header size of a system is an upper bound that
+ * cannot be exceeded by the limits of its services.
+ */
+@SuppressWarnings("unused")
+public final class HttpServiceLimits {
+    private static final HttpServiceLimits DEFAULTS = new Builder().build();
+
+    private final int maxHeaderSize;
+    private final long maxBodySize;
+    private final int maxInFlightBytes;
+
+    private HttpServiceLimits(final Builder builder) {
+        maxHeaderSize = builder.maxHeaderSize;
+        maxBodySize = builder.maxBodySize;
+        maxInFlightBytes = builder.maxInFlightBytes;
+    }
+
+    /**
+     * @return Default limits, which are 8 KiB of headers, 16 MiB of body and
+     * 256 KiB of in-flight body bytes.
+     */
+    public static HttpServiceLimits defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @return Maximum number of bytes the request line and headers of a
+     * request may consist of before it is rejected with a
+     * {@link se.arkalix.net.http.HttpStatus#REQUEST_HEADER_FIELDS_TOO_LARGE
+     * 431 Request Header Fields Too Large} response.
+     */
+    public int maxHeaderSize() {
+        return maxHeaderSize;
+    }
+
+    /**
+     * @return Maximum number of bytes the body of a request may consist of
+     * before it is rejected with a {@link
+     * se.arkalix.net.http.HttpStatus#PAYLOAD_TOO_LARGE 413 Payload Too Large}
+     * response.
+     */
+    public long maxBodySize() {
+        return maxBodySize;
+    }
+
+    /**
+     * @return Maximum number of request body bytes that may be received
+     * before the service handling the request asks for the body, after which
+     * no more bytes are read from the connection of the request until the
+     * body is asked for.
+     */
+    public int maxInFlightBytes() {
+        return maxInFlightBytes;
+    }
+
+    /**
+     * Builder useful for creating {@link HttpServiceLimits} instances.
+     */
+    public static class Builder {
+        private int maxHeaderSize = 8 * 1024;
+        private long maxBodySize = 16 * 1024 * 1024;
+        private int maxInFlightBytes = 256 * 1024;
+
+        /**
+         * Sets maximum number of bytes the request line and headers of a
+         * request may consist of. Defaults to 8 KiB.
+         *
+         * @param maxHeaderSize Maximum header size, in bytes.
+         * @return This builder.
+         */
+        public Builder maxHeaderSize(final int maxHeaderSize) {
+            if (maxHeaderSize <= 0) {
+                throw new IllegalArgumentException("Expected maxHeaderSize > 0");
+            }
+            this.maxHeaderSize = maxHeaderSize;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of bytes the body of a request may consist of.
+         * Defaults to 16 MiB.
+         *
+         * @param maxBodySize Maximum body size, in bytes.
+         * @return This builder.
+         */
+        public Builder maxBodySize(final long maxBodySize) {
+            if (maxBodySize < 0) {
+                throw new IllegalArgumentException("Expected maxBodySize >= 0");
+            }
+            this.maxBodySize = maxBodySize;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of request body bytes that may be buffered
+         * while waiting for the service handling the request to ask for the
+         * body. Defaults to 256 KiB.
+         *
+         * @param maxInFlightBytes Maximum number of in-flight bytes.
+         * @return This builder.
+         */
+        public Builder maxInFlightBytes(final int maxInFlightBytes) {
+            if (maxInFlightBytes <= 0) {
+                throw new IllegalArgumentException("Expected maxInFlightBytes > 0");
+            }
+            this.maxInFlightBytes = maxInFlightBytes;
+            return this;
+        }
+
+        /**
+         * @return New {@link HttpServiceLimits}.
+         */
+        public HttpServiceLimits build() {
+            return new HttpServiceLimits(this);
+        }
+    }
+}
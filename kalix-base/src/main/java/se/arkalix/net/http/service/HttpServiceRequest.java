@@ -6,9 +6,11 @@ import se.arkalix.dto.DtoReadable;
 import se.arkalix.net.http.*;
 import se.arkalix.security.NotSecureException;
 import se.arkalix.util.concurrent.FutureProgress;
+import se.arkalix.util.function.ThrowingConsumer;
 
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -61,6 +63,41 @@ public interface HttpServiceRequest extends HttpBodyReceiver {
      */
     <R extends DtoReadable> FutureProgress<List<R>> bodyAsList(final Class<R> class_);
 
+    /**
+     * Requests that the incoming HTTP body, which must consist of a single
+     * array, be decoded incrementally, using an automatically chosen
+     * encoding, with each array element being decoded into an instance of
+     * {@code class_} and handed to {@code consumer} as soon as it has been
+     * received in full.
+     * <p>
+     * Note that only so-called Data Transfer Object (DTO) types may be decoded
+     * using this method. More details about such types can be read in the
+     * documentation for the {@link se.arkalix.dto} package.
+     * <p>
+     * Note also that a body can typically only be requested once via this
+     * interface. Any further requests will likely cause exceptions to be
+     * thrown.
+     *
+     * @param class_   Class to decode array elements of incoming HTTP body
+     *                 into.
+     * @param consumer Consumer to receive decoded array elements, in order.
+     * @param <R>      Type of {@code class_}.
+     * @return Future completed with the number of decoded elements when the
+     * incoming HTTP body has been fully received and decoded.
+     * @throws IllegalStateException         If the body has already been
+     *                                       requested.
+     * @throws UnsupportedOperationException If this request does not support
+     *                                       incremental decoding.
+     * @see HttpBodyReceiver#bodyAsStream(DtoEncoding, Class, ThrowingConsumer)
+     */
+    default <R extends DtoReadable> FutureProgress<Integer> bodyAsStream(
+        final Class<R> class_,
+        final ThrowingConsumer<R> consumer)
+    {
+        throw new UnsupportedOperationException("Incremental body decoding " +
+            "not supported by " + getClass());
+    }
+
     /**
      * Gets value of first header with given {@code name}, if any such.
      *
@@ -160,6 +197,20 @@ public interface HttpServiceRequest extends HttpBodyReceiver {
      */
     ConsumerDescription consumer();
 
+    /**
+     * Gets the instant after which the sender of this request will no longer
+     * make use of its response, if the sender specified any such.
+     * <p>
+     * Request handlers performing expensive or long-running operations may
+     * use the deadline to avoid doing work that will not be needed.
+     *
+     * @return Request deadline, if any.
+     * @see se.arkalix.net.http.client.HttpClientRequest#deadline(java.time.Instant)
+     */
+    default Optional<Instant> deadline() {
+        return Optional.empty();
+    }
+
     /**
      * @return HTTP version used by request.
      */
@@ -208,6 +259,23 @@ public interface HttpServiceRequest extends HttpBodyReceiver {
                 return self.bodyAsStream();
             }
 
+            @Override
+            public <R extends DtoReadable> FutureProgress<Integer> bodyAsStream(
+                final Class<R> class_,
+                final ThrowingConsumer<R> consumer)
+            {
+                return self.bodyAsStream(class_, consumer);
+            }
+
+            @Override
+            public <R extends DtoReadable> FutureProgress<Integer> bodyAsStream(
+                final DtoEncoding encoding,
+                final Class<R> class_,
+                final ThrowingConsumer<R> consumer)
+            {
+                return self.bodyAsStream(encoding, class_, consumer);
+            }
+
             @Override
             public FutureProgress<String> bodyAsString() {
                 return self.bodyAsString();
@@ -248,6 +316,11 @@ public interface HttpServiceRequest extends HttpBodyReceiver {
                 return self.consumer();
             }
 
+            @Override
+            public Optional<Instant> deadline() {
+                return self.deadline();
+            }
+
             @Override
             public HttpVersion version() {
                 return self.version();
@@ -10,6 +10,7 @@ import se.arkalix.net.http.HttpVersion;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Flow;
 
 /**
  * An outgoing HTTP response, to be sent by an {@link HttpService}.
@@ -66,6 +67,38 @@ public interface HttpServiceResponse extends HttpBodySender<HttpServiceResponse>
      */
     HttpServiceResponse body(final List<DtoWritable> data);
 
+    /**
+     * Sets outgoing HTTP body, replacing any previously set such.
+     * <p>
+     * The writable data transfer objects published by the provided publisher
+     * are encoded and sent to the receiver of the body as they become
+     * available, using chunked transfer encoding. Objects are only requested
+     * from the publisher as fast as they can be sent, making it possible to
+     * send arbitrarily large or long-lived streams of objects using a
+     * constant amount of memory. The objects are sent as the elements of a
+     * JSON array, which means that the encoding chosen for this response must
+     * be JSON, and that they can be received incrementally via {@link
+     * se.arkalix.net.http.HttpBodyReceiver#bodyAsStream(se.arkalix.dto.DtoEncoding,
+     * Class, se.arkalix.util.function.ThrowingConsumer) bodyAsStream()}.
+     * <p>
+     * As the response status and headers are sent before the first object is
+     * published, a publisher failing after that point causes the connection
+     * of the response to be closed before the body is complete.
+     *
+     * @param publisher Publisher of data transfer objects to send to receiver
+     *                  of the body.
+     * @return This.
+     * @throws NullPointerException          If {@code publisher} is {@code
+     *                                       null}.
+     * @throws UnsupportedOperationException If this response does not support
+     *                                       streaming bodies.
+     * @see DtoWritableAs @DtoWritableAs
+     */
+    default HttpServiceResponse body(final Flow.Publisher<? extends DtoWritable> publisher) {
+        throw new UnsupportedOperationException("Streaming bodies " +
+            "not supported by " + getClass());
+    }
+
     /**
      * Removes all currently set headers.
      *
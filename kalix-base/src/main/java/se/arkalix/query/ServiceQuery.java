@@ -227,14 +227,59 @@ public class ServiceQuery {
      * ServiceNotFoundException}.
      */
     public <C extends ArConsumer> Future<C> using(final ArConsumerFactory<C> factory) {
+        final var fault = applyRequirementsOf(factory);
+        if (fault != null) {
+            return Future.failure(fault);
+        }
+        return resolveOne().map(service -> factory.create(consumer, service, encodings));
+    }
+
+    /**
+     * Uses provided {@code factory} to (1) add additional details to this
+     * query, (2) resolve the query, and then (3) use each service in the
+     * resolution result to construct an {@link ArConsumer} instance.
+     * <p>
+     * This method is useful for consuming a service with multiple providers,
+     * such as via a {@link se.arkalix.net.http.consumer.HttpBalancingConsumer
+     * HttpBalancingConsumer}.
+     *
+     * @param factory Class useful for creating {@link ArConsumer} instances.
+     * @param <C>     Type of {@link ArConsumer}.
+     * @return {@link Future} completed with one {@link ArConsumer} for each
+     * resolved service, if service resolution succeeded. If service
+     * resolution did not fail but yielded no matching services, the {@link
+     * Future} is failed with a {@link ServiceNotFoundException}.
+     */
+    public <C extends ArConsumer> Future<List<C>> usingAll(final ArConsumerFactory<C> factory) {
+        final var fault = applyRequirementsOf(factory);
+        if (fault != null) {
+            return Future.failure(fault);
+        }
+        return resolveAll().mapResult(result -> {
+            if (result.isFailure()) {
+                return Result.failure(result.fault());
+            }
+            final var services = result.value();
+            if (services.isEmpty()) {
+                return Result.failure(new ServiceNotFoundException(this));
+            }
+            final var consumers = new ArrayList<C>(services.size());
+            for (final var service : new TreeSet<>(services)) {
+                consumers.add(factory.create(consumer, service, encodings));
+            }
+            return Result.success(consumers);
+        });
+    }
+
+    private <C extends ArConsumer> IllegalStateException applyRequirementsOf(final ArConsumerFactory<C> factory) {
         // Set and check service name.
         final var optionalName = factory.serviceName();
         if (name == null) {
             if (optionalName.isEmpty()) {
-                return Future.failure(new IllegalStateException("No service " +
+                return new IllegalStateException("No service " +
                     "name was specified, neither explicitly or by the " +
                     "provided consumer factory \"" + factory + "\"; cannot " +
-                    "resolve service"));
+                    "resolve service");
             }
             name = optionalName.get();
         }
@@ -242,11 +287,11 @@ public class ServiceQuery {
             if (optionalName.isPresent()) {
                 final var name0 = optionalName.get();
                 if (!name.equals(name0)) {
-                    return Future.failure(new IllegalStateException("The " +
+                    return new IllegalStateException("The " +
                         "service name \"" + name + "\" was explicitly " +
                         "specified, but the provided consumer factory \"" +
                         factory + "\" requires that the name \"" + name0
-                        + "\" be used; cannot resolve service"));
+                        + "\" be used; cannot resolve service");
                 }
             }
         }
@@ -261,14 +306,14 @@ public class ServiceQuery {
             transports.retainAll(factory.serviceTransports());
         }
         if (transports.isEmpty()) {
-            return Future.failure(new IllegalStateException("The provided " +
+            return new IllegalStateException("The provided " +
                 "consumer factory \"" + factory + "\" only supports the " +
                 "following application-level transport protocols: " +
                 factory.serviceTransports() + ", while this query was " +
                 "already configured to require that any out of " +
                 currentTransports + " be supported; no factory-" +
                 "supported transports are present in the existing " +
-                "collection; cannot resolve service"));
+                "collection; cannot resolve service");
         }
 
         // Set and check service encodings.
@@ -280,13 +325,13 @@ public class ServiceQuery {
             encodings.retainAll(factory.serviceEncodings());
         }
         if (encodings.isEmpty()) {
-            return Future.failure(new IllegalStateException("The provided " +
+            return new IllegalStateException("The provided " +
                 "consumer factory \"" + factory + "\" only supports the " +
                 "following encodings: " + factory.serviceEncodings() + ", " +
                 "while this query was already configured to require that " +
                 "any out of " + currentEncodings + " be supported; no " +
                 "factory-supported encodings are present in the existing " +
-                "collection; cannot resolve service"));
+                "collection; cannot resolve service");
         }
 
         // Set and check service metadata.
@@ -305,12 +350,12 @@ public class ServiceQuery {
                     return null;
                 });
                 if (value2 == null) {
-                    return Future.failure(new IllegalStateException("The " +
+                    return new IllegalStateException("The " +
                         "provided consumer factory \"" + factory + "\" " +
                         "requires that the metadata field \"" + key0 + "\" " +
                         "be set to \"" + value0 + "\", but the field has " +
                         "been explicitly set to \"" + metadata.get(key0) +
-                        "\"; cannot create consumer"));
+                        "\"; cannot create consumer");
                 }
             }
         }
@@ -318,10 +363,10 @@ public class ServiceQuery {
         // Set and check service version.
         final var version0 = factory.serviceVersion().orElse(null);
         if (!Objects.equals(version, version0)) {
-            return Future.failure(new IllegalStateException("The provided " +
+            return new IllegalStateException("The provided " +
                 "consumer factory \"" + factory + "\" only supports service " +
                 "version " + version0 + ", while version " + version +
-                " was explicitly specified; cannot create consumer"));
+                " was explicitly specified; cannot create consumer");
         }
         version = version0;
 
@@ -349,13 +394,13 @@ public class ServiceQuery {
             versionMax1 = Integer.MAX_VALUE;
         }
         if (versionMin1 > versionMax1) {
-            return Future.failure(new IllegalStateException("The provided " +
+            return new IllegalStateException("The provided " +
                 "consumer factory \"" + factory + "\" only supports service " +
                 "versions in the range " + versionMin0 + ".." + versionMax0 +
                 ", while the non-overlapping range " +
                 (versionMin != null ? versionMin : "") + ".." +
                 (versionMax != null ? versionMax : "") + " was " +
-                "explicitly specified; cannot create consumer"));
+                "explicitly specified; cannot create consumer");
         }
         if (versionMax1 != Integer.MAX_VALUE) {
             versionMax = versionMax1;
@@ -364,17 +409,17 @@ public class ServiceQuery {
             versionMin = versionMin1;
         }
         if (version != null && (version < versionMin1 || version > versionMax1)) {
-            return Future.failure(new IllegalStateException("Taken " +
+            return new IllegalStateException("Taken " +
                 "together, the service versions supported by both the " +
                 "provided consumer factory \"" + factory + "\" and the " +
                 "explicitly provided versions are in the range " +
                 versionMin1 + ".." + versionMax1 + ", but the " +
                 (version0 == null ? "explicitly provided version " :
                     "version required by the consumer factory ") + version
-                + " is not in that range; cannot create consumer"));
+                + " is not in that range; cannot create consumer");
         }
 
-        return resolveOne().map(service -> factory.create(consumer, service, encodings));
+        return null;
     }
 
     /**
@@ -429,26 +474,35 @@ public class ServiceQuery {
             return false;
         }
 
-        final var serviceInterfaces = service.interfaces();
-
         final var queryTransports = transports();
-        if (!queryTransports.isEmpty() && serviceInterfaces.stream()
-            .noneMatch(triplet -> queryTransports.contains(triplet.transport())))
-        {
-            return false;
-        }
-
         final var queryEncodings = encodings();
-        if (!queryEncodings.isEmpty() && serviceInterfaces.stream()
-            .noneMatch(triplet -> queryEncodings.contains(triplet.encoding())))
-        {
-            return false;
+        if (!queryTransports.isEmpty() || !queryEncodings.isEmpty()) {
+            var isTransportMatched = queryTransports.isEmpty();
+            var isEncodingMatched = queryEncodings.isEmpty();
+            for (final var triplet : service.interfaces()) {
+                if (!isTransportMatched && queryTransports.contains(triplet.transport())) {
+                    isTransportMatched = true;
+                }
+                if (!isEncodingMatched && queryEncodings.contains(triplet.encoding())) {
+                    isEncodingMatched = true;
+                }
+                if (isTransportMatched && isEncodingMatched) {
+                    break;
+                }
+            }
+            if (!isTransportMatched || !isEncodingMatched) {
+                return false;
+            }
         }
 
-        if (metadata != null && !metadata.isEmpty() && !service.metadata()
-            .entrySet().containsAll(metadata.entrySet()))
-        {
-            return false;
+        if (metadata != null && !metadata.isEmpty()) {
+            final var serviceMetadata = service.metadata();
+            for (final var entry : metadata.entrySet()) {
+                final var value = serviceMetadata.get(entry.getKey());
+                if (value == null || !value.equals(entry.getValue())) {
+                    return false;
+                }
+            }
         }
 
         final var serviceVersion = service.version();
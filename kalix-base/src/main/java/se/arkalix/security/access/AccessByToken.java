@@ -4,7 +4,7 @@ import se.arkalix.ArSystem;
 import se.arkalix.description.ConsumerDescription;
 import se.arkalix.description.ServiceDescription;
 import se.arkalix.descriptor.SecurityDescriptor;
-import se.arkalix.internal.security.access.AccessToken;
+import se.arkalix.internal.security.access.AccessTokenCache;
 import se.arkalix.util.annotation.ThreadSafe;
 
 import java.security.PublicKey;
@@ -27,11 +27,19 @@ import java.util.concurrent.atomic.AtomicReference;
  * system key is set or replaced using the {@link #authorizationKey(PublicKey)}
  * method.
  * <p>
+ * Successfully verified tokens are cached until they expire, which means that
+ * consumers presenting the same token repeatedly only have it decrypted and
+ * verified once. The cache is cleared whenever the authorization system key
+ * is replaced.
+ * <p>
  * Note that access policy instances of this type can be shared by multiple
  * services.
  */
 public class AccessByToken implements AccessPolicy {
+    private static final int DEFAULT_MAX_CACHED_TOKENS = 1024;
+
     private final AtomicReference<PublicKey> authorizationKey;
+    private final AccessTokenCache tokenCache;
 
     /**
      * Creates new certificate and token access policy without an authorization
@@ -42,7 +50,7 @@ public class AccessByToken implements AccessPolicy {
      * access policy will prevent all access until a valid key has been set.
      */
     public AccessByToken() {
-        authorizationKey = new AtomicReference<>(null);
+        this(null);
     }
 
     /**
@@ -55,7 +63,24 @@ public class AccessByToken implements AccessPolicy {
      * @param authorizationKey Public key of issuer of acceptable access tokens.
      */
     public AccessByToken(final PublicKey authorizationKey) {
+        this(authorizationKey, DEFAULT_MAX_CACHED_TOKENS);
+    }
+
+    /**
+     * Creates new certificate and token access policy with the given
+     * authorization system public key and token cache size.
+     * <p>
+     * The key can be changed later via the
+     * {@link #authorizationKey(PublicKey)} method.
+     *
+     * @param authorizationKey Public key of issuer of acceptable access tokens,
+     *                         or {@code null}.
+     * @param maxCachedTokens  Maximum number of verified tokens to cache.
+     *                         Defaults to 1024 if other constructors are used.
+     */
+    public AccessByToken(final PublicKey authorizationKey, final int maxCachedTokens) {
         this.authorizationKey = new AtomicReference<>(authorizationKey);
+        this.tokenCache = new AccessTokenCache(maxCachedTokens);
     }
 
     /**
@@ -65,12 +90,36 @@ public class AccessByToken implements AccessPolicy {
      * the system owning the corresponding private key, which in most scenarios
      * can be expected to be an authorization system belonging to the same
      * cloud as the service provider using this access policy.
+     * <p>
+     * Setting a new key causes all cached tokens to be evicted.
      *
      * @param authorizationKey Public key of designated authorization system.
      */
     @ThreadSafe
     public void authorizationKey(final PublicKey authorizationKey) {
-        this.authorizationKey.set(authorizationKey);
+        final var previousKey = this.authorizationKey.getAndSet(authorizationKey);
+        if (!Objects.equals(previousKey, authorizationKey)) {
+            tokenCache.clear();
+        }
+    }
+
+    /**
+     * @return Number of times a token presented to this policy has been found
+     * in its cache of verified tokens.
+     */
+    @ThreadSafe
+    public long tokenCacheHitCount() {
+        return tokenCache.hitCount();
+    }
+
+    /**
+     * @return Number of times a token presented to this policy has had to be
+     * decrypted and verified, as it was not already in its cache of verified
+     * tokens.
+     */
+    @ThreadSafe
+    public long tokenCacheMissCount() {
+        return tokenCache.missCount();
     }
 
     @Override
@@ -99,7 +148,7 @@ public class AccessByToken implements AccessPolicy {
         }
 
         final var receiverKey = provider.identity().privateKey();
-        final var token0 = AccessToken.read(token, receiverKey, senderKey);
+        final var token0 = tokenCache.read(token, receiverKey, senderKey);
 
         final var cid = token0.cid();
         final var cn = consumer.identity().commonName();
@@ -13,6 +13,7 @@ import java.util.Objects;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -110,6 +111,16 @@ import java.util.function.Consumer;
  *         </p>
  *     </li>
  *     <li>
+ *         <b>Result Time Limiting</b>
+ *         <p>Fail this {@code Future} if its {@link Result} does not become
+ *            available in time.
+ *             <ol>
+ *                 <li>{@link #timeout(Duration)}</li>
+ *                 <li>{@link #deadline(Instant)}</li>
+ *             </ol>
+ *         </p>
+ *     </li>
+ *     <li>
  *         <b>Thread Management</b>
  *         <p>Consume the result of this {@code Future} on a separate thread.
  *             <ol>
@@ -250,30 +261,7 @@ public interface Future<V> {
      */
     default Future<V> ifSuccess(final ThrowingConsumer<V> consumer) {
         Objects.requireNonNull(consumer, "Expected consumer");
-        final var source = this;
-        return new Future<>() {
-            @Override
-            public void onResult(final Consumer<Result<V>> consumer0) {
-                source.onResult(result0 -> {
-                    Result<V> result1;
-                    try {
-                        if (result0.isSuccess()) {
-                            consumer.accept(result0.value());
-                        }
-                        result1 = result0;
-                    }
-                    catch (final Throwable throwable) {
-                        result1 = Result.failure(throwable);
-                    }
-                    consumer0.accept(result1);
-                });
-            }
-
-            @Override
-            public void cancel(final boolean mayInterruptIfRunning) {
-                source.cancel(mayInterruptIfRunning);
-            }
-        };
+        return new FutureIfSuccess<>(this, consumer);
     }
 
     /**
@@ -402,38 +390,7 @@ public interface Future<V> {
      */
     default <U> Future<U> map(final ThrowingFunction<? super V, U> mapper) {
         Objects.requireNonNull(mapper, "Expected mapper");
-        final var source = this;
-        return new Future<>() {
-            @Override
-            public void onResult(final Consumer<Result<U>> consumer) {
-                source.onResult(result0 -> {
-                    Result<U> result1;
-                    success:
-                    {
-                        Throwable cause;
-                        if (result0.isSuccess()) {
-                            try {
-                                result1 = Result.success(mapper.apply(result0.value()));
-                                break success;
-                            }
-                            catch (final Throwable throwable) {
-                                cause = throwable;
-                            }
-                        }
-                        else {
-                            cause = result0.fault();
-                        }
-                        result1 = Result.failure(cause);
-                    }
-                    consumer.accept(result1);
-                });
-            }
-
-            @Override
-            public void cancel(final boolean mayInterruptIfRunning) {
-                source.cancel(mayInterruptIfRunning);
-            }
-        };
+        return new FutureMap<>(this, mapper);
     }
 
     /**
@@ -591,28 +548,7 @@ public interface Future<V> {
      */
     default <U> Future<U> mapResult(final ThrowingFunction<Result<V>, Result<U>> mapper) {
         Objects.requireNonNull(mapper, "Expected mapper");
-        final var source = this;
-        return new Future<>() {
-            @Override
-            public void onResult(final Consumer<Result<U>> consumer) {
-                source.onResult(result0 -> {
-                    Result<U> result1;
-                    try {
-                        result1 = mapper.apply(result0);
-
-                    }
-                    catch (final Throwable throwable) {
-                        result1 = Result.failure(throwable);
-                    }
-                    consumer.accept(result1);
-                });
-            }
-
-            @Override
-            public void cancel(final boolean mayInterruptIfRunning) {
-                source.cancel(mayInterruptIfRunning);
-            }
-        };
+        return new FutureMapResult<>(this, mapper);
     }
 
     /**
@@ -699,43 +635,7 @@ public interface Future<V> {
      */
     default <U> Future<U> flatMap(final ThrowingFunction<? super V, ? extends Future<U>> mapper) {
         Objects.requireNonNull(mapper, "Expected mapper");
-        final var source = this;
-        return new Future<>() {
-            private Future<?> cancelTarget = source;
-
-            @Override
-            public void onResult(final Consumer<Result<U>> consumer) {
-                source.onResult(result0 -> {
-                    if (cancelTarget == null) {
-                        return;
-                    }
-                    Throwable cause;
-                    if (result0.isSuccess()) {
-                        try {
-                            final var future1 = mapper.apply(result0.value());
-                            future1.onResult(consumer);
-                            cancelTarget = future1;
-                            return;
-                        }
-                        catch (final Throwable throwable) {
-                            cause = throwable;
-                        }
-                    }
-                    else {
-                        cause = result0.fault();
-                    }
-                    consumer.accept(Result.failure(cause));
-                });
-            }
-
-            @Override
-            public void cancel(final boolean mayInterruptIfRunning) {
-                if (cancelTarget != null) {
-                    cancelTarget.cancel(mayInterruptIfRunning);
-                    cancelTarget = null;
-                }
-            }
-        };
+        return new FutureFlatMap<>(this, mapper);
     }
 
     /**
@@ -942,35 +842,7 @@ public interface Future<V> {
      */
     default <U> Future<U> flatMapResult(final ThrowingFunction<Result<V>, ? extends Future<U>> mapper) {
         Objects.requireNonNull(mapper, "Expected mapper");
-        final var source = this;
-        return new Future<>() {
-            private Future<?> cancelTarget = source;
-
-            @Override
-            public void onResult(final Consumer<Result<U>> consumer) {
-                source.onResult(result0 -> {
-                    if (cancelTarget == null) {
-                        return;
-                    }
-                    try {
-                        final var future1 = mapper.apply(result0);
-                        future1.onResult(consumer);
-                        cancelTarget = future1;
-                    }
-                    catch (final Throwable throwable) {
-                        consumer.accept(Result.failure(throwable));
-                    }
-                });
-            }
-
-            @Override
-            public void cancel(final boolean mayInterruptIfRunning) {
-                if (cancelTarget != null) {
-                    cancelTarget.cancel(mayInterruptIfRunning);
-                    cancelTarget = null;
-                }
-            }
-        };
+        return new FutureFlatMapResult<>(this, mapper);
     }
 
     /**
@@ -1212,6 +1084,95 @@ public interface Future<V> {
         };
     }
 
+    /**
+     * Creates new {@code Future} that completes with the result of this
+     * {@code Future}, unless that result does not become available within
+     * the given {@code timeout}. In the latter case, this {@code Future} is
+     * cancelled and the returned {@code Future} fails with a {@link
+     * TimeoutException}.
+     * <p>
+     * The timeout is tracked by the {@link Schedulers#fixed() default fixed
+     * scheduler}, which means that no thread is blocked while waiting for it
+     * to expire. If called from a thread of that scheduler, the timeout is
+     * tracked by the event loop of the calling thread.
+     * <p>
+     * The timeout starts counting down when this method is called, even
+     * though it is only tracked once a consumer is provided to the returned
+     * {@code Future}.
+     * <p>
+     * If this {@code Future} completes after the timeout has expired, its
+     * result is ignored. Care must, consequently, be taken if the value of
+     * this {@code Future} would hold resources that must be released.
+     *
+     * @param timeout Duration after which the returned {@code Future} fails,
+     *                unless the result of this {@code Future} has become
+     *                available.
+     * @return New {@code Future} that eventually completes with the result of
+     * this {@code Future} or a {@link TimeoutException}.
+     * @throws NullPointerException If {@code timeout} is {@code null}.
+     */
+    default Future<V> timeout(final Duration timeout) {
+        Objects.requireNonNull(timeout, "Expected timeout");
+        final var source = this;
+        final var startedAt = System.nanoTime();
+        return new Future<>() {
+            private final AtomicBoolean isDone = new AtomicBoolean(false);
+            private volatile Future<?> timer = null;
+
+            @Override
+            public void onResult(final Consumer<Result<V>> consumer) {
+                final var remaining = timeout.minusNanos(System.nanoTime() - startedAt);
+                final var timer = Schedulers.fixed().schedule(remaining.isNegative() ? Duration.ZERO : remaining, () -> {
+                    if (isDone.compareAndSet(false, true)) {
+                        source.cancel();
+                        consumer.accept(Result.failure(new TimeoutException("Result did not " +
+                            "become available within " + timeout)));
+                    }
+                });
+                this.timer = timer;
+                source.onResult(result -> {
+                    if (isDone.compareAndSet(false, true)) {
+                        timer.cancel();
+                        consumer.accept(result);
+                    }
+                });
+            }
+
+            @Override
+            public void cancel(final boolean mayInterruptIfRunning) {
+                if (isDone.compareAndSet(false, true)) {
+                    final var timer = this.timer;
+                    if (timer != null) {
+                        timer.cancel();
+                    }
+                    source.cancel(mayInterruptIfRunning);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates new {@code Future} that completes with the result of this
+     * {@code Future}, unless that result does not become available before
+     * the given {@code deadline}. In the latter case, this {@code Future} is
+     * cancelled and the returned {@code Future} fails with a {@link
+     * TimeoutException}.
+     * <p>
+     * The same considerations as for {@link #timeout(Duration)} apply to this
+     * method.
+     *
+     * @param deadline Instant after which the returned {@code Future} fails,
+     *                 unless the result of this {@code Future} has become
+     *                 available.
+     * @return New {@code Future} that eventually completes with the result of
+     * this {@code Future} or a {@link TimeoutException}.
+     * @throws NullPointerException If {@code deadline} is {@code null}.
+     */
+    default Future<V> deadline(final Instant deadline) {
+        Objects.requireNonNull(deadline, "Expected deadline");
+        return timeout(Duration.between(Instant.now(), deadline));
+    }
+
     /**
      * Returns new {@code Future} that is completed successfully only if this
      * {@code Future} completes successfully and its result can be provided to
@@ -4,9 +4,9 @@ import se.arkalix.internal.util.concurrent.FutureCompletion;
 import se.arkalix.util.Result;
 import se.arkalix.util.annotation.ThreadSafe;
 
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Announces when the result of some {@link Future} becomes available to a set
@@ -21,22 +21,27 @@ import java.util.Set;
  */
 @SuppressWarnings("unused")
 public class FutureAnnouncement<V> {
+    private static final FutureCompletion<?>[] NO_SUBSCRIBERS = new FutureCompletion<?>[0];
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<FutureAnnouncement, Object> stateUpdater =
+        AtomicReferenceFieldUpdater.newUpdater(FutureAnnouncement.class, Object.class, "state");
+
     private final Future<V> future;
-    private final Set<FutureCompletion<V>> subscribers = new HashSet<>();
 
-    private Result<V> result = null;
-    private boolean isAnnouncing = false;
+    // Either an array of subscribers or the announced result. Arrays are
+    // never mutated once published, only replaced.
+    private volatile Object state = NO_SUBSCRIBERS;
 
+    @SuppressWarnings("unchecked")
     FutureAnnouncement(final Future<V> future) {
         this.future = future;
         future.onResult(result -> {
-            synchronized (this) {
-                this.result = result;
-                isAnnouncing = true;
-                for (final var subscriber : subscribers) {
-                    subscriber.complete(result);
+            final var state = stateUpdater.getAndSet(this, result);
+            if (state instanceof FutureCompletion[]) {
+                for (final var subscriber : (FutureCompletion<V>[]) state) {
+                    subscriber.tryComplete(result);
                 }
-                subscribers.clear();
             }
         });
     }
@@ -67,8 +72,12 @@ public class FutureAnnouncement<V> {
      *
      * @return Result of this {@code FutureAnnouncement}, if available.
      */
-    public synchronized Optional<Result<V>> resultIfAvailable() {
-        return Optional.ofNullable(result);
+    @SuppressWarnings("unchecked")
+    public Optional<Result<V>> resultIfAvailable() {
+        final var state = this.state;
+        return state instanceof Result
+            ? Optional.of((Result<V>) state)
+            : Optional.empty();
     }
 
     /**
@@ -86,22 +95,58 @@ public class FutureAnnouncement<V> {
      * available.
      */
     @ThreadSafe
+    @SuppressWarnings("unchecked")
     public Future<V> subscribe() {
-        final FutureCompletion<V> completion;
-        synchronized (this) {
-            if (result != null) {
-                return Future.of(result);
+        FutureCompletion<V> completion = null;
+        while (true) {
+            final var state = this.state;
+            if (state instanceof Result) {
+                return Future.of((Result<V>) state);
+            }
+            if (completion == null) {
+                completion = new FutureCompletion<>();
+            }
+            final var subscribers = (FutureCompletion<?>[]) state;
+            final var nextSubscribers = Arrays.copyOf(subscribers, subscribers.length + 1);
+            nextSubscribers[subscribers.length] = completion;
+            if (stateUpdater.compareAndSet(this, state, nextSubscribers)) {
+                break;
             }
-            completion = new FutureCompletion<>();
-            completion.setCancelCallback(ignored -> {
-                synchronized (this) {
-                    if (!isAnnouncing) {
-                        subscribers.remove(completion);
-                    }
-                }
-            });
-            subscribers.add(completion);
         }
+        final var completion0 = completion;
+        completion.setCancelCallback(ignored -> unsubscribe(completion0));
         return completion;
     }
+
+    private void unsubscribe(final FutureCompletion<V> completion) {
+        while (true) {
+            final var state = this.state;
+            if (!(state instanceof FutureCompletion[])) {
+                return;
+            }
+            final var subscribers = (FutureCompletion<?>[]) state;
+            var index = -1;
+            for (var i = 0; i < subscribers.length; ++i) {
+                if (subscribers[i] == completion) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index == -1) {
+                return;
+            }
+            final FutureCompletion<?>[] nextSubscribers;
+            if (subscribers.length == 1) {
+                nextSubscribers = NO_SUBSCRIBERS;
+            }
+            else {
+                nextSubscribers = new FutureCompletion<?>[subscribers.length - 1];
+                System.arraycopy(subscribers, 0, nextSubscribers, 0, index);
+                System.arraycopy(subscribers, index + 1, nextSubscribers, index, nextSubscribers.length - index);
+            }
+            if (stateUpdater.compareAndSet(this, state, nextSubscribers)) {
+                return;
+            }
+        }
+    }
 }
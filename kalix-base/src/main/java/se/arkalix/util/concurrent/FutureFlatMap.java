@@ -0,0 +1,68 @@
+package se.arkalix.util.concurrent;
+
+import se.arkalix.util.Result;
+import se.arkalix.util.function.ThrowingFunction;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@code Future} that maps the successful result of another {@code Future}
+ * into yet another {@code Future}, the result of which it passes on.
+ * <p>
+ * Acts as its own listener of its source, which is why no intermediary
+ * {@link Consumer} has to be allocated when a consumer is set.
+ *
+ * @param <V> Type of value produced by the source {@code Future}.
+ * @param <U> Type of value produced by this {@code Future}.
+ * @see Future#flatMap(ThrowingFunction)
+ */
+class FutureFlatMap<V, U> implements Future<U>, Consumer<Result<V>> {
+    private final Future<V> source;
+    private final ThrowingFunction<? super V, ? extends Future<U>> mapper;
+
+    private Future<?> cancelTarget;
+    private Consumer<Result<U>> consumer;
+
+    FutureFlatMap(final Future<V> source, final ThrowingFunction<? super V, ? extends Future<U>> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+        cancelTarget = source;
+    }
+
+    @Override
+    public void onResult(final Consumer<Result<U>> consumer) {
+        this.consumer = consumer;
+        source.onResult(this);
+    }
+
+    @Override
+    public void accept(final Result<V> result0) {
+        if (cancelTarget == null) {
+            return;
+        }
+        Throwable cause;
+        if (result0.isSuccess()) {
+            try {
+                final var future1 = mapper.apply(result0.value());
+                future1.onResult(consumer);
+                cancelTarget = future1;
+                return;
+            }
+            catch (final Throwable throwable) {
+                cause = throwable;
+            }
+        }
+        else {
+            cause = result0.fault();
+        }
+        consumer.accept(Result.failure(cause));
+    }
+
+    @Override
+    public void cancel(final boolean mayInterruptIfRunning) {
+        if (cancelTarget != null) {
+            cancelTarget.cancel(mayInterruptIfRunning);
+            cancelTarget = null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package se.arkalix.util.concurrent;
+
+import se.arkalix.util.Result;
+import se.arkalix.util.function.ThrowingConsumer;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@code Future} that passes on the result of another {@code Future} after
+ * having provided any successful value to a consumer.
+ * <p>
+ * Acts as its own listener of its source, which is why no intermediary
+ * {@link Consumer} has to be allocated when a consumer is set.
+ *
+ * @param <V> Type of value produced by the source {@code Future}.
+ * @see Future#ifSuccess(ThrowingConsumer)
+ */
+class FutureIfSuccess<V> implements Future<V>, Consumer<Result<V>> {
+    private final Future<V> source;
+    private final ThrowingConsumer<V> action;
+
+    private Consumer<Result<V>> consumer;
+
+    FutureIfSuccess(final Future<V> source, final ThrowingConsumer<V> action) {
+        this.source = source;
+        this.action = action;
+    }
+
+    @Override
+    public void onResult(final Consumer<Result<V>> consumer) {
+        this.consumer = consumer;
+        source.onResult(this);
+    }
+
+    @Override
+    public void accept(final Result<V> result0) {
+        Result<V> result1;
+        try {
+            if (result0.isSuccess()) {
+                action.accept(result0.value());
+            }
+            result1 = result0;
+        }
+        catch (final Throwable throwable) {
+            result1 = Result.failure(throwable);
+        }
+        consumer.accept(result1);
+    }
+
+    @Override
+    public void cancel(final boolean mayInterruptIfRunning) {
+        source.cancel(mayInterruptIfRunning);
+    }
+}
@@ -0,0 +1,56 @@
+package se.arkalix.util.concurrent;
+
+import se.arkalix.util.Result;
+import se.arkalix.util.function.ThrowingFunction;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@code Future} that maps the successful result of another {@code Future}.
+ * <p>
+ * Acts as its own listener of its source, which is why no intermediary
+ * {@link Consumer} has to be allocated when a consumer is set.
+ *
+ * @param <V> Type of value produced by the source {@code Future}.
+ * @param <U> Type of value produced by this {@code Future}.
+ * @see Future#map(ThrowingFunction)
+ */
+class FutureMap<V, U> implements Future<U>, Consumer<Result<V>> {
+    private final Future<V> source;
+    private final ThrowingFunction<? super V, U> mapper;
+
+    private Consumer<Result<U>> consumer;
+
+    FutureMap(final Future<V> source, final ThrowingFunction<? super V, U> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void onResult(final Consumer<Result<U>> consumer) {
+        this.consumer = consumer;
+        source.onResult(this);
+    }
+
+    @Override
+    public void accept(final Result<V> result0) {
+        Result<U> result1;
+        if (result0.isSuccess()) {
+            try {
+                result1 = Result.success(mapper.apply(result0.value()));
+            }
+            catch (final Throwable throwable) {
+                result1 = Result.failure(throwable);
+            }
+        }
+        else {
+            result1 = Result.failure(result0.fault());
+        }
+        consumer.accept(result1);
+    }
+
+    @Override
+    public void cancel(final boolean mayInterruptIfRunning) {
+        source.cancel(mayInterruptIfRunning);
+    }
+}
@@ -0,0 +1,51 @@
+package se.arkalix.util.concurrent;
+
+import se.arkalix.util.Result;
+import se.arkalix.util.function.ThrowingFunction;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@code Future} that maps the result of another {@code Future}.
+ * <p>
+ * Acts as its own listener of its source, which is why no intermediary
+ * {@link Consumer} has to be allocated when a consumer is set.
+ *
+ * @param <V> Type of value produced by the source {@code Future}.
+ * @param <U> Type of value produced by this {@code Future}.
+ * @see Future#mapResult(ThrowingFunction)
+ */
+class FutureMapResult<V, U> implements Future<U>, Consumer<Result<V>> {
+    private final Future<V> source;
+    private final ThrowingFunction<Result<V>, Result<U>> mapper;
+
+    private Consumer<Result<U>> consumer;
+
+    FutureMapResult(final Future<V> source, final ThrowingFunction<Result<V>, Result<U>> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void onResult(final Consumer<Result<U>> consumer) {
+        this.consumer = consumer;
+        source.onResult(this);
+    }
+
+    @Override
+    public void accept(final Result<V> result0) {
+        Result<U> result1;
+        try {
+            result1 = mapper.apply(result0);
+        }
+        catch (final Throwable throwable) {
+            result1 = Result.failure(throwable);
+        }
+        consumer.accept(result1);
+    }
+
+    @Override
+    public void cancel(final boolean mayInterruptIfRunning) {
+        source.cancel(mayInterruptIfRunning);
+    }
+}
@@ -1,15 +1,36 @@
 package se.arkalix.util.concurrent;
 
+import se.arkalix.internal.util.concurrent.FutureCompletion;
+import se.arkalix.util.Result;
 import se.arkalix.util.function.ThrowingBiFunction;
+import se.arkalix.util.function.ThrowingFunction;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Stream;
 
 /**
  * Various utilities for working will collections of {@link Future Futures}.
+ * <p>
+ * The {@link #reduce(Future[], Object, ThrowingBiFunction) reduce}, {@link
+ * #flatReduce(Future[], Object, ThrowingBiFunction) flatReduce}, {@link
+ * #flatReducePlain(Object[], Object, ThrowingBiFunction) flatReducePlain} and
+ * {@link #serialize(Future[]) serialize} methods await their futures one at a
+ * time, while the {@link #all(Collection) all}, {@link
+ * #allSettled(Collection) allSettled}, {@link #any(Collection) any} and
+ * {@link #race(Collection) race} methods await all their futures at once. The
+ * {@link #traverse(int, Collection, ThrowingFunction) traverse} method
+ * creates and awaits futures with a bounded level of concurrency. The
+ * latter methods are thread-safe, in the sense that the futures they are
+ * given may complete on any threads.
  */
 @SuppressWarnings("unused")
 public final class Futures {
@@ -601,4 +622,329 @@ public final class Futures {
                 return serializeInner(iterator, values, fault0);
             });
     }
+
+    /**
+     * Awaits the completion of all given {@code futures} concurrently,
+     * collecting their successful results into a list.
+     * <p>
+     * If any of the futures fails, the returned {@code Future} is failed with
+     * the same fault and all other futures are cancelled. Cancelling the
+     * returned {@code Future} cancels all given futures.
+     *
+     * @param futures Futures to await.
+     * @param <V>     Type of value futures completes with if successful.
+     * @return Future completed with unmodifiable list of the results of all
+     * provided futures, with the results being in the same order as the
+     * futures in the given {@code futures} collection.
+     * @throws NullPointerException If {@code futures} is {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> Future<List<V>> all(final Collection<? extends Future<? extends V>> futures) {
+        final var sources = toArray(futures);
+        if (sources.length == 0) {
+            return Future.success(Collections.emptyList());
+        }
+        final var values = new Object[sources.length];
+        final var remaining = new AtomicInteger(sources.length);
+        final var completion = new FutureCompletion<List<V>>();
+        completion.setCancelCallback(mayInterruptIfRunning -> cancelAll(sources, mayInterruptIfRunning));
+        for (var i = 0; i < sources.length; ++i) {
+            final var index = i;
+            ((Future<V>) sources[i]).onResult(result -> {
+                if (result.isSuccess()) {
+                    values[index] = result.value();
+                    if (remaining.decrementAndGet() == 0) {
+                        completion.complete(Result.success(Collections.unmodifiableList(Arrays.asList((V[]) values))));
+                    }
+                }
+                // A negative count prevents any further results from
+                // completing the returned future.
+                else if (remaining.getAndSet(-1) > 0) {
+                    cancelAll(sources, false);
+                    completion.complete(Result.failure(result.fault()));
+                }
+            });
+        }
+        return completion;
+    }
+
+    /**
+     * Awaits the completion of all given {@code futures} concurrently,
+     * collecting their results into a list, regardless of whether they
+     * succeed or fail.
+     * <p>
+     * Cancelling the returned {@code Future} cancels all given futures.
+     *
+     * @param futures Futures to await.
+     * @param <V>     Type of value futures completes with if successful.
+     * @return Future completed with unmodifiable list of the results of all
+     * provided futures, with the results being in the same order as the
+     * futures in the given {@code futures} collection. Never fails.
+     * @throws NullPointerException If {@code futures} is {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> Future<List<Result<V>>> allSettled(final Collection<? extends Future<? extends V>> futures) {
+        final var sources = toArray(futures);
+        if (sources.length == 0) {
+            return Future.success(Collections.emptyList());
+        }
+        final var results = new Result<?>[sources.length];
+        final var remaining = new AtomicInteger(sources.length);
+        final var completion = new FutureCompletion<List<Result<V>>>();
+        completion.setCancelCallback(mayInterruptIfRunning -> cancelAll(sources, mayInterruptIfRunning));
+        for (var i = 0; i < sources.length; ++i) {
+            final var index = i;
+            ((Future<V>) sources[i]).onResult(result -> {
+                results[index] = result;
+                if (remaining.decrementAndGet() == 0) {
+                    completion.complete(Result.success(Collections.unmodifiableList(
+                        Arrays.asList((Result<V>[]) results))));
+                }
+            });
+        }
+        return completion;
+    }
+
+    /**
+     * Awaits the first of the given {@code futures} to complete successfully.
+     * <p>
+     * When one of the futures succeeds, all other futures are cancelled. If
+     * all futures fail, the returned {@code Future} is failed with a new
+     * exception, to which the faults of all futures are added as suppressed
+     * exceptions, in the order of the given collection. Cancelling the
+     * returned {@code Future} cancels all given futures.
+     *
+     * @param futures Futures to await.
+     * @param <V>     Type of value futures completes with if successful.
+     * @return Future completed with the first successful result of the given
+     * futures.
+     * @throws IllegalArgumentException If {@code futures} is empty.
+     * @throws NullPointerException     If {@code futures} is {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> Future<V> any(final Collection<? extends Future<? extends V>> futures) {
+        final var sources = toArray(futures);
+        if (sources.length == 0) {
+            throw new IllegalArgumentException("Expected futures.size() > 0");
+        }
+        final var faults = new Throwable[sources.length];
+        final var remaining = new AtomicInteger(sources.length);
+        final var completion = new FutureCompletion<V>();
+        completion.setCancelCallback(mayInterruptIfRunning -> cancelAll(sources, mayInterruptIfRunning));
+        for (var i = 0; i < sources.length; ++i) {
+            final var index = i;
+            ((Future<V>) sources[i]).onResult(result -> {
+                if (result.isSuccess()) {
+                    if (remaining.getAndSet(-1) > 0) {
+                        cancelAll(sources, false);
+                        completion.complete(result);
+                    }
+                    return;
+                }
+                faults[index] = result.fault();
+                if (remaining.decrementAndGet() == 0) {
+                    final var fault = new Exception("All " + faults.length + " futures failed");
+                    for (final var fault0 : faults) {
+                        fault.addSuppressed(fault0);
+                    }
+                    completion.complete(Result.failure(fault));
+                }
+            });
+        }
+        return completion;
+    }
+
+    /**
+     * Awaits the first of the given {@code futures} to complete, regardless
+     * of whether it succeeds or fails.
+     * <p>
+     * When one of the futures completes, all other futures are cancelled.
+     * Cancelling the returned {@code Future} cancels all given futures.
+     *
+     * @param futures Futures to await.
+     * @param <V>     Type of value futures completes with if successful.
+     * @return Future completed with the first result of the given futures.
+     * @throws IllegalArgumentException If {@code futures} is empty.
+     * @throws NullPointerException     If {@code futures} is {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> Future<V> race(final Collection<? extends Future<? extends V>> futures) {
+        final var sources = toArray(futures);
+        if (sources.length == 0) {
+            throw new IllegalArgumentException("Expected futures.size() > 0");
+        }
+        final var isDone = new AtomicBoolean(false);
+        final var completion = new FutureCompletion<V>();
+        completion.setCancelCallback(mayInterruptIfRunning -> cancelAll(sources, mayInterruptIfRunning));
+        for (final var source : sources) {
+            ((Future<V>) source).onResult(result -> {
+                if (isDone.compareAndSet(false, true)) {
+                    cancelAll(sources, false);
+                    completion.complete(result);
+                }
+            });
+        }
+        return completion;
+    }
+
+    /**
+     * Applies given {@code mapper} to every element of {@code elements},
+     * awaiting at most {@code maxConcurrency} of the returned futures at
+     * once, and collects their successful results into a list.
+     * <p>
+     * Elements are mapped in the order they are provided, each as soon as
+     * less than {@code maxConcurrency} futures are being awaited. If any of
+     * the futures fails, or if {@code mapper} throws an exception, the
+     * returned {@code Future} is failed with the same fault, no further
+     * elements are mapped and all futures being awaited are cancelled.
+     * Cancelling the returned {@code Future} has the same effect, apart from
+     * no fault being reported.
+     *
+     * @param maxConcurrency Maximum number of futures to await at once.
+     * @param elements       Elements to map.
+     * @param mapper         Function mapping an element to a future.
+     * @param <T>            Type of elements.
+     * @param <U>            Type of value mapped futures completes with if
+     *                       successful.
+     * @return Future completed with unmodifiable list of the results of all
+     * mapped futures, with the results being in the same order as the
+     * elements they were mapped from.
+     * @throws IllegalArgumentException If {@code maxConcurrency < 1}.
+     * @throws NullPointerException     If {@code elements} or {@code mapper}
+     *                                  is {@code null}.
+     */
+    public static <T, U> Future<List<U>> traverse(
+        final int maxConcurrency,
+        final Collection<? extends T> elements,
+        final ThrowingFunction<? super T, ? extends Future<? extends U>> mapper)
+    {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Expected maxConcurrency > 0");
+        }
+        Objects.requireNonNull(elements, "Expected elements");
+        Objects.requireNonNull(mapper, "Expected mapper");
+
+        if (elements.isEmpty()) {
+            return Future.success(Collections.emptyList());
+        }
+        final var traversal = new Traversal<T, U>(elements.toArray(), mapper);
+        final var workerCount = Math.min(maxConcurrency, traversal.elements.length);
+        for (var i = 0; i < workerCount; ++i) {
+            traversal.new Worker().drain();
+        }
+        return traversal.completion;
+    }
+
+    private static Future<?>[] toArray(final Collection<? extends Future<?>> futures) {
+        Objects.requireNonNull(futures, "Expected futures");
+        final var array = futures.toArray(new Future<?>[0]);
+        for (final var future : array) {
+            Objects.requireNonNull(future, "Expected every future to be non-null");
+        }
+        return array;
+    }
+
+    private static void cancelAll(final Future<?>[] futures, final boolean mayInterruptIfRunning) {
+        for (final var future : futures) {
+            future.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    private static class Traversal<T, U> {
+        private final FutureCompletion<List<U>> completion = new FutureCompletion<>();
+        private final Object[] elements;
+        private final ThrowingFunction<? super T, ? extends Future<? extends U>> mapper;
+        private final AtomicReferenceArray<Future<?>> futures;
+        private final Object[] values;
+        private final AtomicInteger nextIndex = new AtomicInteger(0);
+        private final AtomicInteger remaining;
+        private final AtomicBoolean isDone = new AtomicBoolean(false);
+
+        private Traversal(
+            final Object[] elements,
+            final ThrowingFunction<? super T, ? extends Future<? extends U>> mapper)
+        {
+            this.elements = elements;
+            this.mapper = mapper;
+            futures = new AtomicReferenceArray<>(elements.length);
+            values = new Object[elements.length];
+            remaining = new AtomicInteger(elements.length);
+            completion.setCancelCallback(mayInterruptIfRunning -> {
+                isDone.set(true);
+                cancelAll(mayInterruptIfRunning);
+            });
+        }
+
+        private void fail(final Throwable fault) {
+            if (isDone.compareAndSet(false, true)) {
+                cancelAll(false);
+                completion.complete(Result.failure(fault));
+            }
+        }
+
+        private void cancelAll(final boolean mayInterruptIfRunning) {
+            for (var i = 0; i < futures.length(); ++i) {
+                final var future = futures.getAndSet(i, null);
+                if (future != null) {
+                    future.cancel(mayInterruptIfRunning);
+                }
+            }
+        }
+
+        /*
+         * Each worker maps one element at a time. As futures may complete
+         * right away, on the thread mapping them, the mapping of subsequent
+         * elements is performed in a loop rather than via recursion, which
+         * could otherwise overflow the stack.
+         */
+        private class Worker {
+            private final AtomicInteger pendingDrainCount = new AtomicInteger(0);
+
+            @SuppressWarnings("unchecked")
+            private void drain() {
+                if (pendingDrainCount.getAndIncrement() != 0) {
+                    return;
+                }
+                do {
+                    if (isDone.get()) {
+                        return;
+                    }
+                    final var index = nextIndex.getAndIncrement();
+                    if (index >= elements.length) {
+                        return;
+                    }
+                    final Future<? extends U> future;
+                    try {
+                        future = Objects.requireNonNull(mapper.apply((T) elements[index]), "Expected mapper " +
+                            "to return non-null future");
+                    }
+                    catch (final Throwable throwable) {
+                        fail(throwable);
+                        return;
+                    }
+                    futures.set(index, future);
+                    if (isDone.get()) {
+                        cancelAll(false);
+                        return;
+                    }
+                    future.onResult(result -> {
+                        futures.set(index, null);
+                        if (result.isFailure()) {
+                            fail(result.fault());
+                            return;
+                        }
+                        values[index] = result.value();
+                        if (remaining.decrementAndGet() == 0) {
+                            if (isDone.compareAndSet(false, true)) {
+                                completion.complete(Result.success(Collections.unmodifiableList(
+                                    Arrays.asList((U[]) values))));
+                            }
+                            return;
+                        }
+                        drain();
+                    });
+                } while (pendingDrainCount.decrementAndGet() != 0);
+            }
+        }
+    }
 }
@@ -0,0 +1,114 @@
+package se.arkalix.util.concurrent;
+
+import se.arkalix.util.annotation.ThreadSafe;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies.
+ * <p>
+ * Recorded latencies are counted in buckets with exponentially increasing
+ * sizes, the first of which holds only zero nanosecond latencies and every
+ * other bucket {@code i} holds latencies in the range {@code [2^(i - 1),
+ * 2^i)} nanoseconds. Recording a latency is, consequently, a constant time
+ * operation that never allocates any memory, while any percentiles computed
+ * from the histogram are accurate within a factor of two.
+ */
+@SuppressWarnings("unused")
+public class LatencyHistogram {
+    private static final int BUCKET_COUNT = 64;
+
+    private final AtomicLongArray counts;
+
+    /**
+     * Creates new empty latency histogram.
+     */
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKET_COUNT);
+    }
+
+    private LatencyHistogram(final AtomicLongArray counts) {
+        this.counts = counts;
+    }
+
+    /**
+     * Records given latency.
+     *
+     * @param nanos Latency, in nanoseconds. Negative latencies are recorded
+     *              as zero.
+     */
+    @ThreadSafe
+    public void record(final long nanos) {
+        counts.incrementAndGet(nanos <= 0 ? 0 : BUCKET_COUNT - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * @return Number of recorded latencies.
+     */
+    @ThreadSafe
+    public long count() {
+        var count = 0L;
+        for (var i = 0; i < BUCKET_COUNT; ++i) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Determines the latency below which the given {@code percentile} of all
+     * recorded latencies fall.
+     *
+     * @param percentile Percentile, in the range {@code (0, 100]}.
+     * @return Upper bound of the bucket containing the latency at the given
+     * percentile, or {@link Duration#ZERO} if no latencies have been
+     * recorded.
+     * @throws IllegalArgumentException If {@code percentile} is not in the
+     *                                  range {@code (0, 100]}.
+     */
+    @ThreadSafe
+    public Duration percentile(final double percentile) {
+        if (!(percentile > 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException("Expected 0 < percentile <= 100");
+        }
+        final var snapshot = new long[BUCKET_COUNT];
+        var count = 0L;
+        for (var i = 0; i < BUCKET_COUNT; ++i) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        final var rank = (long) Math.ceil(count * percentile / 100.0);
+        var cumulativeCount = 0L;
+        for (var i = 0; i < BUCKET_COUNT; ++i) {
+            cumulativeCount += snapshot[i];
+            if (cumulativeCount >= rank) {
+                return Duration.ofNanos(i == 0 ? 0L : (1L << (i - 1)) - 1L + (1L << (i - 1)));
+            }
+        }
+        return Duration.ofNanos(Long.MAX_VALUE);
+    }
+
+    /**
+     * @return Copy of this histogram.
+     */
+    @ThreadSafe
+    public LatencyHistogram copy() {
+        final var counts = new AtomicLongArray(BUCKET_COUNT);
+        for (var i = 0; i < BUCKET_COUNT; ++i) {
+            counts.set(i, this.counts.get(i));
+        }
+        return new LatencyHistogram(counts);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+            "count=" + count() +
+            ", p50=" + percentile(50.0) +
+            ", p99=" + percentile(99.0) +
+            '}';
+    }
+}
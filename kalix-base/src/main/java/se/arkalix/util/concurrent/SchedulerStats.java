@@ -0,0 +1,126 @@
+package se.arkalix.util.concurrent;
+
+import java.util.Objects;
+
+/**
+ * Snapshot of the statistics collected by a {@link Scheduler} with a thread
+ * pool of varying size.
+ *
+ * @see Schedulers#dynamicStats()
+ */
+@SuppressWarnings("unused")
+public class SchedulerStats {
+    private final int queueDepth;
+    private final int activeThreadCount;
+    private final int threadCount;
+    private final int largestThreadCount;
+    private final long completedTaskCount;
+    private final long rejectedTaskCount;
+    private final LatencyHistogram queueLatency;
+    private final LatencyHistogram executionLatency;
+
+    /**
+     * Creates new scheduler statistics snapshot.
+     *
+     * @param queueDepth         Number of tasks waiting to be executed.
+     * @param activeThreadCount  Number of threads executing tasks.
+     * @param threadCount        Number of threads in pool.
+     * @param largestThreadCount Largest number of threads that have ever
+     *                           been in pool simultaneously.
+     * @param completedTaskCount Number of executed tasks.
+     * @param rejectedTaskCount  Number of rejected tasks.
+     * @param queueLatency       Time spent by tasks waiting to be executed.
+     * @param executionLatency   Time spent by tasks being executed.
+     */
+    public SchedulerStats(
+        final int queueDepth,
+        final int activeThreadCount,
+        final int threadCount,
+        final int largestThreadCount,
+        final long completedTaskCount,
+        final long rejectedTaskCount,
+        final LatencyHistogram queueLatency,
+        final LatencyHistogram executionLatency)
+    {
+        this.queueDepth = queueDepth;
+        this.activeThreadCount = activeThreadCount;
+        this.threadCount = threadCount;
+        this.largestThreadCount = largestThreadCount;
+        this.completedTaskCount = completedTaskCount;
+        this.rejectedTaskCount = rejectedTaskCount;
+        this.queueLatency = Objects.requireNonNull(queueLatency, "Expected queueLatency");
+        this.executionLatency = Objects.requireNonNull(executionLatency, "Expected executionLatency");
+    }
+
+    /**
+     * @return Number of tasks waiting to be executed.
+     */
+    public int queueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * @return Approximate number of threads executing tasks.
+     */
+    public int activeThreadCount() {
+        return activeThreadCount;
+    }
+
+    /**
+     * @return Number of threads in pool.
+     */
+    public int threadCount() {
+        return threadCount;
+    }
+
+    /**
+     * @return Largest number of threads that have ever been in pool
+     * simultaneously.
+     */
+    public int largestThreadCount() {
+        return largestThreadCount;
+    }
+
+    /**
+     * @return Approximate number of executed tasks.
+     */
+    public long completedTaskCount() {
+        return completedTaskCount;
+    }
+
+    /**
+     * @return Number of tasks rejected due to the pool and its queue being
+     * full or the scheduler being shut down.
+     */
+    public long rejectedTaskCount() {
+        return rejectedTaskCount;
+    }
+
+    /**
+     * @return Histogram of the time tasks spent waiting to be executed.
+     */
+    public LatencyHistogram queueLatency() {
+        return queueLatency;
+    }
+
+    /**
+     * @return Histogram of the time tasks spent being executed.
+     */
+    public LatencyHistogram executionLatency() {
+        return executionLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "SchedulerStats{" +
+            "queueDepth=" + queueDepth +
+            ", activeThreadCount=" + activeThreadCount +
+            ", threadCount=" + threadCount +
+            ", largestThreadCount=" + largestThreadCount +
+            ", completedTaskCount=" + completedTaskCount +
+            ", rejectedTaskCount=" + rejectedTaskCount +
+            ", queueLatency=" + queueLatency +
+            ", executionLatency=" + executionLatency +
+            '}';
+    }
+}
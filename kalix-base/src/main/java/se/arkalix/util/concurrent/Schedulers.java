@@ -1,9 +1,13 @@
 package se.arkalix.util.concurrent;
 
 import se.arkalix.internal.util.concurrent.DynamicScheduler;
+import se.arkalix.internal.util.concurrent.ElasticScheduledExecutor.RejectionPolicy;
 import se.arkalix.internal.util.concurrent.NettyScheduler;
+import se.arkalix.internal.util.concurrent.VirtualScheduler;
 import se.arkalix.util.annotation.ThreadSafe;
 
+import java.time.Duration;
+
 /**
  * Kalix default schedulers.
  * <p>
@@ -32,33 +36,80 @@ import se.arkalix.util.annotation.ThreadSafe;
  * contain any cached threads at all, which avoids the costs incurred by
  * context-switching.
  * <p>
+ * The dynamic scheduler adds threads whenever no idle thread is available to
+ * execute a new job, up to a maximum number of threads, after which jobs are
+ * queued. If also the queue is full, new jobs are rejected. Its bounds can be
+ * configured via the following system properties:
+ * <table>
+ *     <caption>Dynamic scheduler system properties</caption>
+ *     <tr><th>Property</th><th>Default</th></tr>
+ *     <tr><td>{@code kalix.scheduler.dynamic.minThreads}</td><td>0</td></tr>
+ *     <tr><td>{@code kalix.scheduler.dynamic.maxThreads}</td>
+ *         <td>The largest of 64 and 8 times the number of CPUs</td></tr>
+ *     <tr><td>{@code kalix.scheduler.dynamic.keepAliveMillis}</td><td>60000</td></tr>
+ *     <tr><td>{@code kalix.scheduler.dynamic.queueCapacity}</td><td>16384</td></tr>
+ *     <tr><td>{@code kalix.scheduler.dynamic.rejectionPolicy}</td>
+ *         <td>{@code abort}, or {@code caller-runs} to execute rejected jobs
+ *         on the threads submitting them</td></tr>
+ * </table>
+ * Statistics about the dynamic scheduler are available via {@link
+ * #dynamicStats()}.
+ * <p>
  * Furthermore, as a way to minimize synchronization between threads, the fixed
  * size scheduler guarantees that if a job is scheduled by one of its pooled
  * threads, the job will be executed by the thread that scheduled it.
+ * <p>
+ * If the current Java runtime supports virtual threads, which are available
+ * in Java 21 and later, a third <i>virtual</i> scheduler is also provided.
+ * It executes every job on a new virtual thread, which is suspended rather
+ * than blocked while waiting for I/O and other blocking calls to complete.
+ * It is, therefore, the preferred alternative to the dynamic scheduler for
+ * blocking operations, as it can execute very large numbers of them
+ * concurrently without requiring one platform thread per job. If virtual
+ * threads are not supported, the dynamic scheduler is used in its place.
  */
 public class Schedulers {
-    private static final DynamicScheduler dynamicScheduler = new DynamicScheduler();
+    private static final DynamicScheduler dynamicScheduler = createDynamicScheduler();
     private static final NettyScheduler fixedScheduler = new NettyScheduler();
 
     static {
-        final var runtime = Runtime.getRuntime();
+        addShutdownHook(dynamicScheduler, dynamicScheduler::shutdown);
+        addShutdownHook(fixedScheduler, fixedScheduler::shutdown);
+    }
 
-        final Thread hookDynamic = new Thread(dynamicScheduler::shutdown);
-        runtime.addShutdownHook(hookDynamic);
-        dynamicScheduler.addShutdownListener(scheduler -> {
-            try {
-                runtime.removeShutdownHook(hookDynamic);
-            }
-            catch (final IllegalStateException exception) {
-                // Ignored.
-            }
-        });
+    private Schedulers() {}
+
+    private static DynamicScheduler createDynamicScheduler() {
+        final var builder = new DynamicScheduler.Builder();
+        final var minThreads = Integer.getInteger("kalix.scheduler.dynamic.minThreads");
+        if (minThreads != null) {
+            builder.minThreads(minThreads);
+        }
+        final var maxThreads = Integer.getInteger("kalix.scheduler.dynamic.maxThreads");
+        if (maxThreads != null) {
+            builder.maxThreads(maxThreads);
+        }
+        final var keepAliveMillis = Long.getLong("kalix.scheduler.dynamic.keepAliveMillis");
+        if (keepAliveMillis != null) {
+            builder.keepAlive(Duration.ofMillis(keepAliveMillis));
+        }
+        final var queueCapacity = Integer.getInteger("kalix.scheduler.dynamic.queueCapacity");
+        if (queueCapacity != null) {
+            builder.queueCapacity(queueCapacity);
+        }
+        if ("caller-runs".equalsIgnoreCase(System.getProperty("kalix.scheduler.dynamic.rejectionPolicy"))) {
+            builder.rejectionPolicy(RejectionPolicy.CALLER_RUNS);
+        }
+        return builder.build();
+    }
 
-        final Thread hookFixed = new Thread(fixedScheduler::shutdown);
-        runtime.addShutdownHook(hookFixed);
-        fixedScheduler.addShutdownListener(scheduler -> {
+    private static void addShutdownHook(final Scheduler scheduler, final Runnable shutdown) {
+        final var runtime = Runtime.getRuntime();
+        final Thread hook = new Thread(shutdown);
+        runtime.addShutdownHook(hook);
+        scheduler.addShutdownListener(scheduler0 -> {
             try {
-                runtime.removeShutdownHook(hookFixed);
+                runtime.removeShutdownHook(hook);
             }
             catch (final IllegalStateException exception) {
                 // Ignored.
@@ -66,8 +117,6 @@ public class Schedulers {
         });
     }
 
-    private Schedulers() {}
-
     /**
      * @return Reference to scheduler with a fixed-size thread pool.
      * @see Schedulers Class documentation for more details.
@@ -85,4 +134,39 @@ public class Schedulers {
     public static Scheduler dynamic() {
         return dynamicScheduler;
     }
+
+    /**
+     * @return Snapshot of the current statistics of the {@link #dynamic()
+     * dynamic} scheduler.
+     */
+    @ThreadSafe
+    public static SchedulerStats dynamicStats() {
+        return dynamicScheduler.stats();
+    }
+
+    /**
+     * @return Reference to a scheduler executing each job on a new virtual
+     * thread, if virtual threads are supported by the current Java runtime.
+     * Otherwise, a reference to the {@link #dynamic() dynamic} scheduler.
+     * @see Schedulers Class documentation for more details.
+     */
+    @ThreadSafe
+    public static Scheduler virtual() {
+        return VirtualSchedulerHolder.scheduler;
+    }
+
+    private static class VirtualSchedulerHolder {
+        private static final Scheduler scheduler;
+
+        static {
+            if (VirtualScheduler.isSupported()) {
+                final var virtualScheduler = new VirtualScheduler();
+                addShutdownHook(virtualScheduler, virtualScheduler::shutdown);
+                scheduler = virtualScheduler;
+            }
+            else {
+                scheduler = dynamicScheduler;
+            }
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package se.arkalix;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.description.ProviderDescription;
+import se.arkalix.description.ServiceDescription;
+import se.arkalix.descriptor.EncodingDescriptor;
+import se.arkalix.descriptor.InterfaceDescriptor;
+import se.arkalix.descriptor.SecurityDescriptor;
+import se.arkalix.descriptor.TransportDescriptor;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestArServiceCache {
+    @Test
+    void shouldFindServicesByName() {
+        final var cache = ArServiceCache.withDefaultEntryLifetimeLimit();
+        final var serviceA = service("service-a", "/a", Instant.now(), Instant.MAX);
+        final var serviceB = service("service-b", "/b", Instant.now(), Instant.MAX);
+        cache.update(serviceA, serviceB);
+
+        assertEquals(List.of(serviceA), cache.getByName("service-a").collect(Collectors.toList()));
+        assertEquals(List.of(serviceB), cache.getByName("service-b").collect(Collectors.toList()));
+        assertEquals(0, cache.getByName("service-c").count());
+        assertEquals(List.of(serviceA, serviceB), cache.getAll().collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldReplaceServicesWithSameIdentity() {
+        final var cache = ArServiceCache.withDefaultEntryLifetimeLimit();
+        final var service0 = service("service-a", "/a", Instant.now(), Instant.MAX);
+        final var service1 = service("service-a", "/a", Instant.now(), Instant.MAX);
+        cache.update(service0);
+        cache.update(service1);
+
+        final var services = cache.getByName("service-a").collect(Collectors.toList());
+        assertEquals(1, services.size());
+        assertSame(service1, services.get(0));
+    }
+
+    @Test
+    void shouldNeverReturnExpiredServices() {
+        final var now = Instant.now();
+        final var cache = ArServiceCache.withEntryLifetimeLimit(Duration.ofMinutes(1));
+        final var expired = service("service-a", "/a", now, now.minusMillis(1));
+        final var stale = service("service-b", "/b", now.minus(Duration.ofMinutes(2)), Instant.MAX);
+        final var valid = service("service-c", "/c", now, Instant.MAX);
+        cache.update(expired, stale, valid);
+
+        assertEquals(List.of(valid), cache.getAll().collect(Collectors.toList()));
+        assertEquals(0, cache.getByName("service-a").count());
+    }
+
+    @Test
+    void shouldClaimRefreshOfServicesNearExpirationOnlyOnce() {
+        final var now = Instant.now();
+        final var cache = ArServiceCache.withEntryLifetimeLimit(Duration.ofMinutes(10));
+        final var fresh = service("service-a", "/a", now, Instant.MAX);
+        final var aging = service("service-b", "/b", now.minus(Duration.ofMinutes(9)), Instant.MAX);
+        cache.update(fresh, aging);
+
+        assertFalse(cache.claimRefresh(List.of(fresh), now));
+        assertTrue(cache.claimRefresh(List.of(fresh, aging), now));
+        assertFalse(cache.claimRefresh(List.of(aging), now));
+
+        cache.releaseRefresh(List.of(aging));
+        assertTrue(cache.claimRefresh(List.of(aging), now));
+
+        final var refreshed = service("service-b", "/b", now, Instant.MAX);
+        cache.update(refreshed);
+        assertFalse(cache.claimRefresh(List.of(refreshed), now));
+    }
+
+    @Test
+    void shouldFindServicesByNameAndInterfaces() {
+        final var cache = ArServiceCache.withDefaultEntryLifetimeLimit();
+        final var serviceJson = service("service-a", "/json", 1, InterfaceDescriptor.HTTP_SECURE_JSON);
+        final var serviceCbor = service("service-a", "/cbor", 1, InterfaceDescriptor.HTTP_SECURE_CBOR);
+        cache.update(serviceJson, serviceCbor);
+
+        assertEquals(List.of(serviceCbor), cache.getByNameAndInterfaces("service-a",
+            InterfaceDescriptor.HTTP_SECURE_CBOR).collect(Collectors.toList()));
+        assertEquals(0, cache.getByNameAndInterfaces("service-a",
+            InterfaceDescriptor.COAP_SECURE_JSON).count());
+    }
+
+    @Test
+    void shouldFindServicesByQuery() throws Exception {
+        final var system = new ArSystem.Builder()
+            .name("test-system")
+            .localAddressPort(InetAddress.getLoopbackAddress(), 0)
+            .insecure()
+            .build();
+
+        final var httpJson = InterfaceDescriptor.getOrCreate(TransportDescriptor.HTTP, false, EncodingDescriptor.JSON);
+        final var httpCbor = InterfaceDescriptor.getOrCreate(TransportDescriptor.HTTP, false, EncodingDescriptor.CBOR);
+        final var coapJson = InterfaceDescriptor.getOrCreate(TransportDescriptor.COAP, false, EncodingDescriptor.JSON);
+
+        final var cache = ArServiceCache.withDefaultEntryLifetimeLimit();
+        final var service0 = service("service-a", "/0", 1, httpJson);
+        final var service1 = service("service-a", "/1", 2, httpJson, httpCbor);
+        final var service2 = service("service-a", "/2", 3, coapJson);
+        final var service3 = service("service-b", "/3", 2, httpCbor);
+        cache.update(service0, service1, service2, service3);
+
+        assertEquals(List.of(service0, service1, service2), cache.getByQuery(system.consume()
+            .name("service-a")).collect(Collectors.toList()));
+        assertEquals(Set.of(service0, service1, service3), cache.getByQuery(system.consume()
+            .transports(TransportDescriptor.HTTP)).collect(Collectors.toSet()));
+        assertEquals(Set.of(service1, service3), cache.getByQuery(system.consume()
+            .transports(TransportDescriptor.HTTP)
+            .encodings(EncodingDescriptor.CBOR)).collect(Collectors.toSet()));
+        assertEquals(Set.of(service1, service2), cache.getByQuery(system.consume()
+            .name("service-a")
+            .versionMin(2)).collect(Collectors.toSet()));
+        assertEquals(List.of(service3), cache.getByQuery(system.consume()
+            .version(2)
+            .encodings(EncodingDescriptor.CBOR)
+            .name("service-b")).collect(Collectors.toList()));
+        assertEquals(0, cache.getByQuery(system.consume()
+            .versionMin(3)
+            .versionMax(2)).count());
+        assertEquals(0, cache.getByQuery(system.consume()
+            .name("service-c")).count());
+    }
+
+    private static ServiceDescription service(
+        final String name,
+        final String uri,
+        final Instant receivedAt,
+        final Instant expiresAt)
+    {
+        return new ServiceDescription.Builder()
+            .name(name)
+            .provider(new ProviderDescription("provider", new InetSocketAddress("localhost", 8443)))
+            .uri(uri)
+            .receivedAt(receivedAt)
+            .expiresAt(expiresAt)
+            .security(SecurityDescriptor.CERTIFICATE)
+            .interfaces(InterfaceDescriptor.HTTP_SECURE_JSON)
+            .build();
+    }
+
+    private static ServiceDescription service(
+        final String name,
+        final String uri,
+        final int version,
+        final InterfaceDescriptor... interfaces)
+    {
+        final var isSecure = interfaces[0].isSecure();
+        return new ServiceDescription.Builder()
+            .name(name)
+            .provider(new ProviderDescription("provider", new InetSocketAddress("localhost", 8443)))
+            .uri(uri)
+            .security(isSecure ? SecurityDescriptor.CERTIFICATE : SecurityDescriptor.NOT_SECURE)
+            .version(version)
+            .interfaces(interfaces)
+            .build();
+    }
+}
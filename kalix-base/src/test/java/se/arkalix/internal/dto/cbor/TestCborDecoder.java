@@ -0,0 +1,154 @@
+package se.arkalix.internal.dto.cbor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import se.arkalix.dto.DtoReadException;
+import se.arkalix.dto.binary.ByteArrayReader;
+import se.arkalix.dto.binary.ByteArrayWriter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+public class TestCborDecoder {
+    // Examples from RFC 8949, Appendix A.
+    @ParameterizedTest
+    @MethodSource("integersToRead")
+    void shouldReadIntegers(final long expected, final String hex) throws DtoReadException {
+        assertEquals(expected, decoderOf(hex).readLong());
+    }
+
+    static Stream<Arguments> integersToRead() {
+        return Stream.of(
+            arguments(0, "00"),
+            arguments(23, "17"),
+            arguments(24, "1818"),
+            arguments(1000, "1903e8"),
+            arguments(1000000, "1a000f4240"),
+            arguments(1000000000000L, "1b000000e8d4a51000"),
+            arguments(-1, "20"),
+            arguments(-1000, "3903e7")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("doublesToRead")
+    void shouldReadDoubles(final double expected, final String hex) throws DtoReadException {
+        assertEquals(expected, decoderOf(hex).readDouble());
+    }
+
+    static Stream<Arguments> doublesToRead() {
+        return Stream.of(
+            arguments(0.0, "f90000"),
+            arguments(1.5, "f93e00"),
+            arguments(65504.0, "f97bff"),
+            arguments(5.960464477539063e-8, "f90001"),
+            arguments(100000.0, "fa47c35000"),
+            arguments(1.1, "fb3ff199999999999a"),
+            arguments(-4.1, "fbc010666666666666"),
+            arguments(Double.NEGATIVE_INFINITY, "f9fc00"),
+            arguments(10.0, "0a")
+        );
+    }
+
+    @Test
+    void shouldReadBigIntegers() throws DtoReadException {
+        assertEquals(new BigInteger("18446744073709551615"), decoderOf("1bffffffffffffffff").readBigInteger());
+        assertEquals(new BigInteger("18446744073709551616"), decoderOf("c249010000000000000000").readBigInteger());
+        assertEquals(new BigInteger("-18446744073709551617"), decoderOf("c349010000000000000000").readBigInteger());
+    }
+
+    @Test
+    void shouldReadDecimalFractions() throws DtoReadException {
+        assertEquals(new BigDecimal("273.15"), decoderOf("c48221196ab3").readBigDecimal());
+    }
+
+    @Test
+    void shouldReadIndefiniteLengthStrings() throws DtoReadException {
+        assertEquals("streaming", decoderOf("7f657374726561646d696e67ff").readString());
+    }
+
+    @Test
+    void shouldReadTaggedInstants() throws DtoReadException {
+        assertEquals(Instant.parse("2013-03-21T20:04:00Z"),
+            decoderOf("c074323031332d30332d32315432303a30343a30305a").readInstant());
+        assertEquals(Instant.ofEpochSecond(1363896240), decoderOf("c11a514b67b0").readInstant());
+    }
+
+    @Test
+    void shouldSkipNestedValues() throws DtoReadException {
+        // [_ 1, [2, 3], [_ ], {_ "a": 1}], 7
+        final var decoder = decoderOf("9f018202039fffbf616101ffff07");
+        decoder.skipValue();
+        assertEquals(7, decoder.readInteger());
+        assertTrue(decoder.atEnd());
+    }
+
+    @Test
+    void shouldReadIndefiniteLengthMaps() throws DtoReadException {
+        // {_ "a": 1, "b": 2}
+        final var decoder = decoderOf("bf616101616202ff");
+        var sum = 0;
+        for (var n = decoder.readMapHeader(); decoder.hasMore(n); --n) {
+            decoder.readString();
+            sum += decoder.readInteger();
+        }
+        assertEquals(3, sum);
+        assertTrue(decoder.atEnd());
+    }
+
+    @Test
+    void shouldRejectLengthsExceedingAvailableData() {
+        assertThrows(DtoReadException.class, () -> decoderOf("9a7fffffff00").readArrayHeader());
+        assertThrows(DtoReadException.class, () -> decoderOf("6568656c6c").readString());
+    }
+
+    @Test
+    void shouldRejectUnexpectedTypes() {
+        assertThrows(DtoReadException.class, () -> decoderOf("6161").readLong());
+        assertThrows(DtoReadException.class, () -> decoderOf("01").readString());
+        assertThrows(DtoReadException.class, () -> decoderOf("190100").readByte());
+    }
+
+    @Test
+    void shouldReadWhatIsWritten() throws DtoReadException {
+        final var bytes = new byte[256];
+        final var writer = new ByteArrayWriter(bytes);
+        CborWrite.writeArrayHeader(8, writer);
+        CborWrite.write(-123456789L, writer);
+        CborWrite.write(0.1, writer);
+        CborWrite.write(0.5f, writer);
+        CborWrite.write(true, writer);
+        CborWrite.write("Hällo", writer);
+        CborWrite.write(new BigInteger("-123456789012345678901234567890"), writer);
+        CborWrite.write(new BigDecimal("-12.3450"), writer);
+        writer.write(CborWrite.encode("key"));
+
+        final var decoder = new CborDecoder(new ByteArrayReader(Arrays.copyOf(bytes, writer.writeOffset())));
+        assertEquals(8, decoder.readArrayHeader());
+        assertEquals(-123456789L, decoder.readLong());
+        assertEquals(0.1, decoder.readDouble());
+        assertEquals(0.5f, decoder.readFloat());
+        assertTrue(decoder.readBoolean());
+        assertEquals("Hällo", decoder.readString());
+        assertEquals(new BigInteger("-123456789012345678901234567890"), decoder.readBigInteger());
+        assertEquals(new BigDecimal("-12.3450"), decoder.readBigDecimal());
+        assertEquals("key", decoder.readString());
+        assertTrue(decoder.atEnd());
+    }
+
+    private static CborDecoder decoderOf(final String hex) {
+        final var bytes = new byte[hex.length() / 2];
+        for (var i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return new CborDecoder(new ByteArrayReader(bytes));
+    }
+}
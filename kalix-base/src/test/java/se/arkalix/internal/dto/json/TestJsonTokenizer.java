@@ -0,0 +1,144 @@
+package se.arkalix.internal.dto.json;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.dto.DtoReadException;
+import se.arkalix.dto.binary.ByteArrayReader;
+import se.arkalix.dto.json.value.JsonType;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestJsonTokenizer {
+    @Test
+    void shouldTokenizeNestedValues() throws DtoReadException {
+        try (final var buffer = tokenize("{\"a\":[1,\"xy\",true],\"b\":null}")) {
+            var token = buffer.next();
+            assertEquals(JsonType.OBJECT, buffer.type(token));
+            assertEquals(2, buffer.nChildren(token));
+
+            assertEquals("a", buffer.readString(buffer.next()));
+            token = buffer.next();
+            assertEquals(JsonType.ARRAY, buffer.type(token));
+            assertEquals(3, buffer.nChildren(token));
+            assertEquals(1, buffer.readInteger(buffer.next()));
+            assertEquals("xy", buffer.readString(buffer.next()));
+            assertEquals(JsonType.TRUE, buffer.type(buffer.next()));
+
+            assertEquals("b", buffer.readString(buffer.next()));
+            assertEquals(JsonType.NULL, buffer.type(buffer.next()));
+            assertTrue(buffer.atEnd());
+        }
+    }
+
+    @Test
+    void shouldReadEscapedStrings() throws DtoReadException {
+        try (final var buffer = tokenize("[\"a\\\"b\\\\c\\/d\\ne\", \"\\u00e5\\u20AC\\ud83d\\ude00!\", \"\\x\"]")) {
+            buffer.skipElement();
+            assertEquals("a\"b\\c/d\ne", buffer.readString(buffer.next()));
+            assertEquals("\u00e5\u20ac\ud83d\ude00!", buffer.readString(buffer.next()));
+            final var bad = buffer.next();
+            assertThrows(DtoReadException.class, () -> buffer.readString(bad));
+        }
+    }
+
+    @Test
+    void shouldSkipValues() throws DtoReadException {
+        try (final var buffer = tokenize("[{\"a\":[1,[2,3]],\"b\":{}},4]")) {
+            buffer.skipElement();
+            buffer.skipValue();
+            assertEquals(4, buffer.readInteger(buffer.next()));
+            assertTrue(buffer.atEnd());
+        }
+    }
+
+    @Test
+    void shouldMatchRawKeys() throws DtoReadException {
+        final var key = "serviceUri".getBytes(StandardCharsets.UTF_8);
+        try (final var buffer = tokenize("{\"serviceUri\":1,\"service\\u0055ri\":2,\"serviceURI\":3}")) {
+            buffer.skipElement();
+
+            var token = buffer.next();
+            assertFalse(buffer.isEscaped(token));
+            assertEquals(JsonTokenBuffer.hash(key), buffer.hashRaw(token));
+            assertTrue(buffer.equalsRaw(token, key));
+            buffer.skipValue();
+
+            token = buffer.next();
+            assertTrue(buffer.isEscaped(token));
+            assertFalse(buffer.equalsRaw(token, key));
+            buffer.skipValue();
+
+            token = buffer.next();
+            assertFalse(buffer.isEscaped(token));
+            assertFalse(buffer.equalsRaw(token, key));
+            assertEquals(JsonType.NUMBER, buffer.type(buffer.next()));
+        }
+    }
+
+    @Test
+    void shouldGrowBeyondInitialCapacity() throws DtoReadException {
+        final var builder = new StringBuilder("[");
+        for (var i = 0; i < 1000; ++i) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(i);
+        }
+        builder.append(']');
+        try (final var buffer = tokenize(builder.toString())) {
+            assertEquals(1000, buffer.nChildren(buffer.next()));
+            for (var i = 0; i < 1000; ++i) {
+                assertEquals(i, buffer.readInteger(buffer.next()));
+            }
+            assertTrue(buffer.atEnd());
+        }
+    }
+
+    @Test
+    void shouldReuseClosedBuffer() throws DtoReadException {
+        final JsonTokenBuffer buffer0;
+        try (final var buffer = tokenize("[1]")) {
+            buffer0 = buffer;
+        }
+        try (final var buffer = tokenize("[2]")) {
+            assertSame(buffer0, buffer);
+        }
+    }
+
+    @Test
+    void shouldNotShareBufferInUse() throws DtoReadException {
+        try (final var outer = tokenize("[1]"); final var inner = tokenize("[2]")) {
+            assertNotSame(outer, inner);
+            assertEquals(JsonType.ARRAY, outer.type(outer.next()));
+            assertEquals(JsonType.ARRAY, inner.type(inner.next()));
+            assertEquals(1, outer.readInteger(outer.next()));
+            assertEquals(2, inner.readInteger(inner.next()));
+        }
+    }
+
+    @Test
+    void shouldReuseClosedBufferAfterBufferIsLeaked() throws DtoReadException {
+        final var leaked = tokenize("[0]");
+        final JsonTokenBuffer buffer0;
+        try (final var buffer = tokenize("[1]")) {
+            assertNotSame(leaked, buffer);
+            buffer0 = buffer;
+        }
+        try (final var buffer = tokenize("[2]")) {
+            assertSame(buffer0, buffer);
+        }
+    }
+
+    @Test
+    void shouldReleaseBufferOnError() throws DtoReadException {
+        assertThrows(DtoReadException.class, () -> tokenize("[1,"));
+        try (final var outer = tokenize("[1]")) {
+            assertFalse(outer.atEnd());
+        }
+    }
+
+    private static JsonTokenBuffer tokenize(final String json) throws DtoReadException {
+        return JsonTokenizer.tokenize(new ByteArrayReader(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,57 @@
+package se.arkalix.internal.net.http;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHttpByteRange {
+    @ParameterizedTest
+    @CsvSource({
+        "'bytes=0-0', 0, 0",
+        "'bytes=0-99', 0, 99",
+        "'bytes=10-', 10, 99",
+        "'bytes=50-1000', 50, 99",
+        "'bytes=-10', 90, 99",
+        "'bytes=-1000', 0, 99",
+        "' Bytes=1-2 ', 1, 2",
+    })
+    void shouldParseSatisfiableRange(final String value, final long first, final long last) {
+        final var range = HttpByteRange.parse(value, 100);
+        assertNotNull(range);
+        assertTrue(range.isSatisfiable());
+        assertEquals(first, range.first());
+        assertEquals(last, range.last());
+        assertEquals(last - first + 1, range.length());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bytes=100-", "bytes=100-200", "bytes=-0"})
+    void shouldParseUnsatisfiableRange(final String value) {
+        final var range = HttpByteRange.parse(value, 100);
+        assertNotNull(range);
+        assertFalse(range.isSatisfiable());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "bytes=", "bytes=-", "bytes=5-4", "bytes=0-1,5-6", "items=0-1", "bytes=a-1",
+        "bytes=+1-2"})
+    void shouldIgnoreInvalidOrMultipleRanges(final String value) {
+        assertNull(HttpByteRange.parse(value, 100));
+    }
+
+    @Test
+    void shouldSatisfyIfRangeOnlyByMatchingStrongValidators() {
+        final var lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+        assertTrue(HttpByteRange.isIfRangeSatisfied(null, null, null));
+        assertTrue(HttpByteRange.isIfRangeSatisfied("\"a\"", "\"a\"", null));
+        assertFalse(HttpByteRange.isIfRangeSatisfied("\"a\"", "\"b\"", null));
+        assertFalse(HttpByteRange.isIfRangeSatisfied("W/\"a\"", "W/\"a\"", null));
+        assertFalse(HttpByteRange.isIfRangeSatisfied("\"a\"", "W/\"a\"", null));
+        assertTrue(HttpByteRange.isIfRangeSatisfied(lastModified, null, lastModified));
+        assertFalse(HttpByteRange.isIfRangeSatisfied("Thu, 22 Oct 2015 07:28:00 GMT", null, lastModified));
+        assertFalse(HttpByteRange.isIfRangeSatisfied(lastModified, null, null));
+    }
+}
@@ -0,0 +1,97 @@
+package se.arkalix.internal.net.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import org.junit.jupiter.api.Test;
+import se.arkalix.dto.DtoEncoding;
+import se.arkalix.dto.DtoWritable;
+import se.arkalix.dto.json.value.JsonNumber;
+import se.arkalix.dto.json.value.JsonObject;
+import se.arkalix.dto.json.value.JsonPair;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestNettyDtoPublisherInput {
+    @Test
+    void shouldEncodePublishedObjectsAsJsonArray() {
+        final var handler = new ChunkedWriteHandler();
+        final var channel = new EmbeddedChannel(handler);
+        final var publisher = new SubmissionPublisher<DtoWritable>(Runnable::run, 4);
+
+        final var future = channel.writeAndFlush(new NettyDtoPublisherInput(publisher, DtoEncoding.JSON, handler));
+        publisher.submit(new JsonObject(new JsonPair("a", new JsonNumber(1))));
+        publisher.submit(new JsonObject(new JsonPair("a", new JsonNumber(2))));
+        assertFalse(future.isDone());
+        publisher.close();
+        channel.runPendingTasks();
+
+        assertTrue(future.isSuccess());
+        assertEquals("[{\"a\":1},{\"a\":2}]", readOutbound(channel));
+    }
+
+    @Test
+    void shouldEncodeEmptyArrayIfNothingIsPublished() {
+        final var handler = new ChunkedWriteHandler();
+        final var channel = new EmbeddedChannel(handler);
+        final var publisher = new SubmissionPublisher<DtoWritable>(Runnable::run, 4);
+
+        final var future = channel.writeAndFlush(new NettyDtoPublisherInput(publisher, DtoEncoding.JSON, handler));
+        publisher.close();
+        channel.runPendingTasks();
+
+        assertTrue(future.isSuccess());
+        assertEquals("[]", readOutbound(channel));
+    }
+
+    @Test
+    void shouldOnlyRequestObjectsAsTheyAreWritten() {
+        final var handler = new ChunkedWriteHandler();
+        final var channel = new EmbeddedChannel(handler);
+        final var requested = new AtomicLong(0);
+        final var isCancelled = new AtomicBoolean(false);
+        final Flow.Publisher<DtoWritable> publisher = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(final long n) {
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+                isCancelled.set(true);
+            }
+        });
+
+        final var input = new NettyDtoPublisherInput(publisher, DtoEncoding.JSON, handler);
+        assertEquals(NettyDtoPublisherInput.PREFETCH, requested.get());
+
+        final var future = channel.writeAndFlush(input);
+        input.onNext(new JsonObject());
+        input.onNext(new JsonObject());
+        channel.runPendingTasks();
+        assertEquals(NettyDtoPublisherInput.PREFETCH + 2, requested.get());
+        assertEquals("[{},{}", readOutbound(channel));
+
+        input.onError(new IllegalStateException());
+        channel.runPendingTasks();
+        assertFalse(future.isSuccess());
+        assertTrue(future.cause() instanceof IllegalStateException);
+        assertTrue(isCancelled.get());
+    }
+
+    private static String readOutbound(final EmbeddedChannel channel) {
+        final var builder = new StringBuilder();
+        ByteBuf buffer;
+        while ((buffer = channel.readOutbound()) != null) {
+            builder.append(buffer.toString(StandardCharsets.UTF_8));
+            buffer.release();
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,258 @@
+package se.arkalix.internal.net.http;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.junit.jupiter.api.Test;
+import se.arkalix.util.Result;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestNettyHttpBodyReceiver {
+    @Test
+    void shouldRetainContentReceivedBeforeBodyIsRequested() {
+        final var channel = new EmbeddedChannel();
+        final var receiver = new NettyHttpBodyReceiver(channel, new DefaultHttpHeaders(), null, 1024);
+
+        final var content0 = content("Hello, ");
+        final var content1 = content("World!");
+        receiver.append(content0);
+        receiver.append(content1);
+        receiver.finish(LastHttpContent.EMPTY_LAST_CONTENT);
+        content0.release();
+        content1.release();
+
+        final var result = new AtomicReference<String>();
+        receiver.bodyAsString().onResult(result0 -> result.set(result0.value()));
+        assertEquals("Hello, World!", result.get());
+        assertEquals(0, content0.refCnt());
+        assertEquals(0, content1.refCnt());
+    }
+
+    @Test
+    void shouldSuspendReadingWhenTooManyBytesAreInFlight() {
+        final var channel = new EmbeddedChannel();
+        final var receiver = new NettyHttpBodyReceiver(channel, new DefaultHttpHeaders(), null, 8);
+
+        receiver.append(content("12345"));
+        assertTrue(channel.config().isAutoRead());
+        receiver.append(content("67890"));
+        assertFalse(channel.config().isAutoRead());
+
+        final var result = new AtomicReference<String>();
+        receiver.bodyAsString().onResult(result0 -> result.set(result0.value()));
+        assertTrue(channel.config().isAutoRead());
+
+        receiver.append(content("!"));
+        receiver.finish(LastHttpContent.EMPTY_LAST_CONTENT);
+        assertEquals("1234567890!", result.get());
+    }
+
+    @Test
+    void shouldReleaseContentAndResumeReadingWhenDiscarded() {
+        final var channel = new EmbeddedChannel();
+        final var receiver = new NettyHttpBodyReceiver(channel, new DefaultHttpHeaders(), null, 4);
+
+        final var content = content("12345");
+        receiver.append(content);
+        content.release();
+        assertFalse(channel.config().isAutoRead());
+
+        receiver.discard();
+        assertTrue(channel.config().isAutoRead());
+        assertEquals(0, content.refCnt());
+        assertThrows(IllegalStateException.class, receiver::bodyAsString);
+    }
+
+    @Test
+    void shouldAttachBodyRequestedOutsideOfEventLoopByEventLoop() throws Exception {
+        final var eventLoop = new DefaultEventLoop();
+        try {
+            final var channel = new LocalChannel();
+            eventLoop.register(channel).sync();
+            final var receiver = new NettyHttpBodyReceiver(channel, new DefaultHttpHeaders(), null, 1024);
+
+            eventLoop.submit(() -> append(receiver, "Hello, ")).sync();
+
+            final var result = new CompletableFuture<String>();
+            receiver.bodyAsString().onResult(result0 -> result.complete(result0.value()));
+
+            eventLoop.submit(() -> {
+                append(receiver, "World!");
+                receiver.finish(LastHttpContent.EMPTY_LAST_CONTENT);
+            }).sync();
+
+            assertEquals("Hello, World!", result.get(5, TimeUnit.SECONDS));
+        }
+        finally {
+            eventLoop.shutdownGracefully();
+        }
+    }
+
+    @Test
+    void shouldWriteBodyToPathWithoutLosingProgress() throws Exception {
+        final var path = Files.createTempFile("kalix-test-", ".txt");
+        try {
+            Files.writeString(path, "Hello, ");
+
+            final var channel = new EmbeddedChannel();
+            final var headers = new DefaultHttpHeaders().set("content-length", 13);
+            final var receiver = new NettyHttpBodyReceiver(channel, headers, null, 4);
+
+            final var progress = new AtomicInteger(0);
+            final var latch = new CountDownLatch(1);
+            final var result = new AtomicReference<Result<Path>>();
+            receiver.bodyTo(path, true)
+                .addProgressListener((current, total) -> progress.set(current))
+                .onResult(result0 -> {
+                    result.set(result0);
+                    latch.countDown();
+                });
+
+            for (final var string : new String[]{"Wor", "ld", "!"}) {
+                final var content = content(string);
+                receiver.append(content);
+                content.release();
+            }
+            receiver.finish(LastHttpContent.EMPTY_LAST_CONTENT);
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(result.get().isSuccess());
+            assertEquals("Hello, World!", Files.readString(path));
+            assertEquals(6, progress.get());
+            assertTrue(channel.config().isAutoRead());
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void shouldSuspendReadingWhileBodyToPathHasTooManyBytesInFlight() throws Exception {
+        final var path = Files.createTempFile("kalix-test-", ".txt");
+        try {
+            final var readCount = new AtomicInteger(0);
+            final var channel = new EmbeddedChannel(new ChannelOutboundHandlerAdapter() {
+                @Override
+                public void read(final ChannelHandlerContext ctx) {
+                    readCount.incrementAndGet();
+                    ctx.read();
+                }
+            });
+            final var readCount0 = readCount.get();
+            final var receiver = new NettyHttpBodyReceiver(channel, new DefaultHttpHeaders(), null, 4);
+
+            final var latch = new CountDownLatch(1);
+            final var result = new AtomicReference<Result<Path>>();
+            receiver.bodyTo(path, false).onResult(result0 -> {
+                result.set(result0);
+                latch.countDown();
+            });
+
+            // Reading must be suspended when the content is appended, as it
+            // cannot have been written at that point, and is resumed, which
+            // causes a read, after the content has been written.
+            append(receiver, "0123456789ABCDEF");
+            receiver.finish(LastHttpContent.EMPTY_LAST_CONTENT);
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(result.get().isSuccess());
+            assertEquals("0123456789ABCDEF", Files.readString(path));
+            assertTrue(channel.config().isAutoRead());
+            assertEquals(readCount0 + 1, readCount.get());
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void shouldCompleteBodyToPathOnEventLoop() throws Exception {
+        final var path = Files.createTempFile("kalix-test-", ".txt");
+        final var eventLoop = new DefaultEventLoop();
+        try {
+            final var channel = new LocalChannel();
+            eventLoop.register(channel).sync();
+            final var receiver = new NettyHttpBodyReceiver(channel, new DefaultHttpHeaders(), null, 4);
+
+            final var result = new CompletableFuture<Boolean>();
+            eventLoop.submit(() -> {
+                receiver.bodyTo(path, false)
+                    .onResult(result0 -> result.complete(result0.isSuccess() && eventLoop.inEventLoop()));
+                append(receiver, "0123456789ABCDEF");
+                receiver.finish(LastHttpContent.EMPTY_LAST_CONTENT);
+            }).sync();
+
+            assertTrue(result.get(5, TimeUnit.SECONDS));
+            assertEquals("0123456789ABCDEF", Files.readString(path));
+        }
+        finally {
+            eventLoop.shutdownGracefully();
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void shouldFailBodyToPathThatCannotBeOpened() throws Exception {
+        final var directory = Files.createTempDirectory("kalix-test-");
+        try {
+            final var channel = new EmbeddedChannel();
+            final var receiver = new NettyHttpBodyReceiver(channel, new DefaultHttpHeaders(), null, 4);
+
+            final var result = new AtomicReference<Result<Path>>();
+            receiver.bodyTo(directory, true).onResult(result::set);
+            append(receiver, "0123456789");
+            receiver.finish(LastHttpContent.EMPTY_LAST_CONTENT);
+
+            assertNotNull(result.get());
+            assertTrue(result.get().isFailure());
+            assertTrue(channel.config().isAutoRead());
+        }
+        finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void shouldNotSuspendReadingWhileBodyIsCollectedIntoMemory() {
+        final var channel = new EmbeddedChannel();
+        final var receiver = new NettyHttpBodyReceiver(channel, new DefaultHttpHeaders(), null, 4);
+
+        final var result = new AtomicReference<String>();
+        receiver.bodyAsString().onResult(result0 -> result.set(result0.value()));
+
+        append(receiver, "0123456789");
+        assertTrue(channel.config().isAutoRead());
+        append(receiver, "ABCDEF");
+        receiver.finish(LastHttpContent.EMPTY_LAST_CONTENT);
+
+        assertEquals("0123456789ABCDEF", result.get());
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    private static void append(final NettyHttpBodyReceiver receiver, final String string) {
+        final var content = content(string);
+        receiver.append(content);
+        content.release();
+    }
+
+    private static HttpContent content(final String string) {
+        return new DefaultHttpContent(Unpooled.copiedBuffer(string, StandardCharsets.UTF_8));
+    }
+}
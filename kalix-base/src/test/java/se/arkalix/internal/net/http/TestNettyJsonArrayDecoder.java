@@ -0,0 +1,70 @@
+package se.arkalix.internal.net.http;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import se.arkalix.dto.DtoReadException;
+import se.arkalix.dto.json.value.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestNettyJsonArrayDecoder {
+    private static final String INPUT = " [ {\"a\":\"]}\\\"[{\"} ,{\"b\":[1,{\"c\":null}]},\n{} ] ";
+    private static final List<JsonObject> EXPECTED = List.of(
+        new JsonObject(new JsonPair("a", new JsonString("]}\"[{"))),
+        new JsonObject(new JsonPair("b", new JsonArray(
+            new JsonNumber(1),
+            new JsonObject(new JsonPair("c", JsonNull.INSTANCE))))),
+        new JsonObject());
+
+    @Test
+    void shouldDecodeChunksSplitAtEveryOffset() throws Throwable {
+        final var bytes = INPUT.getBytes(StandardCharsets.UTF_8);
+        for (var split = 0; split <= bytes.length; ++split) {
+            final var values = new ArrayList<JsonObject>();
+            final var decoder = new NettyJsonArrayDecoder<>(ByteBufAllocator.DEFAULT, JsonObject.class, values::add);
+            decoder.decode(Unpooled.wrappedBuffer(bytes, 0, split));
+            decoder.decode(Unpooled.wrappedBuffer(bytes, split, bytes.length - split));
+            decoder.finish();
+
+            assertEquals(EXPECTED, values, "Split at " + split);
+            assertEquals(EXPECTED.size(), decoder.count());
+        }
+    }
+
+    @Test
+    void shouldDecodeOneByteAtATime() throws Throwable {
+        final var bytes = INPUT.getBytes(StandardCharsets.UTF_8);
+        final var values = new ArrayList<JsonObject>();
+        final var decoder = new NettyJsonArrayDecoder<>(ByteBufAllocator.DEFAULT, JsonObject.class, values::add);
+        for (var i = 0; i < bytes.length; ++i) {
+            decoder.decode(Unpooled.wrappedBuffer(bytes, i, 1));
+        }
+        decoder.finish();
+
+        assertEquals(EXPECTED, values);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{}", "[1]", "[{},]", "[{}{}]", "[{}] {}"})
+    void shouldRejectInvalidInput(final String input) {
+        final var decoder = new NettyJsonArrayDecoder<>(ByteBufAllocator.DEFAULT, JsonObject.class, ignored -> {});
+        assertThrows(DtoReadException.class, () -> {
+            decoder.decode(Unpooled.wrappedBuffer(input.getBytes(StandardCharsets.UTF_8)));
+            decoder.finish();
+        });
+    }
+
+    @Test
+    void shouldRejectIncompleteArray() throws Throwable {
+        final var decoder = new NettyJsonArrayDecoder<>(ByteBufAllocator.DEFAULT, JsonObject.class, ignored -> {});
+        decoder.decode(Unpooled.wrappedBuffer("[{},{\"a\":".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(DtoReadException.class, decoder::finish);
+    }
+}
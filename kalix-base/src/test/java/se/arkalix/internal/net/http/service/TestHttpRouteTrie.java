@@ -0,0 +1,103 @@
+package se.arkalix.internal.net.http.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.net.http.service.HttpPattern;
+import se.arkalix.net.http.service.HttpRoute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+public class TestHttpRouteTrie {
+    private static final List<HttpRoute> routes = Stream.of(
+        route(HttpMethod.GET, "/"),
+        route(HttpMethod.GET, "/hello/morning"),
+        route(HttpMethod.POST, "/#"),
+        route(HttpMethod.GET, "/>"),
+        route(HttpMethod.GET, "/hello"),
+        route(null, "/hello/>"),
+        route(HttpMethod.GET, "/hello/#name"),
+        route(HttpMethod.PUT, "/#/y/z"),
+        route(HttpMethod.GET, "/#/y/#"),
+        route(HttpMethod.GET, "/hello/goodbye"),
+        route(HttpMethod.DELETE, "/#x/y/>"),
+        route(HttpMethod.GET, "/#x/y"),
+        route(HttpMethod.GET, "//#id/thing"),
+        route(HttpMethod.GET, "///"),
+        route(HttpMethod.PATCH, null))
+        .sorted(HttpRoutables::compare)
+        .collect(Collectors.toList());
+
+    @ParameterizedTest
+    @MethodSource("methodPathOffsetTriplets")
+    void shouldFindSameRouteAsLinearSearch(final HttpMethod method, final String path, final int offset) {
+        final var trie = new HttpRouteTrie(routes);
+        final var candidates = trie.candidatesFor(method, path, offset);
+
+        var expected = -1;
+        for (var i = 0; i < routes.size(); ++i) {
+            if (matches(routes.get(i), method, path, offset)) {
+                expected = i;
+                break;
+            }
+        }
+
+        var actual = -1;
+        for (var i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (matches(routes.get(i), method, path, offset)) {
+                actual = i;
+                break;
+            }
+        }
+
+        assertEquals(expected, actual, "Route mismatch for " + method + " " + path);
+    }
+
+    static Stream<Arguments> methodPathOffsetTriplets() {
+        return Stream.of(
+            arguments(HttpMethod.GET, "", 0),
+            arguments(HttpMethod.GET, "/", 0),
+            arguments(HttpMethod.GET, "/hello", 0),
+            arguments(HttpMethod.GET, "/hello/", 0),
+            arguments(HttpMethod.GET, "/hello/morning", 0),
+            arguments(HttpMethod.GET, "/hello/evening", 0),
+            arguments(HttpMethod.GET, "/hello/evening/late", 0),
+            arguments(HttpMethod.POST, "/hello/evening/late", 0),
+            arguments(HttpMethod.POST, "/x", 0),
+            arguments(HttpMethod.PUT, "/x/y/z", 0),
+            arguments(HttpMethod.PUT, "/x/y/q", 0),
+            arguments(HttpMethod.GET, "/x/y/q", 0),
+            arguments(HttpMethod.GET, "/x/y", 0),
+            arguments(HttpMethod.DELETE, "/x/y/q/r", 0),
+            arguments(HttpMethod.DELETE, "/x/y", 0),
+            arguments(HttpMethod.GET, "///thing", 0),
+            arguments(HttpMethod.GET, "///", 0),
+            arguments(HttpMethod.PATCH, "/anything/at/all", 0),
+            arguments(HttpMethod.HEAD, "/hello", 0),
+            arguments(HttpMethod.GET, "/base", 5),
+            arguments(HttpMethod.GET, "/base/", 5),
+            arguments(HttpMethod.GET, "/base/hello/goodbye", 5),
+            arguments(HttpMethod.GET, "/base/x/y/z", 5)
+        );
+    }
+
+    private static boolean matches(final HttpRoute route, final HttpMethod method, final String path, final int offset) {
+        if (route.method().map(method0 -> !method0.equals(method)).orElse(false)) {
+            return false;
+        }
+        return route.pattern()
+            .map(pattern -> pattern.match(path, offset, new ArrayList<>(0)))
+            .orElse(true);
+    }
+
+    private static HttpRoute route(final HttpMethod method, final String pattern) {
+        return new HttpRoute(method, pattern != null ? HttpPattern.valueOf(pattern) : null, null);
+    }
+}
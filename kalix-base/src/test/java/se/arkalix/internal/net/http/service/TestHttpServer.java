@@ -0,0 +1,54 @@
+package se.arkalix.internal.net.http.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+public class TestHttpServer {
+    @ParameterizedTest
+    @MethodSource("basePathArguments")
+    void shouldFindServiceByLongestBasePath(
+        final Map<String, String> services,
+        final String path,
+        final Optional<String> expected)
+    {
+        assertEquals(expected, HttpServer.getByBasePath(services, path));
+    }
+
+    static Stream<Arguments> basePathArguments() {
+        final var services = Map.of(
+            "/a", "a",
+            "/a/b", "a/b",
+            "/c/d", "c/d");
+        final var servicesWithRoot = Map.of(
+            "/", "root",
+            "/a", "a");
+
+        return Stream.of(
+            arguments(services, "/a", Optional.of("a")),
+            arguments(services, "/a/x", Optional.of("a")),
+            arguments(services, "/a/b", Optional.of("a/b")),
+            arguments(services, "/a/b/x/y", Optional.of("a/b")),
+            arguments(services, "/a/bx", Optional.of("a")),
+            arguments(services, "/a/", Optional.of("a")),
+            arguments(services, "/a/b/", Optional.of("a/b")),
+            arguments(services, "/ab", Optional.empty()),
+            arguments(services, "/c", Optional.empty()),
+            arguments(services, "/c/", Optional.empty()),
+            arguments(services, "/x/a", Optional.empty()),
+            arguments(services, "/", Optional.empty()),
+            arguments(services, "", Optional.empty()),
+            arguments(servicesWithRoot, "/", Optional.of("root")),
+            arguments(servicesWithRoot, "/x", Optional.of("root")),
+            arguments(servicesWithRoot, "/ab", Optional.of("root")),
+            arguments(servicesWithRoot, "/a/x", Optional.of("a"))
+        );
+    }
+}
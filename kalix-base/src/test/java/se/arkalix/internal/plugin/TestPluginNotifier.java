@@ -0,0 +1,84 @@
+package se.arkalix.internal.plugin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.arkalix.ArSystem;
+import se.arkalix.description.ServiceDescription;
+import se.arkalix.internal.util.concurrent.FutureCompletion;
+import se.arkalix.plugin.Plugin;
+import se.arkalix.plugin.PluginAttached;
+import se.arkalix.query.ServiceQuery;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPluginNotifier {
+    private ArSystem system;
+
+    @BeforeEach
+    void setup() throws Exception {
+        system = new ArSystem.Builder()
+            .name("test-system")
+            .localAddressPort(InetAddress.getLoopbackAddress(), 0)
+            .insecure()
+            .build();
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        system.shutdown().await(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldLetAllQueriesCompleteEvenIfSomeFail() throws Exception {
+        final var fault0 = new Exception("0");
+        final var fault1 = new Exception("1");
+        final var pending = new FutureCompletion<Collection<ServiceDescription>>();
+
+        final var notifier = new PluginNotifier(system, List.of(
+            plugin(Future.failure(fault0)),
+            plugin(pending),
+            plugin(Future.failure(fault1))));
+        notifier.onAttach().await(Duration.ofSeconds(10));
+
+        final var result = new AtomicReference<Result<Set<ServiceDescription>>>();
+        notifier.onServiceQueried(system.consume()).onResult(result::set);
+
+        assertNull(result.get());
+        assertFalse(pending.isCancelled());
+
+        pending.complete(Result.success(List.of()));
+
+        assertNotNull(result.get());
+        assertSame(fault0, result.get().fault());
+        assertArrayEquals(new Throwable[]{fault1}, fault0.getSuppressed());
+    }
+
+    @Test
+    void shouldCombineServicesOfAllPlugins() throws Exception {
+        final var notifier = new PluginNotifier(system, List.of(
+            plugin(Future.success(List.of())),
+            plugin(Future.success(List.of()))));
+        notifier.onAttach().await(Duration.ofSeconds(10));
+
+        assertEquals(Set.of(), notifier.onServiceQueried(system.consume()).await(Duration.ofSeconds(10)));
+    }
+
+    private static Plugin plugin(final Future<Collection<ServiceDescription>> services) {
+        return (system, dependencies) -> Future.success(new PluginAttached() {
+            @Override
+            public Future<Collection<ServiceDescription>> onServiceQueried(final ServiceQuery query) {
+                return services;
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package se.arkalix.internal.security.access;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.descriptor.InterfaceDescriptor;
+import se.arkalix.security.access.AccessTokenException;
+
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAccessTokenCache {
+    @Test
+    void shouldReadTokenOnlyOnceWhileNotExpired() throws Exception {
+        final var keys = KeyPairGenerator.getInstance("EC").generateKeyPair();
+        final var readCount = new AtomicInteger(0);
+        final var cache = new AccessTokenCache(16, (token, receiverKey, senderKey) -> {
+            readCount.incrementAndGet();
+            return new AccessToken("consumer", InterfaceDescriptor.HTTP_SECURE_JSON, token, Long.MAX_VALUE);
+        });
+
+        final var token0 = cache.read("service", keys.getPrivate(), keys.getPublic());
+        final var token1 = cache.read("service", keys.getPrivate(), keys.getPublic());
+
+        assertSame(token0, token1);
+        assertEquals(1, readCount.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void shouldNotCacheExpiredTokens() throws Exception {
+        final var keys = KeyPairGenerator.getInstance("EC").generateKeyPair();
+        final var readCount = new AtomicInteger(0);
+        final var cache = new AccessTokenCache(16, (token, receiverKey, senderKey) -> {
+            readCount.incrementAndGet();
+            return new AccessToken("consumer", InterfaceDescriptor.HTTP_SECURE_JSON, token,
+                System.currentTimeMillis() - 1);
+        });
+
+        cache.read("service", keys.getPrivate(), keys.getPublic());
+        cache.read("service", keys.getPrivate(), keys.getPublic());
+
+        assertEquals(2, readCount.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldNotReturnTokensCachedWithOtherKeys() throws Exception {
+        final var keys0 = KeyPairGenerator.getInstance("EC").generateKeyPair();
+        final var keys1 = KeyPairGenerator.getInstance("EC").generateKeyPair();
+        final var readCount = new AtomicInteger(0);
+        final var cache = new AccessTokenCache(16, (token, receiverKey, senderKey) -> {
+            readCount.incrementAndGet();
+            return new AccessToken("consumer", InterfaceDescriptor.HTTP_SECURE_JSON, token, Long.MAX_VALUE);
+        });
+
+        cache.read("service", keys0.getPrivate(), keys0.getPublic());
+        cache.read("service", keys0.getPrivate(), keys1.getPublic());
+
+        assertEquals(2, readCount.get());
+    }
+
+    @Test
+    void shouldNotCacheTokensThatFailToBeRead() throws NoSuchAlgorithmException {
+        final var keys = KeyPairGenerator.getInstance("EC").generateKeyPair();
+        final var cache = new AccessTokenCache(16, (token, receiverKey, senderKey) -> {
+            throw new AccessTokenException("Bad token");
+        });
+
+        assertThrows(AccessTokenException.class, () -> cache.read("service", keys.getPrivate(), keys.getPublic()));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldNeverExceedMaxSize() throws Exception {
+        final var keys = KeyPairGenerator.getInstance("EC").generateKeyPair();
+        final var cache = new AccessTokenCache(8, (token, receiverKey, senderKey) ->
+            new AccessToken("consumer", InterfaceDescriptor.HTTP_SECURE_JSON, token, Long.MAX_VALUE));
+
+        for (var i = 0; i < 100; ++i) {
+            cache.read("service-" + i, keys.getPrivate(), keys.getPublic());
+            assertTrue(cache.size() <= 8);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package se.arkalix.internal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTimerWheel {
+    private static final Instant T0 = Instant.ofEpochSecond(1_000_000);
+
+    @Test
+    void shouldCollectOnlyExpiredItems() {
+        final var wheel = new TimerWheel<String>(Duration.ofSeconds(1), 8, T0);
+        wheel.add("a", T0.plusMillis(1500));
+        wheel.add("b", T0.plusMillis(2500));
+        wheel.add("c", T0.plusSeconds(20));
+
+        final var expired = new ArrayList<String>();
+        wheel.advance(T0.plusSeconds(2), expired::add);
+        assertEquals(List.of("a"), expired);
+
+        wheel.advance(T0.plusSeconds(3), expired::add);
+        assertEquals(List.of("a", "b"), expired);
+
+        wheel.advance(T0.plusSeconds(21), expired::add);
+        assertEquals(List.of("a", "b", "c"), expired);
+    }
+
+    @Test
+    void shouldNotCollectRemovedItems() {
+        final var wheel = new TimerWheel<String>(Duration.ofSeconds(1), 8, T0);
+        final var a = wheel.add("a", T0.plusMillis(1500));
+        wheel.add("b", T0.plusMillis(1600));
+
+        assertTrue(wheel.remove(a));
+        assertFalse(wheel.remove(a));
+
+        final var expired = new ArrayList<String>();
+        wheel.advance(T0.plusSeconds(2), expired::add);
+        assertEquals(List.of("b"), expired);
+    }
+
+    @Test
+    void shouldNotRemoveCollectedItems() {
+        final var wheel = new TimerWheel<String>(Duration.ofSeconds(1), 8, T0);
+        final var a = wheel.add("a", T0.plusMillis(1500));
+
+        final var expired = new ArrayList<String>();
+        wheel.advance(T0.plusSeconds(2), expired::add);
+        assertEquals(List.of("a"), expired);
+        assertFalse(wheel.remove(a));
+    }
+}
@@ -0,0 +1,107 @@
+package se.arkalix.internal.util.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import se.arkalix.internal.util.concurrent.ElasticScheduledExecutor.RejectionPolicy;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestElasticScheduledExecutor {
+    private ElasticScheduledExecutor executor;
+
+    @AfterEach
+    void teardown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldAddThreadsForConcurrentBlockingTasks() throws Exception {
+        executor = create(4, 16, RejectionPolicy.ABORT);
+        final var barrier = new CyclicBarrier(4);
+        final var futures = new Future<?>[4];
+        for (var i = 0; i < futures.length; ++i) {
+            futures[i] = executor.submit(() -> {
+                barrier.await(5, TimeUnit.SECONDS);
+                return null;
+            });
+        }
+        for (final var future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(4, executor.stats().largestThreadCount());
+        assertEquals(4, executor.stats().queueLatency().count());
+    }
+
+    @Test
+    void shouldQueueAndThenRejectTasksWhenPoolIsFull() throws Exception {
+        executor = create(1, 1, RejectionPolicy.ABORT);
+        final var latch = new CountDownLatch(1);
+        executor.execute(() -> await(latch));
+        executor.execute(() -> {});
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+
+        final var stats = executor.stats();
+        assertEquals(1, stats.threadCount());
+        assertEquals(1, stats.queueDepth());
+        assertEquals(1, stats.rejectedTaskCount());
+        latch.countDown();
+    }
+
+    @Test
+    void shouldRunRejectedTaskOnCallerThreadIfSoConfigured() {
+        executor = create(1, 1, RejectionPolicy.CALLER_RUNS);
+        final var latch = new CountDownLatch(1);
+        executor.execute(() -> await(latch));
+        executor.execute(() -> {});
+
+        final var thread = new AtomicReference<Thread>();
+        executor.execute(() -> thread.set(Thread.currentThread()));
+        assertSame(Thread.currentThread(), thread.get());
+        latch.countDown();
+    }
+
+    @Test
+    void shouldExecuteDelayedAndPeriodicTasks() throws Exception {
+        executor = create(1, 4, RejectionPolicy.ABORT);
+        final var startedAt = System.nanoTime();
+        final var delayed = executor.schedule(() -> System.nanoTime() - startedAt, 50, TimeUnit.MILLISECONDS);
+        assertTrue(delayed.get(5, TimeUnit.SECONDS) >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        final var count = new AtomicInteger(0);
+        final var latch = new CountDownLatch(3);
+        final var periodic = executor.scheduleAtFixedRate(() -> {
+            count.incrementAndGet();
+            latch.countDown();
+        }, 0, 20, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(periodic.cancel(false));
+        assertTrue(periodic.isCancelled());
+        final var countAtCancel = count.get();
+        Thread.sleep(100);
+        assertTrue(count.get() <= countAtCancel + 1);
+    }
+
+    private static ElasticScheduledExecutor create(
+        final int maxThreads,
+        final int queueCapacity,
+        final RejectionPolicy rejectionPolicy)
+    {
+        return new ElasticScheduledExecutor(0, maxThreads, 1000, queueCapacity, rejectionPolicy,
+            Executors.defaultThreadFactory(), Executors.defaultThreadFactory());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
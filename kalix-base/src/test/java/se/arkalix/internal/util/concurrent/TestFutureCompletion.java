@@ -0,0 +1,174 @@
+package se.arkalix.internal.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFutureCompletion {
+    @Test
+    void shouldDeliverResultCompletedBeforeConsumerIsSet() {
+        final var completion = new FutureCompletion<Integer>();
+        completion.complete(Result.success(1));
+        assertTrue(completion.isCompleted());
+
+        final var result = new AtomicReference<Result<Integer>>();
+        completion.onResult(result::set);
+        assertEquals(1, result.get().value());
+    }
+
+    @Test
+    void shouldDeliverResultCompletedAfterConsumerIsSet() {
+        final var completion = new FutureCompletion<Integer>();
+        final var result = new AtomicReference<Result<Integer>>();
+        completion.onResult(result::set);
+        assertNull(result.get());
+
+        completion.complete(Result.success(2));
+        assertEquals(2, result.get().value());
+    }
+
+    @Test
+    void shouldThrowIfCompletedTwice() {
+        final var completion = new FutureCompletion<Integer>();
+        completion.complete(Result.success(1));
+        assertThrows(IllegalStateException.class, () -> completion.complete(Result.success(2)));
+        assertFalse(completion.tryComplete(Result.success(3)));
+    }
+
+    @Test
+    void shouldIgnoreCompletionAfterCancellation() {
+        final var completion = new FutureCompletion<Integer>();
+        final var cancelCount = new AtomicInteger(0);
+        completion.setCancelCallback(ignored -> cancelCount.incrementAndGet());
+        final var result = new AtomicReference<Result<Integer>>();
+        completion.onResult(result::set);
+
+        completion.cancel();
+        completion.cancel();
+        completion.complete(Result.success(1));
+
+        assertTrue(completion.isCancelled());
+        assertEquals(1, cancelCount.get());
+        assertNull(result.get());
+    }
+
+    @Test
+    void shouldNotCallCancelCallbackSetAfterCancellation() {
+        final var completion = new FutureCompletion<Integer>();
+        completion.cancel();
+
+        final var cancelCount = new AtomicInteger(0);
+        completion.setCancelCallback(ignored -> cancelCount.incrementAndGet());
+        completion.cancel();
+        assertEquals(0, cancelCount.get());
+    }
+
+    @Test
+    void shouldCallCancelCallbackWhenCancelledAfterCompletionButBeforeConsumption() {
+        final var completion = new FutureCompletion<Integer>();
+        final var cancelCount = new AtomicInteger(0);
+        completion.setCancelCallback(ignored -> cancelCount.incrementAndGet());
+        completion.complete(Result.success(1));
+
+        completion.cancel();
+        assertEquals(1, cancelCount.get());
+
+        final var result = new AtomicReference<Result<Integer>>();
+        completion.onResult(result::set);
+        assertNull(result.get());
+    }
+
+    @Test
+    void shouldNotMapCompletedResultUntilConsumerIsSet() {
+        final var completion = new FutureCompletion<Integer>();
+        completion.complete(Result.success(20));
+
+        final var mapCount = new AtomicInteger(0);
+        final var future = completion
+            .map(value -> {
+                mapCount.incrementAndGet();
+                return value + 1;
+            })
+            .flatMap(value -> {
+                mapCount.incrementAndGet();
+                return Future.success(value * 2);
+            });
+        assertEquals(0, mapCount.get());
+
+        final var result = new AtomicReference<Result<Integer>>();
+        future.onResult(result::set);
+        assertEquals(2, mapCount.get());
+        assertEquals(42, result.get().value());
+    }
+
+    @Test
+    void shouldCancelCompletedSourceWhenMappedFutureIsCancelled() {
+        final var completion = new FutureCompletion<Integer>();
+        final var cancelCount = new AtomicInteger(0);
+        completion.setCancelCallback(ignored -> cancelCount.incrementAndGet());
+        completion.complete(Result.success(1));
+
+        final var mapCount = new AtomicInteger(0);
+        final var future = completion.mapResult(result -> {
+            mapCount.incrementAndGet();
+            return result;
+        });
+        future.cancel();
+
+        assertTrue(completion.isCancelled());
+        assertEquals(1, cancelCount.get());
+
+        final var result = new AtomicReference<Result<Integer>>();
+        future.onResult(result::set);
+        assertEquals(0, mapCount.get());
+        assertNull(result.get());
+    }
+
+    @Test
+    void shouldDeliverResultExactlyOnceWhenCompletedConcurrently() throws InterruptedException {
+        for (var i = 0; i < 1000; ++i) {
+            final var completion = new FutureCompletion<Integer>();
+            final var deliveryCount = new AtomicInteger(0);
+            final var latch = new CountDownLatch(1);
+            final var thread = new Thread(() -> {
+                completion.complete(Result.success(1));
+                latch.countDown();
+            });
+            thread.start();
+            completion.onResult(ignored -> deliveryCount.incrementAndGet());
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(1, deliveryCount.get());
+        }
+    }
+
+    @Test
+    void shouldAnnounceResultToAllRemainingSubscribers() {
+        final var completion = new FutureCompletion<Integer>();
+        final var announcement = completion.toAnnouncement();
+
+        final var results = new ArrayList<Result<Integer>>();
+        announcement.subscribe().onResult(results::add);
+        final var cancelled = announcement.subscribe();
+        cancelled.onResult(results::add);
+        announcement.subscribe().onResult(results::add);
+        cancelled.cancel();
+        assertTrue(announcement.resultIfAvailable().isEmpty());
+
+        completion.complete(Result.success(7));
+        assertEquals(2, results.size());
+        assertEquals(7, results.get(0).value());
+        assertEquals(7, results.get(1).value());
+
+        announcement.subscribe().onResult(results::add);
+        assertEquals(3, results.size());
+        assertEquals(7, announcement.resultIfAvailable().orElseThrow().value());
+    }
+}
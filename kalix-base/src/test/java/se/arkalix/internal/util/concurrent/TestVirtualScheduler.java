@@ -0,0 +1,172 @@
+package se.arkalix.internal.util.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.arkalix.util.Result;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestVirtualScheduler {
+    private ExecutorService dispatcher;
+    private VirtualScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        dispatcher = Executors.newCachedThreadPool(runnable -> new Thread(runnable, "test-dispatcher"));
+        scheduler = new VirtualScheduler(dispatcher);
+    }
+
+    @AfterEach
+    void teardown() throws InterruptedException {
+        scheduler.shutdown();
+        assertTrue(dispatcher.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldRunDelayedCommandOnDispatcher() throws Exception {
+        final var threadName = new AtomicReference<String>();
+        final var startedAt = System.nanoTime();
+        scheduler.schedule(Duration.ofMillis(50), () -> threadName.set(Thread.currentThread().getName()))
+            .await(Duration.ofSeconds(5));
+
+        assertTrue(System.nanoTime() - startedAt >= Duration.ofMillis(50).toNanos());
+        assertEquals("test-dispatcher", threadName.get());
+    }
+
+    @Test
+    void shouldRunDelayedCommandWithoutConsumer() throws Exception {
+        final var latch = new CountDownLatch(1);
+        scheduler.schedule(Duration.ofMillis(10), latch::countDown);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldProvideResultOfDelayedTask() throws Exception {
+        final var value = scheduler.schedule(Duration.ofMillis(10), () -> "value")
+            .await(Duration.ofSeconds(5));
+
+        assertEquals("value", value);
+    }
+
+    @Test
+    void shouldNotRunCancelledDelayedCommand() throws Exception {
+        final var isRun = new AtomicBoolean(false);
+        scheduler.schedule(Duration.ofMillis(50), () -> isRun.set(true)).cancel();
+
+        Thread.sleep(150);
+
+        assertFalse(isRun.get());
+    }
+
+    @Test
+    void shouldRepeatAtFixedRate() throws Exception {
+        final var runTimes = new ArrayList<Long>();
+        final var latch = new CountDownLatch(5);
+        final var startedAt = System.nanoTime();
+        final var future = scheduler.scheduleAtFixedRate(Duration.ofMillis(20), Duration.ofMillis(40), () -> {
+            synchronized (runTimes) {
+                runTimes.add(System.nanoTime() - startedAt);
+            }
+            latch.countDown();
+            sleep(10);
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        future.cancel();
+
+        synchronized (runTimes) {
+            for (var i = 0; i < 5; ++i) {
+                assertTrue(runTimes.get(i) >= Duration.ofMillis(20 + 40 * i).toNanos(), runTimes.toString());
+            }
+        }
+    }
+
+    @Test
+    void shouldRepeatWithFixedDelayBetweenRuns() throws Exception {
+        final var runTimes = new ArrayList<Long>();
+        final var latch = new CountDownLatch(3);
+        final var future = scheduler.scheduleWithFixedDelay(Duration.ofMillis(10), Duration.ofMillis(30), () -> {
+            synchronized (runTimes) {
+                runTimes.add(System.nanoTime());
+            }
+            latch.countDown();
+            sleep(20);
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        future.cancel();
+
+        synchronized (runTimes) {
+            for (var i = 1; i < 3; ++i) {
+                assertTrue(runTimes.get(i) - runTimes.get(i - 1) >= Duration.ofMillis(50).toNanos(),
+                    runTimes.toString());
+            }
+        }
+    }
+
+    @Test
+    void shouldStopRepeatingWhenCancelled() throws Exception {
+        final var runCount = new AtomicInteger(0);
+        final var future = scheduler.scheduleAtFixedRate(Duration.ZERO, Duration.ofMillis(10), runCount::incrementAndGet);
+
+        Thread.sleep(100);
+        future.cancel();
+        Thread.sleep(50);
+        final var count = runCount.get();
+        Thread.sleep(100);
+
+        assertTrue(count > 0);
+        assertEquals(count, runCount.get());
+    }
+
+    @Test
+    void shouldStopRepeatingAndFailWhenCommandThrows() throws Exception {
+        final var runCount = new AtomicInteger(0);
+        final var exception = new IllegalStateException();
+        final var result = new AtomicReference<Result<?>>();
+        final var latch = new CountDownLatch(1);
+        scheduler.scheduleWithFixedDelay(Duration.ZERO, Duration.ofMillis(10), () -> {
+            if (runCount.incrementAndGet() == 2) {
+                throw exception;
+            }
+        }).onResult(result0 -> {
+            result.set(result0);
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        assertSame(exception, result.get().fault());
+        assertEquals(2, runCount.get());
+    }
+
+    @Test
+    void shouldUseDaemonTimerThread() throws Exception {
+        final var isDaemon = new AtomicBoolean(false);
+        scheduler.executor().submit(() -> isDaemon.set(Thread.currentThread().isDaemon())).get(5, TimeUnit.SECONDS);
+
+        assertTrue(isDaemon.get());
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (final InterruptedException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package se.arkalix.net.http;
+
+import se.arkalix.ArService;
+import se.arkalix.ArSystem;
+import se.arkalix.security.identity.OwnedIdentity;
+import se.arkalix.security.identity.TrustStore;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Test fixture wrapping an {@link ArSystem} listening on a free port of the
+ * loopback interface, for tests exchanging messages with it over real
+ * sockets.
+ * <p>
+ * Secure systems use the identity and trust store found among the test
+ * resources of the {@code se.arkalix.net.http.client} package, which are
+ * protected by the password {@code 123456}.
+ */
+public class LoopbackSystem {
+    /**
+     * Maximum time any operation of a loopback system is awaited.
+     */
+    public static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private static final char[] PASSWORD = "123456".toCharArray();
+
+    private final ArSystem system;
+
+    private LoopbackSystem(final ArSystem system) {
+        this.system = system;
+    }
+
+    /**
+     * @return New insecure system named "test-system".
+     */
+    public static LoopbackSystem insecure() throws Exception {
+        return insecure("test-system");
+    }
+
+    /**
+     * @param name Name of system.
+     * @return New insecure system.
+     */
+    public static LoopbackSystem insecure(final String name) throws Exception {
+        return new LoopbackSystem(new ArSystem.Builder()
+            .name(name)
+            .localAddressPort(InetAddress.getLoopbackAddress(), freePort())
+            .insecure()
+            .build());
+    }
+
+    /**
+     * @return New secure system, named after its {@link #identity()}.
+     */
+    public static LoopbackSystem secure() throws Exception {
+        return new LoopbackSystem(new ArSystem.Builder()
+            .localAddressPort(InetAddress.getLoopbackAddress(), freePort())
+            .identity(identity())
+            .trustStore(trustStore())
+            .build());
+    }
+
+    /**
+     * Provides {@code service} and waits for it to become available.
+     *
+     * @param service Service to provide.
+     * @return This.
+     */
+    public LoopbackSystem provide(final ArService service) throws Exception {
+        system.provide(service).await(TIMEOUT);
+        return this;
+    }
+
+    /**
+     * @return Wrapped system.
+     */
+    public ArSystem system() {
+        return system;
+    }
+
+    /**
+     * @return Port the system is listening on.
+     */
+    public int localPort() {
+        return system.localPort();
+    }
+
+    /**
+     * @return Socket address useful for connecting to the system.
+     */
+    public InetSocketAddress remoteSocketAddress() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), system.localPort());
+    }
+
+    /**
+     * Opens plain socket connection to the system, which fails any read that
+     * blocks for longer than {@link #TIMEOUT}.
+     *
+     * @return New socket.
+     */
+    public Socket connect() throws IOException {
+        final var socket = new Socket(InetAddress.getLoopbackAddress(), system.localPort());
+        socket.setSoTimeout((int) TIMEOUT.toMillis());
+        return socket;
+    }
+
+    /**
+     * Writes raw {@code request} to a new connection to the system and reads
+     * from it until the system closes it.
+     *
+     * @param request ISO-8859-1 encodable request, or requests, to send.
+     * @return Everything received before the connection was closed.
+     */
+    public String exchange(final String request) throws IOException {
+        try (final var socket = connect()) {
+            write(socket, request);
+            return readAll(socket);
+        }
+    }
+
+    /**
+     * Shuts down the system and waits for it to complete.
+     */
+    public void shutdown() throws Exception {
+        system.shutdown().await(TIMEOUT);
+    }
+
+    /**
+     * @param socket  Socket to write to.
+     * @param message ISO-8859-1 encodable message to write.
+     */
+    public static void write(final Socket socket, final String message) throws IOException {
+        socket.getOutputStream().write(message.getBytes(StandardCharsets.ISO_8859_1));
+        socket.getOutputStream().flush();
+    }
+
+    /**
+     * @param socket Socket to read from until it is closed.
+     * @return Everything read, decoded as ISO-8859-1.
+     */
+    public static String readAll(final Socket socket) throws IOException {
+        return new String(socket.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @param response Raw HTTP/1.x response.
+     * @return Status line and headers of {@code response}, in lower case.
+     */
+    public static String head(final String response) {
+        final var end = response.indexOf("\r\n\r\n");
+        if (end == -1) {
+            throw new IllegalArgumentException("No end of head in: " + response);
+        }
+        return response.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param response Raw HTTP/1.x response.
+     * @return Everything after the head of {@code response}.
+     */
+    public static String body(final String response) {
+        final var end = response.indexOf("\r\n\r\n");
+        if (end == -1) {
+            throw new IllegalArgumentException("No end of head in: " + response);
+        }
+        return response.substring(end + 4);
+    }
+
+    /**
+     * @return Port of the loopback interface that no one is listening on.
+     */
+    public static int freePort() throws IOException {
+        try (final var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * @return Identity of the test system "system-1".
+     */
+    public static OwnedIdentity identity() throws Exception {
+        return new OwnedIdentity.Loader()
+            .keyStorePath(resource("keystore.p12"))
+            .keyStorePassword(PASSWORD)
+            .keyAlias("system")
+            .keyPassword(PASSWORD)
+            .load();
+    }
+
+    /**
+     * @return Trust store trusting {@link #identity()}.
+     */
+    public static TrustStore trustStore() throws Exception {
+        return TrustStore.read(resource("truststore.p12"), PASSWORD);
+    }
+
+    private static Path resource(final String name) throws Exception {
+        return Path.of(LoopbackSystem.class.getResource("/se/arkalix/net/http/client/" + name).toURI());
+    }
+}
@@ -0,0 +1,262 @@
+package se.arkalix.net.http.client;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+import se.arkalix.internal.net.http.client.NettyHttpClientConnection;
+import se.arkalix.internal.util.concurrent.FutureCompletion;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHttpClientConnectionPool {
+    private static final InetSocketAddress REMOTE = new InetSocketAddress("localhost", 9999);
+
+    @Test
+    void shouldReuseReleasedConnection() throws Exception {
+        final var connections = new ArrayList<NettyHttpClientConnection>();
+        final var pool = new HttpClientConnectionPool(connector(connections), 1, Duration.ofSeconds(10));
+
+        final var connection0 = (NettyHttpClientConnection) pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+        connection0.send(request());
+        connection0.onResponseResult(Result.failure(new Exception()));
+        connection0.onResponseBodyFinished();
+
+        final var connection1 = pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+
+        assertSame(connection0, connection1);
+        assertEquals(1, connections.size());
+    }
+
+    @Test
+    void shouldServeWaitersInOrderWhenSaturated() throws Exception {
+        final var connections = new ArrayList<NettyHttpClientConnection>();
+        final var pool = new HttpClientConnectionPool(connector(connections), 1, Duration.ofSeconds(10));
+
+        final var connection0 = (NettyHttpClientConnection) pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+        final var waiter0 = capture(pool.acquire(REMOTE, null));
+        final var waiter1 = capture(pool.acquire(REMOTE, null));
+
+        assertNull(waiter0.get());
+        assertNull(waiter1.get());
+
+        connection0.send(request());
+        connection0.onResponseResult(Result.failure(new Exception()));
+        connection0.onResponseBodyFinished();
+
+        assertNotNull(waiter0.get());
+        assertSame(connection0, waiter0.get().value());
+        assertNull(waiter1.get());
+
+        connection0.close();
+
+        assertNotNull(waiter1.get());
+        assertTrue(waiter1.get().isSuccess());
+        assertEquals(2, connections.size());
+        assertSame(connections.get(1), waiter1.get().value());
+    }
+
+    @Test
+    void shouldFailWaiterWhenConnectTimeoutExpires() throws Exception {
+        final var connections = new ArrayList<NettyHttpClientConnection>();
+        final var pool = new HttpClientConnectionPool(connector(connections), 1, Duration.ofSeconds(10));
+
+        pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+
+        assertThrows(HttpClientConnectionException.class, () ->
+            pool.acquire(REMOTE, Duration.ofMillis(50)).await(Duration.ofSeconds(1)));
+        assertEquals(1, connections.size());
+    }
+
+    @Test
+    void shouldEvictIdleConnections() throws Exception {
+        final var connections = new ArrayList<NettyHttpClientConnection>();
+        final var pool = new HttpClientConnectionPool(connector(connections), 2, Duration.ofMillis(50));
+
+        final var connection0 = (NettyHttpClientConnection) pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+        final var connection1 = (NettyHttpClientConnection) pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+        for (final var connection : List.of(connection0, connection1)) {
+            connection.send(request());
+            connection.onResponseResult(Result.failure(new Exception()));
+            connection.onResponseBodyFinished();
+        }
+
+        assertTrue(connection0.isLive());
+        assertTrue(connection1.isLive());
+
+        awaitUntil(() -> !connection0.isLive() && !connection1.isLive());
+
+        final var connection2 = pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+        assertNotSame(connection0, connection2);
+        assertNotSame(connection1, connection2);
+        assertEquals(3, connections.size());
+    }
+
+    @Test
+    void shouldCloseLeasedConnectionNotUsedWithinIdleTimeout() throws Exception {
+        final var connections = new ArrayList<NettyHttpClientConnection>();
+        final var pool = new HttpClientConnectionPool(connector(connections), 1, Duration.ofMillis(50));
+
+        final var unused = pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+        final var waiter = capture(pool.acquire(REMOTE, null));
+
+        awaitUntil(() -> waiter.get() != null);
+
+        assertFalse(unused.isLive());
+        assertTrue(waiter.get().isSuccess());
+        assertNotSame(unused, waiter.get().value());
+    }
+
+    @Test
+    void shouldNotCloseLeasedConnectionUsedWithinIdleTimeout() throws Exception {
+        final var connections = new ArrayList<NettyHttpClientConnection>();
+        final var pool = new HttpClientConnectionPool(connector(connections), 2, Duration.ofMillis(50));
+
+        final var connection = pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+        connection.send(request());
+
+        // The unused connection is leased after the used one, which means
+        // that the used one must have been swept by the time it is closed.
+        final var unused = pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+        awaitUntil(() -> !unused.isLive());
+
+        assertTrue(connection.isLive());
+    }
+
+    @Test
+    void shouldForgetHostsWithoutConnections() throws Exception {
+        final var connections = new ArrayList<NettyHttpClientConnection>();
+        final var pool = new HttpClientConnectionPool(connector(connections), 1, Duration.ofMillis(50));
+
+        final var connection = (NettyHttpClientConnection) pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+        connection.send(request());
+        connection.onResponseResult(Result.failure(new Exception()));
+        connection.onResponseBodyFinished();
+        assertEquals(1, pool.hostCount());
+
+        awaitUntil(() -> pool.hostCount() == 0);
+        assertFalse(connection.isLive());
+
+        final var connection1 = pool.acquire(REMOTE, null).await(Duration.ofSeconds(1));
+        assertNotSame(connection, connection1);
+        assertEquals(1, pool.hostCount());
+    }
+
+    @Test
+    void shouldForgetHostsAfterFailingToConnect() throws Exception {
+        final var pool = new HttpClientConnectionPool((remoteSocketAddress, connectTimeout) ->
+            Future.failure(new Exception()), 1, Duration.ofSeconds(10));
+
+        assertThrows(Exception.class, () -> pool.acquire(REMOTE, null).await(Duration.ofSeconds(1)));
+        assertEquals(0, pool.hostCount());
+    }
+
+    @Test
+    void shouldEstablishOneConnectionAtATimeUntilMultiplexingIsKnown() throws Exception {
+        final var connects = new ArrayList<FutureCompletion<HttpClientConnection>>();
+        final var pool = new HttpClientConnectionPool((remoteSocketAddress, connectTimeout) -> {
+            final var completion = new FutureCompletion<HttpClientConnection>();
+            connects.add(completion);
+            return completion;
+        }, 8, Duration.ofSeconds(10));
+
+        final var acquisitions = new ArrayList<AtomicReference<Result<HttpClientConnection>>>();
+        for (var i = 0; i < 4; ++i) {
+            acquisitions.add(capture(pool.acquire(REMOTE, null)));
+        }
+        assertEquals(1, connects.size());
+
+        final var connection = new NettyHttpClientConnection(channel(REMOTE), null, true);
+        connects.get(0).complete(Result.success(connection));
+
+        assertEquals(1, connects.size());
+        for (final var acquisition : acquisitions) {
+            assertNotNull(acquisition.get());
+            assertSame(connection, acquisition.get().value());
+        }
+    }
+
+    @Test
+    void shouldEstablishConnectionsConcurrentlyWhenNotMultiplexing() throws Exception {
+        final var connects = new ArrayList<FutureCompletion<HttpClientConnection>>();
+        final var pool = new HttpClientConnectionPool((remoteSocketAddress, connectTimeout) -> {
+            final var completion = new FutureCompletion<HttpClientConnection>();
+            connects.add(completion);
+            return completion;
+        }, 8, Duration.ofSeconds(10));
+
+        final var acquisition0 = capture(pool.acquire(REMOTE, null));
+        final var acquisition1 = capture(pool.acquire(REMOTE, null));
+        final var acquisition2 = capture(pool.acquire(REMOTE, null));
+        assertEquals(1, connects.size());
+
+        connects.get(0).complete(Result.success(new NettyHttpClientConnection(channel(REMOTE), null)));
+        assertNotNull(acquisition0.get());
+        assertEquals(3, connects.size());
+
+        final var acquisition3 = capture(pool.acquire(REMOTE, null));
+        assertEquals(4, connects.size());
+
+        for (var i = 1; i < 4; ++i) {
+            connects.get(i).complete(Result.success(new NettyHttpClientConnection(channel(REMOTE), null)));
+        }
+        for (final var acquisition : List.of(acquisition0, acquisition1, acquisition2, acquisition3)) {
+            assertNotNull(acquisition.get());
+            assertTrue(acquisition.get().isSuccess());
+        }
+        assertNotSame(acquisition1.get().value(), acquisition2.get().value());
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                fail("Condition not satisfied within 10 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static HttpClientRequest request() {
+        return new HttpClientRequest()
+            .method(HttpMethod.GET)
+            .uri("/");
+    }
+
+    private static <V> AtomicReference<Result<V>> capture(final Future<V> future) {
+        final var result = new AtomicReference<Result<V>>();
+        future.onResult(result::set);
+        return result;
+    }
+
+    private static BiFunction<InetSocketAddress, Duration, Future<HttpClientConnection>> connector(
+        final List<NettyHttpClientConnection> connections)
+    {
+        return (remoteSocketAddress, connectTimeout) -> {
+            final var connection = new NettyHttpClientConnection(channel(remoteSocketAddress), null);
+            synchronized (connections) {
+                connections.add(connection);
+            }
+            return Future.success(connection);
+        };
+    }
+
+    private static EmbeddedChannel channel(final InetSocketAddress remoteSocketAddress) {
+        return new EmbeddedChannel() {
+            @Override
+            public SocketAddress remoteAddress() {
+                return remoteSocketAddress;
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package se.arkalix.net.http.client;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.arkalix.internal.net.http.client.NettyHttpClientConnection;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.LoopbackSystem;
+import se.arkalix.net.http.service.HttpService;
+import se.arkalix.security.access.AccessPolicy;
+import se.arkalix.util.concurrent.Future;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static se.arkalix.descriptor.EncodingDescriptor.JSON;
+
+public class TestHttpClientHttp2 {
+    private static LoopbackSystem system;
+    private static LoopbackSystem secureSystem;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        system = LoopbackSystem.insecure().provide(new HttpService()
+            .name("echo")
+            .basePath("/echo")
+            .accessPolicy(AccessPolicy.unrestricted())
+            .encodings(JSON)
+            .get("/#text", (request, response) -> {
+                response
+                    .status(HttpStatus.OK)
+                    .body(request.pathParameter(0));
+                return Future.done();
+            }));
+
+        secureSystem = LoopbackSystem.secure().provide(new HttpService()
+            .name("echo")
+            .basePath("/echo")
+            .accessPolicy(AccessPolicy.cloud())
+            .encodings(JSON)
+            .get("/#text", (request, response) -> {
+                response
+                    .status(HttpStatus.OK)
+                    .body(request.pathParameter(0));
+                return Future.done();
+            }));
+    }
+
+    @AfterAll
+    static void teardown() throws Exception {
+        system.shutdown();
+        secureSystem.shutdown();
+    }
+
+    @Test
+    void shouldMultiplexRequestsOverSingleConnection() throws Exception {
+        final var client = new HttpClient.Builder()
+            .insecure()
+            .http2PriorKnowledge()
+            .build();
+
+        final var connection = client.connect(system.remoteSocketAddress()).await(Duration.ofSeconds(10));
+        assertTrue(((NettyHttpClientConnection) connection).isMultiplexed());
+
+        final var responses = new ArrayList<Future<String>>();
+        for (var i = 0; i < 32; ++i) {
+            responses.add(connection.send(new HttpClientRequest()
+                .method(HttpMethod.GET)
+                .uri("/echo/text-" + i))
+                .flatMap(HttpClientResponse::bodyAsString));
+        }
+        for (var i = 0; i < responses.size(); ++i) {
+            assertEquals("text-" + i, responses.get(i).await(Duration.ofSeconds(10)));
+        }
+        connection.close().await(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldShareMultiplexedPooledConnections() throws Exception {
+        final var client = new HttpClient.Builder()
+            .insecure()
+            .http2PriorKnowledge()
+            .build();
+
+        final var connection0 = client.acquire(system.remoteSocketAddress()).await(Duration.ofSeconds(10));
+        final var connection1 = client.acquire(system.remoteSocketAddress()).await(Duration.ofSeconds(10));
+        assertSame(connection0, connection1);
+
+        final var body = client.send(system.remoteSocketAddress(), new HttpClientRequest()
+            .method(HttpMethod.GET)
+            .uri("/echo/pooled"))
+            .flatMap(HttpClientResponse::bodyAsString)
+            .await(Duration.ofSeconds(10));
+        assertEquals("pooled", body);
+    }
+
+    @Test
+    void shouldStillServeHttp11Clients() throws Exception {
+        final var connection = HttpClient.http().connect(system.remoteSocketAddress()).await(Duration.ofSeconds(10));
+        assertFalse(((NettyHttpClientConnection) connection).isMultiplexed());
+
+        final var body = connection.send(new HttpClientRequest()
+            .method(HttpMethod.GET)
+            .uri("/echo/legacy"))
+            .flatMap(HttpClientResponse::bodyAsString)
+            .await(Duration.ofSeconds(10));
+        assertEquals("legacy", body);
+        connection.close().await(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldNegotiateHttp2ViaAlpn() throws Exception {
+        final var client = new HttpClient.Builder()
+            .identity(LoopbackSystem.identity())
+            .trustStore(LoopbackSystem.trustStore())
+            .build();
+
+        final var remoteSocketAddress = secureSystem.remoteSocketAddress();
+        final var acquisition0 = client.acquire(remoteSocketAddress);
+        final var acquisition1 = client.acquire(remoteSocketAddress);
+        final var connection0 = acquisition0.await(Duration.ofSeconds(10));
+        final var connection1 = acquisition1.await(Duration.ofSeconds(10));
+        assertTrue(((NettyHttpClientConnection) connection0).isMultiplexed());
+        assertSame(connection0, connection1);
+
+        final var responses = new ArrayList<Future<String>>();
+        for (var i = 0; i < 8; ++i) {
+            responses.add(connection0.send(new HttpClientRequest()
+                .method(HttpMethod.GET)
+                .uri("/echo/secure-" + i))
+                .flatMap(HttpClientResponse::bodyAsString));
+        }
+        for (var i = 0; i < responses.size(); ++i) {
+            assertEquals("secure-" + i, responses.get(i).await(Duration.ofSeconds(10)));
+        }
+    }
+}
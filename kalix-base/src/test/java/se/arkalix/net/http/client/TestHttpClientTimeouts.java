@@ -0,0 +1,99 @@
+package se.arkalix.net.http.client;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.LoopbackSystem;
+import se.arkalix.net.http.service.HttpService;
+import se.arkalix.security.access.AccessPolicy;
+import se.arkalix.util.concurrent.Future;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static se.arkalix.descriptor.EncodingDescriptor.JSON;
+
+public class TestHttpClientTimeouts {
+    private static LoopbackSystem system;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        system = LoopbackSystem.insecure().provide(new HttpService()
+            .name("timing")
+            .basePath("/timing")
+            .accessPolicy(AccessPolicy.unrestricted())
+            .encodings(JSON)
+            .get("/slow", (request, response) -> {
+                response.status(HttpStatus.NO_CONTENT);
+                return Future.done().delay(Duration.ofSeconds(2));
+            })
+            .get("/deadline", (request, response) -> {
+                response
+                    .status(HttpStatus.OK)
+                    .body(request.deadline()
+                        .map(deadline -> deadline.isAfter(Instant.now()) ? "future" : "past")
+                        .orElse("none"));
+                return Future.done();
+            }));
+    }
+
+    @AfterAll
+    static void teardown() throws Exception {
+        system.shutdown();
+    }
+
+    @Test
+    void shouldFailRequestWhenResponseTimeoutExpires() {
+        final var client = HttpClient.http();
+        final var startedAt = System.nanoTime();
+        final var exception = assertThrows(HttpClientResponseException.class, () -> client
+            .send(system.remoteSocketAddress(), new HttpClientRequest()
+                .method(HttpMethod.GET)
+                .uri("/timing/slow")
+                .responseTimeout(Duration.ofMillis(100)))
+            .await(Duration.ofSeconds(10)));
+        assertTrue(Duration.ofNanos(System.nanoTime() - startedAt).compareTo(Duration.ofSeconds(2)) < 0,
+            exception.getMessage());
+    }
+
+    @Test
+    void shouldFailRequestWithExpiredDeadlineWithoutSendingIt() {
+        assertThrows(HttpClientException.class, () -> HttpClient.http()
+            .send(system.remoteSocketAddress(), new HttpClientRequest()
+                .method(HttpMethod.GET)
+                .uri("/timing/deadline")
+                .deadline(Instant.now().minusSeconds(1)))
+            .await(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void shouldPropagateDeadlineToService() throws Exception {
+        final var withDeadline = HttpClient.http()
+            .send(system.remoteSocketAddress(), new HttpClientRequest()
+                .method(HttpMethod.GET)
+                .uri("/timing/deadline")
+                .deadline(Instant.now().plusSeconds(10)))
+            .flatMap(HttpClientResponse::bodyAsString)
+            .await(Duration.ofSeconds(10));
+        assertEquals("future", withDeadline);
+
+        final var withoutDeadline = HttpClient.http()
+            .send(system.remoteSocketAddress(), new HttpClientRequest()
+                .method(HttpMethod.GET)
+                .uri("/timing/deadline"))
+            .flatMap(HttpClientResponse::bodyAsString)
+            .await(Duration.ofSeconds(10));
+        assertEquals("none", withoutDeadline);
+    }
+
+    @Test
+    void shouldRejectNonPositiveTimeouts() {
+        final var request = new HttpClientRequest();
+        assertThrows(IllegalArgumentException.class, () -> request.connectTimeout(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> request.writeTimeout(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> request.responseTimeout(Duration.ZERO));
+    }
+}
@@ -0,0 +1,163 @@
+package se.arkalix.net.http.consumer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.arkalix.description.ProviderDescription;
+import se.arkalix.description.ServiceDescription;
+import se.arkalix.descriptor.InterfaceDescriptor;
+import se.arkalix.descriptor.SecurityDescriptor;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.LoopbackSystem;
+import se.arkalix.net.http.client.HttpClient;
+import se.arkalix.net.http.service.HttpService;
+import se.arkalix.security.access.AccessPolicy;
+import se.arkalix.util.concurrent.Future;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static se.arkalix.descriptor.EncodingDescriptor.JSON;
+import static se.arkalix.descriptor.TransportDescriptor.HTTP;
+
+public class TestHttpBalancingConsumer {
+    private static LoopbackSystem system0;
+    private static LoopbackSystem system1;
+    private static LoopbackSystem failingSystem;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        system0 = newEchoSystem("system-0");
+        system1 = newEchoSystem("system-1");
+        failingSystem = newSystem("failing-system", HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @AfterAll
+    static void teardown() throws Exception {
+        system0.shutdown();
+        system1.shutdown();
+        failingSystem.shutdown();
+    }
+
+    @Test
+    void shouldSpreadRequestsOverAllProviders() throws Exception {
+        final var consumer = new HttpBalancingConsumer.Builder()
+            .consumers(List.of(consumerOf(system0.localPort()), consumerOf(system1.localPort())))
+            .strategy(HttpBalancingStrategy.ROUND_ROBIN)
+            .build();
+
+        final var names = new HashSet<String>();
+        for (var i = 0; i < 4; ++i) {
+            names.add(get(consumer));
+        }
+        assertEquals(2, names.size());
+
+        for (final var stats : consumer.stats()) {
+            assertEquals(2, stats.requestCount());
+            assertEquals(0, stats.failureCount());
+            assertEquals(0, stats.outstandingRequests());
+            assertFalse(stats.isCircuitOpen());
+        }
+    }
+
+    @Test
+    void shouldRetryIdempotentRequestsWithOtherProviders() throws Exception {
+        final var consumer = new HttpBalancingConsumer.Builder()
+            .consumers(List.of(consumerOf(LoopbackSystem.freePort()), consumerOf(system0.localPort())))
+            .strategy(HttpBalancingStrategy.LEAST_OUTSTANDING_REQUESTS)
+            .failureThreshold(1)
+            .circuitOpenDuration(Duration.ofMinutes(1))
+            .build();
+
+        for (var i = 0; i < 4; ++i) {
+            assertEquals("system-0", get(consumer));
+        }
+
+        final var stats = consumer.stats();
+        assertEquals(1, stats.get(0).requestCount());
+        assertEquals(1, stats.get(0).failureCount());
+        assertTrue(stats.get(0).isCircuitOpen());
+        assertEquals(4, stats.get(1).requestCount());
+    }
+
+    @Test
+    void shouldFailWhenAllCircuitsAreOpen() throws Exception {
+        final var consumer = new HttpBalancingConsumer.Builder()
+            .consumers(List.of(consumerOf(LoopbackSystem.freePort())))
+            .strategy(HttpBalancingStrategy.LATENCY_EWMA)
+            .failureThreshold(1)
+            .circuitOpenDuration(Duration.ofMinutes(1))
+            .build();
+
+        final var request = new HttpConsumerRequest()
+            .method(HttpMethod.GET)
+            .uri("/echo/name");
+
+        assertThrows(Throwable.class, () -> consumer.send(request).await(Duration.ofSeconds(10)));
+        assertThrows(HttpConsumerConnectionException.class, () -> consumer.send(request).await(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void shouldNotPreferProvidersFailingFast() throws Exception {
+        final var consumer = new HttpBalancingConsumer.Builder()
+            .consumers(List.of(consumerOf(failingSystem.localPort()), consumerOf(system0.localPort())))
+            .strategy(HttpBalancingStrategy.LATENCY_EWMA)
+            .failureThreshold(100)
+            .build();
+
+        for (var i = 0; i < 10; ++i) {
+            consumer.send(new HttpConsumerRequest()
+                .method(HttpMethod.GET)
+                .uri("/echo/name"))
+                .await(Duration.ofSeconds(10));
+        }
+
+        final var stats = consumer.stats();
+        assertEquals(1, stats.get(0).requestCount());
+        assertEquals(1, stats.get(0).failureCount());
+        assertFalse(stats.get(0).isCircuitOpen());
+        assertEquals(9, stats.get(1).requestCount());
+    }
+
+    private static String get(final HttpBalancingConsumer consumer) throws Exception {
+        return consumer.send(new HttpConsumerRequest()
+            .method(HttpMethod.GET)
+            .uri("/echo/name"))
+            .flatMap(HttpConsumerResponse::bodyAsString)
+            .await(Duration.ofSeconds(10));
+    }
+
+    private static HttpConsumer consumerOf(final int port) {
+        final var socketAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        return new HttpConsumer(HttpClient.http(), new ServiceDescription.Builder()
+            .name("echo")
+            .provider(new ProviderDescription("provider-" + port, socketAddress))
+            .uri("/echo")
+            .security(SecurityDescriptor.NOT_SECURE)
+            .interfaces(InterfaceDescriptor.getOrCreate(HTTP, false, JSON))
+            .build(), List.of(JSON));
+    }
+
+    private static LoopbackSystem newEchoSystem(final String name) throws Exception {
+        return newSystem(name, HttpStatus.OK);
+    }
+
+    private static LoopbackSystem newSystem(final String name, final HttpStatus status) throws Exception {
+        return LoopbackSystem.insecure(name).provide(new HttpService()
+            .name("echo")
+            .basePath("/echo")
+            .accessPolicy(AccessPolicy.unrestricted())
+            .encodings(JSON)
+            .get("/name", (request, response) -> {
+                response
+                    .status(status)
+                    .body(name);
+                return Future.done();
+            }));
+    }
+}
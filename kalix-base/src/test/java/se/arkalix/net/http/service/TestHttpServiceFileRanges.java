@@ -0,0 +1,181 @@
+package se.arkalix.net.http.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.arkalix.internal.net.http.client.NettyHttpClientConnection;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.LoopbackSystem;
+import se.arkalix.net.http.client.HttpClient;
+import se.arkalix.net.http.client.HttpClientRequest;
+import se.arkalix.net.http.client.HttpClientResponse;
+import se.arkalix.security.access.AccessPolicy;
+import se.arkalix.util.concurrent.Future;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static se.arkalix.descriptor.EncodingDescriptor.JSON;
+
+public class TestHttpServiceFileRanges {
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final byte[] LARGE_CONTENT = largeContent(100_000);
+
+    private static LoopbackSystem system;
+    private static LoopbackSystem secureSystem;
+    private static Path file;
+    private static Path largeFile;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        file = Files.createTempFile("kalix-test-", ".txt");
+        Files.writeString(file, CONTENT, StandardCharsets.UTF_8);
+        largeFile = Files.createTempFile("kalix-test-", ".bin");
+        Files.write(largeFile, LARGE_CONTENT);
+
+        system = LoopbackSystem.insecure().provide(new HttpService()
+            .name("files")
+            .basePath("/files")
+            .accessPolicy(AccessPolicy.unrestricted())
+            .encodings(JSON)
+            .get("/file", (request, response) -> {
+                response.status(HttpStatus.OK).body(file);
+                return Future.done();
+            }));
+
+        secureSystem = LoopbackSystem.secure().provide(new HttpService()
+            .name("files")
+            .basePath("/files")
+            .accessPolicy(AccessPolicy.cloud())
+            .encodings(JSON)
+            .get("/large-file", (request, response) -> {
+                response.status(HttpStatus.OK).body(largeFile);
+                return Future.done();
+            }));
+    }
+
+    @AfterAll
+    static void teardown() throws Exception {
+        system.shutdown();
+        secureSystem.shutdown();
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(largeFile);
+    }
+
+    @Test
+    void shouldRespondWithWholeFileIfNoRangeIsRequested() throws Exception {
+        final var response = send(new HttpClientRequest());
+
+        assertEquals(HttpStatus.OK, response.status());
+        assertEquals("bytes", response.header("accept-ranges").orElse(null));
+        assertTrue(response.header("last-modified").isPresent());
+        assertEquals(CONTENT, response.bodyAsString().await(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void shouldRespondWithPartialContentIfRangeIsRequested() throws Exception {
+        final var response = send(new HttpClientRequest().header("range", "bytes=10-15"));
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.status());
+        assertEquals("bytes 10-15/" + CONTENT.length(), response.header("content-range").orElse(null));
+        assertEquals("abcdef", response.bodyAsString().await(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void shouldRespondWithSuffixIfSuffixRangeIsRequested() throws Exception {
+        final var response = send(new HttpClientRequest().header("range", "bytes=-4"));
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.status());
+        assertEquals("wxyz", response.bodyAsString().await(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void shouldRespondWithRangeNotSatisfiableIfRangeIsOutOfBounds() throws Exception {
+        final var response = send(new HttpClientRequest().header("range", "bytes=1000-"));
+
+        assertEquals(HttpStatus.RANGE_NOT_SATISFIABLE, response.status());
+        assertEquals("bytes */" + CONTENT.length(), response.header("content-range").orElse(null));
+    }
+
+    @Test
+    void shouldRespondWithWholeFileIfIfRangeDoesNotMatch() throws Exception {
+        final var response = send(new HttpClientRequest()
+            .header("range", "bytes=0-1")
+            .header("if-range", "\"some-other-entity\""));
+
+        assertEquals(HttpStatus.OK, response.status());
+        assertEquals(CONTENT, response.bodyAsString().await(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void shouldNotCompressFilesEvenIfClientAcceptsCompression() throws Exception {
+        final var response = send(new HttpClientRequest().header("accept-encoding", "gzip, deflate"));
+
+        assertEquals(HttpStatus.OK, response.status());
+        assertFalse(response.header("content-encoding").isPresent());
+        assertEquals(String.valueOf(CONTENT.length()), response.header("content-length").orElse(null));
+        assertEquals(CONTENT, response.bodyAsString().await(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void shouldRespondWithWholeLargeFileOverHttp2AndTls() throws Exception {
+        final var connection = secureClient().connect(secureSystem.remoteSocketAddress()).await(Duration.ofSeconds(10));
+        assertTrue(((NettyHttpClientConnection) connection).isMultiplexed());
+
+        final var response = connection.send(new HttpClientRequest()
+            .method(HttpMethod.GET)
+            .uri("/files/large-file"))
+            .await(Duration.ofSeconds(10));
+
+        assertEquals(HttpStatus.OK, response.status());
+        assertFalse(response.header("content-encoding").isPresent());
+        assertArrayEquals(LARGE_CONTENT, response.bodyAsByteArray().await(Duration.ofSeconds(10)));
+        connection.close().await(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldRespondWithPartialLargeFileOverHttp2AndTls() throws Exception {
+        final var connection = secureClient().connect(secureSystem.remoteSocketAddress()).await(Duration.ofSeconds(10));
+        assertTrue(((NettyHttpClientConnection) connection).isMultiplexed());
+
+        final var response = connection.send(new HttpClientRequest()
+            .method(HttpMethod.GET)
+            .uri("/files/large-file")
+            .header("range", "bytes=1000-70999"))
+            .await(Duration.ofSeconds(10));
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.status());
+        assertEquals("bytes 1000-70999/" + LARGE_CONTENT.length, response.header("content-range").orElse(null));
+        assertArrayEquals(Arrays.copyOfRange(LARGE_CONTENT, 1000, 71000),
+            response.bodyAsByteArray().await(Duration.ofSeconds(10)));
+        connection.close().await(Duration.ofSeconds(10));
+    }
+
+    private static HttpClientResponse send(final HttpClientRequest request) throws Exception {
+        return HttpClient.http()
+            .send(system.remoteSocketAddress(), request
+                .method(HttpMethod.GET)
+                .uri("/files/file"))
+            .await(Duration.ofSeconds(10));
+    }
+
+    private static HttpClient secureClient() throws Exception {
+        return new HttpClient.Builder()
+            .identity(LoopbackSystem.identity())
+            .trustStore(LoopbackSystem.trustStore())
+            .build();
+    }
+
+    private static byte[] largeContent(final int length) {
+        final var content = new byte[length];
+        for (var i = 0; i < length; ++i) {
+            content[i] = (byte) (i * 31 + i / 251);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,68 @@
+package se.arkalix.net.http.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.LoopbackSystem;
+import se.arkalix.security.access.AccessPolicy;
+import se.arkalix.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static se.arkalix.descriptor.EncodingDescriptor.JSON;
+
+public class TestHttpServiceLimits {
+    private static LoopbackSystem system;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        system = LoopbackSystem.insecure().provide(new HttpService()
+            .name("limited")
+            .basePath("/limited")
+            .accessPolicy(AccessPolicy.unrestricted())
+            .encodings(JSON)
+            .get("/ok", (request, response) -> {
+                response.status(HttpStatus.NO_CONTENT);
+                return Future.done();
+            }));
+    }
+
+    @AfterAll
+    static void teardown() throws Exception {
+        system.shutdown();
+    }
+
+    @Test
+    void shouldRespondWith414WhenRequestLineIsTooLong() throws Exception {
+        final var response = system.exchange("" +
+            "GET /limited/ok?q=" + "x".repeat(8192) + " HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "\r\n");
+
+        // The request line could not be decoded, which is why its version
+        // is unknown.
+        assertTrue(response.startsWith("HTTP/1.0 414 "), response);
+    }
+
+    @Test
+    void shouldRespondWith431WhenHeadersAreTooLarge() throws Exception {
+        final var response = system.exchange("" +
+            "GET /limited/ok HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "X-Large: " + "x".repeat(16384) + "\r\n" +
+            "\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 431 "), response);
+    }
+
+    @Test
+    void shouldRespondWith204WhenWithinLimits() throws Exception {
+        final var response = system.exchange("" +
+            "GET /limited/ok HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "Connection: close\r\n" +
+            "\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 204 "), response);
+    }
+}
@@ -0,0 +1,129 @@
+package se.arkalix.net.http.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.LoopbackSystem;
+import se.arkalix.security.access.AccessPolicy;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Schedulers;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static se.arkalix.descriptor.EncodingDescriptor.JSON;
+
+public class TestHttpServicePipelining {
+    private static LoopbackSystem system;
+    private static volatile CountDownLatch fastHandled;
+    private static volatile CountDownLatch blockedReleased;
+    private static final AtomicInteger countedCount = new AtomicInteger(0);
+
+    @BeforeAll
+    static void setup() throws Exception {
+        system = LoopbackSystem.insecure().provide(new HttpService()
+            .name("pipelined")
+            .basePath("/pipelined")
+            .accessPolicy(AccessPolicy.unrestricted())
+            .encodings(JSON)
+            .route(HttpMethod.GET, "/slow", Schedulers.virtual(), (request, response) -> {
+                // Only completes after the request pipelined after this one
+                // has been handled, unless that takes too long.
+                fastHandled.await(5, TimeUnit.SECONDS);
+                response.status(HttpStatus.OK).body("slow");
+                return Future.done();
+            })
+            .get("/fast", (request, response) -> {
+                fastHandled.countDown();
+                response.status(HttpStatus.OK).body("fast");
+                return Future.done();
+            })
+            .route(HttpMethod.GET, "/blocked", Schedulers.virtual(), (request, response) -> {
+                blockedReleased.await(10, TimeUnit.SECONDS);
+                response.status(HttpStatus.OK).body("blocked");
+                return Future.done();
+            })
+            .get("/counted", (request, response) -> {
+                countedCount.incrementAndGet();
+                response.status(HttpStatus.OK).body("counted");
+                return Future.done();
+            }));
+    }
+
+    @AfterAll
+    static void teardown() throws Exception {
+        system.shutdown();
+    }
+
+    @Test
+    void shouldRespondToPipelinedRequestsInOrder() throws Exception {
+        fastHandled = new CountDownLatch(1);
+        final var startedAt = System.nanoTime();
+
+        final var responses = system.exchange("" +
+            "GET /pipelined/slow HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "\r\n" +
+            "GET /pipelined/fast HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "\r\n" +
+            "GET /pipelined/fast HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "Connection: close\r\n" +
+            "\r\n");
+
+        // The slow request could only be responded to this quickly if the
+        // fast one was handled concurrently with it.
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(5));
+
+        final var slow = responses.indexOf("slow");
+        final var fast0 = responses.indexOf("fast");
+        final var fast1 = responses.indexOf("fast", fast0 + 1);
+        assertTrue(slow != -1 && fast0 != -1 && fast1 != -1, responses);
+        assertTrue(slow < fast0, responses);
+        assertEquals(3, responses.split("HTTP/1.1 200 OK").length - 1, responses);
+    }
+
+    @Test
+    void shouldSuspendReadingWhenTooManyRequestsArePending() throws Exception {
+        blockedReleased = new CountDownLatch(1);
+        countedCount.set(0);
+
+        final var requestCount = 40;
+        final var requests = new StringBuilder("" +
+            "GET /pipelined/blocked HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "\r\n");
+        for (var i = 1; i < requestCount; ++i) {
+            requests.append("" +
+                "GET /pipelined/counted HTTP/1.1\r\n" +
+                "Host: localhost\r\n")
+                .append(i + 1 == requestCount ? "Connection: close\r\n" : "")
+                .append("\r\n");
+        }
+
+        final String responses;
+        try (final var socket = system.connect()) {
+            LoopbackSystem.write(socket, requests.toString());
+
+            // While the first request is blocked, only as many requests as
+            // fit in the queue of pending exchanges may be handled, even
+            // though all of them are sent at once.
+            Thread.sleep(500);
+            final var countWhileBlocked = countedCount.get();
+            assertTrue(countWhileBlocked > 0, "No requests handled while blocked");
+            assertTrue(countWhileBlocked < 16, "Too many requests handled while blocked: " + countWhileBlocked);
+
+            blockedReleased.countDown();
+            responses = LoopbackSystem.readAll(socket);
+        }
+
+        assertEquals(requestCount - 1, countedCount.get());
+        assertEquals(requestCount, responses.split("HTTP/1.1 200 OK").length - 1, responses);
+        assertTrue(responses.indexOf("blocked") < responses.indexOf("counted"), responses);
+    }
+}
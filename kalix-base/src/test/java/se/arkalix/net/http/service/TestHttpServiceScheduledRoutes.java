@@ -0,0 +1,76 @@
+package se.arkalix.net.http.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.arkalix.internal.util.concurrent.NettyThread;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.LoopbackSystem;
+import se.arkalix.net.http.client.HttpClient;
+import se.arkalix.net.http.client.HttpClientRequest;
+import se.arkalix.net.http.client.HttpClientResponse;
+import se.arkalix.security.access.AccessPolicy;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static se.arkalix.descriptor.EncodingDescriptor.JSON;
+
+public class TestHttpServiceScheduledRoutes {
+    private static final AtomicReference<Thread> handlerThread = new AtomicReference<>();
+
+    private static LoopbackSystem system;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        system = LoopbackSystem.insecure().provide(new HttpService()
+            .name("scheduled")
+            .basePath("/scheduled")
+            .accessPolicy(AccessPolicy.unrestricted())
+            .encodings(JSON)
+            .route(HttpMethod.GET, "/blocking", Schedulers.virtual(), (request, response) -> {
+                handlerThread.set(Thread.currentThread());
+                Thread.sleep(20);
+                response.status(HttpStatus.OK).body("blocking");
+                return Future.done();
+            })
+            .route(HttpMethod.GET, "/failing", Schedulers.virtual(), (request, response) -> {
+                throw new IllegalStateException("Failed");
+            }));
+    }
+
+    @AfterAll
+    static void teardown() throws Exception {
+        system.shutdown();
+    }
+
+    @Test
+    void shouldExecuteHandlerOutsideOfEventLoop() throws Exception {
+        final var body = HttpClient.http()
+            .send(system.remoteSocketAddress(), new HttpClientRequest()
+                .method(HttpMethod.GET)
+                .uri("/scheduled/blocking"))
+            .flatMap(HttpClientResponse::bodyAsString)
+            .await(Duration.ofSeconds(10));
+
+        assertEquals("blocking", body);
+        assertNotNull(handlerThread.get());
+        assertFalse(handlerThread.get() instanceof NettyThread);
+    }
+
+    @Test
+    void shouldRespondWithErrorIfHandlerThrows() throws Exception {
+        final var status = HttpClient.http()
+            .send(system.remoteSocketAddress(), new HttpClientRequest()
+                .method(HttpMethod.GET)
+                .uri("/scheduled/failing"))
+            .map(HttpClientResponse::status)
+            .await(Duration.ofSeconds(10));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, status);
+    }
+}
@@ -0,0 +1,176 @@
+package se.arkalix.net.http.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.arkalix.dto.DtoEncoding;
+import se.arkalix.dto.DtoWritable;
+import se.arkalix.dto.json.value.JsonNumber;
+import se.arkalix.dto.json.value.JsonObject;
+import se.arkalix.dto.json.value.JsonPair;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.LoopbackSystem;
+import se.arkalix.net.http.client.HttpClient;
+import se.arkalix.net.http.client.HttpClientRequest;
+import se.arkalix.security.access.AccessPolicy;
+import se.arkalix.util.concurrent.Future;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static se.arkalix.descriptor.EncodingDescriptor.JSON;
+import static se.arkalix.net.http.LoopbackSystem.body;
+import static se.arkalix.net.http.LoopbackSystem.head;
+
+public class TestHttpServiceStreamingBodies {
+    private static final int SMALL_COUNT = 3;
+    private static final int LARGE_COUNT = 5000;
+
+    private static LoopbackSystem system;
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        executor = Executors.newSingleThreadExecutor();
+
+        system = LoopbackSystem.insecure().provide(new HttpService()
+            .name("streams")
+            .basePath("/streams")
+            .accessPolicy(AccessPolicy.unrestricted())
+            .encodings(JSON)
+            .get("/small", (request, response) -> {
+                response.status(HttpStatus.OK).body(publisherOf(SMALL_COUNT, null));
+                return Future.done();
+            })
+            .get("/large", (request, response) -> {
+                response.status(HttpStatus.OK).body(publisherOf(LARGE_COUNT, null));
+                return Future.done();
+            })
+            .get("/failing", (request, response) -> {
+                response.status(HttpStatus.OK).body(publisherOf(SMALL_COUNT, new IllegalStateException()));
+                return Future.done();
+            }));
+    }
+
+    @AfterAll
+    static void teardown() throws Exception {
+        system.shutdown();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldSendChunkedBodyToHttp11Receivers() throws Exception {
+        final var response = system.exchange("" +
+            "GET /streams/small HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "Connection: close\r\n" +
+            "\r\n");
+
+        final var head = head(response);
+        assertTrue(head.startsWith("http/1.1 200 ok"), response);
+        assertTrue(head.contains("transfer-encoding: chunked"), response);
+        assertFalse(head.contains("content-length"), response);
+        assertTrue(response.endsWith("0\r\n\r\n"), response);
+        assertEquals("[{\"i\":0},{\"i\":1},{\"i\":2}]", dechunk(body(response)));
+    }
+
+    @Test
+    void shouldSendCloseDelimitedBodyToHttp10Receivers() throws Exception {
+        final var response = system.exchange("" +
+            "GET /streams/small HTTP/1.0\r\n" +
+            "\r\n");
+
+        final var head = head(response);
+        assertTrue(head.startsWith("http/1.0 200 ok"), response);
+        assertFalse(head.contains("transfer-encoding"), response);
+        assertFalse(head.contains("content-length"), response);
+        assertEquals("[{\"i\":0},{\"i\":1},{\"i\":2}]", body(response));
+    }
+
+    @Test
+    void shouldCloseConnectionIfPublisherFailsAfterHeadersAreSent() throws Exception {
+        // The request asks for the connection to be kept alive, which means
+        // that the exchange only completes if the server closes it.
+        final var response = system.exchange("" +
+            "GET /streams/failing HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "\r\n");
+
+        final var head = head(response);
+        assertTrue(head.startsWith("http/1.1 200 ok"), response);
+        assertTrue(head.contains("transfer-encoding: chunked"), response);
+        assertFalse(response.endsWith("0\r\n\r\n"), response);
+    }
+
+    @Test
+    void shouldDecodeStreamedBodyIncrementally() throws Exception {
+        final var objects = new ArrayList<JsonObject>();
+        final var count = HttpClient.http()
+            .send(system.remoteSocketAddress(), new HttpClientRequest()
+                .method(HttpMethod.GET)
+                .uri("/streams/large"))
+            .flatMap(response -> response.bodyAsStream(DtoEncoding.JSON, JsonObject.class, objects::add))
+            .await(Duration.ofSeconds(10));
+
+        assertEquals(LARGE_COUNT, count);
+        assertEquals(LARGE_COUNT, objects.size());
+        for (var i = 0; i < LARGE_COUNT; ++i) {
+            assertEquals(object(i), objects.get(i));
+        }
+    }
+
+    private static Flow.Publisher<DtoWritable> publisherOf(final int count, final Throwable fault) {
+        // Objects are published on another thread, just like they would be
+        // by most publishers not holding all of their objects in memory.
+        return subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            private int index = 0;
+            private boolean isDone = false;
+
+            @Override
+            public void request(final long n) {
+                executor.execute(() -> {
+                    for (var i = 0L; i < n && index < count && !isDone; ++i) {
+                        subscriber.onNext(object(index++));
+                    }
+                    if (index == count && !isDone) {
+                        isDone = true;
+                        if (fault != null) {
+                            subscriber.onError(fault);
+                        }
+                        else {
+                            subscriber.onComplete();
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void cancel() {
+                executor.execute(() -> isDone = true);
+            }
+        });
+    }
+
+    private static JsonObject object(final int index) {
+        return new JsonObject(new JsonPair("i", new JsonNumber(index)));
+    }
+
+    private static String dechunk(final String body) {
+        final var builder = new StringBuilder();
+        var offset = 0;
+        while (true) {
+            final var lineEnd = body.indexOf("\r\n", offset);
+            final var size = Integer.parseInt(body.substring(offset, lineEnd), 16);
+            if (size == 0) {
+                return builder.toString();
+            }
+            builder.append(body, lineEnd + 2, lineEnd + 2 + size);
+            offset = lineEnd + 2 + size + 2;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package se.arkalix.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.internal.util.concurrent.FutureCompletion;
+import se.arkalix.util.Result;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFutureTimeout {
+    @Test
+    void shouldFailAndCancelSourceWhenTimeoutExpires() throws Exception {
+        final var source = new FutureCompletion<String>();
+        final var result = source.timeout(Duration.ofMillis(50))
+            .mapResult(result0 -> Result.success(result0))
+            .await(Duration.ofSeconds(5));
+
+        assertTrue(result.isFailure());
+        assertTrue(result.fault() instanceof TimeoutException);
+        assertTrue(source.isCancelled());
+    }
+
+    @Test
+    void shouldPassOnResultAvailableBeforeTimeout() throws Exception {
+        final var value = Future.success("value")
+            .timeout(Duration.ofSeconds(5))
+            .await(Duration.ofSeconds(5));
+
+        assertEquals("value", value);
+    }
+
+    @Test
+    void shouldCountTimeoutFromWhenItIsCreated() throws Exception {
+        final var source = new FutureCompletion<String>();
+        final var future = source.timeout(Duration.ofMillis(100));
+
+        Thread.sleep(200);
+
+        final var result = new AtomicReference<Result<String>>();
+        future.onResult(result::set);
+        Thread.sleep(50);
+
+        assertNotNull(result.get());
+        assertTrue(result.get().fault() instanceof TimeoutException);
+        assertTrue(source.isCancelled());
+    }
+
+    @Test
+    void shouldFailWhenDeadlineHasPassed() throws Exception {
+        final var result = new FutureCompletion<String>()
+            .deadline(Instant.now().minusSeconds(1))
+            .mapResult(result0 -> Result.success(result0))
+            .await(Duration.ofSeconds(5));
+
+        assertTrue(result.fault() instanceof TimeoutException);
+    }
+}
@@ -0,0 +1,163 @@
+package se.arkalix.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.internal.util.concurrent.FutureCompletion;
+import se.arkalix.util.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFutures {
+    @Test
+    void allShouldCollectResultsInOrder() {
+        final var completions = completions(3);
+        final var result = new AtomicReference<Result<List<Integer>>>();
+        Futures.all(completions).onResult(result::set);
+
+        completions.get(2).complete(Result.success(2));
+        completions.get(0).complete(Result.success(0));
+        assertNull(result.get());
+
+        completions.get(1).complete(Result.success(1));
+        assertEquals(List.of(0, 1, 2), result.get().value());
+    }
+
+    @Test
+    void allShouldFailFastAndCancelOthers() {
+        final var completions = completions(3);
+        final var result = new AtomicReference<Result<List<Integer>>>();
+        Futures.all(completions).onResult(result::set);
+
+        final var fault = new Exception();
+        completions.get(1).complete(Result.failure(fault));
+        assertSame(fault, result.get().fault());
+        assertTrue(completions.get(0).isCancelled());
+        assertTrue(completions.get(2).isCancelled());
+    }
+
+    @Test
+    void allSettledShouldCollectEveryResult() {
+        final var completions = completions(2);
+        final var result = new AtomicReference<Result<List<Result<Integer>>>>();
+        Futures.allSettled(completions).onResult(result::set);
+
+        final var fault = new Exception();
+        completions.get(0).complete(Result.failure(fault));
+        completions.get(1).complete(Result.success(1));
+        final var results = result.get().value();
+        assertSame(fault, results.get(0).fault());
+        assertEquals(1, results.get(1).value());
+    }
+
+    @Test
+    void anyShouldCompleteWithFirstSuccess() {
+        final var completions = completions(3);
+        final var result = new AtomicReference<Result<Integer>>();
+        Futures.any(completions).onResult(result::set);
+
+        completions.get(0).complete(Result.failure(new Exception()));
+        assertNull(result.get());
+
+        completions.get(2).complete(Result.success(2));
+        assertEquals(2, result.get().value());
+        assertTrue(completions.get(1).isCancelled());
+    }
+
+    @Test
+    void anyShouldFailOnlyIfAllFail() {
+        final var completions = completions(2);
+        final var result = new AtomicReference<Result<Integer>>();
+        Futures.any(completions).onResult(result::set);
+
+        final var fault0 = new Exception();
+        final var fault1 = new Exception();
+        completions.get(1).complete(Result.failure(fault1));
+        completions.get(0).complete(Result.failure(fault0));
+        final var suppressed = result.get().fault().getSuppressed();
+        assertEquals(2, suppressed.length);
+        assertSame(fault0, suppressed[0]);
+        assertSame(fault1, suppressed[1]);
+        assertEquals(0, fault0.getSuppressed().length);
+        assertEquals(0, fault1.getSuppressed().length);
+    }
+
+    @Test
+    void raceShouldCompleteWithFirstResult() {
+        final var completions = completions(2);
+        final var result = new AtomicReference<Result<Integer>>();
+        Futures.race(completions).onResult(result::set);
+
+        final var fault = new Exception();
+        completions.get(1).complete(Result.failure(fault));
+        assertSame(fault, result.get().fault());
+        assertTrue(completions.get(0).isCancelled());
+    }
+
+    @Test
+    void cancellingShouldCancelAllFutures() {
+        final var completions = completions(2);
+        Futures.all(completions).cancel();
+        assertTrue(completions.get(0).isCancelled());
+        assertTrue(completions.get(1).isCancelled());
+    }
+
+    @Test
+    void traverseShouldBoundConcurrency() {
+        final var completions = new ArrayList<FutureCompletion<Integer>>();
+        final var result = new AtomicReference<Result<List<Integer>>>();
+        Futures.traverse(2, List.of(0, 1, 2, 3), element -> {
+            final var completion = new FutureCompletion<Integer>();
+            completions.add(completion);
+            return completion;
+        }).onResult(result::set);
+
+        assertEquals(2, completions.size());
+        completions.get(1).complete(Result.success(10));
+        assertEquals(3, completions.size());
+        completions.get(0).complete(Result.success(0));
+        completions.get(2).complete(Result.success(20));
+        assertEquals(4, completions.size());
+        assertNull(result.get());
+
+        completions.get(3).complete(Result.success(30));
+        assertEquals(List.of(0, 10, 20, 30), result.get().value());
+    }
+
+    @Test
+    void traverseShouldNotOverflowStackWhenFuturesCompleteImmediately() {
+        final var elements = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+        final var result = new AtomicReference<Result<List<Integer>>>();
+        Futures.traverse(1, elements, Future::success).onResult(result::set);
+        assertEquals(elements, result.get().value());
+    }
+
+    @Test
+    void traverseShouldStopMappingOnFailure() {
+        final var mapCount = new AtomicInteger(0);
+        final var fault = new Exception();
+        final var result = new AtomicReference<Result<List<Integer>>>();
+        Futures.traverse(1, List.of(0, 1, 2), element -> {
+            mapCount.incrementAndGet();
+            return element == 1
+                ? Future.<Integer>failure(fault)
+                : Future.success(element);
+        }).onResult(result::set);
+
+        assertSame(fault, result.get().fault());
+        assertEquals(2, mapCount.get());
+    }
+
+    private static List<FutureCompletion<Integer>> completions(final int count) {
+        final var completions = new ArrayList<FutureCompletion<Integer>>(count);
+        for (var i = 0; i < count; ++i) {
+            completions.add(new FutureCompletion<>());
+        }
+        return completions;
+    }
+}
@@ -0,0 +1,51 @@
+package se.arkalix.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLatencyHistogram {
+    @Test
+    void shouldComputePercentilesWithinFactorOfTwo() {
+        final var histogram = new LatencyHistogram();
+        assertEquals(Duration.ZERO, histogram.percentile(50.0));
+
+        for (var i = 1; i <= 100; ++i) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(100, histogram.count());
+
+        final var p50 = histogram.percentile(50.0).toNanos();
+        assertTrue(p50 >= 50_000 && p50 < 100_000, Long.toString(p50));
+
+        final var p100 = histogram.percentile(100.0).toNanos();
+        assertTrue(p100 >= 100_000 && p100 < 200_000, Long.toString(p100));
+    }
+
+    @Test
+    void shouldRecordNegativeAndZeroLatenciesAsZero() {
+        final var histogram = new LatencyHistogram();
+        histogram.record(-1);
+        histogram.record(0);
+        assertEquals(Duration.ZERO, histogram.percentile(100.0));
+    }
+
+    @Test
+    void shouldCopyIndependently() {
+        final var histogram = new LatencyHistogram();
+        histogram.record(1);
+        final var copy = histogram.copy();
+        histogram.record(2);
+        assertEquals(1, copy.count());
+        assertEquals(2, histogram.count());
+    }
+
+    @Test
+    void shouldRejectInvalidPercentiles() {
+        final var histogram = new LatencyHistogram();
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(0.0));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(100.1));
+    }
+}
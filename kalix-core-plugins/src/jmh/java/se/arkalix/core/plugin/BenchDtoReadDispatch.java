@@ -0,0 +1,55 @@
+package se.arkalix.core.plugin;
+
+import org.openjdk.jmh.annotations.*;
+import se.arkalix.dto.DtoReadException;
+import se.arkalix.dto.binary.ByteArrayReader;
+import se.arkalix.internal.dto.json.JsonTokenBuffer;
+import se.arkalix.internal.dto.json.JsonTokenizer;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static se.arkalix.dto.DtoEncoding.JSON;
+
+/**
+ * Measures the overhead of dispatching to the generated read method of a
+ * small DTO class, for which that overhead is the most significant, by
+ * comparing reading via {@link se.arkalix.dto.DtoReader DtoReader}, a direct
+ * call and a reflective call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchDtoReadDispatch {
+    private byte[] serviceName;
+    private Method readJson;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        serviceName = "{\"serviceDefinition\":\"service-1\"}".getBytes(StandardCharsets.UTF_8);
+        readJson = ServiceNameDto.class.getDeclaredMethod("readJson", JsonTokenBuffer.class);
+    }
+
+    @Benchmark
+    public ServiceNameDto readViaDtoReader() throws DtoReadException {
+        return JSON.reader().readOne(ServiceNameDto.class, new ByteArrayReader(serviceName));
+    }
+
+    @Benchmark
+    public ServiceNameDto readViaDirectCall() throws DtoReadException {
+        try (final var buffer = JsonTokenizer.tokenize(new ByteArrayReader(serviceName))) {
+            return ServiceNameDto.readJson(buffer);
+        }
+    }
+
+    @Benchmark
+    public ServiceNameDto readViaReflection() throws Exception {
+        try (final var buffer = JsonTokenizer.tokenize(new ByteArrayReader(serviceName))) {
+            return (ServiceNameDto) readJson.invoke(null, buffer);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package se.arkalix.core.plugin;
+
+import org.openjdk.jmh.annotations.*;
+import se.arkalix.core.plugin.or.OrchestrationQueryResult;
+import se.arkalix.core.plugin.or.OrchestrationQueryResultDto;
+import se.arkalix.core.plugin.sr.ServiceQueryResult;
+import se.arkalix.core.plugin.sr.ServiceQueryResultDto;
+import se.arkalix.dto.DtoReadException;
+import se.arkalix.dto.binary.ByteArrayReader;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to decode typical service registry and
+ * orchestrator query results, consisting of {@code nServices} service
+ * entries each, from JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchJsonReadDto {
+    @Param({"1", "10", "100"})
+    private int nServices;
+
+    private byte[] serviceQueryResult;
+    private byte[] orchestrationQueryResult;
+
+    @Setup
+    public void setup() {
+        final var serviceQueryData = new StringBuilder();
+        final var response = new StringBuilder();
+        for (var i = 0; i < nServices; ++i) {
+            if (i > 0) {
+                serviceQueryData.append(',');
+                response.append(',');
+            }
+            serviceQueryData.append("{" +
+                "\"id\":").append(i).append("," +
+                "\"serviceDefinition\":{\"id\":").append(i).append(",\"serviceDefinition\":\"service-").append(i)
+                .append("\",\"createdAt\":\"2020-10-01 12:00:00\",\"updatedAt\":\"2020-10-01 12:00:00\"}," +
+                "\"provider\":{\"id\":").append(i).append(",\"systemName\":\"system-").append(i)
+                .append("\",\"address\":\"192.168.1.").append(i % 256).append("\",\"port\":").append(8000 + i)
+                .append(",\"authenticationInfo\":\"MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEA\"," +
+                    "\"createdAt\":\"2020-10-01 12:00:00\",\"updatedAt\":\"2020-10-01 12:00:00\"}," +
+                "\"serviceUri\":\"/service-").append(i).append("\"," +
+                "\"endOfValidity\":\"2030-10-01 12:00:00\"," +
+                "\"secure\":\"CERTIFICATE\"," +
+                "\"metadata\":{\"region\":\"north\",\"unit\":\"celsius\"}," +
+                "\"version\":1," +
+                "\"interfaces\":[{\"id\":1,\"interfaceName\":\"HTTP-SECURE-JSON\"," +
+                "\"createdAt\":\"2020-10-01 12:00:00\",\"updatedAt\":\"2020-10-01 12:00:00\"}]," +
+                "\"createdAt\":\"2020-10-01 12:00:00\",\"updatedAt\":\"2020-10-01 12:00:00\"}");
+            response.append("{" +
+                "\"provider\":{\"id\":").append(i).append(",\"systemName\":\"system-").append(i)
+                .append("\",\"address\":\"192.168.1.").append(i % 256).append("\",\"port\":").append(8000 + i)
+                .append(",\"authenticationInfo\":\"MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEA\"," +
+                    "\"createdAt\":\"2020-10-01 12:00:00\",\"updatedAt\":\"2020-10-01 12:00:00\"}," +
+                "\"service\":{\"id\":").append(i).append(",\"serviceDefinition\":\"service-").append(i)
+                .append("\",\"createdAt\":\"2020-10-01 12:00:00\",\"updatedAt\":\"2020-10-01 12:00:00\"}," +
+                "\"serviceUri\":\"/service-").append(i).append("\"," +
+                "\"secure\":\"TOKEN\"," +
+                "\"metadata\":{\"region\":\"north\"}," +
+                "\"interfaces\":[{\"id\":1,\"interfaceName\":\"HTTP-SECURE-JSON\"," +
+                "\"createdAt\":\"2020-10-01 12:00:00\",\"updatedAt\":\"2020-10-01 12:00:00\"}]," +
+                "\"version\":1," +
+                "\"authorizationTokens\":{\"HTTP-SECURE-JSON\":\"eyJhbGciOiJSUzI1NiJ9.e30.c2lnbmF0dXJl\"}," +
+                "\"warnings\":[]}");
+        }
+        serviceQueryResult = ("{\"serviceQueryData\":[" + serviceQueryData + "],\"unfilteredHits\":" + nServices + "}")
+            .getBytes(StandardCharsets.UTF_8);
+        orchestrationQueryResult = ("{\"response\":[" + response + "]}")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ServiceQueryResult readServiceQueryResult() throws DtoReadException {
+        return ServiceQueryResultDto.readJson(new ByteArrayReader(serviceQueryResult));
+    }
+
+    @Benchmark
+    public OrchestrationQueryResult readOrchestrationQueryResult() throws DtoReadException {
+        return OrchestrationQueryResultDto.readJson(new ByteArrayReader(orchestrationQueryResult));
+    }
+}
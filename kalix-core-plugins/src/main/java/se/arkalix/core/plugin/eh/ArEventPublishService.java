@@ -59,4 +59,20 @@ public interface ArEventPublishService {
             .createdAt(Instants.toAitiaDateTimeString(Instant.now()))
             .build());
     }
+
+    /**
+     * Creates new {@link BatchingEventPublishService} that queues its events
+     * and publishes them via this service in batches, using default batch
+     * sizes and timings.
+     * <p>
+     * If more control over the batching behavior is desired, please use the
+     * {@link BatchingEventPublishService.Builder builder class} instead.
+     *
+     * @return New batching event publish service.
+     */
+    default BatchingEventPublishService batching() {
+        return new BatchingEventPublishService.Builder()
+            .service(this)
+            .build();
+    }
 }
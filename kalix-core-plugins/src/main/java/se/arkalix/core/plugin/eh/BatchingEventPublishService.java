@@ -0,0 +1,403 @@
+package se.arkalix.core.plugin.eh;
+
+import se.arkalix.internal.util.concurrent.FutureCompletion;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Scheduler;
+import se.arkalix.util.concurrent.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An {@link ArEventPublishService} that queues the events published via it
+ * and forwards them to another such service in batches.
+ * <p>
+ * A batch is flushed either when it reaches its {@link
+ * Builder#maxBatchSize(int) maximum size} or when its first event has waited
+ * for the {@link Builder#linger(Duration) linger time}, whichever happens
+ * first. The events of flushed batches are published concurrently, but never
+ * more than {@link Builder#maxInFlight(int)} of them at a time. As Arrowhead
+ * event handlers accept only one event per request, each event is still sent
+ * as its own request, which means that batching only improves throughput if
+ * the wrapped service can send multiple requests at once, as is the case
+ * with {@link HttpJsonEventPublishService}.
+ * <p>
+ * If the wrapped service falls behind such that {@link
+ * Builder#maxQueueSize(int)} events are waiting to be published, any further
+ * events are rejected until the queue has been drained.
+ * <p>
+ * Cancelling the {@code Future} returned when publishing an event withdraws
+ * that event from its batch if it has not yet been forwarded to the wrapped
+ * service. If it has been forwarded, the publishing attempt of the wrapped
+ * service is cancelled instead.
+ */
+public class BatchingEventPublishService implements ArEventPublishService {
+    private final ArEventPublishService service;
+    private final int maxBatchSize;
+    private final Duration linger;
+    private final int maxInFlight;
+    private final int maxQueueSize;
+    private final Scheduler scheduler;
+
+    private final ArrayDeque<Entry> pendingEntries = new ArrayDeque<>();
+    private final ArrayDeque<Entry> flushedEntries = new ArrayDeque<>();
+
+    private Future<?> lingerFuture = null;
+    private long batchId = 0;
+    private int inFlightCount = 0;
+    private boolean isDispatching = false;
+
+    private long flushCount = 0;
+    private long flushLatencyLastNanos = 0;
+    private long flushLatencyTotalNanos = 0;
+
+    private BatchingEventPublishService(final Builder builder) {
+        service = Objects.requireNonNull(builder.service, "Expected service");
+        maxBatchSize = builder.maxBatchSize;
+        linger = Objects.requireNonNullElse(builder.linger, Duration.ofMillis(10));
+        maxInFlight = builder.maxInFlight;
+        maxQueueSize = builder.maxQueueSize;
+        scheduler = Objects.requireNonNullElseGet(builder.scheduler, Schedulers::fixed);
+    }
+
+    /**
+     * Queues given {@code event} for being published.
+     *
+     * @param event Event to publish.
+     * @return {@code Future} completed when the publishing attempt is known to
+     * have succeeded or failed. If the queue of this service is full, the
+     * {@code Future} is failed with a {@link RejectedExecutionException}.
+     */
+    @Override
+    public Future<?> publish(final EventOutgoingDto event) {
+        Objects.requireNonNull(event, "Expected event");
+
+        final var entry = new Entry(event);
+        entry.completion.setCancelCallback(ignored -> onEntryCancelled(entry));
+        synchronized (this) {
+            if (pendingEntries.size() + flushedEntries.size() >= maxQueueSize) {
+                return Future.failure(new RejectedExecutionException("Event " +
+                    "publishing queue is full; " + maxQueueSize + " events " +
+                    "are waiting to be published"));
+            }
+            pendingEntries.addLast(entry);
+            if (pendingEntries.size() >= maxBatchSize) {
+                flushPendingEntries();
+            }
+            else if (pendingEntries.size() == 1) {
+                final var batchId = this.batchId;
+                lingerFuture = scheduler.schedule(linger, () -> onLingerExpired(batchId));
+            }
+        }
+        dispatch();
+        return entry.completion;
+    }
+
+    /**
+     * Flushes the current batch immediately, even if it has neither reached
+     * its maximum size nor its linger time.
+     */
+    public void flush() {
+        synchronized (this) {
+            if (!pendingEntries.isEmpty()) {
+                flushPendingEntries();
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * @return Number of events currently waiting to be published, excluding
+     * those being in flight.
+     */
+    public synchronized int queueDepth() {
+        return pendingEntries.size() + flushedEntries.size();
+    }
+
+    /**
+     * @return Number of events currently being published.
+     */
+    public synchronized int inFlightCount() {
+        return inFlightCount;
+    }
+
+    /**
+     * @return Number of batches that have been flushed and have had all of
+     * their events published or failed.
+     */
+    public synchronized long flushCount() {
+        return flushCount;
+    }
+
+    /**
+     * @return Time between the most recently completed batch being flushed
+     * and all of its events having been published or failed.
+     */
+    public synchronized Duration lastFlushLatency() {
+        return Duration.ofNanos(flushLatencyLastNanos);
+    }
+
+    /**
+     * @return Average time between batches being flushed and all of their
+     * events having been published or failed.
+     */
+    public synchronized Duration averageFlushLatency() {
+        return flushCount > 0
+            ? Duration.ofNanos(flushLatencyTotalNanos / flushCount)
+            : Duration.ZERO;
+    }
+
+    private void onLingerExpired(final long batchId) {
+        synchronized (this) {
+            if (batchId != this.batchId || pendingEntries.isEmpty()) {
+                return;
+            }
+            flushPendingEntries();
+        }
+        dispatch();
+    }
+
+    private void flushPendingEntries() {
+        batchId += 1;
+        if (lingerFuture != null) {
+            lingerFuture.cancel();
+            lingerFuture = null;
+        }
+        final var batch = new Batch(pendingEntries.size());
+        for (final var entry : pendingEntries) {
+            entry.batch = batch;
+            flushedEntries.addLast(entry);
+        }
+        pendingEntries.clear();
+    }
+
+    private void dispatch() {
+        synchronized (this) {
+            if (isDispatching) {
+                return;
+            }
+            isDispatching = true;
+        }
+        while (true) {
+            final Entry entry;
+            synchronized (this) {
+                if (inFlightCount >= maxInFlight || flushedEntries.isEmpty()) {
+                    isDispatching = false;
+                    return;
+                }
+                entry = flushedEntries.pollFirst();
+                if (entry.completion.isCancelled()) {
+                    onEntryDone(entry);
+                    continue;
+                }
+                inFlightCount += 1;
+                entry.isInFlight = true;
+            }
+            Future<?> future;
+            try {
+                future = service.publish(entry.event);
+            }
+            catch (final Throwable throwable) {
+                future = Future.failure(throwable);
+            }
+            synchronized (this) {
+                entry.publishing = future;
+            }
+            future.onResult(result -> onPublished(entry, result));
+            if (entry.completion.isCancelled()) {
+                future.cancel();
+            }
+        }
+    }
+
+    private void onEntryCancelled(final Entry entry) {
+        final Future<?> publishing;
+        synchronized (this) {
+            if (pendingEntries.remove(entry)) {
+                if (pendingEntries.isEmpty() && lingerFuture != null) {
+                    lingerFuture.cancel();
+                    lingerFuture = null;
+                }
+                return;
+            }
+            if (flushedEntries.remove(entry)) {
+                onEntryDone(entry);
+                return;
+            }
+            if (!entry.isInFlight) {
+                return;
+            }
+            entry.isInFlight = false;
+            inFlightCount -= 1;
+            onEntryDone(entry);
+            publishing = entry.publishing;
+        }
+        if (publishing != null) {
+            publishing.cancel();
+        }
+        dispatch();
+    }
+
+    private void onPublished(final Entry entry, final Result<?> result) {
+        synchronized (this) {
+            if (!entry.isInFlight) {
+                return;
+            }
+            entry.isInFlight = false;
+            inFlightCount -= 1;
+            onEntryDone(entry);
+        }
+        entry.completion.complete(result.isSuccess()
+            ? Result.success(result.value())
+            : Result.failure(result.fault()));
+        dispatch();
+    }
+
+    private void onEntryDone(final Entry entry) {
+        final var batch = entry.batch;
+        batch.remaining -= 1;
+        if (batch.remaining == 0) {
+            final var latency = System.nanoTime() - batch.flushedAt;
+            flushCount += 1;
+            flushLatencyLastNanos = latency;
+            flushLatencyTotalNanos += latency;
+        }
+    }
+
+    private static class Batch {
+        private final long flushedAt = System.nanoTime();
+
+        private int remaining;
+
+        private Batch(final int size) {
+            remaining = size;
+        }
+    }
+
+    private static class Entry {
+        private final FutureCompletion<Object> completion = new FutureCompletion<>();
+        private final EventOutgoingDto event;
+
+        private Batch batch = null;
+        private Future<?> publishing = null;
+        private boolean isInFlight = false;
+
+        private Entry(final EventOutgoingDto event) {
+            this.event = event;
+        }
+    }
+
+    /**
+     * Builder useful for creating {@link BatchingEventPublishService}
+     * instances.
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public static class Builder {
+        private ArEventPublishService service;
+        private int maxBatchSize = 32;
+        private Duration linger;
+        private int maxInFlight = 8;
+        private int maxQueueSize = 1024;
+        private Scheduler scheduler;
+
+        /**
+         * Sets event publishing service to forward batched events to.
+         * <b>Must be specified.</b>
+         *
+         * @param service Event publishing service.
+         * @return This builder.
+         */
+        public Builder service(final ArEventPublishService service) {
+            this.service = service;
+            return this;
+        }
+
+        /**
+         * Sets the number of queued events that causes a batch to be flushed
+         * immediately. Defaults to 32.
+         *
+         * @param maxBatchSize Maximum number of events per batch.
+         * @return This builder.
+         * @throws IllegalArgumentException If {@code maxBatchSize < 1}.
+         */
+        public Builder maxBatchSize(final int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("Expected maxBatchSize > 0");
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the time the first event of a batch may be kept waiting before
+         * the batch is flushed. Defaults to 10 milliseconds.
+         *
+         * @param linger Maximum batch linger time.
+         * @return This builder.
+         * @throws IllegalArgumentException If {@code linger} is negative.
+         */
+        public Builder linger(final Duration linger) {
+            if (linger != null && linger.isNegative()) {
+                throw new IllegalArgumentException("Expected linger >= 0");
+            }
+            this.linger = linger;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events that may be in the process of
+         * being published at the same time. Defaults to 8.
+         *
+         * @param maxInFlight Maximum number of concurrent publishing
+         *                    attempts.
+         * @return This builder.
+         * @throws IllegalArgumentException If {@code maxInFlight < 1}.
+         */
+        public Builder maxInFlight(final int maxInFlight) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("Expected maxInFlight > 0");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events that may be waiting to be
+         * published, excluding those in flight, before new events are
+         * rejected. Defaults to 1024.
+         *
+         * @param maxQueueSize Maximum number of queued events.
+         * @return This builder.
+         * @throws IllegalArgumentException If {@code maxQueueSize < 1}.
+         */
+        public Builder maxQueueSize(final int maxQueueSize) {
+            if (maxQueueSize < 1) {
+                throw new IllegalArgumentException("Expected maxQueueSize > 0");
+            }
+            this.maxQueueSize = maxQueueSize;
+            return this;
+        }
+
+        /**
+         * Sets scheduler used to flush batches that reach their linger time.
+         * Defaults to {@link Schedulers#fixed()}.
+         *
+         * @param scheduler Linger timer scheduler.
+         * @return This builder.
+         */
+        public Builder scheduler(final Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * @return New {@link BatchingEventPublishService}.
+         */
+        public BatchingEventPublishService build() {
+            return new BatchingEventPublishService(this);
+        }
+    }
+}
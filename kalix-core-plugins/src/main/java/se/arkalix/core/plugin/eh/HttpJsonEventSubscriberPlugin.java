@@ -23,6 +23,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static se.arkalix.descriptor.EncodingDescriptor.JSON;
 
@@ -140,8 +141,30 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
                                 });
                         });
 
+                    // Every subscription is allowed to complete, even if
+                    // another one fails, as the state of subscriptions
+                    // cancelled while in flight would be unknown.
                     return system.provide(service)
-                        .flatMap(ignored -> Futures.serialize(defaultSubscriptions.stream().map(this::subscribe)))
+                        .flatMap(ignored -> Futures.allSettled(defaultSubscriptions.stream()
+                            .map(this::subscribe)
+                            .collect(Collectors.toList())))
+                        .flatMap(results -> {
+                            Throwable fault = null;
+                            for (final var result : results) {
+                                if (result.isSuccess()) {
+                                    continue;
+                                }
+                                if (fault == null) {
+                                    fault = result.fault();
+                                }
+                                else {
+                                    fault.addSuppressed(result.fault());
+                                }
+                            }
+                            return fault == null
+                                ? Future.done()
+                                : Future.failure(fault);
+                        })
                         .mapFault(Throwable.class, fault -> new CloudException("" +
                             "HTTP/JSON event subscriber failed to setup event " +
                             "receiver for the \"" + system.name() + "\" system", fault));
@@ -288,12 +311,14 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
         }
     }
 
-    private static class Topic {
+    static class Topic {
         private final String name;
         private final Consumer<String> onEmpty;
-        private final Set<Handle> handles = Collections.synchronizedSet(new HashSet<>());
+        private final Set<Handle> handles = new LinkedHashSet<>();
 
-        private Topic(final String name, final Consumer<String> onEmpty) {
+        private volatile TopicIndex index = TopicIndex.EMPTY;
+
+        Topic(final String name, final Consumer<String> onEmpty) {
             this.name = Objects.requireNonNull(name, "Expected name");
             this.onEmpty = Objects.requireNonNull(onEmpty, "Expected onEmpty");
         }
@@ -303,9 +328,9 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
         }
 
         public void publish(final ProviderDescription provider, final Map<String, String> metadata, final String data) {
-            for (final var subscription : handles) {
+            for (final var handle : index.match(provider, metadata)) {
                 try {
-                    subscription.publish(provider, metadata, data);
+                    handle.handler.onPublish(metadata, data);
                 }
                 catch (final Throwable throwable) {
                     logger.error("HTTP/JSON event subscription threw " +
@@ -317,15 +342,167 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
 
         public EventSubscriptionHandle register(final EventSubscription subscription) {
             final var handle = new Handle(subscription, this::remove);
-            handles.add(handle);
+            synchronized (this) {
+                handles.add(handle);
+                index = new TopicIndex(handles);
+            }
             return handle;
         }
 
         private void remove(final Handle handle) {
-            if (handles.remove(handle)) {
-                if (handles.isEmpty()) {
-                    onEmpty.accept(name);
+            final boolean isEmpty;
+            synchronized (this) {
+                if (!handles.remove(handle)) {
+                    return;
                 }
+                index = new TopicIndex(handles);
+                isEmpty = handles.isEmpty();
+            }
+            if (isEmpty) {
+                onEmpty.accept(name);
+            }
+        }
+    }
+
+    /*
+     * Immutable index of the subscription handles of a topic, replaced every
+     * time a handle is added or removed. Every provider set and metadata
+     * entry of a handle is a criterion that must be satisfied for it to match
+     * an event. Matching an event is done by looking up the handles whose
+     * criteria are satisfied by its provider and metadata entries, counting
+     * how many of those criteria each handle has had satisfied. Matching
+     * handles are returned in the order they were registered.
+     */
+    private static class TopicIndex {
+        private static final TopicIndex EMPTY = new TopicIndex(Collections.emptyList());
+
+        private final Handle[] handles;
+        private final int[] criteriaCounts;
+        private final int[] unconditionalIndexes;
+        private final List<Handle> unconditionalHandles;
+        private final Map<ProviderDescription, int[]> providerToHandles;
+        private final Map<String, Map<String, int[]>> metadataToHandles;
+
+        private TopicIndex(final Collection<Handle> handles) {
+            final var criteriaCounts = new int[handles.size()];
+            final var unconditionalIndexes = new ArrayList<Integer>();
+            final var unconditionalHandles = new ArrayList<Handle>();
+            final var providerToHandles = new HashMap<ProviderDescription, List<Integer>>();
+            final var metadataToHandles = new HashMap<String, Map<String, List<Integer>>>();
+
+            var index = 0;
+            for (final var handle : handles) {
+                var criteriaCount = 0;
+                if (handle.providers != null) {
+                    criteriaCount += 1;
+                    for (final var provider : handle.providers) {
+                        providerToHandles.computeIfAbsent(provider, ignored -> new ArrayList<>()).add(index);
+                    }
+                }
+                if (handle.metadata != null) {
+                    criteriaCount += handle.metadata.size();
+                    for (final var entry : handle.metadata.entrySet()) {
+                        // Entries without values can never be satisfied.
+                        if (entry.getValue() == null) {
+                            continue;
+                        }
+                        metadataToHandles.computeIfAbsent(entry.getKey(), ignored -> new HashMap<>())
+                            .computeIfAbsent(entry.getValue(), ignored -> new ArrayList<>())
+                            .add(index);
+                    }
+                }
+                if (criteriaCount == 0) {
+                    unconditionalIndexes.add(index);
+                    unconditionalHandles.add(handle);
+                }
+                criteriaCounts[index] = criteriaCount;
+                index += 1;
+            }
+
+            this.handles = handles.toArray(new Handle[0]);
+            this.criteriaCounts = criteriaCounts;
+            this.unconditionalIndexes = toIntArray(unconditionalIndexes);
+            this.unconditionalHandles = unconditionalHandles;
+            this.providerToHandles = new HashMap<>(providerToHandles.size());
+            for (final var entry : providerToHandles.entrySet()) {
+                this.providerToHandles.put(entry.getKey(), toIntArray(entry.getValue()));
+            }
+            this.metadataToHandles = new HashMap<>(metadataToHandles.size());
+            for (final var entry : metadataToHandles.entrySet()) {
+                final var valueToHandles = new HashMap<String, int[]>(entry.getValue().size());
+                for (final var entry0 : entry.getValue().entrySet()) {
+                    valueToHandles.put(entry0.getKey(), toIntArray(entry0.getValue()));
+                }
+                this.metadataToHandles.put(entry.getKey(), valueToHandles);
+            }
+        }
+
+        private static int[] toIntArray(final List<Integer> integers) {
+            final var array = new int[integers.size()];
+            for (var i = 0; i < array.length; ++i) {
+                array[i] = integers.get(i);
+            }
+            return array;
+        }
+
+        public List<Handle> match(final ProviderDescription provider, final Map<String, String> metadata) {
+            if (unconditionalIndexes.length == handles.length) {
+                return unconditionalHandles;
+            }
+            final var satisfiedCounts = new int[handles.length];
+            final var matches = new Matches(unconditionalIndexes);
+            if (provider != null) {
+                final var indexes = providerToHandles.get(provider);
+                if (indexes != null) {
+                    satisfy(indexes, satisfiedCounts, matches);
+                }
+            }
+            if (metadata != null && !metadataToHandles.isEmpty()) {
+                for (final var entry : metadata.entrySet()) {
+                    final var valueToHandles = metadataToHandles.get(entry.getKey());
+                    if (valueToHandles == null) {
+                        continue;
+                    }
+                    final var indexes = valueToHandles.get(entry.getValue());
+                    if (indexes != null) {
+                        satisfy(indexes, satisfiedCounts, matches);
+                    }
+                }
+            }
+            return matches.toHandles(handles);
+        }
+
+        private void satisfy(final int[] indexes, final int[] satisfiedCounts, final Matches matches) {
+            for (final var index : indexes) {
+                if (++satisfiedCounts[index] == criteriaCounts[index]) {
+                    matches.add(index);
+                }
+            }
+        }
+
+        private static class Matches {
+            private int[] indexes;
+            private int size;
+
+            private Matches(final int[] unconditionalIndexes) {
+                indexes = Arrays.copyOf(unconditionalIndexes, unconditionalIndexes.length + 4);
+                size = unconditionalIndexes.length;
+            }
+
+            private void add(final int index) {
+                if (size == indexes.length) {
+                    indexes = Arrays.copyOf(indexes, size * 2);
+                }
+                indexes[size++] = index;
+            }
+
+            private List<Handle> toHandles(final Handle[] handles) {
+                Arrays.sort(indexes, 0, size);
+                final var matches = new ArrayList<Handle>(size);
+                for (var i = 0; i < size; ++i) {
+                    matches.add(handles[indexes[i]]);
+                }
+                return matches;
             }
         }
     }
@@ -348,23 +525,8 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
                 .orElseThrow(() -> new IllegalArgumentException(subscription +
                     " does not contain an event handler; " +
                     "cannot register subscription"));
-            metadata = subscription.metadata().isEmpty() ? null : subscription.metadata();
-            providers = subscription.providers().isEmpty() ? null : subscription.providers();
-        }
-
-        public void publish(final ProviderDescription provider, final Map<String, String> metadata, final String data) {
-            if (providers != null && !providers.contains(provider)) {
-                return;
-            }
-            if (this.metadata != null) {
-                for (final var entry : this.metadata.entrySet()) {
-                    final var value = metadata.get(entry.getKey());
-                    if (value == null || !value.equals(entry.getValue())) {
-                        return;
-                    }
-                }
-            }
-            handler.onPublish(metadata, data);
+            metadata = subscription.metadata().isEmpty() ? null : new HashMap<>(subscription.metadata());
+            providers = subscription.providers().isEmpty() ? null : new HashSet<>(subscription.providers());
         }
 
         @Override
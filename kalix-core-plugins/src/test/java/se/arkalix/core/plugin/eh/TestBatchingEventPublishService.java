@@ -0,0 +1,191 @@
+package se.arkalix.core.plugin.eh;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.core.plugin.SystemDetailsBuilder;
+import se.arkalix.internal.util.concurrent.FutureCompletion;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBatchingEventPublishService {
+    @Test
+    void shouldFlushWhenBatchIsFull() {
+        final var service = new FakePublishService();
+        final var batching = new BatchingEventPublishService.Builder()
+            .service(service)
+            .maxBatchSize(3)
+            .linger(Duration.ofHours(1))
+            .build();
+
+        batching.publish(event(0));
+        batching.publish(event(1));
+        assertEquals(0, service.completions.size());
+        assertEquals(2, batching.queueDepth());
+
+        batching.publish(event(2));
+        assertEquals(3, service.completions.size());
+        assertEquals(0, batching.queueDepth());
+        assertEquals(3, batching.inFlightCount());
+    }
+
+    @Test
+    void shouldFlushWhenLingerTimeExpires() throws InterruptedException {
+        final var latch = new CountDownLatch(1);
+        final var batching = new BatchingEventPublishService.Builder()
+            .service(event -> {
+                latch.countDown();
+                return Future.done();
+            })
+            .maxBatchSize(100)
+            .linger(Duration.ofMillis(10))
+            .build();
+
+        batching.publish(event(0));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldNeverExceedMaxInFlight() {
+        final var service = new FakePublishService();
+        final var batching = new BatchingEventPublishService.Builder()
+            .service(service)
+            .maxBatchSize(4)
+            .maxInFlight(2)
+            .linger(Duration.ofHours(1))
+            .build();
+
+        for (var i = 0; i < 4; ++i) {
+            batching.publish(event(i));
+        }
+        assertEquals(2, service.completions.size());
+        assertEquals(2, batching.queueDepth());
+
+        service.completions.get(0).complete(Result.done());
+        assertEquals(3, service.completions.size());
+        assertEquals(1, batching.queueDepth());
+        assertEquals(2, batching.inFlightCount());
+    }
+
+    @Test
+    void shouldRejectEventsWhenQueueIsFull() {
+        final var service = new FakePublishService();
+        final var batching = new BatchingEventPublishService.Builder()
+            .service(service)
+            .maxBatchSize(100)
+            .maxQueueSize(2)
+            .linger(Duration.ofHours(1))
+            .build();
+
+        batching.publish(event(0));
+        batching.publish(event(1));
+
+        final var fault = new AtomicReference<Throwable>();
+        batching.publish(event(2)).onFailure(fault::set);
+        assertTrue(fault.get() instanceof RejectedExecutionException);
+    }
+
+    @Test
+    void shouldCompleteEachEventAndRecordFlush() {
+        final var service = new FakePublishService();
+        final var batching = new BatchingEventPublishService.Builder()
+            .service(service)
+            .maxBatchSize(2)
+            .linger(Duration.ofHours(1))
+            .build();
+
+        final var results = new ArrayList<Result<?>>();
+        batching.publish(event(0)).onResult(results::add);
+        batching.publish(event(1)).onResult(results::add);
+
+        final var exception = new Exception("Rejected by event handler");
+        service.completions.get(0).complete(Result.done());
+        assertEquals(1, results.size());
+        assertEquals(0, batching.flushCount());
+
+        service.completions.get(1).complete(Result.failure(exception));
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertSame(exception, results.get(1).fault());
+        assertEquals(1, batching.flushCount());
+        assertEquals(0, batching.inFlightCount());
+    }
+
+    @Test
+    void shouldWithdrawCancelledEventsNotYetPublished() {
+        final var service = new FakePublishService();
+        final var batching = new BatchingEventPublishService.Builder()
+            .service(service)
+            .maxBatchSize(3)
+            .linger(Duration.ofHours(1))
+            .build();
+
+        batching.publish(event(0));
+        batching.publish(event(1)).cancel();
+        assertEquals(1, batching.queueDepth());
+
+        batching.publish(event(2));
+        batching.flush();
+        assertEquals(2, service.events.size());
+        assertEquals("event-0", service.events.get(0).data());
+        assertEquals("event-2", service.events.get(1).data());
+    }
+
+    @Test
+    void shouldCancelPublishingOfCancelledEventsInFlight() {
+        final var service = new FakePublishService();
+        final var batching = new BatchingEventPublishService.Builder()
+            .service(service)
+            .maxBatchSize(2)
+            .maxInFlight(1)
+            .linger(Duration.ofHours(1))
+            .build();
+
+        final var future0 = batching.publish(event(0));
+        batching.publish(event(1));
+        assertEquals(1, service.completions.size());
+        assertEquals(1, batching.inFlightCount());
+
+        future0.cancel();
+        assertTrue(service.completions.get(0).isCancelled());
+        assertEquals(2, service.completions.size());
+        assertEquals(1, batching.inFlightCount());
+
+        service.completions.get(1).complete(Result.done());
+        assertEquals(0, batching.inFlightCount());
+        assertEquals(1, batching.flushCount());
+    }
+
+    private static EventOutgoingDto event(final int index) {
+        return new EventOutgoingBuilder()
+            .topic("test")
+            .publisher(new SystemDetailsBuilder()
+                .name("publisher")
+                .hostname("localhost")
+                .port(8443)
+                .build())
+            .data("event-" + index)
+            .build();
+    }
+
+    private static class FakePublishService implements ArEventPublishService {
+        private final List<FutureCompletion<Object>> completions = new ArrayList<>();
+        private final List<EventOutgoingDto> events = new ArrayList<>();
+
+        @Override
+        public Future<?> publish(final EventOutgoingDto event) {
+            final var completion = new FutureCompletion<>();
+            events.add(event);
+            completions.add(completion);
+            return completion;
+        }
+    }
+}
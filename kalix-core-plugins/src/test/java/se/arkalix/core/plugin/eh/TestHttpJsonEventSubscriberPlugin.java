@@ -0,0 +1,122 @@
+package se.arkalix.core.plugin.eh;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.description.ProviderDescription;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHttpJsonEventSubscriberPlugin {
+    private static final ProviderDescription PROVIDER_A =
+        new ProviderDescription("a", new InetSocketAddress("localhost", 9001));
+    private static final ProviderDescription PROVIDER_B =
+        new ProviderDescription("b", new InetSocketAddress("localhost", 9002));
+
+    @Test
+    void shouldMatchExactSubscriptions() {
+        final var topic = new HttpJsonEventSubscriberPlugin.Topic("test", ignored -> {});
+        final var calls = new ArrayList<String>();
+
+        topic.register(subscription("exact", calls)
+            .provider(PROVIDER_A)
+            .metadata("x", "1")
+            .metadata("y", "2"));
+
+        topic.publish(PROVIDER_A, Map.of("x", "1", "y", "2"), "event");
+        assertEquals(List.of("exact"), calls);
+    }
+
+    @Test
+    void shouldNotMatchPartiallySatisfiedSubscriptions() {
+        final var topic = new HttpJsonEventSubscriberPlugin.Topic("test", ignored -> {});
+        final var calls = new ArrayList<String>();
+
+        topic.register(subscription("partial", calls)
+            .provider(PROVIDER_A)
+            .metadata("x", "1")
+            .metadata("y", "2"));
+
+        topic.publish(PROVIDER_A, Map.of("x", "1"), "event");
+        topic.publish(PROVIDER_B, Map.of("x", "1", "y", "2"), "event");
+        topic.publish(PROVIDER_A, Map.of("x", "1", "y", "3"), "event");
+        topic.publish(null, null, "event");
+        assertEquals(List.of(), calls);
+
+        topic.publish(PROVIDER_A, Map.of("x", "1", "y", "2", "z", "3"), "event");
+        assertEquals(List.of("partial"), calls);
+    }
+
+    @Test
+    void shouldMatchSubscriptionsWithoutMetadataOrProviders() {
+        final var topic = new HttpJsonEventSubscriberPlugin.Topic("test", ignored -> {});
+        final var calls = new ArrayList<String>();
+
+        topic.register(subscription("any", calls));
+        topic.register(subscription("provider", calls)
+            .providers(PROVIDER_A, PROVIDER_B));
+
+        topic.publish(null, null, "event");
+        assertEquals(List.of("any"), calls);
+
+        calls.clear();
+        topic.publish(PROVIDER_B, Map.of("x", "1"), "event");
+        assertEquals(List.of("any", "provider"), calls);
+    }
+
+    @Test
+    void shouldCallOverlappingSubscriptionsInRegistrationOrder() {
+        final var topic = new HttpJsonEventSubscriberPlugin.Topic("test", ignored -> {});
+        final var calls = new ArrayList<String>();
+
+        topic.register(subscription("xy", calls)
+            .metadata("x", "1")
+            .metadata("y", "2"));
+        topic.register(subscription("x", calls)
+            .metadata("x", "1"));
+        topic.register(subscription("any", calls));
+        topic.register(subscription("y", calls)
+            .metadata("y", "2"));
+        topic.register(subscription("a", calls)
+            .provider(PROVIDER_A));
+
+        topic.publish(PROVIDER_A, Map.of("y", "2", "x", "1"), "event");
+        assertEquals(List.of("xy", "x", "any", "y", "a"), calls);
+
+        calls.clear();
+        topic.publish(PROVIDER_B, Map.of("y", "2"), "event");
+        assertEquals(List.of("any", "y"), calls);
+    }
+
+    @Test
+    void shouldNotCallUnsubscribedSubscriptions() {
+        final var emptied = new ArrayList<String>();
+        final var topic = new HttpJsonEventSubscriberPlugin.Topic("test", emptied::add);
+        final var calls = new ArrayList<String>();
+
+        final var handle0 = topic.register(subscription("0", calls)
+            .metadata("x", "1"));
+        final var handle1 = topic.register(subscription("1", calls));
+
+        handle0.unsubscribe();
+        topic.publish(null, Map.of("x", "1"), "event");
+        assertEquals(List.of("1"), calls);
+        assertEquals(List.of(), emptied);
+
+        calls.clear();
+        handle1.unsubscribe();
+        handle1.unsubscribe();
+        topic.publish(null, Map.of("x", "1"), "event");
+        assertEquals(List.of(), calls);
+        assertEquals(List.of("test"), emptied);
+    }
+
+    private static EventSubscription subscription(final String name, final List<String> calls) {
+        return new EventSubscription()
+            .topic("test")
+            .handler((metadata, data) -> calls.add(name));
+    }
+}
@@ -0,0 +1,47 @@
+package se.arkalix.dto;
+
+import se.arkalix.dto.json.JsonName;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static se.arkalix.dto.DtoEncoding.CBOR;
+import static se.arkalix.dto.DtoEncoding.JSON;
+
+@DtoReadableAs({CBOR, JSON})
+@DtoWritableAs({CBOR, JSON})
+@DtoEqualsHashCode
+public interface CborMessage {
+    @JsonName("t")
+    String title();
+
+    int priority();
+
+    double ratio();
+
+    boolean isUrgent();
+
+    BigDecimal price();
+
+    Instant sentAt();
+
+    Optional<Duration> timeToLive();
+
+    Kind kind();
+
+    int[] codes();
+
+    List<String> tags();
+
+    Map<String, List<Long>> counters();
+
+    Optional<CborMessage> reply();
+
+    enum Kind {
+        NOTICE, ALERT
+    }
+}
@@ -0,0 +1,60 @@
+package se.arkalix.dto;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.dto.binary.ByteArrayReader;
+import se.arkalix.dto.binary.ByteArrayWriter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static se.arkalix.dto.DtoEncoding.CBOR;
+
+public class TestDtoCbor {
+    @Test
+    void shouldReadWhatIsWritten() throws Exception {
+        final var message = new CborMessageBuilder()
+            .title("Hello")
+            .priority(-42)
+            .ratio(0.25)
+            .isUrgent(true)
+            .price(new BigDecimal("19.95"))
+            .sentAt(Instant.parse("2020-10-01T12:00:00Z"))
+            .kind(CborMessage.Kind.ALERT)
+            .codes(1, 2, 3)
+            .tags("a", "b")
+            .counters(Map.of("x", List.of(1L, 2L)))
+            .reply(new CborMessageBuilder()
+                .title("Hi")
+                .priority(1)
+                .ratio(0.1)
+                .isUrgent(false)
+                .price(BigDecimal.ONE)
+                .sentAt(Instant.parse("2020-10-01T12:00:01Z"))
+                .timeToLive(Duration.ofSeconds(30))
+                .kind(CborMessage.Kind.NOTICE)
+                .build())
+            .build();
+
+        final var writer = new ByteArrayWriter();
+        CBOR.writer().writeOne(message, writer);
+        final var bytes = Arrays.copyOf(writer.asByteArray(), writer.writeOffset());
+
+        assertEquals(message, CBOR.reader().readOne(CborMessageDto.class, new ByteArrayReader(bytes)));
+    }
+
+    @Test
+    void shouldUseJsonNamesAsKeys() throws Exception {
+        // {"t": "x", "priority": 1}
+        final var bytes = new byte[]{
+            (byte) 0xA2, 0x61, 't', 0x61, 'x', 0x68, 'p', 'r', 'i', 'o', 'r', 'i', 't', 'y', 0x01};
+        final var exception = assertThrows(DtoReadException.class, () ->
+            CBOR.reader().readOne(CborMessageDto.class, new ByteArrayReader(bytes)));
+        assertTrue(exception.getMessage().contains("Mandatory field"));
+        assertFalse(exception.getMessage().contains("title"));
+    }
+}
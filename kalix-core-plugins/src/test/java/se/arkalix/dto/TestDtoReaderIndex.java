@@ -0,0 +1,28 @@
+package se.arkalix.dto;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.dto.binary.ByteArrayReader;
+import se.arkalix.internal.dto.DtoReaderProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ServiceLoader;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static se.arkalix.dto.DtoEncoding.JSON;
+
+public class TestDtoReaderIndex {
+    @Test
+    void shouldRegisterGeneratedReaderIndexAsService() {
+        assertTrue(ServiceLoader.load(DtoReaderProvider.class).stream()
+            .anyMatch(provider -> provider.type() == DtoReaderIndex.class));
+    }
+
+    @Test
+    void shouldReadViaGeneratedReaderIndex() throws DtoReadException {
+        final var json = ("{\"t\":\"x\",\"priority\":1,\"ratio\":0.5,\"isUrgent\":false,\"price\":1," +
+            "\"sentAt\":\"2020-10-01T12:00:00Z\",\"kind\":\"NOTICE\"}").getBytes(StandardCharsets.UTF_8);
+        final var message = JSON.reader().readOne(CborMessageDto.class, new ByteArrayReader(json));
+        assertEquals("x", message.title());
+        assertEquals(CborMessage.Kind.NOTICE, message.kind());
+    }
+}
@@ -1,6 +1,7 @@
 package se.arkalix.dto;
 
 import com.squareup.javapoet.JavaFile;
+import se.arkalix.internal.dto.DtoReaderProvider;
 
 import javax.annotation.processing.*;
 import javax.lang.model.SourceVersion;
@@ -9,11 +10,12 @@ import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
 import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.lang.annotation.Annotation;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -24,6 +26,9 @@ public class DtoProcessor extends AbstractProcessor {
 
     private DtoTargetFactory targetFactory;
     private DtoSpecificationFactory specificationFactory;
+    private DtoReaderProviderFactory readerProviderFactory;
+
+    private final List<String> readerProviderNames = new ArrayList<>();
 
     @Override
     public synchronized void init(final ProcessingEnvironment processingEnv) {
@@ -35,16 +40,20 @@ public class DtoProcessor extends AbstractProcessor {
 
         targetFactory = new DtoTargetFactory(elementUtils, processingEnv.getTypeUtils());
         specificationFactory = new DtoSpecificationFactory(
+            new DtoSpecificationEncodingCbor(),
             new DtoSpecificationEncodingJson()
         );
+        readerProviderFactory = new DtoReaderProviderFactory();
     }
 
     @Override
     public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
         if (roundEnv.processingOver()) {
+            writeReaderProviderServiceFile();
             return true;
         }
         try {
+            final var readableTargetsByPackageName = new TreeMap<String, List<DtoTarget>>();
             final var interfaceTypes = findAnnotatedInterfaces(roundEnv);
             for (final var interfaceType : interfaceTypes) {
                 final var target = targetFactory.createFromInterface(interfaceType);
@@ -53,6 +62,12 @@ public class DtoProcessor extends AbstractProcessor {
                 final var packageName = elementUtils.getPackageOf(interfaceType)
                     .getQualifiedName().toString();
 
+                if (DtoReaderProviderFactory.isReadable(target)) {
+                    readableTargetsByPackageName
+                        .computeIfAbsent(packageName, ignored -> new ArrayList<>())
+                        .add(target);
+                }
+
                 JavaFile.builder(packageName, specification.implementation())
                     .indent("    ").build()
                     .writeTo(filer);
@@ -61,6 +76,7 @@ public class DtoProcessor extends AbstractProcessor {
                     .indent("    ").build()
                     .writeTo(filer);
             }
+            writeReaderProviders(readableTargetsByPackageName);
         }
         catch (final DtoException e) {
             messager.printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.offendingElement());
@@ -77,6 +93,48 @@ public class DtoProcessor extends AbstractProcessor {
         return true;
     }
 
+    // One reader provider is generated per package and round, which in
+    // practice means one per package, as all DTO interfaces are typically
+    // found in the first round.
+    private void writeReaderProviders(final Map<String, List<DtoTarget>> targetsByPackageName) throws IOException {
+        for (final var entry : targetsByPackageName.entrySet()) {
+            final var packageName = entry.getKey();
+            var simpleName = DtoReaderProviderFactory.SIMPLE_NAME;
+            for (var i = 1; readerProviderNames.contains(qualify(packageName, simpleName)); ++i) {
+                simpleName = DtoReaderProviderFactory.SIMPLE_NAME + i;
+            }
+            JavaFile.builder(packageName, readerProviderFactory.createFor(simpleName, entry.getValue()))
+                .indent("    ").build()
+                .writeTo(filer);
+            readerProviderNames.add(qualify(packageName, simpleName));
+        }
+    }
+
+    private void writeReaderProviderServiceFile() {
+        if (readerProviderNames.isEmpty()) {
+            return;
+        }
+        try {
+            final var file = filer.createResource(StandardLocation.CLASS_OUTPUT, "",
+                "META-INF/services/" + DtoReaderProvider.class.getName());
+            try (final var writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (final var name : readerProviderNames) {
+                    writer.write(name);
+                    writer.write('\n');
+                }
+            }
+        }
+        catch (final IOException exception) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "" +
+                "DTO reader provider service file could not be generated; " +
+                "reason: " + exception);
+        }
+    }
+
+    private static String qualify(final String packageName, final String simpleName) {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
     private Collection<TypeElement> findAnnotatedInterfaces(final RoundEnvironment roundEnv) {
         final var interfaces = new HashMap<Name, TypeElement>();
         getSupportedAnnotationClasses()
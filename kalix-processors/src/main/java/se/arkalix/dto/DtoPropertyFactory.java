@@ -162,6 +162,9 @@ public class DtoPropertyFactory {
         final var encodingNames = new HashMap<DtoEncoding, String>();
         final var nameJSON = method.getAnnotation(JsonName.class);
         if (nameJSON != null) {
+            // CBOR maps use the same keys as JSON objects, which allows for
+            // data to be converted between the two encodings without loss.
+            encodingNames.put(DtoEncoding.CBOR, nameJSON.value());
             encodingNames.put(DtoEncoding.JSON, nameJSON.value());
         }
         return encodingNames;
@@ -0,0 +1,47 @@
+package se.arkalix.dto;
+
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+import se.arkalix.internal.dto.DtoReaderProvider;
+import se.arkalix.internal.dto.DtoReaders;
+
+import javax.lang.model.element.Modifier;
+import java.util.List;
+
+/**
+ * Creates {@link DtoReaderProvider} implementations, which allow generated
+ * DTO classes to be read without resorting to reflection.
+ */
+public class DtoReaderProviderFactory {
+    public static final String SIMPLE_NAME = "DtoReaderIndex";
+
+    public TypeSpec createFor(final String simpleName, final List<DtoTarget> targets) {
+        final var provideTo = MethodSpec.methodBuilder("provideTo")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(DtoReaders.class, "readers", Modifier.FINAL);
+
+        for (final var target : targets) {
+            final var interfaceType = target.interfaceType();
+            final var dataTypeName = target.dataTypeName();
+            if (interfaceType.isReadable(DtoEncoding.CBOR)) {
+                provideTo.addStatement("readers.addCbor($1T.class, $1T::readCbor)", dataTypeName);
+            }
+            if (interfaceType.isReadable(DtoEncoding.JSON)) {
+                provideTo.addStatement("readers.addJson($1T.class, $1T::readJson)", dataTypeName);
+            }
+        }
+
+        return TypeSpec.classBuilder(simpleName)
+            .addJavadoc("Provides the read functions of the DTO classes of this package.")
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addSuperinterface(DtoReaderProvider.class)
+            .addMethod(provideTo.build())
+            .build();
+    }
+
+    public static boolean isReadable(final DtoTarget target) {
+        final var interfaceType = target.interfaceType();
+        return interfaceType.isReadable(DtoEncoding.CBOR) || interfaceType.isReadable(DtoEncoding.JSON);
+    }
+}
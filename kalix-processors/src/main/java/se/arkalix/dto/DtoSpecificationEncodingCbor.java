@@ -0,0 +1,522 @@
+package se.arkalix.dto;
+
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import se.arkalix.dto.binary.BinaryReader;
+import se.arkalix.dto.binary.BinaryWriter;
+import se.arkalix.dto.cbor.CborReadable;
+import se.arkalix.dto.cbor.CborWritable;
+import se.arkalix.dto.types.*;
+import se.arkalix.dto.util.Expander;
+import se.arkalix.internal.dto.cbor.CborDecoder;
+import se.arkalix.internal.dto.cbor.CborWrite;
+import se.arkalix.util.annotation.Internal;
+
+import javax.lang.model.element.Modifier;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class DtoSpecificationEncodingCbor implements DtoSpecificationEncoding {
+    private int level = 0;
+
+    @Override
+    public DtoEncoding encoding() {
+        return DtoEncoding.CBOR;
+    }
+
+    @Override
+    public void implementFor(final DtoTarget target, final TypeSpec.Builder implementation) throws DtoException {
+        if (target.interfaceType().isReadable(DtoEncoding.CBOR)) {
+            implementation.addSuperinterface(CborReadable.class);
+            implementReadMethodsFor(target, implementation);
+        }
+        if (target.interfaceType().isWritable(DtoEncoding.CBOR)) {
+            implementation.addSuperinterface(CborWritable.class);
+            implementWriteMethodFor(target, implementation);
+        }
+    }
+
+    private void implementReadMethodsFor(final DtoTarget target, final TypeSpec.Builder implementation)
+        throws DtoException
+    {
+        final var dataTypeName = target.dataTypeName();
+        final var dataSimpleName = target.dataSimpleName();
+        final var properties = target.properties();
+
+        implementation.addMethod(MethodSpec.methodBuilder("readCbor")
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(dataTypeName)
+            .addParameter(BinaryReader.class, "source", Modifier.FINAL)
+            .addException(DtoReadException.class)
+            .addStatement("return readCbor(new $T(source))", CborDecoder.class)
+            .build());
+
+        final var builder = MethodSpec.methodBuilder("readCbor")
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(dataTypeName)
+            .addParameter(CborDecoder.class, "decoder", Modifier.FINAL)
+            .addException(DtoReadException.class)
+            .addAnnotation(Internal.class)
+            .addStatement("final var offset = decoder.offset()");
+
+        final var hasEnum = properties.stream().anyMatch(property -> property.descriptor() == DtoDescriptor.ENUM);
+        final var hasMandatory = properties.stream().anyMatch(property -> !property.isOptional());
+
+        if (hasEnum || hasMandatory) {
+            builder.beginControlFlow("try");
+        }
+
+        final var builderName = target.interfaceType().simpleName() + "Builder";
+        builder
+            .addStatement("final var builder = new $N()", builderName)
+            .beginControlFlow("for (var n = decoder.readMapHeader(); decoder.hasMore(n); --n)")
+            .beginControlFlow("switch (decoder.readString())");
+
+        for (final var property : properties) {
+            try {
+                builder
+                    .beginControlFlow("case $S:", property.nameFor(DtoEncoding.CBOR))
+                    .beginControlFlow("if (decoder.tryReadNull())")
+                    .addStatement("continue")
+                    .endControlFlow();
+                final var name = property.name();
+                readValue(property.type(), x -> "builder." + name + "(" + x + ")", builder);
+                builder.endControlFlow("break");
+            }
+            catch (final IllegalStateException exception) {
+                throw new DtoException(property.parentElement(), exception.getMessage());
+            }
+        }
+
+        builder
+            .beginControlFlow("default:")
+            .addStatement("decoder.skipValue()")
+            .endControlFlow("break")
+            .endControlFlow()
+            .endControlFlow()
+            .addStatement("return builder.build()");
+
+        if (hasMandatory) {
+            builder
+                .nextControlFlow("catch (final $T exception)", NullPointerException.class)
+                .addStatement("throw new $1T($2T.CBOR, \"($3N) Mandatory field `\" + exception.getMessage() + " +
+                        "\"` missing in map\", \"\", offset, exception)",
+                    DtoReadException.class, DtoEncoding.class, dataSimpleName);
+        }
+        if (hasEnum) {
+            builder
+                .nextControlFlow("catch (final $T exception)", IllegalArgumentException.class)
+                .addStatement("throw new $1T($2T.CBOR, \"($3N) \" + exception.getMessage(), \"\", offset, " +
+                        "exception)",
+                    DtoReadException.class, DtoEncoding.class, dataSimpleName);
+        }
+        if (hasEnum || hasMandatory) {
+            builder.endControlFlow();
+        }
+
+        implementation.addMethod(builder.build());
+    }
+
+    private void readValue(final DtoType type, final Expander assignment, final MethodSpec.Builder builder) {
+        final var descriptor = type.descriptor();
+        switch (descriptor) {
+        case ARRAY:
+            readArray((DtoSequence) type, assignment, builder);
+            break;
+
+        case LIST:
+            readList((DtoSequence) type, assignment, builder);
+            break;
+
+        case BIG_DECIMAL:
+            readPlain("BigDecimal", assignment, builder);
+            break;
+
+        case BIG_INTEGER:
+            readPlain("BigInteger", assignment, builder);
+            break;
+
+        case BOOLEAN_BOXED:
+        case BOOLEAN_UNBOXED:
+            readPlain("Boolean", assignment, builder);
+            break;
+
+        case BYTE_BOXED:
+        case BYTE_UNBOXED:
+            readPlain("Byte", assignment, builder);
+            break;
+
+        case CHARACTER_BOXED:
+        case CHARACTER_UNBOXED:
+            throw characterTypesNotSupportedException();
+
+        case CUSTOM:
+            throw customTypesNotSupportedException(type);
+
+        case DOUBLE_BOXED:
+        case DOUBLE_UNBOXED:
+            readPlain("Double", assignment, builder);
+            break;
+
+        case DURATION:
+            readPlain(Duration.class.getSimpleName(), assignment, builder);
+            break;
+
+        case ENUM:
+            builder.addStatement(assignment.expand("$T.valueOf(decoder.readString())"), type.inputTypeName());
+            break;
+
+        case FLOAT_BOXED:
+        case FLOAT_UNBOXED:
+            readPlain("Float", assignment, builder);
+            break;
+
+        case INTEGER_BOXED:
+        case INTEGER_UNBOXED:
+            readPlain("Integer", assignment, builder);
+            break;
+
+        case INSTANT:
+            readPlain(Instant.class.getSimpleName(), assignment, builder);
+            break;
+
+        case INTERFACE:
+            readInterface((DtoInterface) type, assignment, builder);
+            break;
+
+        case LONG_BOXED:
+        case LONG_UNBOXED:
+            readPlain("Long", assignment, builder);
+            break;
+
+        case MAP:
+            readMap((DtoMap) type, assignment, builder);
+            break;
+
+        case MONTH_DAY:
+            readPlain(MonthDay.class.getSimpleName(), assignment, builder);
+            break;
+
+        case OFFSET_DATE_TIME:
+            readPlain(OffsetDateTime.class.getSimpleName(), assignment, builder);
+            break;
+
+        case OFFSET_TIME:
+            readPlain(OffsetTime.class.getSimpleName(), assignment, builder);
+            break;
+
+        case PERIOD:
+            readPlain(Period.class.getSimpleName(), assignment, builder);
+            break;
+
+        case SHORT_BOXED:
+        case SHORT_UNBOXED:
+            readPlain("Short", assignment, builder);
+            break;
+
+        case STRING:
+            readPlain("String", assignment, builder);
+            break;
+
+        case YEAR:
+            readPlain(Year.class.getSimpleName(), assignment, builder);
+            break;
+
+        case YEAR_MONTH:
+            readPlain(YearMonth.class.getSimpleName(), assignment, builder);
+            break;
+
+        case ZONED_DATE_TIME:
+            readPlain(ZonedDateTime.class.getSimpleName(), assignment, builder);
+            break;
+
+        case ZONE_ID:
+            readPlain(ZoneId.class.getSimpleName(), assignment, builder);
+            break;
+
+        case ZONE_OFFSET:
+            readPlain(ZoneOffset.class.getSimpleName(), assignment, builder);
+            break;
+
+        default:
+            throw new IllegalStateException("Unexpected type: " + type);
+        }
+    }
+
+    // Arrays of indefinite length are read into arrays that grow as needed.
+    private void readArray(final DtoSequence type, final Expander assignment, final MethodSpec.Builder builder) {
+        final var element = type.element();
+
+        builder
+            .addStatement("var n$L = decoder.readArrayHeader()", level)
+            .addStatement("var items$1L = new $2T[n$1L < 0 ? 8 : n$1L]", level, element.inputTypeName())
+            .addStatement("var i$L = 0", level)
+            .beginControlFlow("for (; decoder.hasMore(n$1L); --n$1L, ++i$1L)", level)
+            .beginControlFlow("if (i$1L == items$1L.length)", level)
+            .addStatement("items$1L = $2T.copyOf(items$1L, i$1L * 2)", level, Arrays.class)
+            .endControlFlow();
+
+        final var leader = "items" + level + "[i" + level + "] = ";
+        level += 1;
+        readValue(element, x -> leader + x, builder);
+        level -= 1;
+
+        builder
+            .endControlFlow()
+            .addStatement(assignment.expand("i$1L == items$1L.length ? items$1L : $2T.copyOf(items$1L, i$1L)"),
+                level, Arrays.class);
+    }
+
+    private void readInterface(final DtoInterface type, final Expander assignment, final MethodSpec.Builder builder) {
+        if (!type.isReadable(DtoEncoding.CBOR)) {
+            throw new IllegalStateException(type.simpleName() + " is not annotated with " +
+                "@DtoReadableAs, or lacks DataEncoding.CBOR as annotation argument");
+        }
+        builder.addStatement(assignment.expand("$T.readCbor(decoder)"), type.inputTypeName());
+    }
+
+    private void readList(final DtoSequence type, final Expander assignment, final MethodSpec.Builder builder) {
+        final var element = type.element();
+
+        builder
+            .addStatement("var n$L = decoder.readArrayHeader()", level)
+            .addStatement("final var items$1L = new $2T<$3T>(n$1L < 0 ? 8 : n$1L)",
+                level, ArrayList.class, element.inputTypeName())
+            .beginControlFlow("for (; decoder.hasMore(n$1L); --n$1L)", level);
+
+        final var leader = "items" + level + ".add(";
+        level += 1;
+        readValue(element, x -> leader + x + ")", builder);
+        level -= 1;
+
+        builder
+            .endControlFlow()
+            .addStatement(assignment.expand("items$L"), level);
+    }
+
+    private void readMap(final DtoMap type, final Expander assignment, final MethodSpec.Builder builder) {
+        final var key = type.key();
+        final var value = type.value();
+
+        builder
+            .addStatement("var n$L = decoder.readMapHeader()", level)
+            .addStatement("final var entries$1L = new $2T<$3T, $4T>(n$1L < 0 ? 8 : n$1L)",
+                level, HashMap.class, key.inputTypeName(), value.inputTypeName())
+            .beginControlFlow("for (; decoder.hasMore(n$1L); --n$1L)", level)
+            .addStatement("final var key$L = decoder.readString()", level);
+
+        final var leader = "final var value" + level + " = ";
+        level += 1;
+        readValue(value, x -> leader + x, builder);
+        level -= 1;
+
+        if (key.descriptor() == DtoDescriptor.ENUM) {
+            builder.addStatement("entries$1L.put($2T.valueOf(key$1L), value$1L)", level, key.inputTypeName());
+        }
+        else {
+            builder.addStatement("entries$1L.put(key$1L, value$1L)", level);
+        }
+
+        builder
+            .endControlFlow()
+            .addStatement(assignment.expand("entries$L"), level);
+    }
+
+    private void readPlain(final String type, final Expander assignment, final MethodSpec.Builder builder) {
+        builder.addStatement(assignment.expand("decoder.read" + type + "()"));
+    }
+
+    private void implementWriteMethodFor(final DtoTarget target, final TypeSpec.Builder implementation)
+        throws DtoException
+    {
+        final var builder = MethodSpec.methodBuilder("writeCbor")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addException(DtoWriteException.class)
+            .addParameter(ParameterSpec.builder(TypeName.get(BinaryWriter.class), "target")
+                .addModifiers(Modifier.FINAL)
+                .build());
+
+        // Optional properties and empty collections are left out, just as
+        // when writing JSON, which means that the map size may have to be
+        // determined at runtime.
+        final var properties = target.properties();
+        var size = 0;
+        for (final var property : properties) {
+            if (!property.isOptional() && !property.descriptor().isCollection()) {
+                size += 1;
+            }
+        }
+        if (size == properties.size()) {
+            builder.addStatement("$T.writeMapHeader($L, target)", CborWrite.class, size);
+        }
+        else {
+            builder.addStatement("var size = $L", size);
+            for (final var property : properties) {
+                if (property.isOptional() || property.descriptor().isCollection()) {
+                    builder
+                        .beginControlFlow("if ($L)", conditionFor(property))
+                        .addStatement("size += 1")
+                        .endControlFlow();
+                }
+            }
+            builder.addStatement("$T.writeMapHeader(size, target)", CborWrite.class);
+        }
+
+        for (var i = 0; i < properties.size(); ++i) {
+            final var property = properties.get(i);
+            final var isConditional = property.isOptional() || property.descriptor().isCollection();
+            try {
+                implementation.addField(FieldSpec.builder(byte[].class, "CBOR_KEY_" + i)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$T.encode($S)", CborWrite.class, property.nameFor(DtoEncoding.CBOR))
+                    .build());
+
+                if (isConditional) {
+                    builder.beginControlFlow("if ($L)", conditionFor(property));
+                }
+                builder.addStatement("target.write(CBOR_KEY_$L)", i);
+                writeValue(property.type(), property.name(), builder);
+                if (isConditional) {
+                    builder.endControlFlow();
+                }
+            }
+            catch (final IllegalStateException exception) {
+                throw new DtoException(property.parentElement(), exception.getMessage());
+            }
+        }
+
+        implementation.addMethod(builder.build());
+    }
+
+    private String conditionFor(final DtoProperty property) {
+        final var name = property.name();
+        if (property.isOptional()) {
+            return name + " != null";
+        }
+        if (property.descriptor() == DtoDescriptor.ARRAY) {
+            return name + ".length != 0";
+        }
+        return "!" + name + ".isEmpty()";
+    }
+
+    private void writeValue(final DtoType type, final String name, final MethodSpec.Builder builder) {
+        final var descriptor = type.descriptor();
+        switch (descriptor) {
+        case ARRAY:
+        case LIST:
+            writeArray(type, name, builder);
+            break;
+
+        case BOOLEAN_BOXED:
+        case BOOLEAN_UNBOXED:
+        case BIG_DECIMAL:
+        case BIG_INTEGER:
+        case BYTE_BOXED:
+        case BYTE_UNBOXED:
+        case DOUBLE_BOXED:
+        case DOUBLE_UNBOXED:
+        case FLOAT_BOXED:
+        case FLOAT_UNBOXED:
+        case INTEGER_BOXED:
+        case INTEGER_UNBOXED:
+        case LONG_BOXED:
+        case LONG_UNBOXED:
+        case SHORT_BOXED:
+        case SHORT_UNBOXED:
+        case STRING:
+            builder.addStatement("$T.write($N, target)", CborWrite.class, name);
+            break;
+
+        case CHARACTER_BOXED:
+        case CHARACTER_UNBOXED:
+            throw characterTypesNotSupportedException();
+
+        case CUSTOM:
+            throw customTypesNotSupportedException(type);
+
+        case DURATION:
+        case ENUM:
+        case INSTANT:
+        case MONTH_DAY:
+        case OFFSET_DATE_TIME:
+        case OFFSET_TIME:
+        case PERIOD:
+        case YEAR:
+        case YEAR_MONTH:
+        case ZONED_DATE_TIME:
+        case ZONE_ID:
+        case ZONE_OFFSET:
+            builder.addStatement("$T.write($N.toString(), target)", CborWrite.class, name);
+            break;
+
+        case INTERFACE:
+            writeInterface((DtoInterface) type, name, builder);
+            break;
+
+        case MAP:
+            writeMap((DtoMap) type, name, builder);
+            break;
+
+        default:
+            throw new IllegalStateException("Unexpected type: " + type);
+        }
+    }
+
+    private void writeArray(final DtoType type, final String name, final MethodSpec.Builder builder) {
+        builder
+            .addStatement("$T.writeArrayHeader($N.$N, target)", CborWrite.class, name,
+                type.descriptor() == DtoDescriptor.ARRAY ? "length" : "size()")
+            .beginControlFlow("for (final var item$L : $N)", level, name);
+
+        final var itemName = "item" + level;
+        level += 1;
+        writeValue(((DtoSequence) type).element(), itemName, builder);
+        level -= 1;
+
+        builder.endControlFlow();
+    }
+
+    private void writeInterface(final DtoInterface type, final String name, final MethodSpec.Builder builder) {
+        if (!type.isWritable(DtoEncoding.CBOR)) {
+            throw new IllegalStateException(type.simpleName() + " is not " +
+                "annotated with @DtoWritableAs, or lacks DataEncoding.CBOR as " +
+                "annotation argument");
+        }
+        builder.addStatement("$N.writeCbor(target)", name);
+    }
+
+    private void writeMap(final DtoMap type, final String name, final MethodSpec.Builder builder) {
+        builder
+            .addStatement("$T.writeMapHeader($N.size(), target)", CborWrite.class, name)
+            .beginControlFlow("for (final var entry$L : $N.entrySet())", level, name);
+
+        writeValue(type.key(), "entry" + level + ".getKey()", builder);
+
+        final var valueName = "entry" + level + ".getValue()";
+        level += 1;
+        writeValue(type.value(), valueName, builder);
+        level -= 1;
+
+        builder.endControlFlow();
+    }
+
+    private static IllegalStateException characterTypesNotSupportedException() {
+        return new IllegalStateException("The char and Character types " +
+            "cannot be represented as CBOR; either change the type or " +
+            "remove DataEncoding.CBOR from the array of encodings " +
+            "provided to the @DtoReadableAs/@DtoWritableAs annotation(s)");
+    }
+
+    private static IllegalStateException customTypesNotSupportedException(final DtoType type) {
+        return new IllegalStateException("The " + type.inputTypeName() + " type " +
+            "cannot be represented as CBOR; either change the type or " +
+            "remove DataEncoding.CBOR from the array of encodings " +
+            "provided to the @DtoReadableAs/@DtoWritableAs annotation(s)");
+    }
+}
@@ -1,5 +1,6 @@
 package se.arkalix.dto;
 
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.TypeName;
@@ -17,9 +18,12 @@ import se.arkalix.internal.dto.json.JsonWrite;
 import se.arkalix.util.annotation.Internal;
 
 import javax.lang.model.element.Modifier;
+import java.nio.charset.StandardCharsets;
 import java.time.*;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
 
 public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
     private final BinaryWriterWriteCache writeCache = new BinaryWriterWriteCache("target");
@@ -53,7 +57,9 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
             .returns(dataTypeName)
             .addParameter(BinaryReader.class, "source", Modifier.FINAL)
             .addException(DtoReadException.class)
-            .addStatement("return readJson($T.tokenize(source))", JsonTokenizer.class)
+            .beginControlFlow("try (final var buffer = $T.tokenize(source))", JsonTokenizer.class)
+            .addStatement("return readJson(buffer)")
+            .endControlFlow()
             .build());
 
         final var builder = MethodSpec.methodBuilder("readJson")
@@ -62,7 +68,6 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
             .addParameter(JsonTokenBuffer.class, "buffer", Modifier.FINAL)
             .addException(DtoReadException.class)
             .addAnnotation(Internal.class)
-            .addStatement("final var source = buffer.source()")
             .addStatement("var token = buffer.next()")
             .addStatement("var type = ($T) null", JsonType.class)
             .addStatement("var errorMessage = \"\"")
@@ -83,17 +88,18 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
 
         final var builderName = target.interfaceType().simpleName() + "Builder";
         builder
-            .beginControlFlow("if (token.type() != $T.OBJECT)", JsonType.class)
+            .beginControlFlow("if (buffer.type(token) != $T.OBJECT)", JsonType.class)
             .addStatement("errorMessage = \"Expected object\"")
             .addStatement("break error")
             .endControlFlow()
             .addStatement("final var builder = new $N()", builderName)
-            .beginControlFlow("for (n = token.nChildren(); n != 0; --n)")
-            .beginControlFlow("switch (buffer.next().readString(source))");
+            .beginControlFlow("for (n = buffer.nChildren(token); n != 0; --n)")
+            .beginControlFlow("switch (readJsonKey(buffer, buffer.next()))");
 
-        for (final var property : properties) {
+        for (var i = 0; i < properties.size(); ++i) {
+            final var property = properties.get(i);
             try {
-                builder.beginControlFlow("case $S:", property.nameFor(DtoEncoding.JSON));
+                builder.beginControlFlow("case $L:", i);
                 final var name = property.name();
                 readValue(property.type(), x -> "builder." + name + "(" + x + ")", builder);
                 builder.endControlFlow("break");
@@ -147,10 +153,62 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
         builder
             .addStatement("final var atEnd = n == 0")
             .addStatement("throw new $1T($2T.JSON, errorMessage, atEnd " +
-                    "? \"{\" : token.readStringRaw(source), atEnd ? 0 : token.begin(), errorCause)",
+                    "? \"{\" : buffer.readStringRaw(token), atEnd ? 0 : buffer.begin(token), errorCause)",
                 DtoReadException.class, DtoEncoding.class);
 
         implementation.addMethod(builder.build());
+
+        implementReadKeyMethodFor(properties, implementation);
+    }
+
+    // Unescaped keys are matched by hash and raw bytes, avoiding decoding.
+    private void implementReadKeyMethodFor(
+        final List<DtoProperty> properties,
+        final TypeSpec.Builder implementation)
+    {
+        final var builder = MethodSpec.methodBuilder("readJsonKey")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .returns(int.class)
+            .addParameter(JsonTokenBuffer.class, "buffer", Modifier.FINAL)
+            .addParameter(int.class, "token", Modifier.FINAL)
+            .addException(DtoReadException.class)
+            .beginControlFlow("if (buffer.isEscaped(token))")
+            .beginControlFlow("switch (buffer.readString(token))");
+
+        final var hashToIndexes = new TreeMap<Integer, List<Integer>>();
+        for (var i = 0; i < properties.size(); ++i) {
+            final var name = properties.get(i).nameFor(DtoEncoding.JSON);
+            final var bytes = name.getBytes(StandardCharsets.UTF_8);
+            implementation.addField(FieldSpec.builder(byte[].class, "JSON_KEY_" + i)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$S.getBytes($T.UTF_8)", name, StandardCharsets.class)
+                .build());
+            builder.addStatement("case $S: return $L", name, i);
+            hashToIndexes.computeIfAbsent(JsonTokenBuffer.hash(bytes), ignored -> new ArrayList<>()).add(i);
+        }
+
+        builder
+            .addStatement("default: return -1")
+            .endControlFlow()
+            .endControlFlow()
+            .beginControlFlow("switch (buffer.hashRaw(token))");
+
+        for (final var entry : hashToIndexes.entrySet()) {
+            builder.beginControlFlow("case $L:", entry.getKey());
+            for (final var index : entry.getValue()) {
+                builder
+                    .beginControlFlow("if (buffer.equalsRaw(token, JSON_KEY_$L))", index)
+                    .addStatement("return $L", index)
+                    .endControlFlow();
+            }
+            builder.endControlFlow("break");
+        }
+
+        builder
+            .endControlFlow()
+            .addStatement("return -1");
+
+        implementation.addMethod(builder.build());
     }
 
     private void readValue(final DtoType type, final Expander assignment, final MethodSpec.Builder builder) {
@@ -283,7 +341,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
 
         builder
             .addStatement("token = buffer.next()")
-            .addStatement("type = token.type()");
+            .addStatement("type = buffer.type(token)");
         if (level == 0) {
             builder
                 .beginControlFlow("if (type == $T.NULL)", JsonType.class)
@@ -299,7 +357,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
         final Expander assignment0;
         if (type.descriptor() == DtoDescriptor.ARRAY) {
             builder
-                .addStatement("final var items$L = new $T[token.nChildren()]", level, elementTypeName)
+                .addStatement("final var items$L = new $T[buffer.nChildren(token)]", level, elementTypeName)
                 .beginControlFlow("for (var i$1L = 0; i$1L < items$1L.length; ++i$1L)", level);
 
             final var leader = "items" + level + "[i" + level + "] = ";
@@ -307,7 +365,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
         }
         else {
             builder
-                .addStatement("var n$L = token.nChildren()", level)
+                .addStatement("var n$L = buffer.nChildren(token)", level)
                 .addStatement("final var items$1L = new $2T<$3T>(n$1L)", level, ArrayList.class, elementTypeName)
                 .beginControlFlow("while (n$1L-- != 0)", level);
 
@@ -327,7 +385,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
     private void readBoolean(final Expander assignment, final MethodSpec.Builder builder) {
         builder
             .addStatement("boolean value$L", level)
-            .beginControlFlow("switch (buffer.next().type())")
+            .beginControlFlow("switch (buffer.type(buffer.next()))")
             .addStatement("case TRUE: value$L = true; break", level)
             .addStatement("case FALSE: value$L = false; break", level);
         if (level == 0) {
@@ -345,7 +403,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
     private void readCustom(final DtoElement type, final Expander assignment, final MethodSpec.Builder builder) {
         if (level == 0) {
             builder
-                .beginControlFlow("if (buffer.peek().type() == $T.NULL)", JsonType.class)
+                .beginControlFlow("if (buffer.type(buffer.peek()) == $T.NULL)", JsonType.class)
                 .addStatement("buffer.skipElement()")
                 .addStatement("continue")
                 .endControlFlow();
@@ -357,7 +415,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
     private void readEnum(final DtoType type, final Expander assignment, final MethodSpec.Builder builder) {
         builder
             .addStatement("token = buffer.next()")
-            .addStatement("type = token.type()");
+            .addStatement("type = buffer.type(token)");
         if (level == 0) {
             builder
                 .beginControlFlow("if (type == $T.NULL)", JsonType.class)
@@ -369,7 +427,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
             .addStatement("errorMessage = \"Expected number\"")
             .addStatement("break error")
             .endControlFlow()
-            .addStatement(assignment.expand("$T.valueOf(token.readString(source))"), type.inputTypeName());
+            .addStatement(assignment.expand("$T.valueOf(buffer.readString(token))"), type.inputTypeName());
     }
 
     private void readInterface(final DtoInterface type, final Expander assignment, final MethodSpec.Builder builder) {
@@ -380,7 +438,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
 
         if (level == 0) {
             builder
-                .beginControlFlow("if (buffer.peek().type() == $T.NULL)", JsonType.class)
+                .beginControlFlow("if (buffer.type(buffer.peek()) == $T.NULL)", JsonType.class)
                 .addStatement("buffer.skipElement()")
                 .addStatement("continue")
                 .endControlFlow();
@@ -395,7 +453,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
 
         builder
             .addStatement("token = buffer.next()")
-            .addStatement("type = token.type()");
+            .addStatement("type = buffer.type(token)");
         if (level == 0) {
             builder
                 .beginControlFlow("if (type == $T.NULL)", JsonType.class)
@@ -407,11 +465,11 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
             .addStatement("errorMessage = \"Expected object\"")
             .addStatement("break error")
             .endControlFlow()
-            .addStatement("var n$L = token.nChildren()", level)
+            .addStatement("var n$L = buffer.nChildren(token)", level)
             .addStatement("final var entries$1L = new $2T<$3T, $4T>(n$1L)",
                 level, HashMap.class, key.inputTypeName(), value.inputTypeName())
             .beginControlFlow("while (n$L-- != 0)", level)
-            .addStatement("final var key$L = buffer.next().readString(source)", level);
+            .addStatement("final var key$L = buffer.readString(buffer.next())", level);
 
         final var leader = "final var value" + level + " = ";
         level += 1;
@@ -433,7 +491,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
     private void readNumber(final String type, final Expander assignment, final MethodSpec.Builder builder) {
         builder
             .addStatement("token = buffer.next()")
-            .addStatement("type = token.type()");
+            .addStatement("type = buffer.type(token)");
         if (level == 0) {
             builder
                 .beginControlFlow("if (type == $T.NULL)", JsonType.class)
@@ -445,13 +503,13 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
             .addStatement("errorMessage = \"Expected number\"")
             .addStatement("break error")
             .endControlFlow()
-            .addStatement(assignment.expand("token.read" + type + "(source)"));
+            .addStatement(assignment.expand("buffer.read" + type + "(token)"));
     }
 
     private void readString(final Expander assignment, final MethodSpec.Builder builder) {
         builder
             .addStatement("token = buffer.next()")
-            .addStatement("type = token.type()");
+            .addStatement("type = buffer.type(token)");
         if (level == 0) {
             builder
                 .beginControlFlow("if (type == $T.NULL)", JsonType.class)
@@ -463,7 +521,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
             .addStatement("errorMessage = \"Expected string\"")
             .addStatement("break error")
             .endControlFlow()
-            .addStatement(assignment.expand("token.readString(source)"));
+            .addStatement(assignment.expand("buffer.readString(token)"));
     }
 
     public void readTemporal(
@@ -475,9 +533,9 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
         if (asNumber) {
             builder
                 .addStatement("$T value$L", class_, level)
-                .beginControlFlow("switch (token.type())")
-                .addStatement("case NUMBER: value$L = token.read$TNumber(source); break", level, class_)
-                .addStatement("case STRING: value$L = token.read$T(source); break", level, class_);
+                .beginControlFlow("switch (buffer.type(token))")
+                .addStatement("case NUMBER: value$L = buffer.read$TNumber(token); break", level, class_)
+                .addStatement("case STRING: value$L = buffer.read$T(token); break", level, class_);
             if (level == 0) {
                 builder.addStatement("case NULL: continue");
             }
@@ -487,7 +545,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
                 .addStatement(assignment.expand("value$L"), level);
         }
         else {
-            builder.addStatement("type = token.type()");
+            builder.addStatement("type = buffer.type(token)");
             if (level == 0) {
                 builder
                     .beginControlFlow("if (type == $T.NULL)", JsonType.class)
@@ -499,7 +557,7 @@ public class DtoSpecificationEncodingJson implements DtoSpecificationEncoding {
                 .addStatement("errorMessage = \"Expected string\"")
                 .addStatement("break error")
                 .endControlFlow()
-                .addStatement(assignment.expand("token.read$T(source)"), class_);
+                .addStatement(assignment.expand("buffer.read$T(token)"), class_);
         }
     }
 